@@ -35,9 +35,18 @@ public class MinDist implements DistanceMeasure {
     public double calculateDistance(double[] value1, double[] value2) {
         // value1 and value2 are mappings values of the attributes
         // in our case, there should be only one nominal attribute (inputAttribute)
+        return minDist(value1[0], value2[0]);
+    }
 
-        String s1 = inputAttribute.getMapping().mapIndex((int) value1[0]);
-        String s2 = inputAttribute.getMapping().mapIndex((int) value2[0]);
+    /**
+     *
+     * @param value1 mapping value of the first SAX word
+     * @param value2 mapping value of the second SAX word
+     * @return
+     */
+    private double minDist(double value1, double value2) {
+        String s1 = inputAttribute.getMapping().mapIndex((int) value1);
+        String s2 = inputAttribute.getMapping().mapIndex((int) value2);
 
         double distance;
         try {
@@ -47,7 +56,7 @@ public class MinDist implements DistanceMeasure {
             distance = Double.NaN;
         }
 
-//        System.out.println(value1[0]+ " " + value2[0]+ " " +s1+" "+s2 + " "+distance);
+//        System.out.println(value1+ " " + value2+ " " +s1+" "+s2 + " "+distance);
 
         return distance;
     }
@@ -139,6 +148,21 @@ public class MinDist implements DistanceMeasure {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
 
+    @Override
+    public double measure(double[] x, double[] y) {
+        return calculateDistance(x, y);
+    }
+
+    @Override
+    public double measure(double[] data, int offA, int offB, int dim) {
+        return minDist(data[offA], data[offB]);
+    }
+
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        return minDist(x[offX], y[offY]);
+    }
+
     @Override
     public boolean isSubadditive() {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -13,8 +13,14 @@ import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
-import org.clueminer.graph.adjacencyMatrix.AdjMatrixGraph;
+import org.clueminer.graph.adjacencyList.AdjListFactory;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.GraphFactory;
 import org.clueminer.graph.api.Node;
+import org.clueminer.partitioning.api.Bisection;
+import org.clueminer.partitioning.api.Partitioning;
+import org.clueminer.partitioning.impl.FloodFill;
+import org.clueminer.partitioning.impl.KernighanLin;
 import org.clueminer.partitioning.impl.KernighanLinRecursive;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
@@ -26,6 +32,11 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = ClusteringAlgorithm.class)
 public class Chameleon extends AbstractClusteringAlgorithm implements AgglomerativeClustering {
 
+    /**
+     * Number of threads used by the algorithm
+     */
+    public static final String THREADS = "threads";
+
     /**
      * Number of neighbors for each node in k-NN algorithm
      */
@@ -46,6 +57,30 @@ public class Chameleon extends AbstractClusteringAlgorithm implements Agglomerat
 
     MergingStrategy mergeStrategy;
 
+    /**
+     * Factory of k-NN graph, by default sparse graph is used
+     */
+    GraphFactory graphFactory;
+
+    /**
+     * Bisection used for partitioning and computing properties of clusters,
+     * when not set Kernighan-Lin is used
+     */
+    Bisection bisection;
+
+    /**
+     * Algorithm of the first phase which splits the graph into a given number
+     * of partitions, when not set the graph is recursively bisected
+     */
+    Partitioning partitioning;
+
+    /**
+     * Number of threads, k-NN graph, partitioning and properties of initial
+     * clusters are computed in parallel. Result doesn't depend on number of
+     * threads.
+     */
+    int threads;
+
     public Chameleon() {
         this(-1, -1, true, MergingStrategy.PAIR);
     }
@@ -69,6 +104,86 @@ public class Chameleon extends AbstractClusteringAlgorithm implements Agglomerat
         this.weightedPartitioning = weightedPartitioning;
         this.mergeStrategy = mergeStrategy;
         distanceMeasure = new EuclideanDistance();
+        graphFactory = AdjListFactory.getInstance();
+        threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    public GraphFactory getGraphFactory() {
+        return graphFactory;
+    }
+
+    /**
+     * Select graph implementation
+     *
+     * @param graphFactory
+     */
+    public void setGraphFactory(GraphFactory graphFactory) {
+        this.graphFactory = graphFactory;
+    }
+
+    public Bisection getBisection() {
+        return bisection;
+    }
+
+    /**
+     * Select bisection algorithm (e.g.
+     * {@link org.clueminer.partitioning.impl.FiducciaMattheyses})
+     *
+     * @param bisection
+     */
+    public void setBisection(Bisection bisection) {
+        this.bisection = bisection;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    /**
+     * Select partitioning which produces given number of partitions (e.g.
+     * {@link org.clueminer.partitioning.impl.MultilevelPartitioning}), number
+     * of partitions is derived from maximal partition size
+     *
+     * @param partitioning
+     */
+    public void setPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Split graph into small connected partitions
+     *
+     * @param g
+     * @param threads
+     * @return
+     */
+    private ArrayList<LinkedList<Node>> partition(Graph g, int threads) {
+        if (partitioning == null) {
+            KernighanLinRecursive klr;
+            if (bisection == null) {
+                klr = new KernighanLinRecursive(weightedPartitioning);
+            } else {
+                klr = new KernighanLinRecursive(bisection);
+            }
+            klr.setThreads(threads);
+            return klr.partition(maxPartitionSize, g);
+        }
+        int parts = (int) Math.ceil(g.getNodeCount() / (double) maxPartitionSize);
+        partitioning.partition(parts, g);
+        FloodFill f = new FloodFill();
+        return f.findSubgraphs(partitioning.removeUnusedEdges());
+    }
+
+    private Bisection mergerBisection() {
+        return bisection != null ? bisection : new KernighanLin();
     }
 
     @Override
@@ -94,25 +209,29 @@ public class Chameleon extends AbstractClusteringAlgorithm implements Agglomerat
     @Override
     public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset) {
         KNN knn = new KNN(k);
+        knn.setThreads(threads);
 
-        AdjMatrixGraph g = new AdjMatrixGraph(dataset.size());
-        g = (AdjMatrixGraph) knn.getNeighborGraph(dataset, g);
+        Graph g = graphFactory.newGraph(dataset.size());
+        g = knn.getNeighborGraph(dataset, g);
 
-        KernighanLinRecursive klr = new KernighanLinRecursive(weightedPartitioning);
-        ArrayList<LinkedList<Node>> partitioningResult = klr.partition(maxPartitionSize, g);
+        ArrayList<LinkedList<Node>> partitioningResult = partition(g, threads);
 
         Merger m;
 
         switch (mergeStrategy) {
             case MULTIPLE:
-                m = new MultipleMerger(g);
+                m = new MultipleMerger(g, mergerBisection());
                 break;
             case PAIR:
-                m = new PairMerger(g);
+                m = new PairMerger(g, mergerBisection());
+                break;
+            case HEAP:
+                m = new HeapMerger(g, mergerBisection());
                 break;
             default:
-                m = new MultipleMerger(g);
+                m = new MultipleMerger(g, mergerBisection());
         }
+        m.setThreads(threads);
 
         //Number of merges will be decided from hierarchical result
         m.merge(partitioningResult, 10);
@@ -123,22 +242,30 @@ public class Chameleon extends AbstractClusteringAlgorithm implements Agglomerat
 
     @Override
     public HierarchicalResult hierarchy(Dataset<? extends Instance> dataset, Props pref) {
+        int numThreads = threads;
         if (pref != null) {
             AgglParams params = new AgglParams(pref);
             if (!params.clusterRows()) {
                 return null;
             }
+            numThreads = Math.max(1, pref.getInt(THREADS, threads));
         }
 
         KNN knn = new KNN(k);
+        knn.setThreads(numThreads);
 
-        AdjMatrixGraph g = new AdjMatrixGraph(dataset.size());
-        g = (AdjMatrixGraph) knn.getNeighborGraph(dataset, g);
+        Graph g = graphFactory.newGraph(dataset.size());
+        g = knn.getNeighborGraph(dataset, g);
 
-        KernighanLinRecursive klr = new KernighanLinRecursive(weightedPartitioning);
-        ArrayList<LinkedList<Node>> partitioningResult = klr.partition(maxPartitionSize, g);
+        ArrayList<LinkedList<Node>> partitioningResult = partition(g, numThreads);
 
-        PairMerger m = new PairMerger(g);
+        if (mergeStrategy == MergingStrategy.HEAP) {
+            HeapMerger m = new HeapMerger(g, mergerBisection());
+            m.setThreads(numThreads);
+            return m.getHierarchy(partitioningResult, dataset);
+        }
+        PairMerger m = new PairMerger(g, mergerBisection());
+        m.setThreads(numThreads);
 
         return m.getHierarchy(partitioningResult, dataset);
     }
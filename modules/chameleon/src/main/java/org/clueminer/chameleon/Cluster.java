@@ -2,7 +2,6 @@ package org.clueminer.chameleon;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
-import org.clueminer.graph.adjacencyMatrix.AdjMatrixGraph;
 import org.clueminer.graph.api.Graph;
 import org.clueminer.graph.api.Node;
 import org.clueminer.partitioning.api.Bisection;
@@ -84,7 +83,7 @@ public class Cluster {
      */
     private Graph buildGraphFromCluster(LinkedList<Node> n, Graph g) {
         ArrayList<Node> nodes = new ArrayList<>(n);
-        graph = new AdjMatrixGraph(nodes.size());
+        graph = g.getFactory().newGraph(nodes.size());
         for (Node node : nodes) {
             graph.addNode(node);
         }
@@ -0,0 +1,504 @@
+package org.clueminer.chameleon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import org.clueminer.clustering.algorithm.HClustResult;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.Node;
+import org.clueminer.hclust.DClusterLeaf;
+import org.clueminer.hclust.DTreeNode;
+import org.clueminer.hclust.DynamicClusterTreeData;
+import org.clueminer.partitioning.api.Bisection;
+
+/**
+ * Merges two most similar clusters at each step, same as {@link PairMerger},
+ * but pairs of adjacent clusters are kept in an indexed heap ordered by
+ * similarity. External properties are stored only for adjacent clusters and
+ * after a merge only similarities to neighbors of the merged cluster are
+ * recomputed. A single merge then takes O(d log p) time (d is number of
+ * neighbors of the merged clusters, p number of adjacent pairs) instead of
+ * O(c^2) in {@link PairMerger}.
+ *
+ * By default the merged cluster is bisected again to compute its internal
+ * properties, which (on a connected graph) gives the same result as
+ * {@link PairMerger}. With exact properties disabled, the properties are
+ * updated incrementally - the boundary between the two merged clusters is
+ * used as its bisection (IIC and ICL of the new cluster are EIC and ECL of the
+ * merged pair). That's faster, but only an approximation which might change
+ * order of merges.
+ *
+ * @author Tomas Barton
+ */
+public class HeapMerger extends Merger {
+
+    private static final int NIL = -1;
+
+    DendroNode[] nodes;
+
+    int idCounter;
+
+    double height;
+
+    /**
+     * Whether properties of merged clusters are computed by bisection
+     */
+    private boolean exactProperties = true;
+
+    //properties of clusters, indexed by initial position in cluster list
+    private int[] size;
+    private double[] iic;
+    private double[] icl;
+    private int[] treeId;
+    private boolean[] active;
+    private ArrayList<LinkedList<Node>> members;
+
+    //adjacent clusters, neighbors of cluster c are nbr[c][0 .. deg[c] - 1]
+    private int[][] nbr;
+    //slot of the pair with corresponding neighbor
+    private int[][] nbrSlot;
+    private int[] deg;
+    //marker for looking up pair slot of a neighbor
+    private int[] mark;
+
+    //pairs of adjacent clusters (indexed by slot)
+    private int[] pairFirst;
+    private int[] pairSecond;
+    private double[] pairEIC;
+    private int[] pairCount;
+    private double[] pairSim;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+
+    //max-heap of pair slots, heapPos is position of slot in the heap
+    private int[] heap;
+    private int[] heapPos;
+    private int heapSize;
+
+    public HeapMerger(Graph g) {
+        super(g);
+    }
+
+    public HeapMerger(Graph g, Bisection bisection) {
+        super(g, bisection);
+    }
+
+    public boolean isExactProperties() {
+        return exactProperties;
+    }
+
+    /**
+     * When enabled (default), internal properties of each merged cluster are
+     * computed by bisection (same as in {@link PairMerger}), otherwise they
+     * are approximated by properties of the merged pair
+     *
+     * @param exactProperties
+     */
+    public void setExactProperties(boolean exactProperties) {
+        this.exactProperties = exactProperties;
+    }
+
+    @Override
+    ArrayList<LinkedList<Node>> merge(ArrayList<LinkedList<Node>> clusterList, int mergeCount) {
+        initialize(clusterList);
+        initiateTree(clusterList);
+        for (int i = 0; i < mergeCount && i < clusterList.size() - 1; i++) {
+            singleMerge();
+        }
+        return getResult();
+    }
+
+    public HierarchicalResult getHierarchy(ArrayList<LinkedList<Node>> clusterList, Dataset<? extends Instance> dataset) {
+        initialize(clusterList);
+        initiateTree(clusterList);
+        HierarchicalResult result = new HClustResult(dataset);
+
+        for (int i = 0; i < clusterList.size() - 1; i++) {
+            singleMerge();
+        }
+
+        DendroTreeData treeData = new DynamicClusterTreeData(nodes[2 * clusterList.size() - 2]);
+        treeData.createMapping(dataset.size(), treeData.getRoot());
+
+        result.setTreeData(treeData);
+        return result;
+    }
+
+    /**
+     * Computes internal properties of initial clusters and external
+     * properties of adjacent clusters, builds the heap
+     *
+     * @param clusterList
+     */
+    private void initialize(ArrayList<LinkedList<Node>> clusterList) {
+        createClusters(clusterList, bisection);
+        int c = clusterCount;
+        size = new int[c];
+        iic = new double[c];
+        icl = new double[c];
+        treeId = new int[c];
+        active = new boolean[c];
+        members = new ArrayList<>(c);
+        nbr = new int[c][];
+        nbrSlot = new int[c][];
+        deg = new int[c];
+        mark = new int[c];
+        Arrays.fill(mark, NIL);
+        for (int i = 0; i < c; i++) {
+            Cluster cluster = clusters.get(i);
+            size[i] = cluster.graph.getNodeCount();
+            iic[i] = cluster.IIC;
+            icl[i] = cluster.ICL;
+            treeId[i] = i;
+            active[i] = true;
+            members.add(new LinkedList<>(clusterList.get(i)));
+            nbr[i] = new int[4];
+            nbrSlot[i] = new int[4];
+        }
+        int cap = Math.max(16, 2 * c);
+        pairFirst = new int[cap];
+        pairSecond = new int[cap];
+        pairEIC = new double[cap];
+        pairCount = new int[cap];
+        freeSlots = new int[cap];
+        freeCount = 0;
+        slotCount = 0;
+
+        Iterator<Edge> edges = graph.getEdges().iterator();
+        int first, second, slot;
+        while (edges.hasNext()) {
+            Edge edge = edges.next();
+            first = nodeToCluster[graph.getIndex(edge.getSource())];
+            second = nodeToCluster[graph.getIndex(edge.getTarget())];
+            if (first != second) {
+                slot = findSlot(first, second);
+                if (slot == NIL) {
+                    slot = newSlot(first, second);
+                }
+                pairEIC[slot] += edge.getWeight();
+                pairCount[slot]++;
+            }
+        }
+
+        pairSim = new double[pairFirst.length];
+        heap = new int[pairFirst.length];
+        heapPos = new int[pairFirst.length];
+        heapSize = 0;
+        for (slot = 0; slot < slotCount; slot++) {
+            pairSim[slot] = computeSimilarity(slot);
+            heapPos[slot] = heapSize;
+            heap[heapSize++] = slot;
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private void initiateTree(ArrayList<LinkedList<Node>> clusterList) {
+        nodes = new DendroNode[(2 * clusterList.size() - 1)];
+        idCounter = clusterList.size();
+        height = 1;
+        for (int i = 0; i < clusterList.size(); i++) {
+            nodes[i] = new DClusterLeaf(i, createInstanceList(clusterList.get(i)));
+            nodes[i].setHeight(0);
+        }
+    }
+
+    private LinkedList<Instance> createInstanceList(LinkedList<Node> cluster) {
+        LinkedList<Instance> out = new LinkedList<>();
+        for (Node node : cluster) {
+            out.add(node.getInstance());
+        }
+        return out;
+    }
+
+    /**
+     * Merges the most similar pair of adjacent clusters, when there are no
+     * adjacent clusters left, first two remaining clusters are merged
+     */
+    private void singleMerge() {
+        int first, second;
+        if (heapSize > 0) {
+            first = Math.min(pairFirst[heap[0]], pairSecond[heap[0]]);
+            second = Math.max(pairFirst[heap[0]], pairSecond[heap[0]]);
+        } else {
+            first = nextActive(0);
+            second = nextActive(first + 1);
+        }
+        //the second cluster is merged into the first one, unless it's bigger
+        if (size[first] < size[second]) {
+            mergeTwoClusters(second, first);
+        } else {
+            mergeTwoClusters(first, second);
+        }
+    }
+
+    private int nextActive(int from) {
+        int i = from;
+        while (!active[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Merges cluster b into cluster a
+     *
+     * @param a
+     * @param b
+     */
+    private void mergeTwoClusters(int a, int b) {
+        addIntoTree(a, b);
+        double eic = 0;
+        int count = 0;
+        int slot = findSlot(a, b);
+        if (slot != NIL) {
+            eic = pairEIC[slot];
+            count = pairCount[slot];
+            removeFromRow(a, b);
+            removeFromRow(b, a);
+            heapRemove(slot);
+            freeSlot(slot);
+        }
+
+        //move pairs of b to a, properties of common neighbors are summed
+        for (int k = 0; k < deg[a]; k++) {
+            mark[nbr[a][k]] = nbrSlot[a][k];
+        }
+        int x, other;
+        for (int k = 0; k < deg[b]; k++) {
+            x = nbr[b][k];
+            slot = nbrSlot[b][k];
+            removeFromRow(x, b);
+            other = mark[x];
+            if (other != NIL) {
+                pairEIC[other] += pairEIC[slot];
+                pairCount[other] += pairCount[slot];
+                heapRemove(slot);
+                freeSlot(slot);
+            } else {
+                //key of the pair changes, it's inserted again afterwards
+                heapRemove(slot);
+                pairFirst[slot] = a;
+                pairSecond[slot] = x;
+                addToRow(a, x, slot);
+                addToRow(x, a, slot);
+                mark[x] = slot;
+            }
+        }
+        for (int k = 0; k < deg[a]; k++) {
+            mark[nbr[a][k]] = NIL;
+        }
+        deg[b] = 0;
+        active[b] = false;
+
+        members.get(a).addAll(members.get(b));
+        members.set(b, null);
+        if (exactProperties) {
+            Cluster cluster = new Cluster(members.get(a), graph, treeId[a]);
+            cluster.computeProperties(bisection);
+            iic[a] = cluster.IIC;
+            icl[a] = cluster.ICL;
+        } else if (count > 0) {
+            //boundary between merged clusters is the bisection of the new one
+            iic[a] = eic;
+            icl[a] = eic / count;
+        } else {
+            //clusters are not connected
+            icl[a] = (size[a] * icl[a] + size[b] * icl[b]) / (size[a] + size[b]);
+            iic[a] += iic[b];
+        }
+        size[a] += size[b];
+        clusterCount--;
+
+        //only similarities with the merged cluster have changed
+        for (int k = 0; k < deg[a]; k++) {
+            slot = nbrSlot[a][k];
+            pairSim[slot] = computeSimilarity(slot);
+            if (heapPos[slot] == NIL) {
+                heapInsert(slot);
+            } else {
+                siftUp(heapPos[slot]);
+                siftDown(heapPos[slot]);
+            }
+        }
+    }
+
+    //Adds node representing new cluster (the one created by merging) to dendroTree
+    private void addIntoTree(int a, int b) {
+        DTreeNode newNode = new DTreeNode(idCounter);
+        newNode.setLeft(nodes[treeId[a]]);
+        newNode.setRight(nodes[treeId[b]]);
+        newNode.setHeight(height++);
+        nodes[idCounter] = newNode;
+        treeId[a] = idCounter++;
+    }
+
+    private double computeSimilarity(int slot) {
+        int a = pairFirst[slot];
+        int b = pairSecond[slot];
+        return similarity(pairEIC[slot], pairEIC[slot] / pairCount[slot], iic[a], icl[a], size[a],
+                iic[b], icl[b], size[b]);
+    }
+
+    /**
+     * Slot of the pair of clusters a and b
+     *
+     * @param a
+     * @param b
+     * @return slot or NIL when clusters are not adjacent
+     */
+    private int findSlot(int a, int b) {
+        if (deg[a] > deg[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        for (int k = 0; k < deg[a]; k++) {
+            if (nbr[a][k] == b) {
+                return nbrSlot[a][k];
+            }
+        }
+        return NIL;
+    }
+
+    private int newSlot(int a, int b) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == pairFirst.length) {
+                int cap = 2 * pairFirst.length;
+                pairFirst = Arrays.copyOf(pairFirst, cap);
+                pairSecond = Arrays.copyOf(pairSecond, cap);
+                pairEIC = Arrays.copyOf(pairEIC, cap);
+                pairCount = Arrays.copyOf(pairCount, cap);
+                freeSlots = Arrays.copyOf(freeSlots, cap);
+            }
+            slot = slotCount++;
+        }
+        pairFirst[slot] = a;
+        pairSecond[slot] = b;
+        pairEIC[slot] = 0;
+        pairCount[slot] = 0;
+        addToRow(a, b, slot);
+        addToRow(b, a, slot);
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void addToRow(int c, int x, int slot) {
+        if (deg[c] == nbr[c].length) {
+            nbr[c] = Arrays.copyOf(nbr[c], 2 * deg[c]);
+            nbrSlot[c] = Arrays.copyOf(nbrSlot[c], 2 * deg[c]);
+        }
+        nbr[c][deg[c]] = x;
+        nbrSlot[c][deg[c]++] = slot;
+    }
+
+    private void removeFromRow(int c, int x) {
+        for (int k = 0; k < deg[c]; k++) {
+            if (nbr[c][k] == x) {
+                deg[c]--;
+                nbr[c][k] = nbr[c][deg[c]];
+                nbrSlot[c][k] = nbrSlot[c][deg[c]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether pair s should be merged before pair t. Ties are broken in the
+     * same order as pairs are scanned by {@link PairMerger}.
+     *
+     * @param s
+     * @param t
+     * @return
+     */
+    private boolean before(int s, int t) {
+        if (pairSim[s] != pairSim[t]) {
+            return pairSim[s] > pairSim[t];
+        }
+        int s1 = Math.max(pairFirst[s], pairSecond[s]);
+        int t1 = Math.max(pairFirst[t], pairSecond[t]);
+        if (s1 != t1) {
+            return s1 < t1;
+        }
+        return Math.min(pairFirst[s], pairSecond[s]) < Math.min(pairFirst[t], pairSecond[t]);
+    }
+
+    private void heapInsert(int slot) {
+        heap[heapSize] = slot;
+        heapPos[slot] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void heapRemove(int slot) {
+        int pos = heapPos[slot];
+        int moved = heap[--heapSize];
+        heapPos[slot] = NIL;
+        if (pos < heapSize) {
+            heap[pos] = moved;
+            heapPos[moved] = pos;
+            siftUp(pos);
+            siftDown(heapPos[moved]);
+        }
+    }
+
+    private void siftUp(int pos) {
+        int slot = heap[pos];
+        int parent;
+        while (pos > 0) {
+            parent = (pos - 1) / 2;
+            if (!before(slot, heap[parent])) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            heapPos[heap[pos]] = pos;
+            pos = parent;
+        }
+        heap[pos] = slot;
+        heapPos[slot] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int slot = heap[pos];
+        int child;
+        while ((child = 2 * pos + 1) < heapSize) {
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], slot)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            heapPos[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = slot;
+        heapPos[slot] = pos;
+    }
+
+    //Creates final output from remaining clusters
+    private ArrayList<LinkedList<Node>> getResult() {
+        ArrayList<LinkedList<Node>> result = new ArrayList<>();
+        for (int i = 0; i < active.length; i++) {
+            if (active[i]) {
+                result.add(new LinkedList<>(members.get(i)));
+            }
+        }
+        return result;
+    }
+
+}
@@ -8,6 +8,7 @@ import org.clueminer.distance.api.DistanceMeasure;
 import org.clueminer.graph.api.Graph;
 import org.clueminer.graph.api.GraphFactory;
 import org.clueminer.graph.api.Node;
+import org.clueminer.knn.KnnGraphBuilder;
 
 /**
  *
@@ -29,6 +30,11 @@ public class KNN {
 
     private DistanceMeasure dm;
 
+    /**
+     * Number of threads used for neighbor search
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
     public KNN() {
         this(3);
     }
@@ -42,6 +48,14 @@ public class KNN {
         this.dm = dm;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
     /**
      * Find k neighbours of all items in the dataset
      *
@@ -53,55 +67,11 @@ public class KNN {
         if (k >= input.size()) {
             throw new RuntimeException("Too many neighbours, not enough nodes in dataset");
         }
-        nearests = new int[input.size()][k];
-        for (int i = 0; i < input.size(); i++) {
-            //put first k neighbours into array and sort them
-            int firsts = k;
-            int index = 0;
-            for (int j = 0; j < firsts; j++) {
-                //skip self as neighbour
-                if (i == j) {
-                    firsts++;
-                    continue;
-                }
-                nearests[i][index] = j;
-                insert(index, i);
-                index++;
-            }
-            double maxMinimalDistance = dm.measure(input.instance(i), input.instance(nearests[i][k - 1]));
-            //neighbour array full, find closer neighbours from the rest of the dataset
-            for (int j = firsts; j < input.size(); j++) {
-                //skip self as neighbour
-                if (i == j) {
-                    continue;
-                }
-                //if distance to central node is smaller then of the furthest current neighbour, add this node to neighbours
-                if (dm.measure(input.instance(i), input.instance(j)) < maxMinimalDistance) {
-                    nearests[i][k - 1] = j;
-                    insert(k - 1, i);
-                    maxMinimalDistance = dm.measure(input.instance(i), input.instance(nearests[i][k - 1]));
-                }
-            }
-        }
+        KnnGraphBuilder builder = new KnnGraphBuilder(dm, threads);
+        nearests = builder.neighbors(dataset, k);
         return nearests;
     }
 
-    /**
-     * Sort neighbours in ascending order by distance to central node
-     *
-     * @param pos Position of the last element in array with neighbours
-     * @param i Number of central cluster to which neighbours are assigned
-     */
-    private void insert(int pos, int i) {
-        while (pos > 0 && dm.measure(input.instance(i), input.instance(nearests[i][pos]))
-                < dm.measure(input.instance(i), input.instance(nearests[i][pos - 1]))) {
-            int temp = nearests[i][pos];
-            nearests[i][pos] = nearests[i][pos - 1];
-            nearests[i][pos - 1] = temp;
-            pos--;
-        }
-    }
-
     public int[][] getNeighborArray(Dataset<? extends Instance> dataset) {
         return findNeighbors(dataset);
     }
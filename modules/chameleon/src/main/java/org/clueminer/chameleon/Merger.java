@@ -3,12 +3,18 @@ package org.clueminer.chameleon;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.clueminer.graph.api.Edge;
 import org.clueminer.graph.api.Graph;
 import org.clueminer.graph.api.Node;
 import org.clueminer.math.Matrix;
 import org.clueminer.math.matrix.SymmetricMatrix;
 import org.clueminer.partitioning.api.Bisection;
+import org.clueminer.partitioning.impl.Bisections;
 import org.clueminer.partitioning.impl.KernighanLin;
 
 /**
@@ -44,6 +50,11 @@ public abstract class Merger {
      */
     ArrayList<ArrayList<ExternalProperties>> clusterMatrix;
 
+    /**
+     * Number of threads used for computing properties of initial clusters
+     */
+    int threads = 1;
+
     public Merger(Graph g) {
         this(g, new KernighanLin());
     }
@@ -53,12 +64,30 @@ public abstract class Merger {
         this.bisection = bisection;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Properties of initial clusters are computed in parallel when bisection
+     * could be copied (see {@link Bisections#copy(Bisection)})
+     *
+     * @param threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
     /**
      * Creates clusters from lists of nodes
      *
      */
     protected void createClusters(ArrayList<LinkedList<Node>> clusterList, Bisection bisection) {
         clusterCount = clusterList.size();
+        if (threads > 1 && clusterCount > 1 && Bisections.isCopyable(bisection)) {
+            createClustersParallel(clusterList, bisection);
+            return;
+        }
         clusters = new ArrayList<>();
         int i = 0;
         for (LinkedList<Node> cluster : clusterList) {
@@ -69,6 +98,47 @@ public abstract class Merger {
         assignNodesToClusters(clusterList);
     }
 
+    /**
+     * Each cluster is bisected by its own copy of the bisection algorithm,
+     * clusters are kept in the same order as in the input
+     *
+     */
+    private void createClustersParallel(final ArrayList<LinkedList<Node>> clusterList, final Bisection bisection) {
+        final Cluster[] created = new Cluster[clusterCount];
+        ForkJoinPool pool = new ForkJoinPool(Math.min(threads, clusterCount));
+        try {
+            List<Callable<Void>> jobs = new ArrayList<>(clusterCount);
+            for (int i = 0; i < clusterCount; i++) {
+                final int index = i;
+                jobs.add(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        Cluster cluster = new Cluster(clusterList.get(index), graph, index);
+                        cluster.computeProperties(Bisections.copy(bisection));
+                        created[index] = cluster;
+                        return null;
+                    }
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(jobs)) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        clusters = new ArrayList<>(clusterCount);
+        for (Cluster cluster : created) {
+            clusters.add(cluster);
+        }
+        assignNodesToClusters(clusterList);
+    }
+
     /**
      * Creates empty structure of external properties between every two
      * clusters.
@@ -194,10 +264,30 @@ public abstract class Merger {
             i = j;
             j = temp;
         }
-        double RIC = clusterMatrix.get(i).get(j).EIC / ((clusters.get(i).IIC + clusters.get(j).IIC) / 2);
-        double nc1 = clusters.get(i).graph.getNodeCount();
-        double nc2 = clusters.get(j).graph.getNodeCount();
-        double RCL = clusterMatrix.get(i).get(j).ECL / ((nc1 / (nc1 + nc2)) * clusters.get(i).ICL + (nc2 / (nc1 + nc2)) * clusters.get(j).ICL);
+        ExternalProperties ep = clusterMatrix.get(i).get(j);
+        Cluster c1 = clusters.get(i);
+        Cluster c2 = clusters.get(j);
+        return similarity(ep.EIC, ep.ECL, c1.IIC, c1.ICL, c1.graph.getNodeCount(),
+                c2.IIC, c2.ICL, c2.graph.getNodeCount());
+    }
+
+    /**
+     * Sum of relative interconnectivity and closeness of two clusters
+     *
+     * @param eic external interconnectivity
+     * @param ecl external closeness
+     * @param iic1 internal interconnectivity of the first cluster
+     * @param icl1 internal closeness of the first cluster
+     * @param nc1 number of nodes in the first cluster
+     * @param iic2 internal interconnectivity of the second cluster
+     * @param icl2 internal closeness of the second cluster
+     * @param nc2 number of nodes in the second cluster
+     * @return
+     */
+    static double similarity(double eic, double ecl, double iic1, double icl1, double nc1,
+            double iic2, double icl2, double nc2) {
+        double RIC = eic / ((iic1 + iic2) / 2);
+        double RCL = ecl / ((nc1 / (nc1 + nc2)) * icl1 + (nc2 / (nc1 + nc2)) * icl2);
         if (nc1 == 1 || nc2 == 1) {
             RIC *= 5;
         }
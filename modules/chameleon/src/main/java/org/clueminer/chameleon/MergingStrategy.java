@@ -6,5 +6,5 @@ package org.clueminer.chameleon;
  */
 public enum MergingStrategy {
 
-    MULTIPLE, PAIR
+    MULTIPLE, PAIR, HEAP
 }
@@ -45,6 +45,7 @@ public class PairMerger extends Merger {
     ArrayList<LinkedList<Node>> merge(ArrayList<LinkedList<Node>> clusterList, int mergeCount) {
         createClusters(clusterList, bisection);
         computeExternalProperties();
+        initiateTree(clusterList);
         for (int i = 0; i < mergeCount; i++) {
             singleMerge(clusterList);
         }
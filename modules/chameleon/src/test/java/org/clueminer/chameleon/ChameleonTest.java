@@ -1,6 +1,9 @@
 package org.clueminer.chameleon;
 
+import org.clueminer.clustering.api.HierarchicalResult;
 import org.clueminer.fixtures.clustering.FakeDatasets;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
@@ -22,4 +25,16 @@ public class ChameleonTest {
         ch.hierarchy(FakeDatasets.irisDataset(), null);
     }
 
+    @Test
+    public void testParallel() {
+        Chameleon ch = new Chameleon(20, 10, true, MergingStrategy.PAIR);
+        Props pref = new Props();
+        pref.putInt(Chameleon.THREADS, 1);
+        HierarchicalResult single = ch.hierarchy(FakeDatasets.irisDataset(), pref);
+        pref.putInt(Chameleon.THREADS, 4);
+        HierarchicalResult parallel = ch.hierarchy(FakeDatasets.irisDataset(), pref);
+        assertArrayEquals(single.getMapping(), parallel.getMapping());
+        assertEquals(single.getTreeData().getRoot().getHeight(), parallel.getTreeData().getRoot().getHeight(), 1e-9);
+    }
+
 }
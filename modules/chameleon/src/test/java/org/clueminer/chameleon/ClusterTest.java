@@ -10,7 +10,9 @@ import org.clueminer.dataset.api.Instance;
 import org.clueminer.dataset.plugin.ArrayDataset;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.graph.adjacencyList.AdjListGraph;
 import org.clueminer.graph.adjacencyMatrix.AdjMatrixGraph;
+import org.clueminer.graph.api.Graph;
 import org.clueminer.partitioning.impl.KernighanLin;
 import static org.junit.Assert.assertEquals;
 import org.junit.Before;
@@ -69,4 +71,19 @@ public class ClusterTest {
         //b.removeUnusedEdges();
         //gp.printGraph(g, 1, output, "bisected.png");
     }
+
+    @Test
+    public void sparseGraphTest() {
+        Dataset<? extends Instance> dataset = simpleData();
+        KNN knn = new KNN(3);
+        Graph g = knn.getNeighborGraph(dataset, new AdjListGraph(dataset.size()));
+        Graph matrix = knn.getNeighborGraph(dataset, new AdjMatrixGraph(dataset.size()));
+        assertEquals(matrix.getEdges().toCollection().size(), g.getEdgeCount());
+
+        Cluster c = new Cluster(g, 1);
+        c.computeProperties(new KernighanLin());
+        //same result as with adjacency matrix
+        assertEquals(c.getIIC(), 1 / (sqrt(2)) + 1 / (sqrt(10)) + 1 / (sqrt(5)) + 1 / (sqrt(8)) + 1 / (sqrt(5)), 0.0001);
+        assertEquals(c.getICL(), (1 / (sqrt(2)) + 1 / (sqrt(10)) + 1 / (sqrt(5)) + 1 / (sqrt(8)) + 1 / (sqrt(5))) / 5, 0.0001);
+    }
 }
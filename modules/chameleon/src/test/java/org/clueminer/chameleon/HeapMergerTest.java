@@ -0,0 +1,140 @@
+package org.clueminer.chameleon;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import org.clueminer.attributes.BasicAttrType;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.dataset.plugin.ArrayDataset;
+import org.clueminer.graph.adjacencyMatrix.AdjMatrixGraph;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.Node;
+import org.clueminer.partitioning.impl.KernighanLinRecursive;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class HeapMergerTest {
+
+    /**
+     * Three well separated blobs of points
+     *
+     * @return
+     */
+    private Dataset<? extends Instance> blobs() {
+        return DatasetGenerator.blobs(60, new double[][]{{0, 0}, {12, 2}, {4, 14}}, 1.0, 5);
+    }
+
+    private Graph knnGraph(Dataset<? extends Instance> dataset) {
+        KNN knn = new KNN(5);
+        Graph g = new AdjMatrixGraph(dataset.size());
+        return knn.getNeighborGraph(dataset, g);
+    }
+
+    private HashSet<HashSet<Long>> asSets(ArrayList<LinkedList<Node>> clusters) {
+        HashSet<HashSet<Long>> res = new HashSet<>();
+        for (LinkedList<Node> cluster : clusters) {
+            HashSet<Long> ids = new HashSet<>();
+            for (Node node : cluster) {
+                ids.add(node.getId());
+            }
+            res.add(ids);
+        }
+        return res;
+    }
+
+    @Test
+    public void testSameAsPairMerger() {
+        Dataset<? extends Instance> dataset = blobs();
+        Graph g = knnGraph(dataset);
+        KernighanLinRecursive klr = new KernighanLinRecursive();
+        ArrayList<LinkedList<Node>> partitions = klr.partition(5, g);
+        int c = partitions.size();
+        assertTrue(c > 3);
+
+        //blobs are not connected, PairMerger can't merge them
+        for (int merges = 1; merges <= c - 3; merges++) {
+            PairMerger pm = new PairMerger(g);
+            HeapMerger hm = new HeapMerger(g);
+            assertTrue(hm.isExactProperties());
+            ArrayList<LinkedList<Node>> expected = pm.merge(partitions, merges);
+            ArrayList<LinkedList<Node>> result = hm.merge(partitions, merges);
+            assertEquals(c - merges, result.size());
+            assertEquals(asSets(expected), asSets(result));
+        }
+    }
+
+    @Test
+    public void testHierarchy() {
+        Dataset<? extends Instance> dataset = blobs();
+        Graph g = knnGraph(dataset);
+        KernighanLinRecursive klr = new KernighanLinRecursive();
+        ArrayList<LinkedList<Node>> partitions = klr.partition(5, g);
+
+        HeapMerger hm = new HeapMerger(g);
+        HierarchicalResult result = hm.getHierarchy(partitions, dataset);
+        assertEquals(dataset.size(), result.getTreeData().getMapping().length);
+        assertEquals(partitions.size() - 1, result.getTreeData().getRoot().getHeight(), 1e-9);
+
+        //all nodes end up in a single cluster
+        ArrayList<LinkedList<Node>> all = new HeapMerger(g).merge(partitions, partitions.size());
+        assertEquals(1, all.size());
+        assertEquals(dataset.size(), all.get(0).size());
+    }
+
+    @Test
+    public void testApproximateProperties() {
+        Dataset<? extends Instance> dataset = blobs();
+        Graph g = knnGraph(dataset);
+        KernighanLinRecursive klr = new KernighanLinRecursive();
+        ArrayList<LinkedList<Node>> partitions = klr.partition(5, g);
+        int c = partitions.size();
+
+        HeapMerger hm = new HeapMerger(g);
+        hm.setExactProperties(false);
+        //merges within blobs come first, even with approximated properties
+        ArrayList<LinkedList<Node>> result = hm.merge(partitions, c - 3);
+        assertEquals(3, result.size());
+        for (LinkedList<Node> cluster : result) {
+            assertEquals(20, cluster.size());
+            Object clazz = cluster.getFirst().getInstance().classValue();
+            for (Node node : cluster) {
+                assertEquals(clazz, node.getInstance().classValue());
+            }
+        }
+    }
+
+    @Test
+    public void testDisconnected() {
+        Dataset<Instance> data = new ArrayDataset<>(6, 2);
+        data.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        data.attributeBuilder().create("y", BasicAttrType.NUMERIC);
+        data.builder().create(new double[]{0, 0});
+        data.builder().create(new double[]{0, 1});
+        data.builder().create(new double[]{1, 0});
+        data.builder().create(new double[]{10, 10});
+        data.builder().create(new double[]{10, 11});
+        data.builder().create(new double[]{11, 10});
+        KNN knn = new KNN(2);
+        Graph g = knn.getNeighborGraph(data, new AdjMatrixGraph(data.size()));
+        Node[] nodes = g.getNodes().toArray();
+        ArrayList<LinkedList<Node>> partitions = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            LinkedList<Node> part = new LinkedList<>();
+            for (int j = 0; j < 3; j++) {
+                part.add(nodes[3 * i + j]);
+            }
+            partitions.add(part);
+        }
+        HeapMerger hm = new HeapMerger(g);
+        ArrayList<LinkedList<Node>> result = hm.merge(partitions, 1);
+        assertEquals(1, result.size());
+        assertEquals(6, result.get(0).size());
+    }
+}
@@ -81,6 +81,29 @@ public interface HierarchicalResult extends Serializable {
      */
     double cutTreeByLevel(int level);
 
+    /**
+     * Cuts tree at given level without creating a clustering, only the cut
+     * listener (see {@link #setCutListener(IncrementalScore)}) is notified.
+     * Current cut-off and clustering are not changed, use
+     * {@link #updateCutoff(double)} for the chosen cut-off.
+     *
+     * @param level
+     *
+     * @return cut-off for given level
+     */
+    double cutLabelsByLevel(int level);
+
+    /**
+     * Notify given score about each split and merge of clusters caused by
+     * subsequent calls of {@link #cutTreeByLevel(int)}. Initial cluster
+     * indexes correspond to order of clusters in the current clustering, a new
+     * cluster gets index k and a removed cluster is replaced by the last one.
+     *
+     * @param listener null to stop notifications
+     * @return false when incremental cuts are not supported
+     */
+    boolean setCutListener(IncrementalScore listener);
+
     /**
      * Find and sets optimal cutoff with default strategy
      *
@@ -0,0 +1,29 @@
+package org.clueminer.clustering.api;
+
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.utils.Props;
+
+/**
+ * Internal evaluator whose score could be maintained from statistics of each
+ * cluster (counts, sums, sums of squares), thus it doesn't have to evaluate
+ * whole clustering again after a merge or a split of clusters.
+ *
+ * @author Tomas Barton
+ */
+public interface IncrementalEvaluator extends InternalEvaluator {
+
+    /**
+     * Start tracking score of a hard clustering. Returned score is equal to
+     * {@link #score(Clustering, Props)} of the clustering given by labels.
+     *
+     * @param dataset
+     * @param labels cluster index for each instance (from 0 to k-1), negative
+     * value means that the instance is not assigned
+     * @param k number of clusters
+     * @param params
+     * @return null when incremental update is not supported (e.g. for given
+     * distance measure)
+     */
+    IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params);
+}
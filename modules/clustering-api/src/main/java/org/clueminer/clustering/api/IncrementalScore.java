@@ -0,0 +1,43 @@
+package org.clueminer.clustering.api;
+
+/**
+ * Score of a hard clustering which is updated when clusters are split or
+ * merged (e.g. when moving between levels of a dendrogram), instead of
+ * evaluating the whole clustering again. Clusters are indexed from 0 to k-1.
+ *
+ * @author Tomas Barton
+ */
+public interface IncrementalScore {
+
+    /**
+     * Given instances were moved from cluster {@code source} into a new
+     * cluster with index k (number of clusters is incremented)
+     *
+     * @param source index of split cluster
+     * @param moved indexes of instances (in the dataset)
+     */
+    void onSplit(int source, int[] moved);
+
+    /**
+     * Cluster {@code source} is merged into cluster {@code target}, the last
+     * cluster (k-1) takes index {@code source} (number of clusters is
+     * decremented)
+     *
+     * @param target index of cluster which remains
+     * @param source index of removed cluster
+     * @param members indexes of instances in the removed cluster
+     */
+    void onMerge(int target, int source, int[] members);
+
+    /**
+     *
+     * @return number of clusters
+     */
+    int size();
+
+    /**
+     *
+     * @return score of current clustering
+     */
+    double score();
+}
@@ -0,0 +1,19 @@
+package org.clueminer.clustering.api;
+
+/**
+ * Hard clustering which stores assignments as a single array of labels,
+ * evaluators could use the array directly instead of iterating over clusters.
+ *
+ * @author Tomas Barton
+ */
+public interface LabelProvider {
+
+    /**
+     * i-th item is index of cluster (starting from 0) of i-th instance in the
+     * dataset, negative value means that the instance is not assigned. The
+     * array must not be modified.
+     *
+     * @return cluster index for each instance
+     */
+    int[] getLabels();
+}
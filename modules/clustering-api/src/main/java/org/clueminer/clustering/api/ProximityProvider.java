@@ -0,0 +1,47 @@
+package org.clueminer.clustering.api;
+
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Access to (precomputed or cached) distances between instances of a dataset.
+ * A provider could be placed in {@link Clustering#getLookup()}, so that
+ * evaluators don't have to compute all pairwise distances repeatedly.
+ *
+ * @author Tomas Barton
+ */
+public interface ProximityProvider {
+
+    /**
+     *
+     * @return dataset whose instances are indexed by this provider
+     */
+    Dataset<? extends Instance> getDataset();
+
+    /**
+     *
+     * @return distance measure used for computing distances
+     */
+    DistanceMeasure getDistanceMeasure();
+
+    /**
+     * Distance between two instances of the dataset
+     *
+     * @param i index of first instance
+     * @param j index of second instance
+     * @return
+     */
+    double distance(int i, int j);
+
+    /**
+     * Distance between two instances, when any of the instances doesn't belong
+     * to the dataset the distance is computed directly
+     *
+     * @param x
+     * @param y
+     * @return
+     */
+    double distance(Instance x, Instance y);
+
+}
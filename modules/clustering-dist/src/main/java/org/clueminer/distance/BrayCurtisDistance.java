@@ -79,6 +79,26 @@ public class BrayCurtisDistance extends SymmetricDistance {
         return (numerator / denominator);
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double numerator = 0.0;
+        double denominator = 0.0;
+        double a, b;
+        for (int i = 0; i < dim; i++) {
+            a = x[offX + i];
+            b = y[offY + i];
+            if ((!Double.isNaN(a)) && (!Double.isNaN(b))) {
+                numerator += Math.abs(a - b);
+                denominator += a + b;
+            }
+        }
+        //avoid division by zero
+        if (denominator == 0.0) {
+            return 0.0;
+        }
+        return (numerator / denominator);
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
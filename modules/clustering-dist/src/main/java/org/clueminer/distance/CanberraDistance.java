@@ -81,6 +81,21 @@ public class CanberraDistance extends SymmetricDistance implements DistanceMeasu
         return sum;
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double sum = 0.0;
+        double a, b, denominator;
+        for (int i = 0; i < dim; i++) {
+            a = x[offX + i];
+            b = y[offY + i];
+            denominator = Math.abs(a) + Math.abs(b);
+            if (denominator > 0) {
+                sum += Math.abs(a - b) / denominator;
+            }
+        }
+        return sum;
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -74,6 +74,42 @@ public class CorrelationDistance extends SymmetricDistance implements DistanceMe
         return 1 - u.dot(v) / denom;
     }
 
+    /**
+     * Same as {@link #measure(Vector, Vector)}, centered vectors are not
+     * materialized
+     *
+     * @param x
+     * @param offX
+     * @param y
+     * @param offY
+     * @param dim
+     * @return
+     */
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double sumX = 0.0, sumY = 0.0, meanX, meanY;
+        for (int i = 0; i < dim; i++) {
+            sumX += x[offX + i];
+            sumY += y[offY + i];
+        }
+        meanX = sumX / dim;
+        meanY = sumY / dim;
+
+        double su, sv, suv = 0.0, suu = 0.0, svv = 0.0;
+        for (int i = 0; i < dim; i++) {
+            su = x[offX + i] - meanX;
+            sv = y[offY + i] - meanY;
+            suv += su * sv;
+            suu += su * su;
+            svv += sv * sv;
+        }
+        double denom = Math.sqrt(suu) * Math.sqrt(svv);
+        if (denom == 0) {
+            return 0.0;
+        }
+        return 1 - suv / denom;
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -141,6 +141,26 @@ public class CosineDistance extends SymmetricDistance {
          return (1 - cosSim);*/
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double sxy = 0.0;
+        double sxx = 0.0;
+        double syy = 0.0;
+        double tx, ty;
+        for (int i = 0; i < dim; i++) {
+            tx = x[offX + i];
+            ty = y[offY + i];
+            sxy += tx * ty;
+            sxx += tx * tx;
+            syy += ty * ty;
+        }
+        double denom = Math.sqrt(sxx) * Math.sqrt(syy);
+        if (denom == 0) {
+            return 2.0;
+        }
+        return 1 - sxy / denom;
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
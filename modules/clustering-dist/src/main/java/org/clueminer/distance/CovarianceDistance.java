@@ -124,6 +124,35 @@ public class CovarianceDistance extends AbstractDistance implements DistanceMeas
         return (sxy / ((n - 1) * 1.0));
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double a, b;
+        double sxy = 0.0;
+        double avgX = 0.0;
+        double avgY = 0.0;
+        int n = 0;
+        int j;
+        for (j = 0; j < dim; j++) {
+            a = x[offX + j];
+            b = y[offY + j];
+            if ((!Double.isNaN(a)) && (!Double.isNaN(b))) {
+                avgX += a;
+                avgY += b;
+                n++;
+            }
+        }
+        avgX /= n;
+        avgY /= n;
+        for (j = 0; j < dim; j++) {
+            a = x[offX + j];
+            b = y[offY + j];
+            if ((!Double.isNaN(a)) && (!Double.isNaN(b))) {
+                sxy += (a - avgX) * (b - avgY);
+            }
+        }
+        return (sxy / ((n - 1) * 1.0));
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -95,6 +95,29 @@ public class EuclideanDistance extends MinkowskiDistance {
         return Math.sqrt(sum);
     }
 
+    /**
+     * Squares are computed by multiplication, which is considerably faster
+     * than a general power function
+     *
+     * @param x
+     * @param offX
+     * @param y
+     * @param offY
+     * @param dim
+     * @return
+     */
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double sum = 0;
+        double diff;
+        for (int i = 0; i < dim; i++) {
+            diff = y[offY + i] - x[offX + i];
+            sum += diff * diff;
+        }
+
+        return Math.sqrt(sum);
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         checkInput(x, y);
@@ -133,6 +133,39 @@ public class KendalsDistance extends AbstractDistance {
         return (is / (Math.sqrt((double) n1) * Math.sqrt((double) n2) + TINY));
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double TINY = Double.MIN_VALUE;
+        int n2 = 0;
+        int n1 = 0;
+        int is = 0;
+        double aa, a2, a1;
+        for (int j = 0; j < dim - 1; j++) {
+            for (int k = (j + 1); k < dim; k++) {
+                a1 = x[offX + j] - x[offX + k];
+                a2 = y[offY + j] - y[offY + k];
+                aa = a1 * a2;
+                if (aa != 0.0) {
+                    ++n1;
+                    ++n2;
+                    if (aa > 0.0) {
+                        ++is;
+                    } else {
+                        --is;
+                    }
+                } else {
+                    if (a1 != 0.0) {
+                        ++n1;
+                    }
+                    if (a2 != 0.0) {
+                        ++n2;
+                    }
+                }
+            }
+        }
+        return (is / (Math.sqrt((double) n1) * Math.sqrt((double) n2) + TINY));
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -54,6 +54,15 @@ public class ManhattanDistance extends MinkowskiDistance implements DistanceMeas
         return sum;
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double sum = 0;
+        for (int i = 0; i < dim; i++) {
+            sum += Math.abs(y[offY + i] - x[offX + i]);
+        }
+        return sum;
+    }
+
     @Override
     public float getSimilarityFactor() {
         return similarityFactor;
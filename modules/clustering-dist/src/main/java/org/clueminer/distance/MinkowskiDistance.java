@@ -53,6 +53,16 @@ public class MinkowskiDistance extends SymmetricDistance {
         return Math.pow(sum, 1 / power);
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double sum = 0;
+        for (int i = 0; i < dim; i++) {
+            sum += Math.pow(Math.abs(y[offY + i] - x[offX + i]), power);
+        }
+
+        return Math.pow(sum, 1 / power);
+    }
+
     @Override
     public float getSimilarityFactor() {
         throw new UnsupportedOperationException("Not supported yet.");
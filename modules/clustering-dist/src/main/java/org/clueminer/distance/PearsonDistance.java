@@ -220,6 +220,37 @@ public class PearsonDistance extends SymmetricDistance {
         return correlation(n, sumXY, sumX2, sumY2);
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        int n = 0;
+        double xt, yt;
+        double sumX = 0.0;
+        double sumX2 = 0.0;
+        double sumY = 0.0;
+        double sumY2 = 0.0;
+        double sumXY = 0.0;
+        for (int j = 0; j < dim; j++) {
+            xt = x[offX + j];
+            yt = y[offY + j];
+            if ((!Double.isNaN(xt)) && (!Double.isNaN(yt))) {
+                sumXY += xt * yt;
+                sumX += xt;
+                sumX2 += xt * xt;
+                sumY += yt;
+                sumY2 += yt * yt;
+                n++;
+            }
+        }
+
+        double meanX = sumX / n;
+        double meanY = sumY / n;
+        sumXY -= meanY * sumX;
+        sumX2 -= meanX * sumX;
+        sumY2 -= meanY * sumY;
+
+        return correlation(n, sumXY, sumX2, sumY2);
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         int n, j;
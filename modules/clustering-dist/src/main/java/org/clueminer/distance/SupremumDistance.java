@@ -82,6 +82,23 @@ public class SupremumDistance extends AbstractDistance {
         return max;
     }
 
+    @Override
+    public double measure(double[] x, int offX, double[] y, int offY, int dim) {
+        double max = 0.0;
+        double a, b, diff;
+        for (int i = 0; i < dim; i++) {
+            a = x[offX + i];
+            b = y[offY + i];
+            if ((!Double.isNaN(a)) && (!Double.isNaN(b))) {
+                diff = Math.abs(a - b);
+                if (diff > max) {
+                    max = diff;
+                }
+            }
+        }
+        return max;
+    }
+
     @Override
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import com.google.common.collect.MapMaker;
+import java.util.concurrent.ConcurrentMap;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.plugin.AbstractArrayDataset;
+import org.clueminer.dataset.plugin.AbstractDataset;
+import org.clueminer.distance.api.DistanceFactory;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.distance.api.KNN;
+import org.clueminer.events.DatasetEvent;
+import org.clueminer.events.DatasetListener;
+import org.clueminer.utils.Props;
+
+/**
+ * k-NN search backed by a spatial index. Index is built once for each dataset
+ * (and distance function) and kept until the dataset is garbage collected or
+ * modified. Modifications are detected by dataset's change events (datasets
+ * from dataset-impl fire them on {@code add} and {@code set}, dense datasets
+ * also when a value is set through an instance), for other datasets only a
+ * change of size is detected. When the distance function is not supported by
+ * the index, brute force search is used.
+ *
+ * @author Tomas Barton
+ */
+public abstract class AbstractTreeKNN implements KNN {
+
+    private final ConcurrentMap<Dataset<? extends Instance>, SpatialIndex> indexes;
+    private final Invalidator invalidator;
+
+    public AbstractTreeKNN() {
+        indexes = new MapMaker().weakKeys().makeMap();
+        invalidator = new Invalidator();
+    }
+
+    /**
+     *
+     * @param dm
+     * @return whether index could be built for given distance
+     */
+    protected abstract boolean isSupported(DistanceMeasure dm);
+
+    /**
+     * Bulk load all instances into an index
+     *
+     * @param dataset
+     * @param dm
+     * @return
+     */
+    protected abstract SpatialIndex build(Dataset<? extends Instance> dataset, DistanceMeasure dm);
+
+    /**
+     * Index of given dataset, it's rebuilt when dataset is modified or distance
+     * function changes
+     *
+     * @param dataset
+     * @param params
+     * @return index or null when distance is not supported
+     */
+    public SpatialIndex getIndex(Dataset<? extends Instance> dataset, Props params) {
+        String dmProvider = params.get(AgglParams.DIST, AgglParams.DEFAULT_DISTANCE_FUNCTION);
+        DistanceMeasure dm = DistanceFactory.getInstance().getProvider(dmProvider);
+        if (!isSupported(dm)) {
+            return null;
+        }
+        SpatialIndex index = indexes.get(dataset);
+        if (index == null || index.size() != dataset.size()
+                || !index.getDistanceMeasure().getName().equals(dm.getName())) {
+            index = build(dataset, dm);
+            listen(dataset);
+            indexes.put(dataset, index);
+        }
+        return index;
+    }
+
+    @Override
+    public int[] nnIds(int idx, int k, Dataset<? extends Instance> dataset, Props params) {
+        //there's no more than n - 1 neighbors
+        k = Math.min(k, dataset.size() - 1);
+        if (k < 1) {
+            return new int[0];
+        }
+        SpatialIndex index = getIndex(dataset, params);
+        if (index == null) {
+            return bruteForce(idx, k, dataset, params);
+        }
+        return index.knn(index.get(idx), k, idx).getIds();
+    }
+
+    @Override
+    public Instance[] nn(int idx, int k, Dataset<? extends Instance> dataset, Props params) {
+        int[] ids = nnIds(idx, k, dataset, params);
+        Instance[] res = new Instance[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            res[i] = dataset.get(ids[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Find all instances within given distance from instance idx
+     *
+     * @param idx
+     * @param radius
+     * @param dataset
+     * @param params
+     * @return IDs of instances (unordered)
+     */
+    public int[] range(int idx, double radius, Dataset<? extends Instance> dataset, Props params) {
+        SpatialIndex index = getIndex(dataset, params);
+        if (index == null) {
+            throw new UnsupportedOperationException(getName() + " doesn't support distance "
+                    + params.get(AgglParams.DIST, AgglParams.DEFAULT_DISTANCE_FUNCTION));
+        }
+        return index.range(index.get(idx), radius, idx);
+    }
+
+    /**
+     * Drop index when the dataset is modified (listener is registered at most
+     * once)
+     *
+     * @param dataset
+     */
+    private void listen(Dataset<? extends Instance> dataset) {
+        if (dataset instanceof AbstractArrayDataset) {
+            AbstractArrayDataset<? extends Instance> d = (AbstractArrayDataset<? extends Instance>) dataset;
+            d.removeDataSetListener(invalidator);
+            d.addDatasetListener(invalidator);
+        } else if (dataset instanceof AbstractDataset) {
+            AbstractDataset<? extends Instance> d = (AbstractDataset<? extends Instance>) dataset;
+            d.removeDataSetListener(invalidator);
+            d.addDatasetListener(invalidator);
+        }
+    }
+
+    private int[] bruteForce(int idx, int k, Dataset<? extends Instance> dataset, Props params) {
+        return new CachingKNN().nnIds(idx, k, dataset, params);
+    }
+
+    private class Invalidator implements DatasetListener {
+
+        @Override
+        public void datasetChanged(DatasetEvent evt) {
+            indexes.remove(evt.getDataset());
+        }
+
+        @Override
+        public void datasetOpened(DatasetEvent evt) {
+            //nothing to do
+        }
+
+        @Override
+        public void datasetClosed(DatasetEvent evt) {
+            indexes.remove(evt.getDataset());
+        }
+
+        @Override
+        public void datasetCropped(DatasetEvent evt) {
+            indexes.remove(evt.getDataset());
+        }
+    }
+
+}
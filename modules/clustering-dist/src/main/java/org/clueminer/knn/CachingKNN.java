@@ -22,6 +22,7 @@ import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.api.DistanceFactory;
 import org.clueminer.distance.api.DistanceMeasure;
 import org.clueminer.distance.api.KNN;
+import org.clueminer.utils.DatasetTools;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -29,7 +30,7 @@ import org.openide.util.lookup.ServiceProvider;
  *
  * @author Tomas Barton
  */
-@ServiceProvider(service = KNN.class)
+@ServiceProvider(service = KNN.class, position = 100)
 public class CachingKNN implements KNN {
 
     private static final String name = "caching k-nn";
@@ -41,46 +42,49 @@ public class CachingKNN implements KNN {
 
     @Override
     public int[] nnIds(int idx, int k, Dataset<? extends Instance> dataset, Props params) {
-        Instance[] nn = nn(idx, k, dataset, params);
-        int[] res = new int[k];
-        for (int i = 0; i < k; i++) {
-            res[i] = nn[i].getIndex();
+        KnnCache cache = KnnCache.getInstance();
+        //there's no more than n - 1 neighbors
+        k = Math.min(k, dataset.size() - 1);
+        if (k < 1) {
+            return new int[0];
+        }
+        int[] res = cache.getIds(dataset, idx, k);
+        if (res == null) {
+            res = updateNN(dataset, idx, k, cache, params);
         }
         return res;
     }
 
     @Override
     public Instance[] nn(int idx, int k, Dataset<? extends Instance> dataset, Props params) {
-        KnnCache cache = KnnCache.getInstance();
-        Instance[] res;
-        if (cache.contains(dataset, idx)) {
-            res = cache.get(dataset, idx);
-            if (res.length < k) {
-                res = updateNN(dataset, idx, k, cache, params);
-            }
-        } else {
-            res = updateNN(dataset, idx, k, cache, params);
+        int[] ids = nnIds(idx, k, dataset, params);
+        Instance[] res = new Instance[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            res[i] = dataset.get(ids[i]);
         }
         return res;
     }
 
-    private Instance[] updateNN(Dataset<? extends Instance> dataset, int idx, int k, KnnCache cache, Props params) {
+    private int[] updateNN(Dataset<? extends Instance> dataset, int idx, int k, KnnCache cache, Props params) {
         String dmProvider = params.get(AgglParams.DIST, AgglParams.DEFAULT_DISTANCE_FUNCTION);
         DistanceMeasure dm = DistanceFactory.getInstance().getProvider(dmProvider);
-        Instance[] res = computeNN(dataset, idx, k, dm);
-        cache.put(dataset, idx, res);
-        return res;
-    }
-
-    private Instance[] computeNN(Dataset<? extends Instance> dataset, int idx, int k, DistanceMeasure dm) {
         Instance target = dataset.get(idx);
-        ForgetingQueue queue = new ForgetingQueue(k, dm, target);
+        TopK queue = new TopK(k);
+        //some measures are maximized, queue keeps lowest values
+        double sign = dm.compare(1.0, 0.0) ? -1.0 : 1.0;
 
         for (int i = 0; i < dataset.size(); i++) {
             if (i != idx) {
-                queue.check(dataset.get(i));
+                queue.offer(i, sign * DatasetTools.measure(dm, target, dataset.get(i)));
             }
         }
-        return queue.getResult();
+        int[] res = new int[queue.size()];
+        double[] dist = new double[queue.size()];
+        queue.sorted(res, dist);
+        for (int i = 0; i < dist.length; i++) {
+            dist[i] *= sign;
+        }
+        cache.put(dataset, idx, res, dist);
+        return res;
     }
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.Arrays;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.MinkowskiDistance;
+import org.clueminer.distance.SupremumDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * KD-tree for low dimensional data. Space is recursively split by the median of
+ * the widest dimension, leaves contain small buckets of items.
+ *
+ * Difference in a single coordinate is a lower bound for any Minkowski
+ * distance (including Chebyshev/supremum), thus only these distances are
+ * supported.
+ *
+ * Friedman, J. H., Bentley, J. L., Finkel, R. A.: "An Algorithm for Finding
+ * Best Matches in Logarithmic Expected Time", ACM Transactions on Mathematical
+ * Software 3, no. 3 (1977): 209-226.
+ *
+ * @author Tomas Barton
+ */
+public class KDTree implements SpatialIndex {
+
+    /**
+     * in higher dimensions brute force is usually faster
+     */
+    public static final int MAX_DIMS = 16;
+    private static final int LEAF_SIZE = 16;
+    private final double[][] rows;
+    private final DistanceMeasure dm;
+    /**
+     * permutation of items, each node covers continuous range
+     */
+    private final int[] index;
+    private int[] start;
+    private int[] end;
+    private int[] left;
+    private int[] right;
+    private int[] splitDim;
+    private double[] split;
+    private int nodes;
+    private final int root;
+
+    public KDTree(Dataset<? extends Instance> dataset, DistanceMeasure dm) {
+        this(dataset.asMatrix().getArray(), dm);
+    }
+
+    public KDTree(double[][] rows, DistanceMeasure dm) {
+        if (!isSupported(dm)) {
+            throw new IllegalArgumentException("KD-tree doesn't support " + dm.getName());
+        }
+        this.rows = rows;
+        this.dm = dm;
+        int n = rows.length;
+        index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i;
+        }
+        int capacity = Math.max(1, 4 * n / LEAF_SIZE);
+        start = new int[capacity];
+        end = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        splitDim = new int[capacity];
+        split = new double[capacity];
+        root = build(0, n);
+    }
+
+    /**
+     *
+     * @param dm
+     * @return true when given distance could be used with KD-tree
+     */
+    public static boolean isSupported(DistanceMeasure dm) {
+        return dm instanceof MinkowskiDistance || dm instanceof SupremumDistance;
+    }
+
+    private int build(int from, int to) {
+        int node = newNode(from, to);
+        if (to - from <= LEAF_SIZE) {
+            return node;
+        }
+        //find widest dimension
+        int dims = rows[index[from]].length;
+        int best = 0;
+        double width = -1, min, max, v;
+        for (int d = 0; d < dims; d++) {
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                v = rows[index[i]][d];
+                if (v < min) {
+                    min = v;
+                }
+                if (v > max) {
+                    max = v;
+                }
+            }
+            if (max - min > width) {
+                width = max - min;
+                best = d;
+            }
+        }
+        if (width <= 0.0) {
+            //all items are the same
+            return node;
+        }
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, best);
+        splitDim[node] = best;
+        split[node] = rows[index[mid]][best];
+        int l = build(from, mid);
+        int r = build(mid, to);
+        left[node] = l;
+        right[node] = r;
+        return node;
+    }
+
+    private int newNode(int from, int to) {
+        if (nodes == start.length) {
+            int capacity = start.length + (start.length >> 1) + 1;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            splitDim = Arrays.copyOf(splitDim, capacity);
+            split = Arrays.copyOf(split, capacity);
+        }
+        int node = nodes++;
+        start[node] = from;
+        end[node] = to;
+        left[node] = -1;
+        right[node] = -1;
+        return node;
+    }
+
+    /**
+     * Quickselect, after the call item at position k has the k-th value in
+     * given dimension, items before are lower or equal, items after greater
+     * or equal
+     */
+    private void select(int lo, int hi, int k, int dim) {
+        int i, j, tmp;
+        double pivot;
+        while (hi > lo) {
+            pivot = rows[index[(lo + hi) >>> 1]][dim];
+            i = lo;
+            j = hi;
+            while (i <= j) {
+                while (rows[index[i]][dim] < pivot) {
+                    i++;
+                }
+                while (rows[index[j]][dim] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    tmp = index[i];
+                    index[i] = index[j];
+                    index[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    @Override
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    @Override
+    public double[] get(int i) {
+        return rows[i];
+    }
+
+    @Override
+    public TopK knn(double[] query, int k, int exclude) {
+        TopK heap = new TopK(k);
+        knn(root, query, heap, exclude);
+        return heap;
+    }
+
+    private void knn(int node, double[] query, TopK heap, int exclude) {
+        if (left[node] < 0) {
+            int id;
+            for (int i = start[node]; i < end[node]; i++) {
+                id = index[i];
+                if (id != exclude) {
+                    heap.offer(id, dm.measure(query, rows[id]));
+                }
+            }
+            return;
+        }
+        double diff = query[splitDim[node]] - split[node];
+        if (diff < 0) {
+            knn(left[node], query, heap, exclude);
+            if (-diff <= heap.worst()) {
+                knn(right[node], query, heap, exclude);
+            }
+        } else {
+            knn(right[node], query, heap, exclude);
+            if (diff <= heap.worst()) {
+                knn(left[node], query, heap, exclude);
+            }
+        }
+    }
+
+    @Override
+    public int[] range(double[] query, double radius, int exclude) {
+        IntArrayList res = new IntArrayList();
+        range(root, query, radius, exclude, res);
+        return res.toIntArray();
+    }
+
+    private void range(int node, double[] query, double radius, int exclude, IntArrayList res) {
+        if (left[node] < 0) {
+            int id;
+            for (int i = start[node]; i < end[node]; i++) {
+                id = index[i];
+                if (id != exclude && dm.measure(query, rows[id]) <= radius) {
+                    res.add(id);
+                }
+            }
+            return;
+        }
+        double diff = query[splitDim[node]] - split[node];
+        if (diff <= radius) {
+            range(left[node], query, radius, exclude, res);
+        }
+        if (-diff <= radius) {
+            range(right[node], query, radius, exclude, res);
+        }
+    }
+
+}
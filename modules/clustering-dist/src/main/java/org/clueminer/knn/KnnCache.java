@@ -16,52 +16,307 @@
  */
 package org.clueminer.knn;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
+import com.google.common.collect.MapMaker;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 
 /**
+ * Cache of k-nearest neighbors. Neighbor IDs and distances of each dataset are
+ * stored in primitive blocks (k values per instance).
+ *
+ * Datasets are weak keys compared by identity, once a dataset is garbage
+ * collected its neighbors are dropped. Total size of cached blocks is limited
+ * by a byte budget, when exceeded least recently used datasets are evicted.
+ * All methods are thread-safe.
  *
  * @author Tomas Barton
  */
 public class KnnCache {
 
-    private static KnnCache instance;
+    /**
+     * default budget 128MB
+     */
+    public static final long DEFAULT_MAX_BYTES = 128L << 20;
+
+    private final ConcurrentMap<Dataset<? extends Instance>, Rows> cache;
+    private final AtomicLong clock = new AtomicLong();
+    private volatile long maxBytes;
+
+    private static class Holder {
 
-    private final Table<Dataset, Integer, Instance[]> cache;
+        private static final KnnCache INSTANCE = new KnnCache(DEFAULT_MAX_BYTES);
+    }
 
-    private KnnCache() {
-        cache = HashBasedTable.create();
+    public KnnCache(long maxBytes) {
+        cache = new MapMaker().weakKeys().makeMap();
+        this.maxBytes = maxBytes;
     }
 
     public static KnnCache getInstance() {
-        if (instance == null) {
-            instance = new KnnCache();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Set memory budget, exceeding datasets are evicted immediately
+     *
+     * @param maxBytes
+     */
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict(null);
     }
 
     public boolean containsKey(Dataset<? extends Instance> dataset) {
-        return cache.containsRow(dataset);
+        return cache.containsKey(dataset);
     }
 
     public boolean contains(Dataset<? extends Instance> dataset, int id) {
-        return cache.contains(dataset, id);
+        Rows rows = cache.get(dataset);
+        return rows != null && rows.count(id) > 0;
     }
 
-    public Instance[] get(Dataset<? extends Instance> dataset, int id) {
-        return cache.get(dataset, id);
+    /**
+     *
+     * @param dataset
+     * @param id      index of instance
+     * @param k       number of neighbors
+     * @return IDs of k nearest neighbors or null when not cached (or cached
+     *         fewer than k neighbors)
+     */
+    public int[] getIds(Dataset<? extends Instance> dataset, int id, int k) {
+        Rows rows = cache.get(dataset);
+        if (rows == null) {
+            return null;
+        }
+        rows.lastAccess = clock.incrementAndGet();
+        return rows.getIds(id, k);
     }
 
     /**
-     * Store k-nn result to cache
      *
      * @param dataset
-     * @param id
-     * @param inst
+     * @param id      index of instance
+     * @param k       number of neighbors
+     * @return distances to k nearest neighbors or null when not cached
+     */
+    public double[] getDistances(Dataset<? extends Instance> dataset, int id, int k) {
+        Rows rows = cache.get(dataset);
+        if (rows == null) {
+            return null;
+        }
+        rows.lastAccess = clock.incrementAndGet();
+        return rows.getDistances(id, k);
+    }
+
+    /**
+     * Store k-nn result to cache. Nothing is stored when neighbors of the
+     * dataset wouldn't fit into the memory budget.
+     *
+     * @param dataset
+     * @param id      index of instance
+     * @param ids     IDs of neighbors sorted by distance
+     * @param dist    distances to neighbors
+     */
+    public void put(Dataset<? extends Instance> dataset, int id, int[] ids, double[] dist) {
+        Rows rows = cache.get(dataset);
+        long projected = rows != null ? rows.bytesAfterPut(id, ids.length)
+                : Rows.bytes(Math.max(dataset.size(), id + 1), ids.length);
+        if (projected > maxBytes) {
+            //blocks would be evicted right after allocation
+            return;
+        }
+        if (rows == null) {
+            rows = new Rows(dataset.size());
+            Rows prev = cache.putIfAbsent(dataset, rows);
+            if (prev != null) {
+                rows = prev;
+            }
+        }
+        rows.lastAccess = clock.incrementAndGet();
+        if (rows.put(id, ids, dist)) {
+            evict(rows);
+        }
+    }
+
+    /**
+     * Drop all neighbors of given dataset
+     *
+     * @param dataset
+     */
+    public void remove(Dataset<? extends Instance> dataset) {
+        cache.remove(dataset);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     *
+     * @return approximate memory occupied by cached neighbors
      */
-    public void put(Dataset<? extends Instance> dataset, int id, Instance[] inst) {
-        cache.put(dataset, id, inst);
+    public long bytes() {
+        long total = 0;
+        for (Rows rows : cache.values()) {
+            total += rows.bytes();
+        }
+        return total;
+    }
+
+    /**
+     * Evict least recently used datasets until we fit into budget. When a
+     * single dataset is larger than the whole budget, its neighbors are
+     * dropped.
+     *
+     * @param current recently modified entry
+     */
+    private synchronized void evict(Rows current) {
+        long total = bytes();
+        while (total > maxBytes) {
+            Map.Entry<Dataset<? extends Instance>, Rows> lru = null;
+            for (Map.Entry<Dataset<? extends Instance>, Rows> e : cache.entrySet()) {
+                if (e.getValue() != current && (lru == null || e.getValue().lastAccess < lru.getValue().lastAccess)) {
+                    lru = e;
+                }
+            }
+            if (lru == null) {
+                if (current != null) {
+                    current.clear();
+                }
+                return;
+            }
+            cache.remove(lru.getKey(), lru.getValue());
+            total -= lru.getValue().bytes();
+        }
+    }
+
+    /**
+     * Neighbors of all instances from one dataset, instance i occupies
+     * positions from i * stride to (i + 1) * stride
+     */
+    private static class Rows {
+
+        private int stride;
+        private int[] ids;
+        private double[] dist;
+        /**
+         * number of stored neighbors for each instance
+         */
+        private int[] count;
+        private volatile long lastAccess;
+
+        Rows(int capacity) {
+            count = new int[Math.max(capacity, 1)];
+            stride = 0;
+            ids = new int[0];
+            dist = new double[0];
+        }
+
+        synchronized int count(int id) {
+            return id < count.length ? count[id] : 0;
+        }
+
+        synchronized int[] getIds(int id, int k) {
+            if (id >= count.length || count[id] < k) {
+                return null;
+            }
+            int offset = id * stride;
+            return Arrays.copyOfRange(ids, offset, offset + k);
+        }
+
+        synchronized double[] getDistances(int id, int k) {
+            if (id >= count.length || count[id] < k) {
+                return null;
+            }
+            int offset = id * stride;
+            return Arrays.copyOfRange(dist, offset, offset + k);
+        }
+
+        /**
+         *
+         * @param id
+         * @param nn
+         * @param d
+         * @return true when blocks were reallocated
+         */
+        synchronized boolean put(int id, int[] nn, double[] d) {
+            boolean grown = false;
+            int k = nn.length;
+            if (id >= count.length) {
+                count = Arrays.copyOf(count, Math.max(id + 1, count.length + (count.length >> 1)));
+                grown = true;
+            }
+            if (k > stride || (long) count.length * stride > ids.length) {
+                resize(Math.max(k, stride));
+                grown = true;
+            }
+            int offset = id * stride;
+            System.arraycopy(nn, 0, ids, offset, k);
+            System.arraycopy(d, 0, dist, offset, k);
+            count[id] = k;
+            return grown;
+        }
+
+        private void resize(int newStride) {
+            long size = (long) count.length * newStride;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("can't cache " + newStride + " neighbors of " + count.length + " instances");
+            }
+            int[] newIds = new int[(int) size];
+            double[] newDist = new double[(int) size];
+            //preserve neighbors stored so far
+            for (int i = 0; i < count.length; i++) {
+                if (count[i] > 0) {
+                    System.arraycopy(ids, i * stride, newIds, i * newStride, count[i]);
+                    System.arraycopy(dist, i * stride, newDist, i * newStride, count[i]);
+                }
+            }
+            ids = newIds;
+            dist = newDist;
+            stride = newStride;
+        }
+
+        synchronized void clear() {
+            stride = 0;
+            ids = new int[0];
+            dist = new double[0];
+            Arrays.fill(count, 0);
+        }
+
+        synchronized long bytes() {
+            return 4L * ids.length + 8L * dist.length + 4L * count.length;
+        }
+
+        /**
+         *
+         * @param id
+         * @param k
+         * @return size of blocks after storing k neighbors of given instance
+         */
+        synchronized long bytesAfterPut(int id, int k) {
+            int capacity = count.length;
+            if (id >= capacity) {
+                capacity = Math.max(id + 1, capacity + (capacity >> 1));
+            }
+            return bytes(capacity, Math.max(k, stride));
+        }
+
+        /**
+         *
+         * @param capacity number of instances
+         * @param stride   number of neighbors per instance
+         * @return size of blocks
+         */
+        static long bytes(int capacity, int stride) {
+            return 12L * capacity * stride + 4L * Math.max(capacity, 1);
+        }
     }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Computes k nearest neighbors of all items in one parallel pass.
+ *
+ * For symmetric distances each pair is measured just once and offered to
+ * neighbors of both items. Rows are split into 2T blocks and pairs into tiles
+ * between two blocks, tiles are processed in rounds (round robin schedule) so
+ * that concurrent tiles never share a block. Heaps are therefore updated
+ * without locking and just one heap per row is needed. Asymmetric distances
+ * are computed row by row. When the measure is maximized (e.g. correlation), negated values
+ * are collected.
+ *
+ * Low dimensional data with Minkowski distances are indexed by a KD-tree, each
+ * row is then queried independently.
+ *
+ * @author Tomas Barton
+ */
+public class KnnGraphBuilder {
+
+    private final DistanceMeasure dm;
+    private int threads;
+
+    public KnnGraphBuilder(DistanceMeasure dm) {
+        this(dm, Runtime.getRuntime().availableProcessors());
+    }
+
+    public KnnGraphBuilder(DistanceMeasure dm, int threads) {
+        this.dm = dm;
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * IDs of k nearest neighbors of each instance
+     *
+     * @param dataset
+     * @param k
+     * @return array n x k, neighbors are sorted by distance
+     */
+    public int[][] neighbors(Dataset<? extends Instance> dataset, int k) {
+        return neighbors(dataset.asMatrix().getArray(), k);
+    }
+
+    /**
+     * IDs of k nearest neighbors of each row
+     *
+     * @param rows
+     * @param k
+     * @return array n x k, neighbors are sorted by distance
+     */
+    public int[][] neighbors(double[][] rows, int k) {
+        TopK[] heaps = compute(rows, k);
+        int[][] res = new int[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            res[i] = heaps[i].getIds();
+        }
+        return res;
+    }
+
+    /**
+     * Collect k nearest neighbors of each row
+     *
+     * @param rows
+     * @param k
+     * @return collector for each row (values are negated for maximized
+     *         measures)
+     */
+    public TopK[] compute(final double[][] rows, int k) {
+        final int n = rows.length;
+        if (k >= n) {
+            throw new IllegalArgumentException("Too many neighbours (" + k + "), not enough items (" + n + ")");
+        }
+        final TopK[] heaps = new TopK[n];
+        final KDTree tree;
+        if (n > 0 && rows[0].length <= KDTree.MAX_DIMS && KDTree.isSupported(dm)) {
+            tree = new KDTree(rows, dm);
+        } else {
+            tree = null;
+        }
+        final int kNN = k;
+        int tasks = Math.min(threads, n);
+        if (tasks == 1) {
+            if (tree == null) {
+                init(heaps, kNN, 0, 1);
+            }
+            computeRows(rows, heaps, tree, kNN, 0, 1);
+            return heaps;
+        }
+        ForkJoinPool pool = new ForkJoinPool(tasks);
+        try {
+            if (tree == null && dm.isSymmetric()) {
+                //any task might update any row, concurrent tiles don't overlap
+                init(heaps, kNN, 0, 1);
+                computeTiles(pool, rows, heaps, 2 * tasks);
+            } else {
+                List<Callable<Void>> jobs = new ArrayList<>(tasks);
+                for (int t = 0; t < tasks; t++) {
+                    final int first = t;
+                    final int step = tasks;
+                    jobs.add(new Callable<Void>() {
+
+                        @Override
+                        public Void call() throws Exception {
+                            if (tree == null) {
+                                init(heaps, kNN, first, step);
+                            }
+                            computeRows(rows, heaps, tree, kNN, first, step);
+                            return null;
+                        }
+                    });
+                }
+                invokeAll(pool, jobs);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return heaps;
+    }
+
+    /**
+     * Measure all pairs of rows with a symmetric distance. Pairs are split
+     * into tiles between blocks of rows, the circle method schedules tiles
+     * into rounds where each block is used at most once.
+     *
+     * @param pool
+     * @param rows
+     * @param heaps  initialized heap for each row
+     * @param blocks even number of blocks
+     */
+    private void computeTiles(ForkJoinPool pool, double[][] rows, TopK[] heaps, int blocks) {
+        int[] start = new int[blocks + 1];
+        for (int b = 0; b <= blocks; b++) {
+            start[b] = (int) ((long) rows.length * b / blocks);
+        }
+        //heaps keep lowest values
+        double sign = dm.compare(1.0, 0.0) ? -1.0 : 1.0;
+        List<Callable<Void>> jobs = new ArrayList<>(blocks);
+        //pairs within each block
+        for (int b = 0; b < blocks; b++) {
+            jobs.add(tile(rows, heaps, start, b, b, sign));
+        }
+        invokeAll(pool, jobs);
+        //last block is fixed, others rotate
+        int m = blocks - 1;
+        for (int r = 0; r < m; r++) {
+            jobs.clear();
+            jobs.add(tile(rows, heaps, start, r, m, sign));
+            for (int p = 1; p < blocks / 2; p++) {
+                jobs.add(tile(rows, heaps, start, (r + p) % m, (r - p + m) % m, sign));
+            }
+            invokeAll(pool, jobs);
+        }
+    }
+
+    private Callable<Void> tile(final double[][] rows, final TopK[] heaps, final int[] start,
+            final int a, final int b, final double sign) {
+        return new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+                double d;
+                for (int i = start[a]; i < start[a + 1]; i++) {
+                    for (int j = (a == b) ? i + 1 : start[b]; j < start[b + 1]; j++) {
+                        d = sign * dm.measure(rows[i], rows[j]);
+                        heaps[i].offer(j, d);
+                        heaps[j].offer(i, d);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private void invokeAll(ForkJoinPool pool, List<Callable<Void>> jobs) {
+        try {
+            for (Future<Void> f : pool.invokeAll(jobs)) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    private void init(TopK[] heaps, int k, int first, int step) {
+        for (int i = first; i < heaps.length; i += step) {
+            heaps[i] = new TopK(k);
+        }
+    }
+
+    /**
+     * Process rows first, first + step, ...
+     *
+     * @param rows
+     * @param heaps
+     * @param tree  index or null for brute force search
+     * @param k
+     * @param first
+     * @param step
+     */
+    private void computeRows(double[][] rows, TopK[] heaps, KDTree tree, int k, int first, int step) {
+        int n = rows.length;
+        if (tree != null) {
+            for (int i = first; i < n; i += step) {
+                heaps[i] = tree.knn(rows[i], k, i);
+            }
+            return;
+        }
+        double d;
+        //heaps keep lowest values
+        double sign = dm.compare(1.0, 0.0) ? -1.0 : 1.0;
+        if (dm.isSymmetric()) {
+            for (int i = first; i < n; i += step) {
+                for (int j = i + 1; j < n; j++) {
+                    d = sign * dm.measure(rows[i], rows[j]);
+                    heaps[i].offer(j, d);
+                    heaps[j].offer(i, d);
+                }
+            }
+        } else {
+            //each thread owns its rows
+            for (int i = first; i < n; i += step) {
+                for (int j = 0; j < n; j++) {
+                    if (i != j) {
+                        heaps[i].offer(j, sign * dm.measure(rows[i], rows[j]));
+                    }
+                }
+            }
+        }
+    }
+
+}
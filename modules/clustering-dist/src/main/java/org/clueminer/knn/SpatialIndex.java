@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Index for fast nearest neighbors search in a static set of vectors
+ *
+ * @author Tomas Barton
+ */
+public interface SpatialIndex {
+
+    /**
+     *
+     * @return number of indexed items
+     */
+    int size();
+
+    /**
+     *
+     * @return distance used for building the index
+     */
+    DistanceMeasure getDistanceMeasure();
+
+    /**
+     *
+     * @param i
+     * @return indexed vector with given ID
+     */
+    double[] get(int i);
+
+    /**
+     * Find k nearest neighbors of given vector
+     *
+     * @param query
+     * @param k       number of neighbors
+     * @param exclude ID of item which should not be returned (usually the
+     *                query itself), -1 to return all items
+     * @return collected neighbors
+     */
+    TopK knn(double[] query, int k, int exclude);
+
+    /**
+     * Find all items within given distance
+     *
+     * @param query
+     * @param radius  maximal distance (inclusive)
+     * @param exclude ID of item which should not be returned, -1 to return
+     *                all items
+     * @return IDs of items (unordered)
+     */
+    int[] range(double[] query, double radius, int exclude);
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+/**
+ * Collects k items with lowest distance. Bounded max-heap stored in primitive
+ * arrays, the worst of collected items is on top, so each candidate is checked
+ * in O(1) and inserted in O(log k).
+ *
+ * Items with equal distance are ordered by ID, therefore result doesn't depend
+ * on the order in which candidates are offered.
+ *
+ * @author Tomas Barton
+ */
+public class TopK {
+
+    private final int k;
+    private final int[] ids;
+    private final double[] dist;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive, got " + k);
+        }
+        this.k = k;
+        this.ids = new int[k];
+        this.dist = new double[k];
+    }
+
+    /**
+     * Offer a candidate
+     *
+     * @param id
+     * @param d  distance of the candidate
+     * @return true when candidate was accepted
+     */
+    public boolean offer(int id, double d) {
+        if (size < k) {
+            ids[size] = id;
+            dist[size] = d;
+            siftUp(size++);
+            return true;
+        }
+        if (worse(ids[0], dist[0], id, d)) {
+            ids[0] = id;
+            dist[0] = d;
+            siftDown(0, size);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Offer all items collected by another heap
+     *
+     * @param other
+     */
+    public void offerAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.dist[i]);
+        }
+    }
+
+    /**
+     *
+     * @return distance of the k-th item, infinity until we have k items
+     */
+    public double worst() {
+        return size < k ? Double.POSITIVE_INFINITY : dist[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public boolean isFull() {
+        return size == k;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     *
+     * @return IDs sorted by distance (ascending)
+     */
+    public int[] getIds() {
+        int[] resIds = new int[size];
+        sorted(resIds, new double[size]);
+        return resIds;
+    }
+
+    /**
+     *
+     * @return distances sorted in ascending order
+     */
+    public double[] getDistances() {
+        double[] resDist = new double[size];
+        sorted(new int[size], resDist);
+        return resDist;
+    }
+
+    /**
+     * Copy collected items sorted by distance (ascending), heap is not
+     * modified
+     *
+     * @param resIds  array of at least size() items
+     * @param resDist array of at least size() items
+     */
+    public void sorted(int[] resIds, double[] resDist) {
+        System.arraycopy(ids, 0, resIds, 0, size);
+        System.arraycopy(dist, 0, resDist, 0, size);
+        //heap sort, largest item is moved to the end
+        for (int end = size - 1; end > 0; end--) {
+            swap(resIds, resDist, 0, end);
+            siftDown(resIds, resDist, 0, end);
+        }
+    }
+
+    /**
+     * whether item a is worse (more distant) than b
+     */
+    private static boolean worse(int idA, double distA, int idB, double distB) {
+        return distA > distB || (distA == distB && idA > idB);
+    }
+
+    private void siftUp(int i) {
+        int parent;
+        while (i > 0) {
+            parent = (i - 1) >>> 1;
+            if (!worse(ids[i], dist[i], ids[parent], dist[parent])) {
+                break;
+            }
+            swap(ids, dist, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int end) {
+        siftDown(ids, dist, i, end);
+    }
+
+    private static void siftDown(int[] ids, double[] dist, int i, int end) {
+        int child;
+        while ((child = 2 * i + 1) < end) {
+            if (child + 1 < end && worse(ids[child + 1], dist[child + 1], ids[child], dist[child])) {
+                child++;
+            }
+            if (!worse(ids[child], dist[child], ids[i], dist[i])) {
+                break;
+            }
+            swap(ids, dist, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] ids, double[] dist, int a, int b) {
+        int tmp = ids[a];
+        ids[a] = ids[b];
+        ids[b] = tmp;
+        double d = dist[a];
+        dist[a] = dist[b];
+        dist[b] = d;
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Vantage-point tree, works with any metric (distance has to satisfy triangle
+ * inequality). Each node splits its items by median distance to a vantage
+ * point into inner and outer ball.
+ *
+ * Yianilos, P. N.: "Data structures and algorithms for nearest neighbor search
+ * in general metric spaces", Proceedings of the 4th ACM-SIAM Symposium on
+ * Discrete Algorithms (1993): 311-321.
+ *
+ * @author Tomas Barton
+ */
+public class VPTree implements SpatialIndex {
+
+    private static final int LEAF_SIZE = 16;
+    private final double[][] rows;
+    private final DistanceMeasure dm;
+    /**
+     * permutation of items, each node covers continuous range, vantage point
+     * is the first one
+     */
+    private final int[] index;
+    /**
+     * distances to vantage point, used only when building
+     */
+    private double[] keys;
+    private int[] start;
+    private int[] end;
+    private int[] inner;
+    private int[] outer;
+    private double[] mu;
+    private int nodes;
+    private final int root;
+    private final Random rand;
+
+    public VPTree(Dataset<? extends Instance> dataset, DistanceMeasure dm) {
+        this(dataset.asMatrix().getArray(), dm);
+    }
+
+    public VPTree(double[][] rows, DistanceMeasure dm) {
+        if (!isSupported(dm)) {
+            throw new IllegalArgumentException("VP-tree requires a metric, " + dm.getName() + " is not");
+        }
+        this.rows = rows;
+        this.dm = dm;
+        this.rand = new Random(rows.length);
+        int n = rows.length;
+        index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i;
+        }
+        keys = new double[n];
+        int capacity = Math.max(1, 4 * n / LEAF_SIZE);
+        start = new int[capacity];
+        end = new int[capacity];
+        inner = new int[capacity];
+        outer = new int[capacity];
+        mu = new double[capacity];
+        root = build(0, n);
+        keys = null;
+    }
+
+    /**
+     *
+     * @param dm
+     * @return true when distance is a metric with lowest values for most
+     *         similar items
+     */
+    public static boolean isSupported(DistanceMeasure dm) {
+        return dm.isSymmetric() && dm.isSubadditive() && !dm.compare(1.0, 0.0);
+    }
+
+    private int build(int from, int to) {
+        int node = newNode(from, to);
+        if (to - from <= LEAF_SIZE) {
+            return node;
+        }
+        //random vantage point is moved to the front
+        swap(from, from + rand.nextInt(to - from));
+        double[] vp = rows[index[from]];
+        for (int i = from + 1; i < to; i++) {
+            keys[i] = dm.measure(vp, rows[index[i]]);
+        }
+        int mid = (from + 1 + to) >>> 1;
+        select(from + 1, to - 1, mid);
+        mu[node] = keys[mid];
+        int in = build(from + 1, mid);
+        int out = build(mid, to);
+        inner[node] = in;
+        outer[node] = out;
+        return node;
+    }
+
+    private int newNode(int from, int to) {
+        if (nodes == start.length) {
+            int capacity = start.length + (start.length >> 1) + 1;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            inner = Arrays.copyOf(inner, capacity);
+            outer = Arrays.copyOf(outer, capacity);
+            mu = Arrays.copyOf(mu, capacity);
+        }
+        int node = nodes++;
+        start[node] = from;
+        end[node] = to;
+        inner[node] = -1;
+        outer[node] = -1;
+        return node;
+    }
+
+    /**
+     * Quickselect by distance to vantage point
+     */
+    private void select(int lo, int hi, int k) {
+        int i, j;
+        double pivot;
+        while (hi > lo) {
+            pivot = keys[(lo + hi) >>> 1];
+            i = lo;
+            j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        int tmp = index[a];
+        index[a] = index[b];
+        index[b] = tmp;
+        double d = keys[a];
+        keys[a] = keys[b];
+        keys[b] = d;
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    @Override
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    @Override
+    public double[] get(int i) {
+        return rows[i];
+    }
+
+    @Override
+    public TopK knn(double[] query, int k, int exclude) {
+        TopK heap = new TopK(k);
+        knn(root, query, heap, exclude);
+        return heap;
+    }
+
+    private void knn(int node, double[] query, TopK heap, int exclude) {
+        int id;
+        if (inner[node] < 0) {
+            for (int i = start[node]; i < end[node]; i++) {
+                id = index[i];
+                if (id != exclude) {
+                    heap.offer(id, dm.measure(query, rows[id]));
+                }
+            }
+            return;
+        }
+        id = index[start[node]];
+        double d = dm.measure(query, rows[id]);
+        if (id != exclude) {
+            heap.offer(id, d);
+        }
+        //inner items are within mu from vantage point, outer beyond mu
+        if (d < mu[node]) {
+            knn(inner[node], query, heap, exclude);
+            if (mu[node] - d <= heap.worst()) {
+                knn(outer[node], query, heap, exclude);
+            }
+        } else {
+            knn(outer[node], query, heap, exclude);
+            if (d - mu[node] <= heap.worst()) {
+                knn(inner[node], query, heap, exclude);
+            }
+        }
+    }
+
+    @Override
+    public int[] range(double[] query, double radius, int exclude) {
+        IntArrayList res = new IntArrayList();
+        range(root, query, radius, exclude, res);
+        return res.toIntArray();
+    }
+
+    private void range(int node, double[] query, double radius, int exclude, IntArrayList res) {
+        int id;
+        if (inner[node] < 0) {
+            for (int i = start[node]; i < end[node]; i++) {
+                id = index[i];
+                if (id != exclude && dm.measure(query, rows[id]) <= radius) {
+                    res.add(id);
+                }
+            }
+            return;
+        }
+        id = index[start[node]];
+        double d = dm.measure(query, rows[id]);
+        if (id != exclude && d <= radius) {
+            res.add(id);
+        }
+        if (d - mu[node] <= radius) {
+            range(inner[node], query, radius, exclude, res);
+        }
+        if (mu[node] - d <= radius) {
+            range(outer[node], query, radius, exclude, res);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.distance.api.KNN;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * k-nearest neighbors search using vantage-point tree, works with any metric
+ *
+ * @author Tomas Barton
+ */
+@ServiceProvider(service = KNN.class, position = 300)
+public class VpTreeKNN extends AbstractTreeKNN {
+
+    private static final String name = "vp-tree k-nn";
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    protected boolean isSupported(DistanceMeasure dm) {
+        return VPTree.isSupported(dm);
+    }
+
+    @Override
+    protected SpatialIndex build(Dataset<? extends Instance> dataset, DistanceMeasure dm) {
+        return new VPTree(dataset, dm);
+    }
+
+}
@@ -102,4 +102,13 @@ public class CorrelationDistanceTest {
 
         assertEquals(subject.isIndiscernible(), 0.0 == subject.measure(x, y));
     }
+
+    @Test
+    public void testMeasurePrimitive() {
+        double[] a = new double[]{1, 2, 3, 5};
+        double[] b = new double[]{2, 4, 6, 1};
+        Vector x = new DoubleArrayDataRow(a);
+        Vector y = new DoubleArrayDataRow(b);
+        assertEquals(subject.measure(x, y), subject.measure(a, b), delta);
+    }
 }
@@ -101,4 +101,11 @@ public class CosineDistanceTest {
         assertEquals(true, subject.isIndiscernible());
     }
 
+    @Test
+    public void testMeasurePrimitive() {
+        double[] x = {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+        double[] y = {0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1};
+        assertEquals(0.6666666666666666, subject.measure(x, y), delta);
+        assertEquals(2.0, subject.measure(new double[]{0, 0}, new double[]{1, 1}), delta);
+    }
 }
@@ -109,4 +109,24 @@ public class EuclideanDistanceTest {
         weights = new double[]{0.5, 0.5};
         assertEquals(2.5, subject.measure(x, y, weights), delta);
     }
+
+    @Test
+    public void testMeasurePrimitive() {
+        assertEquals(5.0, subject.measure(new double[]{0, 0}, new double[]{3, 4}), delta);
+        assertEquals(subject.measure(x, y), subject.measure(x.arrayCopy(), y.arrayCopy()), delta);
+    }
+
+    @Test
+    public void testMeasureOffset() {
+        //row-major matrix with 3 rows
+        double[] data = new double[]{1, 1, 0, 0, 3, 4};
+        assertEquals(5.0, subject.measure(data, 2, 4, 2), delta);
+        assertEquals(Math.sqrt(2), subject.measure(data, 0, 2, 2), delta);
+        assertEquals(0.0, subject.measure(data, 4, 4, 2), delta);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testMeasurePrimitiveDifferentSize() {
+        subject.measure(new double[]{0, 0}, new double[]{3, 4, 5});
+    }
 }
@@ -97,4 +97,11 @@ public class ManhattanDistanceTest {
         assertEquals(true, subject.isIndiscernible());
     }
 
+    @Test
+    public void testMeasurePrimitive() {
+        Vector x = new DoubleArrayDataRow(new double[]{1, 2, 3});
+        Vector y = new DoubleArrayDataRow(new double[]{2, 4, 9});
+        assertEquals(9.0, subject.measure(new double[]{1, 2, 3}, new double[]{2, 4, 9}), delta);
+        assertEquals(subject.measure(x, y), subject.measure(new double[]{1, 2, 3}, new double[]{2, 4, 9}), delta);
+    }
 }
@@ -199,4 +199,13 @@ public class PearsonDistanceTest {
     @Test
     public void testGetMaxValue() {
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMeasurePrimitive() {
+        double[] a = new double[]{1.0, Double.NaN, 3.0, 4.5};
+        double[] b = new double[]{2.0, 4.0, 5.0, 1.5};
+        u = new DenseVector(a);
+        v = new DenseVector(b);
+        assertEquals(test.measure(u, v), test.measure(a, b), delta);
+    }
+}
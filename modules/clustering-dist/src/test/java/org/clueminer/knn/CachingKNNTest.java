@@ -20,6 +20,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
 import org.clueminer.dataset.plugin.ArrayDataset;
 import org.clueminer.fixtures.CommonFixture;
 import org.clueminer.io.ARFFHandler;
@@ -73,6 +74,13 @@ public class CachingKNNTest {
         assertEquals(k, nn.length);
     }
 
+    @Test
+    public void testSingleInstance() {
+        Dataset<? extends Instance> d = DatasetGenerator.uniform(1, 2, 1.0, 0);
+        assertEquals(0, subject.nnIds(0, 5, d, new Props()).length);
+        assertEquals(0, subject.nn(0, 5, d, new Props()).length);
+    }
+
     public Dataset<? extends Instance> insectDataset() {
         if (insectData == null) {
             CommonFixture tf = new CommonFixture();
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.CosineDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import static org.clueminer.knn.SpatialIndexAssert.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class KDTreeTest {
+
+    private final DistanceMeasure dm = new EuclideanDistance();
+
+    @Test
+    public void testKnn() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(500, 3, 10, 7));
+        assertKnn(new KDTree(data, dm), data, dm, 6, 7);
+    }
+
+    @Test
+    public void testKnnClusters() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.blobs(400, 3, 4, 10, 0.5, 7));
+        assertKnn(new KDTree(data, dm), data, dm, 10, 9);
+    }
+
+    @Test
+    public void testRange() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(300, 3, 10, 7));
+        assertRange(new KDTree(data, dm), data, dm, 2.5, 11);
+    }
+
+    @Test
+    public void testSameItems() {
+        double[][] data = new double[40][2];
+        KDTree subject = new KDTree(data, dm);
+        assertArrayEquals(new int[]{0, 1, 2}, subject.knn(data[0], 3, -1).getIds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonMinkowskiDistance() {
+        new KDTree(new double[10][2], new CosineDistance());
+    }
+
+}
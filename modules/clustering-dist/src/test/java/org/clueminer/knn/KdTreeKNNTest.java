@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.dataset.plugin.DenseDataset;
+import org.clueminer.distance.api.DistanceFactory;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.distance.api.KnnFactory;
+import static org.clueminer.knn.SpatialIndexAssert.*;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class KdTreeKNNTest {
+
+    private KdTreeKNN subject;
+    private Props params;
+    private DistanceMeasure dm;
+
+    @Before
+    public void setUp() {
+        subject = new KdTreeKNN();
+        params = new Props();
+        params.put(AgglParams.DIST, "Euclidean");
+        dm = DistanceFactory.getInstance().getProvider("Euclidean");
+    }
+
+    @Test
+    public void testLookup() {
+        assertTrue(KnnFactory.getInstance().getProvider(subject.getName()) instanceof KdTreeKNN);
+    }
+
+    @Test
+    public void testNnIds() {
+        Dataset<? extends Instance> d = DatasetGenerator.blobs(300, 3, 5, 10, 1.0, 3);
+        double[][] data = DatasetGenerator.toArray(d);
+        assertTrue(subject.getIndex(d, params) instanceof KDTree);
+        for (int i = 0; i < d.size(); i += 7) {
+            assertArrayEquals(bruteForce(data, i, 5, dm), subject.nnIds(i, 5, d, params));
+        }
+    }
+
+    @Test
+    public void testIndexRebuiltOnModification() {
+        Dataset<? extends Instance> d = DatasetGenerator.uniform(100, 2, 10, 5);
+        SpatialIndex index = subject.getIndex(d, params);
+        assertTrue(subject.nnIds(0, 1, d, params)[0] != 50);
+        //move instance 50 on top of instance 0, size stays the same
+        for (int j = 0; j < d.attributeCount(); j++) {
+            d.set(50, j, d.get(0, j) + 1e-3);
+        }
+        assertNotSame(index, subject.getIndex(d, params));
+        assertArrayEquals(new int[]{50}, subject.nnIds(0, 1, d, params));
+        assertSame(subject.getIndex(d, params), subject.getIndex(d, params));
+    }
+
+    @Test
+    public void testDenseDatasetModified() {
+        Dataset<? extends Instance> d = new DenseDataset(DatasetGenerator.toArray(DatasetGenerator.uniform(100, 2, 10, 5)));
+        SpatialIndex index = subject.getIndex(d, params);
+        assertTrue(subject.nnIds(0, 1, d, params)[0] != 50);
+        d.set(50, 0, d.get(0, 0) + 1e-3);
+        //value set through the instance
+        d.get(50).set(1, d.get(0, 1) + 1e-3);
+        assertNotSame(index, subject.getIndex(d, params));
+        assertArrayEquals(new int[]{50}, subject.nnIds(0, 1, d, params));
+
+        index = subject.getIndex(d, params);
+        ((DenseDataset) d).addRow(new double[]{d.get(0, 0), d.get(0, 1)}, 0, 2);
+        assertNotSame(index, subject.getIndex(d, params));
+        assertArrayEquals(new int[]{100}, subject.nnIds(0, 1, d, params));
+    }
+
+    @Test
+    public void testNoNeighbors() {
+        Dataset<? extends Instance> d = DatasetGenerator.uniform(1, 2, 10, 5);
+        assertEquals(0, subject.nnIds(0, 3, d, params).length);
+        d = DatasetGenerator.uniform(10, 2, 10, 5);
+        assertEquals(0, subject.nnIds(0, 0, d, params).length);
+    }
+
+    @Test
+    public void testUnsupportedDistance() {
+        Dataset<? extends Instance> d = DatasetGenerator.uniform(50, 3, 10, 9);
+        params.put(AgglParams.DIST, "Cosine");
+        assertNull(subject.getIndex(d, params));
+        CachingKNN bruteForce = new CachingKNN();
+        for (int i = 0; i < d.size(); i += 5) {
+            assertArrayEquals(bruteForce.nnIds(i, 4, d, params), subject.nnIds(i, 4, d, params));
+        }
+    }
+
+}
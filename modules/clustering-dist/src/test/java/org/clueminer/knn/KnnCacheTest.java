@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class KnnCacheTest {
+
+    private static final double delta = 1e-9;
+
+    @Test
+    public void testPutGet() {
+        KnnCache subject = new KnnCache(KnnCache.DEFAULT_MAX_BYTES);
+        Dataset<? extends Instance> d = DatasetGenerator.uniform(10, 2, 1.0, 0);
+        assertFalse(subject.contains(d, 3));
+        subject.put(d, 3, new int[]{5, 1, 7}, new double[]{0.1, 0.2, 0.3});
+        assertTrue(subject.containsKey(d));
+        assertTrue(subject.contains(d, 3));
+        assertArrayEquals(new int[]{5, 1}, subject.getIds(d, 3, 2));
+        assertArrayEquals(new double[]{0.1, 0.2, 0.3}, subject.getDistances(d, 3, 3), delta);
+        //not enough neighbors cached
+        assertNull(subject.getIds(d, 3, 4));
+        assertNull(subject.getIds(d, 4, 1));
+
+        //larger k reallocates blocks, previous rows are kept
+        subject.put(d, 4, new int[]{0, 1, 2, 3, 5}, new double[]{1, 2, 3, 4, 5});
+        assertArrayEquals(new int[]{5, 1, 7}, subject.getIds(d, 3, 3));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 5}, subject.getIds(d, 4, 5));
+    }
+
+    @Test
+    public void testIdentityKeys() {
+        KnnCache subject = new KnnCache(KnnCache.DEFAULT_MAX_BYTES);
+        Dataset<? extends Instance> a = DatasetGenerator.uniform(5, 2, 1.0, 0);
+        Dataset<? extends Instance> b = DatasetGenerator.uniform(5, 2, 1.0, 0);
+        subject.put(a, 0, new int[]{1}, new double[]{1.0});
+        assertFalse(subject.containsKey(b));
+        subject.remove(a);
+        assertFalse(subject.containsKey(a));
+    }
+
+    @Test
+    public void testEviction() {
+        Dataset<? extends Instance> a = DatasetGenerator.uniform(100, 2, 1.0, 0);
+        Dataset<? extends Instance> b = DatasetGenerator.uniform(100, 2, 1.0, 0);
+        //one dataset with 5 neighbors takes 100 * (5 * 12 + 4) bytes
+        KnnCache subject = new KnnCache(10000);
+        subject.put(a, 99, new int[]{1, 2, 3, 4, 5}, new double[]{1, 2, 3, 4, 5});
+        assertTrue(subject.bytes() <= subject.getMaxBytes());
+        subject.put(b, 99, new int[]{1, 2, 3, 4, 5}, new double[]{1, 2, 3, 4, 5});
+        //least recently used dataset was evicted
+        assertFalse(subject.containsKey(a));
+        assertTrue(subject.contains(b, 99));
+        assertTrue(subject.bytes() <= subject.getMaxBytes());
+
+        //single dataset exceeding budget is not kept
+        subject.setMaxBytes(100);
+        assertFalse(subject.contains(b, 99));
+        assertTrue(subject.bytes() <= 400);
+    }
+
+    @Test
+    public void testDatasetExceedingBudget() {
+        Dataset<? extends Instance> a = DatasetGenerator.uniform(100, 2, 1.0, 0);
+        KnnCache subject = new KnnCache(1000);
+        //blocks for 100 instances can't fit, nothing is allocated
+        for (int i = 0; i < 100; i++) {
+            subject.put(a, i, new int[]{1, 2, 3, 4, 5}, new double[]{1, 2, 3, 4, 5});
+            assertFalse(subject.containsKey(a));
+        }
+        assertEquals(0, subject.bytes());
+
+        //smaller k fits into larger budget, larger k doesn't replace it
+        subject.setMaxBytes(2000);
+        subject.put(a, 0, new int[]{1}, new double[]{1});
+        subject.put(a, 1, new int[]{1, 2, 3}, new double[]{1, 2, 3});
+        assertTrue(subject.contains(a, 0));
+        assertFalse(subject.contains(a, 1));
+        assertTrue(subject.bytes() <= subject.getMaxBytes());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.CosineDistance;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class KnnGraphBuilderTest {
+
+    private final DistanceMeasure dm = new EuclideanDistance();
+
+    @Test
+    public void testParallelSameAsSequential() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(200, 3, 1.0, 13));
+        int k = 7;
+        int[][] seq = new KnnGraphBuilder(dm, 1).neighbors(data, k);
+        int[][] par = new KnnGraphBuilder(dm, 4).neighbors(data, k);
+        for (int i = 0; i < data.length; i++) {
+            assertArrayEquals(seq[i], par[i]);
+        }
+    }
+
+    @Test
+    public void testSymmetricSharing() {
+        //not indexed by KD-tree, each pair is measured once
+        DistanceMeasure cosine = new CosineDistance();
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(150, 20, 1.0, 13));
+        int k = 5;
+        int[][] seq = new KnnGraphBuilder(cosine, 1).neighbors(data, k);
+        int[][] par = new KnnGraphBuilder(cosine, 4).neighbors(data, k);
+        for (int i = 0; i < data.length; i++) {
+            TopK ref = new TopK(k);
+            for (int j = 0; j < data.length; j++) {
+                if (i != j) {
+                    ref.offer(j, cosine.measure(data[i], data[j]));
+                }
+            }
+            assertArrayEquals(ref.getIds(), seq[i]);
+            assertArrayEquals(seq[i], par[i]);
+        }
+    }
+
+    @Test
+    public void testUnevenBlocks() {
+        //rows don't split evenly into blocks, some blocks are empty
+        DistanceMeasure cosine = new CosineDistance();
+        for (int n : new int[]{5, 37}) {
+            double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(n, 20, 1.0, 7));
+            int[][] seq = new KnnGraphBuilder(cosine, 1).neighbors(data, 3);
+            int[][] par = new KnnGraphBuilder(cosine, 3).neighbors(data, 3);
+            for (int i = 0; i < n; i++) {
+                assertArrayEquals(seq[i], par[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testBruteForce() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(50, 2, 1.0, 13));
+        int k = 4;
+        int[][] res = new KnnGraphBuilder(dm, 3).neighbors(data, k);
+        for (int i = 0; i < data.length; i++) {
+            TopK ref = new TopK(k);
+            for (int j = 0; j < data.length; j++) {
+                if (i != j) {
+                    ref.offer(j, dm.measure(data[i], data[j]));
+                }
+            }
+            assertArrayEquals(ref.getIds(), res[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyNeighbors() {
+        new KnnGraphBuilder(dm).neighbors(DatasetGenerator.toArray(DatasetGenerator.uniform(3, 2, 1.0, 13)), 3);
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import java.util.Arrays;
+import org.clueminer.distance.api.DistanceMeasure;
+import static org.junit.Assert.*;
+
+/**
+ * Comparison of spatial indexes with brute force search
+ *
+ * @author deric
+ */
+public class SpatialIndexAssert {
+
+    /**
+     *
+     * @param data
+     * @param i query instance (excluded from results)
+     * @param k
+     * @param dm
+     * @return IDs of k nearest neighbors found by linear scan
+     */
+    public static int[] bruteForce(double[][] data, int i, int k, DistanceMeasure dm) {
+        TopK ref = new TopK(k);
+        for (int j = 0; j < data.length; j++) {
+            if (j != i) {
+                ref.offer(j, dm.measure(data[i], data[j]));
+            }
+        }
+        return ref.getIds();
+    }
+
+    /**
+     * Compare k-NN of each step-th instance with brute force search
+     *
+     * @param index
+     * @param data
+     * @param dm
+     * @param k
+     * @param step
+     */
+    public static void assertKnn(SpatialIndex index, double[][] data, DistanceMeasure dm, int k, int step) {
+        assertEquals(data.length, index.size());
+        for (int i = 0; i < data.length; i += step) {
+            assertArrayEquals("instance " + i, bruteForce(data, i, k, dm), index.knn(data[i], k, i).getIds());
+        }
+    }
+
+    /**
+     * Compare range query of each step-th instance with brute force search
+     *
+     * @param index
+     * @param data
+     * @param dm
+     * @param radius
+     * @param step
+     */
+    public static void assertRange(SpatialIndex index, double[][] data, DistanceMeasure dm, double radius, int step) {
+        for (int i = 0; i < data.length; i += step) {
+            int cnt = 0;
+            for (int j = 0; j < data.length; j++) {
+                if (j != i && dm.measure(data[i], data[j]) <= radius) {
+                    cnt++;
+                }
+            }
+            int[] res = index.range(data[i], radius, i);
+            assertEquals("instance " + i, cnt, res.length);
+            Arrays.sort(res);
+            for (int j = 1; j < res.length; j++) {
+                assertTrue(res[j - 1] < res[j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class TopKTest {
+
+    private static final double delta = 1e-9;
+
+    @Test
+    public void testOffer() {
+        TopK subject = new TopK(3);
+        assertEquals(Double.POSITIVE_INFINITY, subject.worst(), delta);
+        double[] values = new double[]{5.0, 1.0, 4.0, 3.0, 9.0, 0.5, 2.0};
+        for (int i = 0; i < values.length; i++) {
+            subject.offer(i, values[i]);
+        }
+        assertTrue(subject.isFull());
+        assertEquals(2.0, subject.worst(), delta);
+        assertArrayEquals(new int[]{5, 1, 6}, subject.getIds());
+        assertArrayEquals(new double[]{0.5, 1.0, 2.0}, subject.getDistances(), delta);
+        //result is not modified by reading
+        assertArrayEquals(new int[]{5, 1, 6}, subject.getIds());
+        assertFalse(subject.offer(10, 7.0));
+    }
+
+    @Test
+    public void testTies() {
+        TopK a = new TopK(2);
+        TopK b = new TopK(2);
+        for (int i = 0; i < 5; i++) {
+            a.offer(i, 1.0);
+            b.offer(4 - i, 1.0);
+        }
+        //independent on insertion order
+        assertArrayEquals(new int[]{0, 1}, a.getIds());
+        assertArrayEquals(a.getIds(), b.getIds());
+    }
+
+    @Test
+    public void testOfferAll() {
+        TopK a = new TopK(3);
+        TopK b = new TopK(3);
+        a.offer(1, 0.5);
+        a.offer(2, 3.0);
+        b.offer(3, 1.0);
+        b.offer(4, 0.1);
+        TopK merged = new TopK(3);
+        merged.offerAll(a);
+        merged.offerAll(b);
+        assertArrayEquals(new int[]{4, 1, 3}, merged.getIds());
+        assertEquals(2, a.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidK() {
+        new TopK(0);
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2015 clueminer.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.clueminer.knn;
+
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.ManhattanDistance;
+import org.clueminer.distance.SupremumDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import static org.clueminer.knn.SpatialIndexAssert.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class VPTreeTest {
+
+    private final DistanceMeasure dm = new ManhattanDistance();
+
+    @Test
+    public void testKnn() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(500, 5, 10, 7));
+        assertKnn(new VPTree(data, dm), data, dm, 6, 7);
+    }
+
+    @Test
+    public void testKnnClusters() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.blobs(400, 5, 4, 10, 0.5, 7));
+        assertKnn(new VPTree(data, dm), data, dm, 10, 9);
+    }
+
+    @Test
+    public void testRange() {
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(300, 5, 10, 7));
+        assertRange(new VPTree(data, dm), data, dm, 2.5, 11);
+    }
+
+    @Test
+    public void testSameItems() {
+        double[][] data = new double[40][2];
+        VPTree subject = new VPTree(data, dm);
+        assertArrayEquals(new int[]{0, 1, 2}, subject.knn(data[0], 3, -1).getIds());
+    }
+
+    @Test
+    public void testSupremumDistance() {
+        DistanceMeasure sup = new SupremumDistance();
+        double[][] data = DatasetGenerator.toArray(DatasetGenerator.uniform(300, 4, 10, 11));
+        assertKnn(new VPTree(data, sup), data, sup, 5, 13);
+    }
+
+}
@@ -2,7 +2,12 @@ package org.clueminer.eval;
 
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.clustering.api.InternalEvaluator;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.eval.utils.LikelihoodStats;
 import org.clueminer.eval.utils.LogLikelihoodFunction;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
@@ -15,11 +20,10 @@ import org.openide.util.lookup.ServiceProvider;
  *
  */
 @ServiceProvider(service = InternalEvaluator.class)
-public class AIC extends AbstractEvaluator {
+public class AIC extends AbstractEvaluator implements IncrementalEvaluator {
 
     private static final String NAME = "AIC";
     private static final long serialVersionUID = -8805325971847590600L;
-    private static final LogLikelihoodFunction likelihood = new LogLikelihoodFunction();
 
     @Override
     public String getName() {
@@ -30,10 +34,9 @@ public class AIC extends AbstractEvaluator {
     public double score(Clustering<? extends Cluster> clusters, Props params) {
         // number of free parameters K
         double k = 1;
-        likelihood.setAlpha0(params.getDouble("likelihood.alpha", 0.1));
-        likelihood.setBeta0(params.getDouble("likelihood.beta", 0.1));
-        likelihood.setLambda0(params.getDouble("likelihood.lambda", 0.1));
-        likelihood.setMu0(params.getDouble("likelihood.mu", 0.0));
+        //configured per call, evaluators are shared between threads
+        LogLikelihoodFunction likelihood = new LogLikelihoodFunction();
+        likelihood.configure(params);
         // loglikelihood log(L)
         double l = likelihood.loglikelihoodsum(clusters);
         // AIC score
@@ -41,6 +44,20 @@ public class AIC extends AbstractEvaluator {
         return aic;
     }
 
+    @Override
+    public IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params) {
+        LogLikelihoodFunction func = new LogLikelihoodFunction();
+        func.configure(params);
+        return new LikelihoodStats(dataset, labels, k, func) {
+
+            @Override
+            public double score() {
+                // single free parameter
+                return 2 - 2 * loglikelihood();
+            }
+        };
+    }
+
     /**
      * Compares the two scores AIC scores. Returns true if the first score is
      * 'better' than the second score.
@@ -3,7 +3,11 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.ClusterEvaluation;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.InternalEvaluator;
+import org.clueminer.clustering.api.ProximityProvider;
+import org.clueminer.dataset.api.Dataset;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.MatrixProximity;
+import org.clueminer.eval.utils.Proximity;
 import org.clueminer.math.Matrix;
 import org.clueminer.utils.Props;
 
@@ -16,6 +20,11 @@ public abstract class AbstractEvaluator extends AbstractComparator implements In
     private static final long serialVersionUID = 6345948849700989503L;
 
     protected DistanceMeasure dm;
+    /**
+     * proximity matrix given to the current call of
+     * {@link #score(Clustering, Matrix, Props)}
+     */
+    private static final ThreadLocal<ProximityProvider> given = new ThreadLocal<>();
 
     @Override
     public void setDistanceMeasure(DistanceMeasure dm) {
@@ -37,9 +46,49 @@ public abstract class AbstractEvaluator extends AbstractComparator implements In
         return score(clusters, new Props());
     }
 
+    /**
+     * Given proximity matrix is used only during this call (it's expected to
+     * be computed by evaluator's distance measure), it's not shared with other
+     * evaluators
+     *
+     * @param clusters
+     * @param proximity
+     * @param params
+     * @return
+     */
     @Override
     public double score(Clustering clusters, Matrix proximity, Props params) {
-        return score(clusters, params);
+        Dataset dataset = clusters.getLookup().lookup(Dataset.class);
+        if (proximity == null || dataset == null || proximity.rowsCount() != dataset.size()
+                || proximity.columnsCount() != dataset.size()) {
+            return score(clusters, params);
+        }
+        ProximityProvider prev = given.get();
+        given.set(new MatrixProximity(proximity, dataset, dm));
+        try {
+            return score(clusters, params);
+        } finally {
+            given.set(prev);
+        }
+    }
+
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    /**
+     * Shared source of pairwise distances between clustered instances
+     *
+     * @param clusters
+     * @return
+     */
+    protected ProximityProvider proximity(Clustering clusters) {
+        ProximityProvider p = given.get();
+        if (p != null && p.getDataset() == clusters.getLookup().lookup(Dataset.class)
+                && Proximity.sameMeasure(p.getDistanceMeasure(), dm)) {
+            return p;
+        }
+        return Proximity.of(clusters, dm);
     }
 
 }
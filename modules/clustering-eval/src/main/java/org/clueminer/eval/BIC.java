@@ -2,7 +2,12 @@ package org.clueminer.eval;
 
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.clustering.api.InternalEvaluator;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.eval.utils.LikelihoodStats;
 import org.clueminer.eval.utils.LogLikelihoodFunction;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
@@ -16,11 +21,10 @@ import org.openide.util.lookup.ServiceProvider;
  * @author deric
  */
 @ServiceProvider(service = InternalEvaluator.class)
-public class BIC extends AbstractEvaluator {
+public class BIC extends AbstractEvaluator implements IncrementalEvaluator {
 
     private static final String NAME = "BIC";
     private static final long serialVersionUID = -8771446315217152042L;
-    private static final LogLikelihoodFunction likelihood = new LogLikelihoodFunction();
 
     @Override
     public String getName() {
@@ -34,10 +38,9 @@ public class BIC extends AbstractEvaluator {
         // sampelsize N
         double datasize = clusters.instancesCount();
 
-        likelihood.setAlpha0(params.getDouble("likelihood.alpha", 0.1));
-        likelihood.setBeta0(params.getDouble("likelihood.beta", 0.1));
-        likelihood.setLambda0(params.getDouble("likelihood.lambda", 0.1));
-        likelihood.setMu0(params.getDouble("likelihood.mu", 0.0));
+        //configured per call, evaluators are shared between threads
+        LogLikelihoodFunction likelihood = new LogLikelihoodFunction();
+        likelihood.configure(params);
         // loglikelihood log(L)
         double l = likelihood.loglikelihoodsum(clusters);
         // BIC score
@@ -45,6 +48,20 @@ public class BIC extends AbstractEvaluator {
         return bic;
     }
 
+    @Override
+    public IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params) {
+        LogLikelihoodFunction func = new LogLikelihoodFunction();
+        func.configure(params);
+        return new LikelihoodStats(dataset, labels, k, func) {
+
+            @Override
+            public double score() {
+                // single free parameter
+                return -2 * loglikelihood() + Math.log10(assigned);
+            }
+        };
+    }
+
     @Override
     public boolean isBetter(double score1, double score2) {
         // should be minimzed.
@@ -3,10 +3,9 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
-import org.clueminer.dataset.api.Dataset;
-import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.PairDistances;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -15,7 +14,9 @@ import org.openide.util.lookup.ServiceProvider;
  *
  * C_index = [d_w - min(d_w)] / [max(d_w) - min(d_w)],
  *
- * where d_w is the sum of the within cluster distances. The index was found to
+ * where d_w is the sum of the within cluster distances, min(d_w) (max(d_w)) is
+ * sum of N_w smallest (largest) distances between all pairs of instances and
+ * N_w number of within cluster pairs. The index was found to
  * exhibit excellent recovery characteristics by Milligan (1981a). The minimum
  * value across the hierarchy levels was used to indicate the optimal number of
  * clusters
@@ -43,31 +44,14 @@ public class CIndex extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        PairDistances pd = PairDistances.of(clusters, dm, params.getBoolean(PairDistances.PARALLEL, false));
+        double[] within = pd.getWithin();
         double dw = 0;
-        double minDw = Double.MAX_VALUE, maxDw = Double.MIN_VALUE;
-
-        Instance x, y;
-        // calculate intra cluster distances and sum of all
-        //for each cluster
-        for (int i = 0; i < clusters.size(); i++) {
-            Dataset d = clusters.get(i);
-            for (int j = 0; j < d.size(); j++) {
-                x = d.instance(j);
-                for (int k = j + 1; k < d.size(); k++) {
-                    y = d.instance(k);
-                    double distance = dm.measure(x, y);
-                    dw += distance;
-                    if (maxDw < distance) {
-                        maxDw = distance;
-                    }
-                    if (minDw > distance) {
-                        minDw = distance;
-                    }
-                }
-
-            }
+        for (double d : within) {
+            dw += d;
         }
-
+        double minDw = pd.minSum(within.length);
+        double maxDw = pd.maxSum(within.length);
         // calculate C Index
         double cIndex = (dw - minDw) / (maxDw - minDw);
         return cIndex;
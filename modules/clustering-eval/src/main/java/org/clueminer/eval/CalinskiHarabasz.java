@@ -4,9 +4,13 @@ import org.apache.commons.math3.util.FastMath;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.ClusterStats;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -27,7 +31,7 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Tomas Barton
  */
 @ServiceProvider(service = InternalEvaluator.class)
-public class CalinskiHarabasz extends AbstractEvaluator {
+public class CalinskiHarabasz extends AbstractEvaluator implements IncrementalEvaluator {
 
     private static final long serialVersionUID = -2699019526373205522L;
     private static final String name = "Calinski-Harabasz";
@@ -82,6 +86,94 @@ public class CalinskiHarabasz extends AbstractEvaluator {
         return squaredErrorSum;
     }
 
+    /**
+     * Supported only for Euclidean distance
+     *
+     * @param dataset
+     * @param labels
+     * @param k
+     * @param params
+     * @return
+     */
+    @Override
+    public IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params) {
+        if (!(dm instanceof EuclideanDistance)) {
+            return null;
+        }
+        return new Tracker(dataset, labels, k);
+    }
+
+    /**
+     * Between-cluster sum of squares is computed from sum of squared norms of
+     * cluster means and sum of cluster means (centroid of the clustering is an
+     * average of cluster centroids):
+     *
+     * B = sum |C| * |m_c - g|^2 = sum |C| * |m_c|^2 - 2 g * T + N * |g|^2
+     */
+    private static class Tracker extends ClusterStats {
+
+        private double within;
+        /**
+         * sum over clusters of |C| * |m_c|^2
+         */
+        private double between;
+        /**
+         * sum of cluster means
+         */
+        private final double[] means;
+
+        public Tracker(Dataset<? extends Instance> dataset, int[] labels, int k) {
+            super(dataset, labels, k, true);
+            means = new double[dim];
+            init(labels);
+        }
+
+        private void update(int c, int sign) {
+            if (size[c] == 0) {
+                return;
+            }
+            within += sign * squaredError(c);
+            double s = 0.0, v;
+            for (int j = 0; j < dim; j++) {
+                v = sum[c * dim + j];
+                s += v * v;
+                means[j] += sign * v / size[c];
+            }
+            between += sign * s / size[c];
+        }
+
+        @Override
+        protected void detach(int c) {
+            update(c, -1);
+        }
+
+        @Override
+        protected void attach(int c) {
+            update(c, 1);
+        }
+
+        @Override
+        public double score() {
+            if (k <= 1) {
+                return Double.NaN;
+            }
+            double g, gt = 0.0, gg = 0.0;
+            for (int j = 0; j < dim; j++) {
+                g = means[j] / k;
+                gt += g * total[j];
+                gg += g * g;
+            }
+            double b = between - 2 * gt + assigned * gg;
+            //all clusters are singletons
+            double w = k == assigned ? 0.0 : within;
+            double denom = w / (assigned - k);
+            if (denom == 0.0) {
+                return 0.0;
+            }
+            return (b / (k - 1)) / denom;
+        }
+    }
+
     /**
      * Should be maximized
      *
@@ -1,12 +1,17 @@
 package org.clueminer.eval;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.ClusterStats;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -21,7 +26,7 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Tomas Barton
  */
 @ServiceProvider(service = InternalEvaluator.class)
-public class DaviesBouldin extends AbstractEvaluator {
+public class DaviesBouldin extends AbstractEvaluator implements IncrementalEvaluator {
 
     private static final long serialVersionUID = -6973489229802690101L;
     private static final String name = "Davies-Bouldin";
@@ -93,6 +98,130 @@ public class DaviesBouldin extends AbstractEvaluator {
         return intraDist;
     }
 
+    @Override
+    public IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params) {
+        return new Tracker(dataset, labels, k, dm);
+    }
+
+    /**
+     * Centroids are computed from cluster sums, average distance to centroid
+     * is recomputed only for clusters which were changed by the last split or
+     * merge (members of each cluster are kept in a linked list).
+     */
+    private static class Tracker extends ClusterStats {
+
+        private final DistanceMeasure dm;
+        private int[] head;
+        private final int[] next;
+        private final int[] prev;
+        private double[] intra;
+        private boolean[] dirty;
+        private double[] centroids;
+
+        public Tracker(Dataset<? extends Instance> dataset, int[] labels, int k, DistanceMeasure dm) {
+            super(dataset, labels, k, false);
+            this.dm = dm;
+            head = new int[size.length];
+            Arrays.fill(head, -1);
+            next = new int[n];
+            prev = new int[n];
+            intra = new double[size.length];
+            dirty = new boolean[size.length];
+            init(labels);
+        }
+
+        @Override
+        protected void added(int i, int c) {
+            prev[i] = -1;
+            next[i] = head[c];
+            if (head[c] >= 0) {
+                prev[head[c]] = i;
+            }
+            head[c] = i;
+        }
+
+        @Override
+        protected void removed(int i, int c) {
+            if (prev[i] >= 0) {
+                next[prev[i]] = next[i];
+            } else {
+                head[c] = next[i];
+            }
+            if (next[i] >= 0) {
+                prev[next[i]] = prev[i];
+            }
+        }
+
+        @Override
+        protected void merged(int target, int source, int[] members) {
+            head[source] = -1;
+            for (int i : members) {
+                added(i, target);
+            }
+        }
+
+        @Override
+        protected void relocate(int from, int to) {
+            head[to] = head[from];
+            intra[to] = intra[from];
+            dirty[to] = dirty[from];
+            head[from] = -1;
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            int prevCap = head.length;
+            head = Arrays.copyOf(head, capacity);
+            Arrays.fill(head, prevCap, capacity, -1);
+            intra = Arrays.copyOf(intra, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+        }
+
+        @Override
+        protected void detach(int c) {
+            dirty[c] = true;
+        }
+
+        @Override
+        protected void attach(int c) {
+            dirty[c] = true;
+        }
+
+        @Override
+        public double score() {
+            if (centroids == null || centroids.length < k * dim) {
+                centroids = new double[size.length * dim];
+            }
+            for (int c = 0; c < k; c++) {
+                for (int j = 0; j < dim; j++) {
+                    centroids[c * dim + j] = sum[c * dim + j] / size[c];
+                }
+            }
+            for (int c = 0; c < k; c++) {
+                if (dirty[c]) {
+                    double d = 0.0;
+                    for (int i = head[c]; i >= 0; i = next[i]) {
+                        d += dm.measure(data, i * dim, centroids, c * dim, dim);
+                    }
+                    intra[c] = d / size[c];
+                    dirty[c] = false;
+                }
+            }
+            double db = 0, max, dij;
+            for (int i = 0; i < k; i++) {
+                max = Double.MIN_VALUE;
+                for (int j = i + 1; j < k; j++) {
+                    dij = (intra[i] + intra[j]) / dm.measure(centroids, i * dim, centroids, j * dim, dim);
+                    if (dij > max) {
+                        max = dij;
+                    }
+                }
+                db += max;
+            }
+            return db / k;
+        }
+    }
+
     /**
      * Should be minimized
      *
@@ -17,9 +17,8 @@
 package org.clueminer.eval;
 
 import org.clueminer.clustering.api.Cluster;
-import org.clueminer.clustering.api.ClusterLinkage;
 import org.clueminer.clustering.api.Clustering;
-import org.clueminer.clustering.api.factory.LinkageFactory;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.utils.Props;
@@ -53,13 +52,12 @@ public class Dunn2 extends DunnIndex {
         double maxIntraClusterdist = Double.MIN_VALUE, temp;
         double minClusterDistance = Double.MAX_VALUE;
         Cluster<? extends Instance> clusterX, clusterY;
-        ClusterLinkage link = LinkageFactory.getInstance().getProvider("Single Linkage");
-        link.setDistanceMeasure(dm);
+        ProximityProvider prox = proximity(clusters);
 
         for (int i = 0; i < clusters.size(); i++) {
             clusterX = clusters.get(i);
             //find maximal distance in between each cluster
-            temp = maxIntraClusterDistance(clusterX);
+            temp = maxIntraClusterDistance(clusterX, prox);
             if (temp > maxIntraClusterdist) {
                 maxIntraClusterdist = temp;
             }
@@ -70,7 +68,7 @@ public class Dunn2 extends DunnIndex {
                  * finding minimal distance between objects in both clusters
                  * corresponds to single linkage distance
                  */
-                temp = link.distance(clusterX, clusterY);
+                temp = minDistance(clusterX, clusterY, prox);
                 if (temp < minClusterDistance) {
                     minClusterDistance = temp;
                 }
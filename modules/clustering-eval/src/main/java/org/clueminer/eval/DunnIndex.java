@@ -2,9 +2,8 @@ package org.clueminer.eval;
 
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
-import org.clueminer.clustering.api.ClusterLinkage;
 import org.clueminer.clustering.api.Clustering;
-import org.clueminer.clustering.api.factory.LinkageFactory;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
@@ -47,13 +46,12 @@ public class DunnIndex extends AbstractEvaluator {
         double maxIntraClusterdist = Double.MIN_VALUE, temp;
         double minClusterDistance = Double.MAX_VALUE;
         Cluster<? extends Instance> clusterX, clusterY;
-        ClusterLinkage link = LinkageFactory.getInstance().getProvider("Single Linkage");
-        link.setDistanceMeasure(dm);
+        ProximityProvider prox = proximity(clusters);
 
         for (int i = 0; i < clusters.size(); i++) {
             clusterX = clusters.get(i);
             //find maximal distance in between each cluster
-            temp = maxIntraClusterDistance(clusterX);
+            temp = maxIntraClusterDistance(clusterX, prox);
             if (temp > maxIntraClusterdist) {
                 maxIntraClusterdist = temp;
             }
@@ -64,7 +62,7 @@ public class DunnIndex extends AbstractEvaluator {
                  * finding minimal distance between objects in both clusters
                  * corresponds to single linkage distance
                  */
-                temp = link.distance(clusterX, clusterY);
+                temp = minDistance(clusterX, clusterY, prox);
                 if (temp < minClusterDistance) {
                     minClusterDistance = temp;
                 }
@@ -75,6 +73,16 @@ public class DunnIndex extends AbstractEvaluator {
     }
 
     public double maxIntraClusterDistance(Dataset<? extends Instance> cluster) {
+        return maxIntraClusterDistance(cluster, null);
+    }
+
+    /**
+     *
+     * @param cluster
+     * @param prox source of distances, when null distance measure is used
+     * @return
+     */
+    protected double maxIntraClusterDistance(Dataset<? extends Instance> cluster, ProximityProvider prox) {
         double max = Double.MIN_VALUE;
         Instance x, y;
         double dist;
@@ -82,7 +90,7 @@ public class DunnIndex extends AbstractEvaluator {
             x = cluster.instance(i);
             for (int j = i + 1; j < cluster.size(); j++) {
                 y = cluster.instance(j);
-                dist = dm.measure(x, y);
+                dist = prox != null ? prox.distance(x, y) : dm.measure(x, y);
                 if (dist > max) {
                     max = dist;
                 }
@@ -91,6 +99,30 @@ public class DunnIndex extends AbstractEvaluator {
         return max;
     }
 
+    /**
+     * Minimal distance between objects in both clusters (corresponds to single
+     * linkage distance)
+     *
+     * @param clusterX
+     * @param clusterY
+     * @param prox
+     * @return
+     */
+    protected double minDistance(Dataset<? extends Instance> clusterX, Dataset<? extends Instance> clusterY, ProximityProvider prox) {
+        double min = Double.MAX_VALUE, dist;
+        Instance x;
+        for (int i = 0; i < clusterX.size(); i++) {
+            x = clusterX.instance(i);
+            for (int j = 0; j < clusterY.size(); j++) {
+                dist = prox.distance(x, clusterY.instance(j));
+                if (dist < min) {
+                    min = dist;
+                }
+            }
+        }
+        return min;
+    }
+
     /**
      * Should be maximized
      *
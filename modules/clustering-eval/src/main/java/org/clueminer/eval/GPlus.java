@@ -3,6 +3,7 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
@@ -34,6 +35,7 @@ public class GPlus extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        ProximityProvider prox = proximity(clusters);
         double maxIntraDist = Double.MIN_VALUE;
         double sMin = 0;
         double fw = 0, fb = 0;
@@ -49,7 +51,7 @@ public class GPlus extends AbstractEvaluator {
                 for (int k = j + 1; k < clust.size(); k++) {
                     fw++;
                     y = clust.instance(k);
-                    double distance = dm.measure(x, y);
+                    double distance = prox.distance(x, y);
                     if (maxIntraDist < distance) {
                         maxIntraDist = distance;
                     }
@@ -69,7 +71,7 @@ public class GPlus extends AbstractEvaluator {
                     for (int l = 0; l < b.size(); l++) {
                         y = b.instance(l);
                         fb++;
-                        double distance = dm.measure(x, y);
+                        double distance = prox.distance(x, y);
                         if (distance < maxIntraDist) {
                             sMin++;
                         }
@@ -3,10 +3,9 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
-import org.clueminer.dataset.api.Dataset;
-import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.PairDistances;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -19,6 +18,9 @@ import org.openide.util.lookup.ServiceProvider;
  * outcomes (Milligan, 1981a). Maximum values were taken to represent
  * the correct hierarchy level.
  *
+ * All within and between cluster distances are compared, the comparisons are
+ * counted by merging sorted distances in O(n^2 log n).
+ *
  * @author Tomas Barton
  *
  */
@@ -43,46 +45,9 @@ public class Gamma extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
-        double maxIntraDist = Double.MIN_VALUE;
-        double sPlus = 0, sMinus = 0;
-
-        Instance x, y;
-        Dataset a, b;
-        // calculate max intra cluster distance
-        for (int i = 0; i < clusters.size(); i++) {
-            a = clusters.get(i);
-            for (int j = 0; j < a.size(); j++) {
-                x = a.instance(j);
-                for (int k = j + 1; k < a.size(); k++) {
-                    y = a.instance(k);
-                    double distance = dm.measure(x, y);
-                    if (maxIntraDist < distance) {
-                        maxIntraDist = distance;
-                    }
-                }
-            }
-        }
-        // calculate inter cluster distances
-        // count sPlus and sMin
-        for (int i = 0; i < clusters.size(); i++) {
-            a = clusters.get(i);
-            for (int j = 0; j < a.size(); j++) {
-                x = a.instance(j);
-                for (int k = i + 1; k < clusters.size(); k++) {
-                    b = clusters.get(k);
-                    for (int l = 0; l < b.size(); l++) {
-                        y = b.instance(l);
-                        double distance = dm.measure(x, y);
-                        if (distance < maxIntraDist) {
-                            sMinus++;
-                        }
-                        if (distance > maxIntraDist) {
-                            sPlus++;
-                        }
-                    }
-                }
-            }
-        }
+        PairDistances pd = PairDistances.of(clusters, dm, params.getBoolean(PairDistances.PARALLEL, false));
+        double sPlus = pd.concordant();
+        double sMinus = pd.discordant();
         // calculate gamma
         double gamma = (sPlus - sMinus) / (sPlus + sMinus);
         return gamma;
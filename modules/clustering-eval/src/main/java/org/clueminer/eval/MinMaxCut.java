@@ -3,10 +3,10 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
-import org.clueminer.math.Matrix;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -31,6 +31,7 @@ public class MinMaxCut extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        ProximityProvider prox = proximity(clusters);
         Dataset a, b;
         double sum = 0;
         for (int i = 0; i < clusters.size(); i++) {
@@ -42,13 +43,13 @@ public class MinMaxCut extends AbstractEvaluator {
                     b = clusters.get(k);
                     for (int p = 0; p < b.size(); p++) {
                         if (a.instance(j) != b.instance(p)) {
-                            double error = dm.measure(a.instance(j), b.instance(p));
+                            double error = prox.distance(a.instance(j), b.instance(p));
                             tmpTop += error;
                         }
                     }
                 }
                 for (int k = 0; k < a.size(); k++) {
-                    double error = dm.measure(a.instance(j), a.instance(k));
+                    double error = prox.distance(a.instance(j), a.instance(k));
                     tmp += error;
                 }
             }
@@ -58,11 +59,6 @@ public class MinMaxCut extends AbstractEvaluator {
         return sum;
     }
 
-    @Override
-    public double score(Clustering clusters, Matrix proximity, Props params) {
-        return score(clusters, params);
-    }
-
     @Override
     public boolean isBetter(double score1, double score2) {
         // should be minimized
@@ -3,6 +3,7 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
@@ -35,6 +36,7 @@ public class PointBiserial extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        ProximityProvider prox = proximity(clusters);
         double dw = 0, fw = 0;
         double db = 0, fb = 0;
         double nd, sd, pb;
@@ -49,7 +51,7 @@ public class PointBiserial extends AbstractEvaluator {
                 // number.
                 for (int k = j + 1; k < first.size(); k++) {
                     y = first.instance(k);
-                    double distance = dm.measure(x, y);
+                    double distance = prox.distance(x, y);
                     dw += distance;
                     fw++;
                 }
@@ -59,7 +61,7 @@ public class PointBiserial extends AbstractEvaluator {
                     second = clusters.get(k);
                     for (int l = 0; l < second.size(); l++) {
                         y = second.instance(l);
-                        double distance = dm.measure(x, y);
+                        double distance = prox.distance(x, y);
                         db += distance;
                         fb++;
                     }
@@ -80,14 +82,14 @@ public class PointBiserial extends AbstractEvaluator {
                 x = first.instance(j);
                 for (int k = j + 1; k < first.size(); k++) {
                     y = first.instance(k);
-                    distance = dm.measure(x, y);
+                    distance = prox.distance(x, y);
                     tmpSdw += (distance - meanDw) * (distance - meanDw);
                 }
                 for (int k = i + 1; k < clusters.size(); k++) {
                     second = clusters.get(k);
                     for (int l = 0; l < second.size(); l++) {
                         y = second.instance(l);
-                        distance = dm.measure(x, y);
+                        distance = prox.distance(x, y);
                         tmpSdb += (distance - meanDb) * (distance - meanDb);
                     }
                 }
@@ -3,6 +3,7 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
@@ -40,10 +41,11 @@ public class Silhouette extends AbstractEvaluator {
     public double score(Clustering<? extends Cluster> clusters, Props params) {
         double score = 0;
         Cluster clust;
+        ProximityProvider prox = proximity(clusters);
         //for each cluster
         for (int i = 0; i < clusters.size(); i++) {
             clust = clusters.get(i);
-            score += clusterScore(clust, clusters, i);
+            score += clusterScore(clust, clusters, i, prox);
         }
         return (score / clusters.size());
     }
@@ -57,11 +59,15 @@ public class Silhouette extends AbstractEvaluator {
      * @return
      */
     public double clusterScore(Cluster clust, Clustering clusters, int i) {
+        return clusterScore(clust, clusters, i, proximity(clusters));
+    }
+
+    private double clusterScore(Cluster clust, Clustering clusters, int i, ProximityProvider prox) {
         double clusterDist = 0.0;
 
         //calculate distance to all other objects in cluster
         for (int j = 0; j < clust.size(); j++) {
-            clusterDist += instanceScore(clust, clusters, i, clust.instance(j));
+            clusterDist += instanceScore(clust, clusters, i, clust.instance(j), prox);
         }
         return (clusterDist / clust.size());
     }
@@ -75,13 +81,17 @@ public class Silhouette extends AbstractEvaluator {
      * @return
      */
     public double instanceScore(Cluster clust, Clustering clusters, int i, Instance x) {
+        return instanceScore(clust, clusters, i, x, proximity(clusters));
+    }
+
+    private double instanceScore(Cluster clust, Clustering clusters, int i, Instance x, ProximityProvider prox) {
         Instance y;
         double a, b, dist, denom;
         a = 0;
         for (int k = 0; k < clust.size(); k++) {
             y = clust.instance(k);
             if (x.getIndex() != y.getIndex()) {
-                dist = dm.measure(x, y);
+                dist = prox.distance(x, y);
                 a += dist;
             }
         }
@@ -89,7 +99,7 @@ public class Silhouette extends AbstractEvaluator {
         a /= clust.size() - 1;
 
         //find minimal distance to other clusters
-        b = minDistance(x, clusters, i);
+        b = minDistance(x, clusters, i, prox);
         denom = Math.max(b, a);
         //avoid NaN, if possible
         if (denom == 0.0 || a == b) {
@@ -108,9 +118,10 @@ public class Silhouette extends AbstractEvaluator {
      * @param x
      * @param clusters
      * @param i i-th cluster
+     * @param prox
      * @return
      */
-    private double minDistance(Instance x, Clustering clusters, int i) {
+    private double minDistance(Instance x, Clustering clusters, int i, ProximityProvider prox) {
         double minDist = Double.MAX_VALUE;
         double clusterDist;
         Instance y;
@@ -120,7 +131,7 @@ public class Silhouette extends AbstractEvaluator {
                 clusterDist = 0;
                 for (int j = 0; j < clust.size(); j++) {
                     y = clust.instance(j);
-                    clusterDist += dm.measure(x, y);
+                    clusterDist += prox.distance(x, y);
                 }
                 clusterDist /= clust.size();
                 if (clusterDist < minDist) {
@@ -3,6 +3,7 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
@@ -36,6 +37,7 @@ public class SumOfAveragePairwiseSimilarities extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        ProximityProvider prox = proximity(clusters);
 
         double sum = 0;
         Dataset clust;
@@ -44,7 +46,7 @@ public class SumOfAveragePairwiseSimilarities extends AbstractEvaluator {
             clust = clusters.get(i);
             for (int j = 0; j < clust.size(); j++) {
                 for (int k = 0; k < clust.size(); k++) {
-                    double error = dm.measure(clust.instance(j), clust.instance(k));
+                    double error = prox.distance(clust.instance(j), clust.instance(k));
                     tmpSum += error;
                 }
             }
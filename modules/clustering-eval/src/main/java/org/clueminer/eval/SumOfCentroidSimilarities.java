@@ -1,12 +1,16 @@
 package org.clueminer.eval;
 
+import java.util.Arrays;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.CosineDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.ClusterStats;
 import org.clueminer.utils.DatasetTools;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
@@ -16,7 +20,7 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Tomas Barton
  */
 @ServiceProvider(service = InternalEvaluator.class)
-public class SumOfCentroidSimilarities extends AbstractEvaluator {
+public class SumOfCentroidSimilarities extends AbstractEvaluator implements IncrementalEvaluator {
 
     private static String NAME = "Sum of Centroid Similarities";
     private static final long serialVersionUID = -2323688637159800449L;
@@ -52,6 +56,131 @@ public class SumOfCentroidSimilarities extends AbstractEvaluator {
         return sum;
     }
 
+    /**
+     * Supported only for cosine distance
+     *
+     * @param dataset
+     * @param labels
+     * @param k
+     * @param params
+     * @return
+     */
+    @Override
+    public IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params) {
+        if (!(dm instanceof CosineDistance)) {
+            return null;
+        }
+        return new Tracker(dataset, labels, k);
+    }
+
+    /**
+     * Sum of cosine distances to the centroid m of a cluster is
+     * |C| - (m / |m|) * sum(x / |x|), instances with zero norm have distance 2
+     * to any vector
+     */
+    private static class Tracker extends ClusterStats {
+
+        private final double[] norm;
+        /**
+         * sum of normalized instances in each cluster
+         */
+        private double[] units;
+        /**
+         * number of instances with zero norm
+         */
+        private int[] zeros;
+        private double distSum;
+
+        public Tracker(Dataset<? extends Instance> dataset, int[] labels, int k) {
+            super(dataset, labels, k, false);
+            norm = new double[n];
+            double s, v;
+            for (int i = 0; i < n; i++) {
+                s = 0.0;
+                for (int j = 0; j < dim; j++) {
+                    v = data[i * dim + j];
+                    s += v * v;
+                }
+                norm[i] = Math.sqrt(s);
+            }
+            units = new double[size.length * dim];
+            zeros = new int[size.length];
+            init(labels);
+        }
+
+        private void update(int i, int c, int sign) {
+            if (norm[i] == 0) {
+                zeros[c] += sign;
+            } else {
+                for (int j = 0; j < dim; j++) {
+                    units[c * dim + j] += sign * data[i * dim + j] / norm[i];
+                }
+            }
+        }
+
+        @Override
+        protected void added(int i, int c) {
+            update(i, c, 1);
+        }
+
+        @Override
+        protected void removed(int i, int c) {
+            update(i, c, -1);
+        }
+
+        @Override
+        protected void merged(int target, int source, int[] members) {
+            zeros[target] += zeros[source];
+            zeros[source] = 0;
+            for (int j = 0; j < dim; j++) {
+                units[target * dim + j] += units[source * dim + j];
+                units[source * dim + j] = 0.0;
+            }
+        }
+
+        @Override
+        protected void relocate(int from, int to) {
+            zeros[to] = zeros[from];
+            System.arraycopy(units, from * dim, units, to * dim, dim);
+            zeros[from] = 0;
+            Arrays.fill(units, from * dim, (from + 1) * dim, 0.0);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            units = Arrays.copyOf(units, capacity * dim);
+            zeros = Arrays.copyOf(zeros, capacity);
+        }
+
+        private double distances(int c) {
+            double s = 0.0, dot = 0.0, v;
+            for (int j = 0; j < dim; j++) {
+                v = sum[c * dim + j];
+                s += v * v;
+                dot += v * units[c * dim + j];
+            }
+            if (s == 0) {
+                return 2.0 * size[c];
+            }
+            return 2.0 * zeros[c] + (size[c] - zeros[c]) - dot / Math.sqrt(s);
+        }
+
+        @Override
+        protected void detach(int c) {
+            distSum -= distances(c);
+        }
+
+        @Override
+        protected void attach(int c) {
+            distSum += distances(c);
+        }
+
+        @Override
+        public double score() {
+            return distSum;
+        }
+    }
+
     @Override
     public boolean isBetter(double score1, double score2) {
         // should be minimized -- probably not, doesnt work
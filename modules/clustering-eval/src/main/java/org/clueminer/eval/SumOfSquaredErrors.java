@@ -3,9 +3,14 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
 import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.utils.ClusterStats;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -17,7 +22,7 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Tomas Barton
  */
 @ServiceProvider(service = InternalEvaluator.class)
-public class SumOfSquaredErrors extends AbstractEvaluator {
+public class SumOfSquaredErrors extends AbstractEvaluator implements IncrementalEvaluator {
 
     private static String NAME = "Sum of squared errors";
     private static final long serialVersionUID = 7246192305561714193L;
@@ -37,6 +42,7 @@ public class SumOfSquaredErrors extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        ProximityProvider prox = proximity(clusters);
         double sum = 0;
         Dataset clust;
         for (int i = 0; i < clusters.size(); i++) {
@@ -44,7 +50,7 @@ public class SumOfSquaredErrors extends AbstractEvaluator {
             double tmpSum = 0;
             for (int j = 0; j < clust.size(); j++) {
                 for (int k = 0; k < clust.size(); k++) {
-                    double error = dm.measure(clust.instance(j), clust.instance(k));
+                    double error = prox.distance(clust.instance(j), clust.instance(k));
                     tmpSum += error * error;
                 }
 
@@ -54,6 +60,52 @@ public class SumOfSquaredErrors extends AbstractEvaluator {
         return sum;
     }
 
+    /**
+     * Supported only for Euclidean distance
+     *
+     * @param dataset
+     * @param labels
+     * @param k
+     * @param params
+     * @return
+     */
+    @Override
+    public IncrementalScore track(Dataset<? extends Instance> dataset, int[] labels, int k, Props params) {
+        if (!(dm instanceof EuclideanDistance)) {
+            return null;
+        }
+        return new Tracker(dataset, labels, k);
+    }
+
+    /**
+     * Sum of squared distances between all pairs of instances in a cluster
+     * divided by cluster size is equal to 2 * squared error of the cluster
+     */
+    private static class Tracker extends ClusterStats {
+
+        private double within;
+
+        public Tracker(Dataset<? extends Instance> dataset, int[] labels, int k) {
+            super(dataset, labels, k, true);
+            init(labels);
+        }
+
+        @Override
+        protected void detach(int c) {
+            within -= squaredError(c);
+        }
+
+        @Override
+        protected void attach(int c) {
+            within += squaredError(c);
+        }
+
+        @Override
+        public double score() {
+            return 2 * within;
+        }
+    }
+
     @Override
     public boolean isBetter(double score1, double score2) {
         // TODO solve bug: score is NaN when clusters with 0 instances
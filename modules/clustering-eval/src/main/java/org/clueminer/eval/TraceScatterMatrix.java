@@ -5,7 +5,7 @@ import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
-import org.clueminer.dataset.plugin.SampleDataset;
+import org.clueminer.dataset.row.DoubleArrayDataRow;
 import org.clueminer.distance.CosineDistance;
 import org.clueminer.distance.api.DistanceMeasure;
 import org.clueminer.utils.DatasetTools;
@@ -56,15 +56,24 @@ public class TraceScatterMatrix extends AbstractEvaluator {
         }
 
         // calculate centroid all instances
-        // firs put all cluster back together
-        Dataset data = new SampleDataset();
-        data.setAttributes(dataset.getAttributes());
+        // (dataset's attributes must not be shared with a temporary dataset,
+        // their statistics would be updated)
+        double[] total = new double[dataset.attributeCount()];
+        int cnt = 0;
+        Cluster<? extends Instance> clust;
         for (int i = 0; i < clusters.size(); i++) {
-            for (int j = 0; j < clusters.get(i).size(); j++) {
-                data.add(clusters.get(i).instance(j));
+            clust = clusters.get(i);
+            for (int j = 0; j < clust.size(); j++) {
+                for (int k = 0; k < total.length; k++) {
+                    total[k] += clust.instance(j).value(k);
+                }
             }
+            cnt += clust.size();
         }
-        overAllCentroid = DatasetTools.average(data);
+        for (int k = 0; k < total.length; k++) {
+            total[k] /= cnt;
+        }
+        overAllCentroid = new DoubleArrayDataRow(total);
         // calculate trace of the between-cluster scatter matrix.
         double sum = 0;
         for (int i = 0; i < clusters.size(); i++) {
@@ -3,6 +3,7 @@ package org.clueminer.eval;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.EuclideanDistance;
@@ -36,6 +37,7 @@ public class WB extends AbstractEvaluator {
 
     @Override
     public double score(Clustering<? extends Cluster> clusters, Props params) {
+        ProximityProvider prox = proximity(clusters);
         double dw = 0, fw = 0;
         double db = 0, fb = 0;
         double distance;
@@ -50,7 +52,7 @@ public class WB extends AbstractEvaluator {
                 // number.
                 for (int k = j + 1; k < clust.size(); k++) {
                     y = clust.instance(k);
-                    distance = dm.measure(x, y);
+                    distance = prox.distance(x, y);
                     dw += distance;
                     fw++;
                 }
@@ -60,7 +62,7 @@ public class WB extends AbstractEvaluator {
                     second = clusters.get(k);
                     for (int l = 0; l < second.size(); l++) {
                         y = second.instance(l);
-                        distance = dm.measure(x, y);
+                        distance = prox.distance(x, y);
                         db += distance;
                         fb++;
                     }
@@ -70,7 +70,7 @@ public class AdjustedRand extends AbstractExternalEval {
      */
     public double score(PairMatch pm) {
         double ari, np = pm.sum();
-        double tmp = (pm.tp + pm.fp) * (pm.tp + pm.fn) + (pm.fn + pm.tn) * (pm.fp + pm.tn);
+        double tmp = (double) (pm.tp + pm.fp) * (pm.tp + pm.fn) + (double) (pm.fn + pm.tn) * (pm.fp + pm.tn);
         ari = np * (pm.tp + pm.tn) - tmp;
         ari /= np * np - tmp;
         return ari;
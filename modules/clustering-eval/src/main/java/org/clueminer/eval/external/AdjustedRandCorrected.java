@@ -28,6 +28,7 @@ import org.apache.commons.math3.util.CombinatoricsUtils;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.eval.utils.Contingency;
 import org.clueminer.eval.utils.CountingPairs;
 import org.clueminer.eval.utils.Matching;
 import org.clueminer.math.Matrix;
@@ -82,64 +83,20 @@ public class AdjustedRandCorrected extends AbstractExternalEval {
      * @return matrix with numbers of instances in same clusters
      */
     public int[][] countMutual(Clustering<? extends Cluster> c1, Clustering<? extends Cluster> c2) {
-        int[][] conf = new int[c1.size() + 1][c2.size() + 1];
-        Cluster<Instance> curr;
-        int s1 = c1.size();
-        int s2 = c2.size();
-
-        for (int i = 0; i < s1; i++) {
-            curr = c1.get(i);
-            for (Instance inst : curr) {
-                for (int j = 0; j < s2; j++) {
-                    if (c2.get(j).contains(inst.getIndex())) {
-                        conf[i][j]++;
-                    }
-                }
-            }
-            conf[i][s2] = curr.size();
-        }
-
-        //update sum of columns
-        for (int j = 0; j < s2; j++) {
-            conf[s1][j] = c2.get(j).size();
-        }
-
-        //Dump.matrix(conf, "conf mat", 0);
-        return conf;
+        return Contingency.of(c1, c2).extended();
     }
 
     /**
      * Count number of classes in each cluster when we don't know how many
-     * classes we have.
+     * classes we have. Classes are in rows (ordered as dataset's classes),
+     * clusters in columns.
      *
      *
      * @param clust
      * @return
      */
     public int[][] countMutual(Clustering<? extends Cluster> clust) {
-        //SortedSet klasses = dataset.getClasses();
-        //Table<String, String, Integer> table = counting.contingencyTable(clust);
-        Table<String, String, Integer> table = contingencyTable(clust);
-        //String[] klassLabels = (String[]) klasses.toArray(new String[klasses.size()]);
-        Set<String> rows = table.rowKeySet();
-        String[] rowLabels = rows.toArray(new String[rows.size()]);
-        int[][] conf = new int[rowLabels.length + 1][clust.size() + 1];
-
-        int k = 0;
-        //Dump.array(rowLabels, "classes");
-        for (Cluster c : clust) {
-            Map<String, Integer> col = table.column(c.getName());
-            for (int i = 0; i < rowLabels.length; i++) {
-                if (col.containsKey(rowLabels[i])) {
-                    conf[i][k] = col.get(rowLabels[i]);
-                    conf[i][clust.size()] += conf[i][k];
-                }
-                conf[rows.size()][k] += conf[i][k];
-            }
-            k++;
-        }
-        //Dump.matrix(conf, "conf mat", 0);
-        return conf;
+        return Contingency.of(clust).transpose().extended();
     }
 
     public Table<String, String, Integer> newTable() {
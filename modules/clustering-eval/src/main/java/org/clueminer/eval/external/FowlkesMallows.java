@@ -27,7 +27,7 @@ public class FowlkesMallows extends AbstractCountingPairs {
 
     @Override
     public double countScore(PairMatch pm) {
-        return pm.tp / Math.sqrt((pm.tp + pm.fp) * (pm.tp + pm.fn));
+        return pm.tp / Math.sqrt((double) (pm.tp + pm.fp) * (pm.tp + pm.fn));
     }
 
 }
@@ -1,15 +1,9 @@
 package org.clueminer.eval.external;
 
-import com.google.common.collect.Sets;
-import com.google.common.collect.Table;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.ClusterEvaluation;
 import org.clueminer.clustering.api.Clustering;
-import org.clueminer.dataset.api.Instance;
-import org.clueminer.eval.utils.CountingPairs;
+import org.clueminer.eval.utils.Contingency;
 import org.clueminer.math.Matrix;
 import org.clueminer.utils.Props;
 
@@ -55,54 +49,15 @@ public abstract class NMIbase extends AbstractExternalEval implements ClusterEva
         if (clusters.size() == 0) {
             return nmi;
         }
-
-        int instancesCnt = clusters.instancesCount();
-        Table<String, String, Integer> table = CountingPairs.contingencyTable(clusters);
-        Map<String, Integer> res;
+        Contingency table = Contingency.of(clusters);
         double c1entropy = entropy(clusters.instancesCount(), clusters.clusterSizes());
-
-        Map<String, Integer> klassSizes = new HashMap<>(table.columnKeySet().size());
-
-        double mutualInformation = 0;
-        int common;
-        int klassSize;
-        for (String klass : table.columnKeySet()) {
-            for (String cluster : table.rowKeySet()) {
-                //has some assignments of class to a given cluster
-                if (table.get(cluster, klass) != null) {
-                    res = CountingPairs.countAssignments(table, klass, cluster);
-                    if (klassSizes.containsKey(klass)) {
-                        klassSize = klassSizes.get(klass);
-                    } else {
-                        klassSize = res.get("tp") + res.get("fp");
-                        klassSizes.put(klass, klassSize);
-                    }
-                    //System.out.println("klass size = " + klassSize);
-
-                    int clusterSize = res.get("tp") + res.get("fn");
-                    //itersection is number of true positives
-                    common = res.get("tp");
-                    //System.out.println("a = " + klass + ", b = " + cluster);
-                    //System.out.println("common = " + common);
-
-                    if (common > 0) {
-                        mutualInformation += (common / (double) instancesCnt)
-                                * Math.log(instancesCnt
-                                        * common / (double) (klassSize * clusterSize));
-                    }
-                }
-
-            }
+        int[] klassSizes = new int[table.cols()];
+        for (int j = 0; j < klassSizes.length; j++) {
+            klassSizes[j] = table.colSum(j);
         }
-        int[] clusterSizes = new int[klassSizes.size()];
-        int i = 0;
-        for (String key : klassSizes.keySet()) {
-            clusterSizes[i++] = klassSizes.get(key);
-        }
-
-        double classEntropy = entropy(clusters.instancesCount(), clusterSizes);
+        double classEntropy = entropy(clusters.instancesCount(), klassSizes);
 
-        nmi = mutualInformation / ((c1entropy + classEntropy) / 2);
+        nmi = table.mutualInformation() / ((c1entropy + classEntropy) / 2);
 
         return nmi;
     }
@@ -151,7 +106,6 @@ public abstract class NMIbase extends AbstractExternalEval implements ClusterEva
         if (c1.size() == 0 || c2.size() == 0) {
             return nmi;
         }
-        int instancesCnt = c1.instancesCount();
 
         if (c1.instancesCount() != c2.instancesCount()) {
             throw new RuntimeException("clusterings have different numbers of instances");
@@ -160,23 +114,7 @@ public abstract class NMIbase extends AbstractExternalEval implements ClusterEva
         double c1entropy = entropy(c1.instancesCount(), c1.clusterSizes());
         double c2entropy = entropy(c2.instancesCount(), c2.clusterSizes());
 
-        double mutualInformation = 0;
-        int common;
-        for (Cluster<Instance> a : c1) {
-            final int clusterSize = a.size();
-            for (Cluster<Instance> b : c2) {
-                Set<Instance> intersection = Sets.intersection(a, b);
-                common = intersection.size();
-                //System.out.println("a = " + a.getName() + ", b = " + b.getName());
-                //System.out.println("common = " + common);
-
-                if (common > 0) {
-                    mutualInformation += (common / (double) instancesCnt)
-                            * Math.log(instancesCnt
-                                    * common / (double) (clusterSize * b.size()));
-                }
-            }
-        }
+        double mutualInformation = Contingency.of(c1, c2).mutualInformation();
 
         nmi = mutualInformation / ((c1entropy + c2entropy) / 2);
 
@@ -1,6 +1,5 @@
 package org.clueminer.eval.hclust;
 
-import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.CutoffStrategy;
 import org.clueminer.clustering.api.HierarchicalClusterEvaluator;
 import org.clueminer.clustering.api.HierarchicalResult;
@@ -23,17 +22,23 @@ public class CophCutoff implements CutoffStrategy {
         return name;
     }
 
+    /**
+     * Levels are cut without creating clusterings, clustering is created only
+     * for the resulting cut-off
+     *
+     * @param hclust
+     * @param params
+     * @return
+     */
     @Override
     public double findCutoff(HierarchicalResult hclust, Props params) {
-        Clustering clust, prevClust = null;
         double cutoff;
         double score, prev = Double.NaN, oldcut = 0;
         int level = 1;
         boolean isClimbing = true;
         do {
-            cutoff = hclust.cutTreeByLevel(level);
-            clust = hclust.getClustering();
-            //System.out.println("# level: " + level + ", clust = " + clust + ", cut = " + String.format("%.2f", cutoff));
+            cutoff = hclust.cutLabelsByLevel(level);
+            //System.out.println("# level: " + level + ", cut = " + String.format("%.2f", cutoff));
             score = eval.score(hclust);
             if (cutoff < 0) {
                 //System.out.println("negative cutoff " + cutoff + " stopping cutoff");
@@ -43,18 +48,17 @@ public class CophCutoff implements CutoffStrategy {
             if (!Double.isNaN(prev)) {
                 if (score <= prev) {
                     //System.out.println("function is not climbing anymore, reverting to " + oldcut);
-                    hclust.setCutoff(oldcut);
-                    hclust.setClustering(prevClust);
+                    hclust.setClustering(hclust.updateCutoff(oldcut));
                     return oldcut;
                 }
             }
 
             prev = score;
-            prevClust = clust;
             oldcut = cutoff;
             level++;
 
         } while (level < (hclust.treeLevels() - 1) && isClimbing && !Double.isNaN(score));
+        hclust.setClustering(hclust.updateCutoff(cutoff));
         return cutoff;
     }
 
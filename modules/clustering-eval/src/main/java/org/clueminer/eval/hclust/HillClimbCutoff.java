@@ -4,6 +4,11 @@ import org.clueminer.clustering.api.InternalEvaluator;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.CutoffStrategy;
 import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.eval.utils.Contingency;
 import org.clueminer.utils.Props;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -32,44 +37,111 @@ public class HillClimbCutoff implements CutoffStrategy {
 
     @Override
     public double findCutoff(HierarchicalResult hclust, Props params) {
+        return climb(hclust, params, hclust.treeLevels() - 1, -1, -1);
+    }
+
+    /**
+     * Cuts tree level by level while the score is improving. When the score
+     * is updated incrementally, only labels are updated by the cuts (see
+     * {@link HierarchicalResult#cutLabelsByLevel(int)}) and a clustering is
+     * created only for the resulting cut-off.
+     *
+     * @param hclust
+     * @param params
+     * @param level first level
+     * @param step direction of the search
+     * @param end the search stops before reaching this level
+     * @return cut-off
+     */
+    protected double climb(HierarchicalResult hclust, Props params, int level, int step, int end) {
         check();
         double cutoff;
         Clustering clust, prevClust = null;
         double score, prev = Double.NaN, oldcut = 0;
-        int level = hclust.treeLevels() - 1;
-        boolean isClimbing = true;
-        String evalName;
+        String evalName = evaluator.getName();
         int clustNum;
-        do {
-            cutoff = hclust.cutTreeByLevel(level);
-            clust = hclust.getClustering();
-            //System.out.println("level: " + level + ", clust = " + clust + ", cut = " + String.format("%.2f", cutoff));
-            evalName = evaluator.getName();
-            clustNum = clust.size();
-            if (hclust.isScoreCached(evalName, clustNum)) {
-                score = hclust.getScore(evalName, clustNum);
-            } else {
-                score = evaluator.score(clust, params);
-            }
-            //System.out.println("score = " + score + " prev= " + prev);
-            hclust.setScores(evaluator.getName(), clust.size(), score);
-            if (!Double.isNaN(prev)) {
-                if (!evaluator.isBetter(score, prev)) {
-                    //System.out.println("function is not climbing anymore, reverting");
-                    hclust.setCutoff(oldcut);
-                    hclust.setClustering(prevClust);
-                    return oldcut;
+        IncrementalScore tracker = null;
+        boolean first = true;
+        try {
+            do {
+                if (tracker != null) {
+                    cutoff = hclust.cutLabelsByLevel(level);
+                    clust = null;
+                    clustNum = tracker.size();
+                } else {
+                    cutoff = hclust.cutTreeByLevel(level);
+                    clust = hclust.getClustering();
+                    clustNum = clust.size();
+                    if (first) {
+                        tracker = track(hclust, clust, params);
+                        first = false;
+                    }
                 }
-            }
-            prev = score;
-            prevClust = clust;
-            oldcut = cutoff;
-            level--;
+                //System.out.println("level: " + level + ", clusters = " + clustNum + ", cut = " + String.format("%.2f", cutoff));
+                if (hclust.isScoreCached(evalName, clustNum)) {
+                    score = hclust.getScore(evalName, clustNum);
+                } else if (tracker != null) {
+                    score = tracker.score();
+                } else {
+                    score = evaluator.score(clust, params);
+                }
+                //System.out.println("score = " + score + " prev= " + prev);
+                hclust.setScores(evalName, clustNum, score);
+                if (!Double.isNaN(prev)) {
+                    if (!evaluator.isBetter(score, prev)) {
+                        //System.out.println("function is not climbing anymore, reverting");
+                        if (prevClust != null) {
+                            hclust.setCutoff(oldcut);
+                            hclust.setClustering(prevClust);
+                        } else {
+                            hclust.setClustering(hclust.updateCutoff(oldcut));
+                        }
+                        return oldcut;
+                    }
+                }
+                prev = score;
+                prevClust = clust;
+                oldcut = cutoff;
+                level += step;
 
-        } while (isClimbing && !Double.isNaN(score));
+            } while ((step > 0 ? level < end : level > end) && cutoff >= 0 && !Double.isNaN(score));
+        } finally {
+            if (tracker != null) {
+                hclust.setCutListener(null);
+            }
+        }
+        if (clust == null) {
+            hclust.setClustering(hclust.updateCutoff(cutoff));
+        }
         return cutoff;
     }
 
+    /**
+     * When possible, score of current clustering is updated by subsequent cuts
+     * of the tree (only clusters affected by a merge or a split are
+     * recomputed) instead of evaluating each clustering from scratch
+     *
+     * @param hclust
+     * @param clust current clustering
+     * @param params
+     * @return null when incremental evaluation is not supported
+     */
+    protected IncrementalScore track(HierarchicalResult hclust, Clustering clust, Props params) {
+        if (!(evaluator instanceof IncrementalEvaluator)) {
+            return null;
+        }
+        Dataset<? extends Instance> dataset = clust.getLookup().lookup(Dataset.class);
+        if (dataset == null) {
+            return null;
+        }
+        IncrementalScore res = ((IncrementalEvaluator) evaluator).track(dataset,
+                Contingency.labels(clust, dataset.size()), clust.size(), params);
+        if (res != null && !hclust.setCutListener(res)) {
+            return null;
+        }
+        return res;
+    }
+
     public InternalEvaluator getEvaluator() {
         return evaluator;
     }
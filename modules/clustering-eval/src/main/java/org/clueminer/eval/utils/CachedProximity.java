@@ -0,0 +1,134 @@
+package org.clueminer.eval.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.clueminer.clustering.api.ProximityProvider;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Distances are computed on demand, only requested distances are computed.
+ * They are stored in rows (distances from one instance to others), for
+ * smaller datasets all rows are kept, otherwise a bounded number of rows is
+ * kept (least recently used rows are evicted).
+ *
+ * @author Tomas Barton
+ */
+public class CachedProximity implements ProximityProvider {
+
+    /**
+     * max number of cached distances
+     */
+    public static final int MAX_CACHED = 1 << 25;
+
+    private final Dataset<? extends Instance> dataset;
+    private final DistanceMeasure dm;
+    private final int n;
+    /**
+     * all rows, null stands for a row without any distance, NaN for a
+     * distance which wasn't computed yet
+     */
+    private final AtomicReferenceArray<double[]> full;
+    private final Map<Integer, double[]> rows;
+
+    public CachedProximity(Dataset<? extends Instance> dataset, DistanceMeasure dm) {
+        this(dataset, dm, MAX_CACHED);
+    }
+
+    /**
+     *
+     * @param dataset
+     * @param dm
+     * @param capacity max number of cached distances
+     */
+    public CachedProximity(Dataset<? extends Instance> dataset, DistanceMeasure dm, int capacity) {
+        this.dataset = dataset;
+        this.dm = dm;
+        this.n = dataset.size();
+        if ((long) n * n <= capacity) {
+            full = new AtomicReferenceArray<>(n);
+            rows = null;
+        } else {
+            full = null;
+            final int maxRows = Math.max(2, capacity / n);
+            rows = new LinkedHashMap<Integer, double[]>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, double[]> eldest) {
+                    return size() > maxRows;
+                }
+            };
+        }
+    }
+
+    @Override
+    public Dataset<? extends Instance> getDataset() {
+        return dataset;
+    }
+
+    @Override
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    @Override
+    public double distance(int i, int j) {
+        if (i == j) {
+            return 0.0;
+        }
+        double[] row;
+        double d;
+        if (full != null) {
+            row = full.get(j);
+            if (row != null && !Double.isNaN(d = row[i])) {
+                return d;
+            }
+            row = full.get(i);
+            if (row == null) {
+                full.compareAndSet(i, null, emptyRow());
+                row = full.get(i);
+            }
+        } else {
+            synchronized (rows) {
+                row = rows.get(j);
+                if (row != null && !Double.isNaN(d = row[i])) {
+                    return d;
+                }
+                row = rows.get(i);
+                if (row == null) {
+                    row = emptyRow();
+                    rows.put(i, row);
+                }
+            }
+        }
+        d = row[j];
+        if (Double.isNaN(d)) {
+            d = dm.measure(dataset.get(i), dataset.get(j));
+            row[j] = d;
+        }
+        return d;
+    }
+
+    /**
+     * Row of distances which weren't computed yet
+     *
+     * @return
+     */
+    private double[] emptyRow() {
+        double[] row = new double[n];
+        Arrays.fill(row, Double.NaN);
+        return row;
+    }
+
+    @Override
+    public double distance(Instance x, Instance y) {
+        if (Proximity.belongs(dataset, x) && Proximity.belongs(dataset, y)) {
+            return distance(x.getIndex(), y.getIndex());
+        }
+        return dm.measure(x, y);
+    }
+}
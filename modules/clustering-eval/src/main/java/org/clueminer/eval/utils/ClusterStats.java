@@ -0,0 +1,294 @@
+package org.clueminer.eval.utils;
+
+import java.util.Arrays;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+
+/**
+ * Sufficient statistics of each cluster of a hard clustering - number of
+ * instances, sum of instances (vector) and sum of squared norms. Statistics
+ * are updated when a cluster is split (proportional to number of moved
+ * instances) or two clusters are merged (proportional to number of
+ * attributes).
+ *
+ * Subclasses maintain scores computed from the statistics, before statistics
+ * of a cluster change {@link #detach(int)} is called, afterwards
+ * {@link #attach(int)}.
+ *
+ * @author Tomas Barton
+ */
+public abstract class ClusterStats implements IncrementalScore {
+
+    protected final int n;
+    protected final int dim;
+    /**
+     * copy of the data, row-wise
+     */
+    protected final double[] data;
+    protected int k;
+    protected int[] size;
+    /**
+     * sum of instances in each cluster, cluster c starts at c * dim
+     */
+    protected double[] sum;
+    /**
+     * sum of squared norms of instances in each cluster
+     */
+    protected double[] sq;
+    /**
+     * number of assigned instances
+     */
+    protected int assigned;
+    /**
+     * sum of all assigned instances
+     */
+    protected final double[] total;
+
+    /**
+     *
+     * @param dataset
+     * @param labels cluster index for each instance, negative for unassigned
+     * instances
+     * @param k number of clusters
+     * @param center when true the data are shifted, so that mean of assigned
+     * instances is zero (reduces rounding errors of translation invariant
+     * scores)
+     */
+    public ClusterStats(Dataset<? extends Instance> dataset, int[] labels, int k, boolean center) {
+        n = dataset.size();
+        dim = dataset.attributeCount();
+        long len = (long) n * dim;
+        if (len > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("dataset of size " + n + " x " + dim + " can't be stored in a single array");
+        }
+        data = new double[(int) len];
+        Instance inst;
+        for (int i = 0; i < n; i++) {
+            inst = dataset.get(i);
+            for (int j = 0; j < dim; j++) {
+                data[i * dim + j] = inst.value(j);
+            }
+        }
+        if (center) {
+            center(labels);
+        }
+        this.k = k;
+        int cap = Math.max(k, 2);
+        size = new int[cap];
+        sum = new double[cap * dim];
+        sq = new double[cap];
+        total = new double[dim];
+        int c;
+        for (int i = 0; i < n; i++) {
+            c = labels[i];
+            if (c >= 0) {
+                add(i, c);
+                assigned++;
+                for (int j = 0; j < dim; j++) {
+                    total[j] += data[i * dim + j];
+                }
+            }
+        }
+    }
+
+    private void center(int[] labels) {
+        double[] mean = new double[dim];
+        int cnt = 0;
+        for (int i = 0; i < n; i++) {
+            if (labels[i] >= 0) {
+                cnt++;
+                for (int j = 0; j < dim; j++) {
+                    mean[j] += data[i * dim + j];
+                }
+            }
+        }
+        if (cnt == 0) {
+            return;
+        }
+        for (int j = 0; j < dim; j++) {
+            mean[j] /= cnt;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < dim; j++) {
+                data[i * dim + j] -= mean[j];
+            }
+        }
+    }
+
+    /**
+     * Should be called at the end of subclass constructor
+     *
+     * @param labels
+     */
+    protected void init(int[] labels) {
+        for (int i = 0; i < n; i++) {
+            if (labels[i] >= 0) {
+                added(i, labels[i]);
+            }
+        }
+        for (int c = 0; c < k; c++) {
+            attach(c);
+        }
+    }
+
+    private void add(int i, int c) {
+        size[c]++;
+        double v, s = 0.0;
+        for (int j = 0; j < dim; j++) {
+            v = data[i * dim + j];
+            sum[c * dim + j] += v;
+            s += v * v;
+        }
+        sq[c] += s;
+    }
+
+    private void remove(int i, int c) {
+        size[c]--;
+        double v, s = 0.0;
+        for (int j = 0; j < dim; j++) {
+            v = data[i * dim + j];
+            sum[c * dim + j] -= v;
+            s += v * v;
+        }
+        sq[c] -= s;
+    }
+
+    private void ensureCapacity(int cap) {
+        if (cap > size.length) {
+            int len = Math.max(cap, 2 * size.length);
+            size = Arrays.copyOf(size, len);
+            sum = Arrays.copyOf(sum, len * dim);
+            sq = Arrays.copyOf(sq, len);
+            grow(len);
+        }
+    }
+
+    @Override
+    public void onSplit(int source, int[] moved) {
+        int target = k;
+        ensureCapacity(k + 1);
+        k++;
+        detach(source);
+        for (int i : moved) {
+            remove(i, source);
+            removed(i, source);
+            add(i, target);
+            added(i, target);
+        }
+        attach(source);
+        attach(target);
+    }
+
+    @Override
+    public void onMerge(int target, int source, int[] members) {
+        detach(target);
+        detach(source);
+        size[target] += size[source];
+        sq[target] += sq[source];
+        for (int j = 0; j < dim; j++) {
+            sum[target * dim + j] += sum[source * dim + j];
+        }
+        merged(target, source, members);
+        attach(target);
+        k--;
+        if (source != k) {
+            //last cluster takes place of the removed one
+            size[source] = size[k];
+            sq[source] = sq[k];
+            System.arraycopy(sum, k * dim, sum, source * dim, dim);
+            relocate(k, source);
+        }
+        size[k] = 0;
+        sq[k] = 0.0;
+        Arrays.fill(sum, k * dim, (k + 1) * dim, 0.0);
+    }
+
+    @Override
+    public int size() {
+        return k;
+    }
+
+    /**
+     *
+     * @param c
+     * @return sum of squared distances from cluster's centroid
+     */
+    protected double squaredError(int c) {
+        if (size[c] <= 1) {
+            return 0.0;
+        }
+        double s = 0.0, v;
+        for (int j = 0; j < dim; j++) {
+            v = sum[c * dim + j];
+            s += v * v;
+        }
+        return Math.max(0.0, sq[c] - s / size[c]);
+    }
+
+    /**
+     * Statistics of cluster c are about to change, its contribution to score
+     * should be removed
+     *
+     * @param c
+     */
+    protected abstract void detach(int c);
+
+    /**
+     * Statistics of cluster c were updated
+     *
+     * @param c
+     */
+    protected abstract void attach(int c);
+
+    /**
+     * Instance was added to a cluster (other than basic statistics could be
+     * updated)
+     *
+     * @param i
+     * @param c
+     */
+    protected void added(int i, int c) {
+        //nothing to do
+    }
+
+    /**
+     * Instance was removed from a cluster
+     *
+     * @param i
+     * @param c
+     */
+    protected void removed(int i, int c) {
+        //nothing to do
+    }
+
+    /**
+     * Cluster source was merged into target
+     *
+     * @param target
+     * @param source
+     * @param members instances of the source cluster
+     */
+    protected void merged(int target, int source, int[] members) {
+        //nothing to do
+    }
+
+    /**
+     * Cluster index has changed
+     *
+     * @param from
+     * @param to
+     */
+    protected void relocate(int from, int to) {
+        //nothing to do
+    }
+
+    /**
+     * Capacity for clusters has increased
+     *
+     * @param capacity
+     */
+    protected void grow(int capacity) {
+        //nothing to do
+    }
+}
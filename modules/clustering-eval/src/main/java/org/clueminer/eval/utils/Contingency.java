@@ -0,0 +1,323 @@
+package org.clueminer.eval.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.LabelProvider;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+
+/**
+ * Contingency table indexed by integers, computed in a single pass over two
+ * label arrays (index of cluster/class for each instance). Rows correspond to
+ * clusters of the evaluated clustering, columns to classes (or clusters of a
+ * reference clustering).
+ *
+ * @author Tomas Barton
+ */
+public class Contingency {
+
+    private final int rows;
+    private final int cols;
+    private final int[] table;
+    private final int[] rowSum;
+    private final int[] colSum;
+    private int n;
+
+    public Contingency(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        table = new int[rows * cols];
+        rowSum = new int[rows];
+        colSum = new int[cols];
+    }
+
+    /**
+     * Count instances which have non-negative label in both arrays
+     *
+     * @param a row labels
+     * @param b column labels
+     * @return
+     */
+    public static Contingency of(int[] a, int[] b) {
+        return of(a, max(a) + 1, b, max(b) + 1);
+    }
+
+    /**
+     * Count instances which have non-negative label in both arrays
+     *
+     * @param a row labels
+     * @param rows number of rows (labels in {@code a} must be smaller)
+     * @param b column labels
+     * @param cols number of columns
+     * @return
+     */
+    public static Contingency of(int[] a, int rows, int[] b, int cols) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("label arrays differ in length: " + a.length + " != " + b.length);
+        }
+        Contingency ct = new Contingency(rows, cols);
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] >= 0 && b[i] >= 0) {
+                ct.add(a[i], b[i]);
+            }
+        }
+        return ct;
+    }
+
+    /**
+     * Clusters (rows) against class labels (columns), classes are numbered
+     * in order of dataset's sorted set of classes. A table found in
+     * clustering's lookup is reused (it is added there only for the time of a
+     * single evaluation pass, see {@link HashEvaluationTable}), otherwise the
+     * table is computed on each call. The result must not be modified.
+     *
+     * @param clustering
+     * @return
+     */
+    public static Contingency of(Clustering<? extends Cluster> clustering) {
+        Contingency ct = clustering.getLookup().lookup(Contingency.class);
+        if (ct != null && ct.matches(clustering)) {
+            return ct;
+        }
+        Dataset<? extends Instance> dataset = clustering.getLookup().lookup(Dataset.class);
+        if (dataset == null) {
+            throw new RuntimeException("missing reference dataset");
+        }
+        int[] classes = classes(dataset);
+        return of(labels(clustering, dataset.size()), clustering.size(), classes, max(classes) + 1);
+    }
+
+    /**
+     * Check that row sums correspond to cluster sizes
+     *
+     * @param clustering
+     * @return
+     */
+    private boolean matches(Clustering<? extends Cluster> clustering) {
+        if (rows != clustering.size()) {
+            return false;
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowSum[i] != clustering.get(i).size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clusters of {@code c1} (rows) against clusters of {@code c2} (columns)
+     *
+     * @param c1
+     * @param c2
+     * @return
+     */
+    public static Contingency of(Clustering<? extends Cluster> c1, Clustering<? extends Cluster> c2) {
+        int n = Math.max(instanceRange(c1), instanceRange(c2));
+        return of(labels(c1, n), c1.size(), labels(c2, n), c2.size());
+    }
+
+    /**
+     * Index of cluster (order in clustering) for each instance, unassigned
+     * instances have label -1
+     *
+     * @param clustering
+     * @param n number of instances in the dataset
+     * @return
+     */
+    public static int[] labels(Clustering<? extends Cluster> clustering, int n) {
+        if (clustering instanceof LabelProvider && ((LabelProvider) clustering).getLabels().length == n) {
+            return ((LabelProvider) clustering).getLabels();
+        }
+        int[] labels = new int[n];
+        Arrays.fill(labels, -1);
+        int c = 0, idx;
+        for (Cluster<? extends Instance> cluster : clustering) {
+            for (int i = 0; i < cluster.size(); i++) {
+                idx = cluster.instance(i).getIndex();
+                if (idx >= 0 && idx < n) {
+                    labels[idx] = c;
+                }
+            }
+            c++;
+        }
+        return labels;
+    }
+
+    /**
+     * Index of class for each instance in the dataset
+     *
+     * @param dataset
+     * @return
+     */
+    public static int[] classes(Dataset<? extends Instance> dataset) {
+        HashMap<Object, Integer> map = new HashMap<>();
+        for (Object klass : dataset.getClasses()) {
+            map.put(klass, map.size());
+        }
+        int[] labels = new int[dataset.size()];
+        Integer id;
+        Object klass;
+        for (int i = 0; i < labels.length; i++) {
+            klass = dataset.get(i).classValue();
+            id = map.get(klass);
+            if (id == null) {
+                //unknown class (or null) forms a class on its own
+                id = map.size();
+                map.put(klass, id);
+            }
+            labels[i] = id;
+        }
+        return labels;
+    }
+
+    /**
+     *
+     * @param clustering
+     * @return upper bound of instance indexes
+     */
+    private static int instanceRange(Clustering<? extends Cluster> clustering) {
+        Dataset<? extends Instance> dataset = clustering.getLookup().lookup(Dataset.class);
+        if (dataset != null) {
+            return dataset.size();
+        }
+        int max = -1;
+        for (Cluster<? extends Instance> cluster : clustering) {
+            for (int i = 0; i < cluster.size(); i++) {
+                max = Math.max(max, cluster.instance(i).getIndex());
+            }
+        }
+        return max + 1;
+    }
+
+    private static int max(int[] labels) {
+        int max = -1;
+        for (int l : labels) {
+            if (l > max) {
+                max = l;
+            }
+        }
+        return max;
+    }
+
+    public void add(int row, int col) {
+        table[row * cols + col]++;
+        rowSum[row]++;
+        colSum[col]++;
+        n++;
+    }
+
+    public int get(int row, int col) {
+        return table[row * cols + col];
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int rowSum(int row) {
+        return rowSum[row];
+    }
+
+    public int colSum(int col) {
+        return colSum[col];
+    }
+
+    /**
+     *
+     * @return total number of counted instances
+     */
+    public int sum() {
+        return n;
+    }
+
+    /**
+     *
+     * @return table with swapped rows and columns
+     */
+    public Contingency transpose() {
+        Contingency t = new Contingency(cols, rows);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                t.table[j * rows + i] = table[i * cols + j];
+            }
+        }
+        System.arraycopy(colSum, 0, t.rowSum, 0, cols);
+        System.arraycopy(rowSum, 0, t.colSum, 0, rows);
+        t.n = n;
+        return t;
+    }
+
+    /**
+     * Table with an extra row and column containing sums (the last item is
+     * total sum)
+     *
+     * @return
+     */
+    public int[][] extended() {
+        int[][] res = new int[rows + 1][cols + 1];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                res[i][j] = table[i * cols + j];
+            }
+            res[i][cols] = rowSum[i];
+        }
+        System.arraycopy(colSum, 0, res[rows], 0, cols);
+        res[rows][cols] = n;
+        return res;
+    }
+
+    private static long pairs(long x) {
+        return x * (x - 1) / 2;
+    }
+
+    /**
+     * Pairs of instances counted from the table, columns are considered as
+     * reference: pair in the same column and the same row is a true positive,
+     * in the same column but different rows false positive, in the same row
+     * but different columns false negative.
+     *
+     * @return
+     */
+    public PairMatch pairMatch() {
+        long same = 0, sameRow = 0, sameCol = 0;
+        for (int v : table) {
+            same += pairs(v);
+        }
+        for (int v : rowSum) {
+            sameRow += pairs(v);
+        }
+        for (int v : colSum) {
+            sameCol += pairs(v);
+        }
+        PairMatch pm = new PairMatch();
+        pm.tp = same;
+        pm.fp = sameCol - same;
+        pm.fn = sameRow - same;
+        pm.tn = pairs(n) - sameRow - sameCol + same;
+        return pm;
+    }
+
+    /**
+     *
+     * @return mutual information between rows and columns (natural logarithm)
+     */
+    public double mutualInformation() {
+        double mi = 0.0, v;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                v = table[i * cols + j];
+                if (v > 0) {
+                    mi += (v / n) * Math.log(n * v / ((double) rowSum[i] * colSum[j]));
+                }
+            }
+        }
+        return mi;
+    }
+}
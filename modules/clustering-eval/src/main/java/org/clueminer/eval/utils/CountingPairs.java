@@ -4,7 +4,6 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Ordering;
-import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import com.google.common.collect.Tables;
 import java.util.HashMap;
@@ -93,22 +92,13 @@ public class CountingPairs {
     public static Table<String, String, Integer> contingencyTable(Clustering<Cluster> c1, Clustering<Cluster> c2) {
         // tp lookup table for storing same / differently classified items
         Table<String, String, Integer> table = newTable();
-
-        //Cluster current;
-        String label1, label2;
+        Contingency ct = Contingency.of(c1, c2);
         int cnt;
-        for (Cluster<Instance> a : c1) {
-            for (Cluster<Instance> b : c2) {
-
-                label1 = a.getName();
-                label2 = b.getName();
-
-                if (!table.contains(label1, label2)) {
-                    Set<Instance> tp = Sets.intersection(a, b);
-                    cnt = tp.size();
-                    if (cnt > 0) {
-                        table.put(label1, label2, cnt);
-                    }
+        for (int i = 0; i < c1.size(); i++) {
+            for (int j = 0; j < c2.size(); j++) {
+                cnt = ct.get(i, j);
+                if (cnt > 0) {
+                    table.put(c1.get(i).getName(), c2.get(j).getName(), cnt);
                 }
             }
         }
@@ -333,7 +323,7 @@ public class CountingPairs {
     /**
      * Match instances in two clusterings of the same dataset. From resulting
      * table we can tell how close it the {@code curr} clustering to the
-     * reference one.
+     * reference one. Pairs are counted from contingency table in O(n).
      *
      * @param curr second clustering
      * @param ref reference clustering,
@@ -341,36 +331,7 @@ public class CountingPairs {
      * @return
      */
     public static PairMatch matchPairs(Clustering<? extends Cluster> curr, Clustering<? extends Cluster> ref) {
-        PairMatch pm = new PairMatch();
-
-        Instance x, y;
-        Cluster cx1, cx2, cy1, cy2;
-        for (int i = 0; i < ref.instancesCount() - 1; i++) {
-            x = ref.instance(i);
-            cx1 = ref.assignedCluster(x);
-            cx2 = curr.assignedCluster(x);
-            for (int j = i + 1; j < ref.instancesCount(); j++) {
-
-                y = ref.instance(j);
-                cy1 = ref.assignedCluster(y);
-                cy2 = curr.assignedCluster(y);
-                //in C1 both are in the same cluster
-                if (cx1.getClusterId() == cy1.getClusterId()) {
-                    if (cx2.getClusterId() == cy2.getClusterId()) {
-                        pm.tp++;
-                    } else {
-                        pm.fp++;
-                    }
-                } else {
-                    if (cx2.getClusterId() == cy2.getClusterId()) {
-                        pm.fn++;
-                    } else {
-                        pm.tn++;
-                    }
-                }
-            }
-        }
-        return pm;
+        return Contingency.of(curr, ref).pairMatch();
     }
 
     /**
@@ -380,51 +341,20 @@ public class CountingPairs {
      * @return
      */
     public static PairMatch matchPairs(Clustering<? extends Cluster> clust) {
-        PairMatch pm = new PairMatch();
-
         Dataset<? extends Instance> dataset = clust.getLookup().lookup(Dataset.class);
         if (dataset == null) {
             throw new RuntimeException("missing reference dataset");
         }
-
-        Instance x, y;
-        Cluster cx2, cy2;
-        //class labels
-        Object cx1, cy1;
-        for (int i = 0; i < dataset.size() - 1; i++) {
-            x = dataset.get(i);
-            cx2 = clust.assignedCluster(x);
-            if (cx2 == null) {
-                throw new InvalidClustering("instance " + x.getIndex()
-                        + " from dataset " + dataset.getName() + " is not assigned to any cluster");
-            }
-            cx1 = x.classValue();
-            for (int j = i + 1; j < dataset.size(); j++) {
-                y = dataset.get(j);
-                cy1 = y.classValue();
-                cy2 = clust.assignedCluster(y);
-                if (cy2 == null) {
-                    System.out.println("params: " + clust.getParams().toString());
-                    throw new InvalidClustering("instance " + y.getIndex()
+        Contingency ct = Contingency.of(clust);
+        if (ct.sum() < dataset.size()) {
+            int[] labels = Contingency.labels(clust, dataset.size());
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] < 0) {
+                    throw new InvalidClustering("instance " + i
                             + " from dataset " + dataset.getName() + " is not assigned to any cluster");
                 }
-                //in both instances have the same label
-                if (cx1.equals(cy1)) {
-                    //both instances are assigned to the same cluster
-                    if (cx2.getClusterId() == cy2.getClusterId()) {
-                        pm.tp++;
-                    } else {
-                        pm.fp++;
-                    }
-                } else {
-                    if (cx2.getClusterId() == cy2.getClusterId()) {
-                        pm.fn++;
-                    } else {
-                        pm.tn++;
-                    }
-                }
             }
         }
-        return pm;
+        return ct.pairMatch();
     }
 }
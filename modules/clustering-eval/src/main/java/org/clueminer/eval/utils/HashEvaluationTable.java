@@ -2,13 +2,21 @@ package org.clueminer.eval.utils;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.ClusterEvaluation;
 import org.clueminer.clustering.api.InternalEvaluator;
+import org.clueminer.clustering.api.ProximityProvider;
 import org.clueminer.clustering.api.factory.InternalEvaluatorFactory;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.EvaluationTable;
@@ -16,9 +24,17 @@ import org.clueminer.clustering.api.ExternalEvaluator;
 import org.clueminer.clustering.api.factory.ExternalEvaluatorFactory;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.eval.AbstractEvaluator;
 import org.clueminer.utils.Props;
 
 /**
+ * Scores of all available evaluators for a single clustering. Missing scores
+ * are computed concurrently (one task per evaluator) by a shared executor,
+ * data used by multiple evaluators (clusters' centroids, contingency table,
+ * pairwise distances) are computed only once. Pairwise distances are shared
+ * via clustering's lookup only while the evaluators are running, so that
+ * O(n^2) data aren't kept with the clustering.
  *
  * @author Tomas Barton
  */
@@ -28,6 +44,12 @@ public class HashEvaluationTable implements EvaluationTable {
     private Dataset<? extends Instance> dataset;
     protected static Object2ObjectMap<String, ClusterEvaluation> internalMap;
     protected static Object2ObjectMap<String, ClusterEvaluation> externalMap;
+    /**
+     * all evaluators sorted by name, index is evaluator's id
+     */
+    private static String[] names;
+    private static ClusterEvaluation[] evaluators;
+    private static ExecutorService executor;
     private HashMap<String, Double> scores;
 
     public HashEvaluationTable(Clustering<? extends Cluster> clustering, Dataset<? extends Instance> dataset) {
@@ -53,13 +75,151 @@ public class HashEvaluationTable implements EvaluationTable {
 
     @Override
     public HashMap<String, Double> countAll() {
-        for (ClusterEvaluation eval : internalMap.values()) {
-            getScore(eval);
+        countAll(getExecutor(), new Props());
+        return getAll();
+    }
+
+    /**
+     * Compute all scores that haven't been evaluated so far, evaluators are
+     * run concurrently
+     *
+     * @param exec executor which runs evaluators
+     * @param params
+     * @return scores indexed by evaluator's id (see {@link #evaluatorId(String)})
+     */
+    public double[] countAll(ExecutorService exec, Props params) {
+        List<ClusterEvaluation> missing = new ArrayList<>(evaluators.length);
+        for (ClusterEvaluation eval : evaluators) {
+            if (!scores.containsKey(eval.getName())) {
+                missing.add(eval);
+            }
         }
-        for (ClusterEvaluation eval : externalMap.values()) {
-            getScore(eval);
+        count(missing, exec, params);
+        return getScores();
+    }
+
+    /**
+     * Evaluate given evaluators concurrently, results are stored in the table
+     *
+     * @param missing evaluators without stored score
+     * @param exec
+     * @param params
+     */
+    private void count(List<ClusterEvaluation> missing, ExecutorService exec, Props params) {
+        if (missing.isEmpty()) {
+            return;
         }
-        return getAll();
+        if (missing.size() == 1) {
+            getScore(missing.get(0), params);
+            return;
+        }
+        List<Object> shared = prepare(missing);
+        List<Score> tasks = new ArrayList<>(missing.size());
+        for (ClusterEvaluation eval : missing) {
+            tasks.add(new Score(eval, params));
+        }
+        try {
+            List<Future<Double>> results = exec.invokeAll(tasks);
+            //results are stored by calling thread only
+            for (int i = 0; i < tasks.size(); i++) {
+                scores.put(tasks.get(i).eval.getName(), results.get(i).get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        } finally {
+            for (Object obj : shared) {
+                clustering.lookupRemove(obj);
+            }
+        }
+    }
+
+    /**
+     * Compute data which are used by multiple evaluators before the
+     * evaluators are run concurrently. Lazily initialized structures (cluster
+     * views, centroids) are not safe for concurrent initialization.
+     *
+     * @param missing evaluators which will be run
+     * @return objects added to clustering's lookup for the time of evaluation
+     */
+    private List<Object> prepare(List<ClusterEvaluation> missing) {
+        Cluster<? extends Instance> c;
+        for (int i = 0; i < clustering.size(); i++) {
+            c = clustering.get(i);
+            if (c.size() > 0 && c.attributeCount() > 0) {
+                c.getCentroid();
+            }
+        }
+        Dataset<? extends Instance> ref = clustering.getLookup().lookup(Dataset.class);
+        List<Object> shared = new ArrayList<>();
+        if (ref != null && !ref.getClasses().isEmpty()) {
+            //clusters against classes, used by all external evaluators
+            Contingency ct = Contingency.of(clustering);
+            clustering.lookupAdd(ct);
+            shared.add(ct);
+        }
+        //sorted distances of all pairs, computed by the first evaluator using them
+        PairDistances.Shared pairs = new PairDistances.Shared();
+        clustering.lookupAdd(pairs);
+        shared.add(pairs);
+        if (ref != null) {
+            //single cache of distances for evaluators using the same measure
+            DistanceMeasure dm;
+            ProximityProvider prox;
+            for (ClusterEvaluation eval : missing) {
+                if (eval instanceof AbstractEvaluator) {
+                    dm = ((AbstractEvaluator) eval).getDistanceMeasure();
+                    if (dm != null && Proximity.find(clustering, dm) == null) {
+                        prox = Proximity.cached(clustering, dm);
+                        clustering.lookupAdd(prox);
+                        shared.add(prox);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     *
+     * @return computed scores indexed by evaluator's id, NaN for scores which
+     * haven't been computed yet
+     */
+    public double[] getScores() {
+        double[] res = new double[names.length];
+        Double score;
+        for (int i = 0; i < names.length; i++) {
+            score = scores.get(names[i]);
+            res[i] = score != null ? score : Double.NaN;
+        }
+        return res;
+    }
+
+    /**
+     * Id of an evaluator is its position in the array returned by
+     * {@link #getEvaluators()}
+     *
+     * @param evaluator name of the evaluator
+     * @return id or -1 for unknown evaluator
+     */
+    public static int evaluatorId(String evaluator) {
+        initEvaluators();
+        int idx = Arrays.binarySearch(names, evaluator);
+        return idx >= 0 ? idx : -1;
+    }
+
+    /**
+     * Executor shared by all tables (daemon threads)
+     *
+     * @return
+     */
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return executor;
     }
 
     @Override
@@ -102,9 +262,16 @@ public class HashEvaluationTable implements EvaluationTable {
     }
 
     private Map<String, Double> evalToScoreMap(Object2ObjectMap<String, ClusterEvaluation> map) {
+        List<ClusterEvaluation> missing = new ArrayList<>(map.size());
+        for (ClusterEvaluation eval : map.values()) {
+            if (!scores.containsKey(eval.getName())) {
+                missing.add(eval);
+            }
+        }
+        count(missing, getExecutor(), new Props());
         HashMap<String, Double> res = new HashMap<>(map.size());
         for (ClusterEvaluation eval : map.values()) {
-            res.put(eval.getName(), getScore(eval));
+            res.put(eval.getName(), scores.get(eval.getName()));
         }
         return res;
     }
@@ -121,30 +288,54 @@ public class HashEvaluationTable implements EvaluationTable {
 
     @Override
     public String[] getEvaluators() {
-        if (internalMap == null) {
+        if (names == null) {
             return new String[0];
         }
-        Collection<String> evaluators = new TreeSet<>();
-        evaluators.addAll(internalMap.keySet());
-        evaluators.addAll(externalMap.keySet());
-        return evaluators.toArray(new String[internalMap.size()]);
+        return names.clone();
     }
 
-    private static void initEvaluators() {
+    private static synchronized void initEvaluators() {
         if (internalMap == null) {
             InternalEvaluatorFactory inf = InternalEvaluatorFactory.getInstance();
-            internalMap = new Object2ObjectOpenHashMap<>();
-
+            Object2ObjectMap<String, ClusterEvaluation> map = new Object2ObjectOpenHashMap<>();
             for (InternalEvaluator eval : inf.getAll()) {
-                internalMap.put(eval.getName(), eval);
+                map.put(eval.getName(), eval);
             }
+            internalMap = map;
         }
         if (externalMap == null) {
-            externalMap = new Object2ObjectOpenHashMap<>();
+            Object2ObjectMap<String, ClusterEvaluation> map = new Object2ObjectOpenHashMap<>();
             ExternalEvaluatorFactory extf = ExternalEvaluatorFactory.getInstance();
             for (ExternalEvaluator eval : extf.getAll()) {
-                externalMap.put(eval.getName(), eval);
+                map.put(eval.getName(), eval);
             }
+            externalMap = map;
+        }
+        if (names == null) {
+            //internal evaluator is preferred in case of same names
+            TreeMap<String, ClusterEvaluation> all = new TreeMap<>(externalMap);
+            all.putAll(internalMap);
+            evaluators = all.values().toArray(new ClusterEvaluation[all.size()]);
+            names = all.keySet().toArray(new String[all.size()]);
+        }
+    }
+
+    /**
+     * Single evaluator run by the executor
+     */
+    private class Score implements Callable<Double> {
+
+        private final ClusterEvaluation eval;
+        private final Props params;
+
+        public Score(ClusterEvaluation eval, Props params) {
+            this.eval = eval;
+            this.params = params;
+        }
+
+        @Override
+        public Double call() {
+            return eval.score(clustering, params);
         }
     }
 
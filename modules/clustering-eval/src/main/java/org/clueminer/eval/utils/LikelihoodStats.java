@@ -0,0 +1,52 @@
+package org.clueminer.eval.utils;
+
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+
+/**
+ * Total log-likelihood of a hard clustering (see
+ * {@link LogLikelihoodFunction#loglikelihoodsum(org.clueminer.clustering.api.Clustering)})
+ * maintained from statistics of each cluster.
+ *
+ * @author Tomas Barton
+ */
+public abstract class LikelihoodStats extends ClusterStats {
+
+    private final LogLikelihoodFunction likelihood;
+    private double loglikelihood;
+
+    public LikelihoodStats(Dataset<? extends Instance> dataset, int[] labels, int k, LogLikelihoodFunction likelihood) {
+        super(dataset, labels, k, false);
+        this.likelihood = likelihood;
+        init(labels);
+    }
+
+    private double clusterLikelihood(int c) {
+        if (size[c] == 0) {
+            return 0.0;
+        }
+        double s = 0.0;
+        for (int j = 0; j < dim; j++) {
+            s += sum[c * dim + j];
+        }
+        return likelihood.logLikelihood(dim, size[c], s, sq[c]);
+    }
+
+    @Override
+    protected void detach(int c) {
+        loglikelihood -= clusterLikelihood(c);
+    }
+
+    @Override
+    protected void attach(int c) {
+        loglikelihood += clusterLikelihood(c);
+    }
+
+    /**
+     *
+     * @return sum of log-likelihoods of all clusters
+     */
+    public double loglikelihood() {
+        return loglikelihood;
+    }
+}
@@ -3,6 +3,7 @@ package org.clueminer.eval.utils;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.math.impl.GammaFunction;
+import org.clueminer.utils.Props;
 
 public class LogLikelihoodFunction {
     // tuning parameters?? standard value:
@@ -63,6 +64,25 @@ public class LogLikelihoodFunction {
         return loglikelihood;
     }
 
+    /**
+     * Likelihood of all columns of a cluster computed from its statistics
+     * (same as {@link #logLikelihoodC(Dataset)})
+     *
+     * @param attributes number of attributes
+     * @param size number of instances in cluster
+     * @param sum sum of all values in cluster
+     * @param sum2 sum of all squared values in cluster
+     * @return
+     */
+    public double logLikelihood(int attributes, int size, double sum, double sum2) {
+        double loglikelihood = logLikelihoodFunction(attributes * (double) size, sum, sum2);
+        if (loglikelihood == Double.NEGATIVE_INFINITY
+                || loglikelihood == Double.POSITIVE_INFINITY) {
+            loglikelihood = 0;
+        }
+        return attributes * loglikelihood;
+    }
+
     /**
      * Sum of loglikelihood of each column
      *
@@ -94,6 +114,18 @@ public class LogLikelihoodFunction {
         return (likelihood);
     }
 
+    /**
+     * Set prior parameters from params (or defaults)
+     *
+     * @param params
+     */
+    public void configure(Props params) {
+        setAlpha0(params.getDouble("likelihood.alpha", 0.1));
+        setBeta0(params.getDouble("likelihood.beta", 0.1));
+        setLambda0(params.getDouble("likelihood.lambda", 0.1));
+        setMu0(params.getDouble("likelihood.mu", 0.0));
+    }
+
     public double getAlpha0() {
         return alpha0;
     }
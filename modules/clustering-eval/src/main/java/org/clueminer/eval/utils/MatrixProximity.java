@@ -0,0 +1,60 @@
+package org.clueminer.eval.utils;
+
+import org.clueminer.clustering.api.ProximityProvider;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.math.Matrix;
+
+/**
+ * Distances are read from a precomputed N x N matrix (e.g. proximity matrix
+ * kept by hierarchical clustering)
+ *
+ * @author Tomas Barton
+ */
+public class MatrixProximity implements ProximityProvider {
+
+    private final Matrix matrix;
+    private final Dataset<? extends Instance> dataset;
+    private final DistanceMeasure dm;
+
+    public MatrixProximity(Matrix matrix, Dataset<? extends Instance> dataset, DistanceMeasure dm) {
+        if (matrix.rowsCount() != dataset.size() || matrix.columnsCount() != dataset.size()) {
+            throw new IllegalArgumentException("expected " + dataset.size() + " x " + dataset.size()
+                    + " matrix, got " + matrix.rowsCount() + " x " + matrix.columnsCount());
+        }
+        this.matrix = matrix;
+        this.dataset = dataset;
+        this.dm = dm;
+    }
+
+    public Matrix getMatrix() {
+        return matrix;
+    }
+
+    @Override
+    public Dataset<? extends Instance> getDataset() {
+        return dataset;
+    }
+
+    @Override
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    @Override
+    public double distance(int i, int j) {
+        if (i == j) {
+            return 0.0;
+        }
+        return matrix.get(i, j);
+    }
+
+    @Override
+    public double distance(Instance x, Instance y) {
+        if (Proximity.belongs(dataset, x) && Proximity.belongs(dataset, y)) {
+            return distance(x.getIndex(), y.getIndex());
+        }
+        return dm.measure(x, y);
+    }
+}
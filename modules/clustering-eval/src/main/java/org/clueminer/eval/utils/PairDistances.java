@@ -0,0 +1,292 @@
+package org.clueminer.eval.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Sorted within-cluster and between-cluster distances of all pairs of
+ * instances, used by rank based criteria (Gamma, Tau, C-index). Distances
+ * take O(n^2) memory, therefore they are not kept with the clustering. When
+ * multiple criteria are evaluated together, distances are computed once and
+ * shared through a {@link Shared} placeholder in clustering's lookup, which
+ * is removed after the evaluation (see {@link HashEvaluationTable}).
+ *
+ * @author Tomas Barton
+ */
+public class PairDistances {
+
+    /**
+     * Boolean parameter, whether distances should be sorted in parallel
+     */
+    public static final String PARALLEL = "parallel-sort";
+    /**
+     * size of a range which is sorted sequentially
+     */
+    private static final int SEQUENTIAL = 1 << 16;
+
+    private final DistanceMeasure dm;
+    private final double[] within;
+    private final double[] between;
+    private boolean counted = false;
+    private long concordant;
+    private long discordant;
+
+    public PairDistances(double[] within, double[] between, DistanceMeasure dm) {
+        this.within = within;
+        this.between = between;
+        this.dm = dm;
+    }
+
+    /**
+     * Distances shared by the current evaluation (when there's a
+     * {@link Shared} placeholder in clustering's lookup), otherwise distances
+     * are computed for this call only
+     *
+     * @param clusters
+     * @param dm
+     * @param parallel whether to sort in parallel
+     * @return
+     */
+    public static PairDistances of(Clustering<? extends Cluster> clusters, DistanceMeasure dm, boolean parallel) {
+        Shared shared = clusters.getLookup().lookup(Shared.class);
+        if (shared != null) {
+            return shared.get(clusters, dm, parallel);
+        }
+        return compute(clusters, Proximity.of(clusters, dm), parallel);
+    }
+
+    public static PairDistances compute(Clustering<? extends Cluster> clusters, ProximityProvider prox, boolean parallel) {
+        long nw = 0, total = 0, size;
+        for (int i = 0; i < clusters.size(); i++) {
+            size = clusters.get(i).size();
+            nw += size * (size - 1) / 2;
+            total += size;
+        }
+        long nb = total * (total - 1) / 2 - nw;
+        if (nw > Integer.MAX_VALUE || nb > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many pairs of instances: " + (nw + nb));
+        }
+        double[] within = new double[(int) nw];
+        double[] between = new double[(int) nb];
+        int w = 0, b = 0;
+        Cluster<? extends Instance> first, second;
+        Instance x;
+        for (int i = 0; i < clusters.size(); i++) {
+            first = clusters.get(i);
+            for (int j = 0; j < first.size(); j++) {
+                x = first.instance(j);
+                for (int k = j + 1; k < first.size(); k++) {
+                    within[w++] = prox.distance(x, first.instance(k));
+                }
+                for (int k = i + 1; k < clusters.size(); k++) {
+                    second = clusters.get(k);
+                    for (int l = 0; l < second.size(); l++) {
+                        between[b++] = prox.distance(x, second.instance(l));
+                    }
+                }
+            }
+        }
+        sort(within, parallel);
+        sort(between, parallel);
+        return new PairDistances(within, between, prox.getDistanceMeasure());
+    }
+
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    /**
+     *
+     * @return sorted distances between instances in the same cluster
+     */
+    public double[] getWithin() {
+        return within;
+    }
+
+    /**
+     *
+     * @return sorted distances between instances in different clusters
+     */
+    public double[] getBetween() {
+        return between;
+    }
+
+    /**
+     *
+     * @return number of (within, between) pairs where within distance is
+     * smaller
+     */
+    public long concordant() {
+        count();
+        return concordant;
+    }
+
+    /**
+     *
+     * @return number of (within, between) pairs where within distance is
+     * larger
+     */
+    public long discordant() {
+        count();
+        return discordant;
+    }
+
+    /**
+     * Merge of two sorted arrays, ties are neither concordant nor discordant
+     */
+    private void count() {
+        if (counted) {
+            return;
+        }
+        long plus = 0, minus = 0;
+        int lt = 0, le = 0;
+        for (double d : within) {
+            while (lt < between.length && between[lt] < d) {
+                lt++;
+            }
+            if (le < lt) {
+                le = lt;
+            }
+            while (le < between.length && between[le] <= d) {
+                le++;
+            }
+            minus += lt;
+            plus += between.length - le;
+        }
+        concordant = plus;
+        discordant = minus;
+        counted = true;
+    }
+
+    /**
+     * Sum of the smallest distances from both arrays
+     *
+     * @param count
+     * @return
+     */
+    public double minSum(int count) {
+        double sum = 0.0;
+        int i = 0, j = 0;
+        for (int c = 0; c < count; c++) {
+            if (j >= between.length || (i < within.length && within[i] <= between[j])) {
+                sum += within[i++];
+            } else {
+                sum += between[j++];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of the largest distances from both arrays
+     *
+     * @param count
+     * @return
+     */
+    public double maxSum(int count) {
+        double sum = 0.0;
+        int i = within.length - 1, j = between.length - 1;
+        for (int c = 0; c < count; c++) {
+            if (j < 0 || (i >= 0 && within[i] >= between[j])) {
+                sum += within[i--];
+            } else {
+                sum += between[j--];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sort array in ascending order
+     *
+     * @param a
+     * @param parallel split sorting into parallel tasks
+     */
+    public static void sort(double[] a, boolean parallel) {
+        if (!parallel || a.length <= SEQUENTIAL) {
+            Arrays.sort(a);
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pool.invoke(new SortTask(a, new double[a.length], 0, a.length));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Distances shared by evaluators during a single evaluation of a
+     * clustering, they're computed by the first evaluator which needs them
+     */
+    public static class Shared {
+
+        private final List<PairDistances> computed = new ArrayList<>(1);
+
+        /**
+         *
+         * @param clusters
+         * @param dm
+         * @param parallel
+         * @return distances computed by given measure
+         */
+        public synchronized PairDistances get(Clustering<? extends Cluster> clusters, DistanceMeasure dm, boolean parallel) {
+            for (PairDistances pd : computed) {
+                if (Proximity.sameMeasure(pd.dm, dm)) {
+                    return pd;
+                }
+            }
+            PairDistances pd = compute(clusters, Proximity.of(clusters, dm), parallel);
+            computed.add(pd);
+            return pd;
+        }
+    }
+
+    /**
+     * Merge sort, small ranges are sorted sequentially
+     */
+    private static class SortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -1384296451512365403L;
+        private final double[] a;
+        private final double[] buf;
+        private final int from;
+        private final int to;
+
+        public SortTask(double[] a, double[] buf, int from, int to) {
+            this.a = a;
+            this.buf = buf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL) {
+                Arrays.sort(a, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask(a, buf, from, mid), new SortTask(a, buf, mid, to));
+            System.arraycopy(a, from, buf, from, to - from);
+            int i = from, j = mid, k = from;
+            while (i < mid && j < to) {
+                a[k++] = Double.compare(buf[j], buf[i]) < 0 ? buf[j++] : buf[i++];
+            }
+            while (i < mid) {
+                a[k++] = buf[i++];
+            }
+            while (j < to) {
+                a[k++] = buf[j++];
+            }
+        }
+    }
+}
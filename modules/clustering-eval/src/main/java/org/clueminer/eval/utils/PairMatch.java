@@ -24,13 +24,13 @@ package org.clueminer.eval.utils;
 public class PairMatch {
 
     //pairs that are in the same cluster in both clusterings (a)
-    public int tp;
+    public long tp;
     //pairs that are in same the cluster in C1 but not in C2 (b)
-    public int fp;
+    public long fp;
     //pairs that are in the same cluster in C2 but not in C1 (c)
-    public int fn;
+    public long fn;
     //pairs that are in different community in both clusterings (d)
-    public int tn;
+    public long tn;
 
     public PairMatch() {
         tp = 0;
@@ -39,7 +39,7 @@ public class PairMatch {
         tn = 0;
     }
 
-    public int sum() {
+    public long sum() {
         return tp + fp + fn + tn;
     }
 
@@ -0,0 +1,209 @@
+package org.clueminer.eval.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.ProximityProvider;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.math.Matrix;
+import org.clueminer.utils.Props;
+import org.openide.util.Lookup;
+
+/**
+ * Finds a shared source of pairwise distances for a clustering. Providers are
+ * searched in this order:
+ * <ol>
+ * <li>{@link ProximityProvider} in clustering's lookup</li>
+ * <li>proximity matrix of a {@link HierarchicalResult} in the lookup</li>
+ * </ol>
+ * otherwise distances are computed directly by the distance measure. Only
+ * evaluations of multiple scores share a cache, it is placed into clustering's
+ * lookup for the time of the evaluation (see {@link HashEvaluationTable}).
+ *
+ * @author Tomas Barton
+ */
+public class Proximity {
+
+    private Proximity() {
+
+    }
+
+    /**
+     * Source of distances between instances of given clustering
+     *
+     * @param clustering
+     * @param dm
+     * @return
+     */
+    public static ProximityProvider of(Clustering<?> clustering, DistanceMeasure dm) {
+        return of(clustering, dm, false);
+    }
+
+    /**
+     * Source of distances which caches computed distances, unless there's
+     * already a shared provider
+     *
+     * @param clustering
+     * @param dm
+     * @return
+     */
+    public static ProximityProvider cached(Clustering<?> clustering, DistanceMeasure dm) {
+        return of(clustering, dm, true);
+    }
+
+    private static ProximityProvider of(Clustering<?> clustering, DistanceMeasure dm, boolean cache) {
+        ProximityProvider provider = find(clustering, dm);
+        if (provider != null) {
+            return provider;
+        }
+        Lookup lookup = clustering.getLookup();
+        Dataset<? extends Instance> dataset = lookup.lookup(Dataset.class);
+        if (dataset == null) {
+            return new Direct(instances(clustering), dm);
+        }
+        HierarchicalResult hr = lookup.lookup(HierarchicalResult.class);
+        if (hr != null && hr.getDataset() == dataset && hr.getProximityMatrix() != null) {
+            Matrix m = hr.getProximityMatrix();
+            Props params = hr.getParams();
+            if (params != null && params.getBoolean(AgglParams.CLUSTER_ROWS, true)
+                    && dm.getName().equals(params.get(AgglParams.DIST, AgglParams.DEFAULT_DISTANCE_FUNCTION))
+                    && m.rowsCount() == dataset.size() && m.columnsCount() == dataset.size()) {
+                return new MatrixProximity(m, dataset, dm);
+            }
+        }
+        if (cache) {
+            return new CachedProximity(dataset, dm);
+        }
+        return new Direct(dataset, dm);
+    }
+
+    /**
+     * Clustered instances placed at their indexes
+     *
+     * @param clustering
+     * @return
+     */
+    private static List<Instance> instances(Clustering<?> clustering) {
+        List<Instance> res = new ArrayList<>();
+        Instance x;
+        for (Object c : clustering) {
+            Cluster<? extends Instance> cluster = (Cluster<? extends Instance>) c;
+            for (int i = 0; i < cluster.size(); i++) {
+                x = cluster.instance(i);
+                if (x.getIndex() >= 0) {
+                    while (res.size() <= x.getIndex()) {
+                        res.add(null);
+                    }
+                    res.set(x.getIndex(), x);
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Provider from clustering's lookup
+     *
+     * @param clustering
+     * @param dm
+     * @return null when there's no provider for given distance measure
+     */
+    public static ProximityProvider find(Clustering<?> clustering, DistanceMeasure dm) {
+        Lookup lookup = clustering.getLookup();
+        Dataset<? extends Instance> dataset = lookup.lookup(Dataset.class);
+        for (ProximityProvider p : lookup.lookupAll(ProximityProvider.class)) {
+            if (sameMeasure(p.getDistanceMeasure(), dm) && (dataset == null || p.getDataset() == dataset)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether instance is stored in the dataset under its index
+     *
+     * @param dataset
+     * @param x
+     * @return
+     */
+    public static boolean belongs(Dataset<? extends Instance> dataset, Instance x) {
+        int idx = x.getIndex();
+        return idx >= 0 && idx < dataset.size() && dataset.get(idx) == x;
+    }
+
+    /**
+     *
+     * @param a
+     * @param b
+     * @return true when both measures compute the same distances
+     */
+    public static boolean sameMeasure(DistanceMeasure a, DistanceMeasure b) {
+        return a == b || (a != null && b != null && a.getClass() == b.getClass() && a.getName().equals(b.getName()));
+    }
+
+    /**
+     * Distances computed on each call
+     */
+    private static class Direct implements ProximityProvider {
+
+        private final Dataset<? extends Instance> dataset;
+        private final List<? extends Instance> instances;
+        private final DistanceMeasure dm;
+
+        public Direct(Dataset<? extends Instance> dataset, DistanceMeasure dm) {
+            this.dataset = dataset;
+            this.instances = null;
+            this.dm = dm;
+        }
+
+        /**
+         *
+         * @param instances instances indexed by their index
+         * @param dm
+         */
+        public Direct(List<? extends Instance> instances, DistanceMeasure dm) {
+            this.dataset = null;
+            this.instances = instances;
+            this.dm = dm;
+        }
+
+        @Override
+        public Dataset<? extends Instance> getDataset() {
+            return dataset;
+        }
+
+        @Override
+        public DistanceMeasure getDistanceMeasure() {
+            return dm;
+        }
+
+        @Override
+        public double distance(int i, int j) {
+            if (i == j) {
+                return 0.0;
+            }
+            return dm.measure(instance(i), instance(j));
+        }
+
+        private Instance instance(int i) {
+            if (dataset != null) {
+                return dataset.get(i);
+            }
+            Instance x = i >= 0 && i < instances.size() ? instances.get(i) : null;
+            if (x == null) {
+                throw new IllegalArgumentException("no instance with index " + i);
+            }
+            return x;
+        }
+
+        @Override
+        public double distance(Instance x, Instance y) {
+            return dm.measure(x, y);
+        }
+    }
+}
@@ -3,9 +3,12 @@ package org.clueminer.eval.hclust;
 import org.clueminer.clustering.aggl.HACLW;
 import org.clueminer.clustering.aggl.linkage.SingleLinkage;
 import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
 import org.clueminer.eval.AIC;
 import org.clueminer.fixtures.clustering.FakeDatasets;
 import org.clueminer.utils.Props;
@@ -51,4 +54,30 @@ public class HillClimbIncTest {
         assertEquals(true, numClusters < 4);
     }
 
+    /**
+     * Label-only cuts with incremental score give the same result as
+     * evaluating a clustering at each level
+     */
+    @Test
+    public void testSameAsFullEvaluation() {
+        Dataset<? extends Instance> data = DatasetGenerator.blobs(90, new double[][]{{0, 0}, {8, 0}, {0, 8}}, 1.0, 3);
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, SingleLinkage.name);
+        HACLW hac = new HACLW();
+        HillClimbInc full = new HillClimbInc() {
+            @Override
+            protected IncrementalScore track(HierarchicalResult hclust, Clustering clust, Props params) {
+                return null;
+            }
+        };
+        full.setEvaluator(new AIC());
+        HillClimbInc inc = new HillClimbInc();
+        inc.setEvaluator(new AIC());
+
+        HierarchicalResult expected = hac.hierarchy(data, pref);
+        HierarchicalResult result = hac.hierarchy(data, pref);
+        assertEquals(full.findCutoff(expected, pref), inc.findCutoff(result, pref), 1e-9);
+        assertArrayEquals(expected.getClustering().clusterSizes(), result.getClustering().clusterSizes());
+    }
+
 }
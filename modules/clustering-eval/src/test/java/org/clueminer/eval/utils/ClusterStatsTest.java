@@ -0,0 +1,131 @@
+package org.clueminer.eval.utils;
+
+import java.util.Random;
+import org.clueminer.clustering.api.IncrementalEvaluator;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.clustering.struct.LabelClustering;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.ManhattanDistance;
+import org.clueminer.eval.AIC;
+import org.clueminer.eval.BIC;
+import org.clueminer.eval.CalinskiHarabasz;
+import org.clueminer.eval.DaviesBouldin;
+import org.clueminer.eval.SumOfCentroidSimilarities;
+import org.clueminer.eval.SumOfSquaredErrors;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class ClusterStatsTest {
+
+    private static final double delta = 1e-6;
+
+    private static final double[][] MEANS = {{5, 0, 100}, {10, 0, 100}, {15, 0, 100}, {20, 0, 100}};
+
+    /**
+     * Random sequence of splits and merges, incremental score is compared to
+     * score of the whole clustering
+     *
+     * @param eval
+     */
+    private void checkSameScore(IncrementalEvaluator eval) {
+        int n = 80;
+        Dataset<? extends Instance> data = DatasetGenerator.blobs(n, MEANS, 3.0, 17);
+        Random rand = new Random(5);
+        Props params = new Props();
+        int[] labels = new int[n];
+        int k = 2;
+        for (int i = 0; i < n; i++) {
+            labels[i] = i % k;
+        }
+        IncrementalScore score = eval.track(data, labels.clone(), k, params);
+        assertNotNull(score);
+        for (int step = 0; step < 40; step++) {
+            if (k < 3 || (k < 12 && rand.nextBoolean())) {
+                //move some instances of a cluster into a new one
+                int source = rand.nextInt(k);
+                int[] members = members(labels, source);
+                if (members.length < 2) {
+                    continue;
+                }
+                int[] moved = new int[1 + rand.nextInt(members.length - 1)];
+                System.arraycopy(members, 0, moved, 0, moved.length);
+                for (int i : moved) {
+                    labels[i] = k;
+                }
+                k++;
+                score.onSplit(source, moved);
+            } else {
+                int source = rand.nextInt(k);
+                int target = (source + 1 + rand.nextInt(k - 1)) % k;
+                int[] members = members(labels, source);
+                for (int i : members) {
+                    labels[i] = target;
+                }
+                k--;
+                if (source != k) {
+                    for (int i = 0; i < n; i++) {
+                        if (labels[i] == k) {
+                            labels[i] = source;
+                        }
+                    }
+                }
+                score.onMerge(target, source, members);
+            }
+            assertEquals(k, score.size());
+            double expected = eval.score(new LabelClustering(data, labels.clone(), k), params);
+            assertEquals(expected, score.score(), delta * Math.max(1.0, Math.abs(expected)));
+        }
+    }
+
+    private int[] members(int[] labels, int c) {
+        int cnt = 0;
+        for (int l : labels) {
+            if (l == c) {
+                cnt++;
+            }
+        }
+        int[] res = new int[cnt];
+        cnt = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == c) {
+                res[cnt++] = i;
+            }
+        }
+        return res;
+    }
+
+    @Test
+    public void testSumOfSquaredErrors() {
+        checkSameScore(new SumOfSquaredErrors());
+        assertNull(new SumOfSquaredErrors(new ManhattanDistance()).track(DatasetGenerator.blobs(10, MEANS, 3.0, 17), new int[10], 1, new Props()));
+    }
+
+    @Test
+    public void testCalinskiHarabasz() {
+        checkSameScore(new CalinskiHarabasz());
+    }
+
+    @Test
+    public void testDaviesBouldin() {
+        checkSameScore(new DaviesBouldin());
+        checkSameScore(new DaviesBouldin(new ManhattanDistance()));
+    }
+
+    @Test
+    public void testLikelihood() {
+        checkSameScore(new AIC());
+        checkSameScore(new BIC());
+    }
+
+    @Test
+    public void testSumOfCentroidSimilarities() {
+        checkSameScore(new SumOfCentroidSimilarities());
+    }
+}
@@ -0,0 +1,205 @@
+package org.clueminer.eval.utils;
+
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.InvalidClustering;
+import org.clueminer.clustering.struct.BaseCluster;
+import org.clueminer.clustering.struct.ClusterList;
+import org.clueminer.clustering.struct.LabelClustering;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.eval.external.AdjustedRand;
+import org.clueminer.eval.external.AdjustedRandCorrected;
+import org.clueminer.eval.external.ExternalTest;
+import org.clueminer.eval.external.NMIsqrt;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class ContingencyTest extends ExternalTest {
+
+    @Test
+    public void testPcaData() {
+        Clustering<? extends Cluster> clust = pcaData();
+        Contingency ct = Contingency.of(clust);
+        assertEquals(3, ct.rows());
+        assertEquals(3, ct.cols());
+        assertEquals(10, ct.sum());
+        assertEquals(5, ct.rowSum(2));
+        //classes u1, u2, u3
+        assertEquals(4, ct.get(2, 2));
+        assertEquals(1, ct.get(2, 1));
+
+        PairMatch pm = ct.pairMatch();
+        assertEquals(7, pm.tp);
+        assertEquals(6, pm.fp);
+        assertEquals(7, pm.fn);
+        assertEquals(25, pm.tn);
+        assertEquals(0.3125734430082256, new AdjustedRand().score(clust), delta);
+
+        int[][] ext = ct.transpose().extended();
+        assertEquals(10, ext[3][3]);
+        assertEquals(5, ext[3][2]);
+        assertEquals(2, ext[0][3]);
+    }
+
+    private Dataset<? extends Instance> dataset(int n) {
+        return DatasetGenerator.blobs(n, new double[][]{{0.0}, {1.0}, {2.0}}, 0.3, 11);
+    }
+
+    private int[] randomLabels(int n, int k, long seed) {
+        Random rand = new Random(seed);
+        int[] labels = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = rand.nextInt(k);
+        }
+        return labels;
+    }
+
+    private Clustering<Cluster> clusterList(Dataset<? extends Instance> data, int[] labels, int k) {
+        Clustering<Cluster> clustering = new ClusterList(k);
+        for (int c = 0; c < k; c++) {
+            clustering.add(new BaseCluster(10, 1));
+        }
+        for (int i = 0; i < labels.length; i++) {
+            clustering.get(labels[i]).add(data.get(i));
+        }
+        clustering.lookupAdd(data);
+        return clustering;
+    }
+
+    private double entropy(int[] sizes) {
+        double h = 0.0;
+        for (int s : sizes) {
+            if (s > 0) {
+                h -= s / 200.0 * Math.log(s / 200.0);
+            }
+        }
+        return h;
+    }
+
+    @Test
+    public void testSameAsPairwiseComparison() {
+        Dataset<? extends Instance> data = dataset(200);
+        int[] a = randomLabels(200, 4, 1);
+        int[] b = randomLabels(200, 6, 2);
+        Clustering<Cluster> c1 = clusterList(data, a, 4);
+        Clustering c2 = new LabelClustering(data, b);
+
+        PairMatch expected = new PairMatch();
+        for (int i = 0; i < a.length; i++) {
+            for (int j = i + 1; j < a.length; j++) {
+                if (b[i] == b[j]) {
+                    if (a[i] == a[j]) {
+                        expected.tp++;
+                    } else {
+                        expected.fp++;
+                    }
+                } else if (a[i] == a[j]) {
+                    expected.fn++;
+                } else {
+                    expected.tn++;
+                }
+            }
+        }
+        PairMatch pm = CountingPairs.matchPairs(c1, c2);
+        assertEquals(expected.tp, pm.tp);
+        assertEquals(expected.fp, pm.fp);
+        assertEquals(expected.fn, pm.fn);
+        assertEquals(expected.tn, pm.tn);
+
+        //mutual information from cluster intersections
+        double mi = 0.0;
+        for (int p = 0; p < 4; p++) {
+            for (int q = 0; q < 6; q++) {
+                int common = 0;
+                for (int i = 0; i < a.length; i++) {
+                    if (a[i] == p && b[i] == q) {
+                        common++;
+                    }
+                }
+                if (common > 0) {
+                    mi += common / 200.0 * Math.log(200.0 * common / (c1.get(p).size() * c2.get(q).size()));
+                }
+            }
+        }
+        assertEquals(mi, Contingency.of(c1, c2).mutualInformation(), delta);
+        double h1 = entropy(c1.clusterSizes());
+        double h2 = entropy(c2.clusterSizes());
+        assertEquals(mi / ((h1 + h2) / 2), new NMIsqrt().score(c1, c2, new Props()), delta);
+
+        //label array is used directly
+        assertSame(b, Contingency.labels(c2, 200));
+        assertArrayEquals(a, Contingency.labels(c1, 200));
+        int[][] conf = new AdjustedRandCorrected().countMutual(c1, c2);
+        assertEquals(5, conf.length);
+        assertEquals(7, conf[0].length);
+        assertEquals(200, conf[4][6]);
+    }
+
+    @Test
+    public void testSharedTable() {
+        Dataset<? extends Instance> data = dataset(50);
+        Clustering<Cluster> clust = clusterList(data, randomLabels(50, 3, 5), 3);
+        Contingency ct = Contingency.of(clust);
+        //table is not kept in the lookup
+        assertNull(clust.getLookup().lookup(Contingency.class));
+        assertNotSame(ct, Contingency.of(clust));
+        assertEquals(50, ct.sum());
+        PairMatch pm = CountingPairs.matchPairs(clust);
+        assertEquals(ct.pairMatch().tp, pm.tp);
+
+        //table shared during an evaluation pass
+        clust.lookupAdd(ct);
+        assertSame(ct, Contingency.of(clust));
+
+        clust.lookupRemove(ct);
+
+        //table of another assignment with the same number of clusters is not used
+        Contingency stale = Contingency.of(clusterList(data, randomLabels(50, 3, 6), 3));
+        clust.lookupAdd(stale);
+        Contingency updated = Contingency.of(clust);
+        assertNotSame(stale, updated);
+        assertEquals(clust.get(1).size(), updated.rowSum(1));
+
+        //table with different number of clusters is computed again
+        clust.add(new BaseCluster(1, 1));
+        assertEquals(4, Contingency.of(clust).rows());
+        clust.lookupRemove(stale);
+    }
+
+    @Test
+    public void testPairCountsOverflowInt() {
+        Contingency ct = new Contingency(2, 2);
+        for (int i = 0; i < 100000; i++) {
+            ct.add(0, 0);
+        }
+        ct.add(1, 0);
+        ct.add(1, 1);
+        PairMatch pm = ct.pairMatch();
+        assertEquals(4999950000L, pm.tp);
+        assertEquals(100000L, pm.fp);
+        assertEquals(1L, pm.fn);
+        assertEquals(100000L, pm.tn);
+        assertEquals(100002L * 100001L / 2, pm.sum());
+    }
+
+    @Test(expected = InvalidClustering.class)
+    public void testUnassignedInstance() {
+        Dataset<? extends Instance> data = dataset(20);
+        Clustering<Cluster> clust = new ClusterList(1);
+        clust.add(new BaseCluster(20, 1));
+        //the first instance is missing
+        for (int i = 1; i < data.size(); i++) {
+            clust.get(0).add(data.get(i));
+        }
+        clust.lookupAdd(data);
+        CountingPairs.matchPairs(clust);
+    }
+}
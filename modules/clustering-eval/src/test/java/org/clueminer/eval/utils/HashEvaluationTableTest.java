@@ -5,6 +5,7 @@ import org.clueminer.eval.external.Precision;
 import org.clueminer.fixtures.clustering.FakeClustering;
 import org.clueminer.fixtures.clustering.FakeDatasets;
 import org.clueminer.utils.Dump;
+import org.clueminer.utils.Props;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -60,6 +61,27 @@ public class HashEvaluationTableTest {
         Dump.array(eval, "evaluators");
     }
 
+    @Test
+    public void testEvaluatorId() {
+        String[] eval = subject.getEvaluators();
+        for (int i = 0; i < eval.length; i++) {
+            assertEquals(i, HashEvaluationTable.evaluatorId(eval[i]));
+        }
+        assertEquals(-1, HashEvaluationTable.evaluatorId("no such evaluator"));
+    }
+
+    @Test
+    public void testCountAll() {
+        double[] scores = subject.countAll(HashEvaluationTable.getExecutor(), new Props());
+        String[] eval = subject.getEvaluators();
+        assertEquals(eval.length, scores.length);
+        //same scores as when computed sequentially
+        HashEvaluationTable seq = new HashEvaluationTable(irisCorrect, FakeDatasets.irisDataset());
+        for (int i = 0; i < eval.length; i++) {
+            assertEquals(eval[i], seq.getScore(eval[i]), scores[i], delta);
+        }
+    }
+
     @Test
     public void testGetInternal() {
         System.out.println("internal: " + subject.getInternal().toString());
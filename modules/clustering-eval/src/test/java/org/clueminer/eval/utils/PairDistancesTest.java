@@ -0,0 +1,146 @@
+package org.clueminer.eval.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.struct.BaseCluster;
+import org.clueminer.clustering.struct.ClusterList;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.plugin.ArrayDataset;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.eval.CIndex;
+import org.clueminer.eval.Gamma;
+import org.clueminer.eval.Tau;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class PairDistancesTest {
+
+    private static final double delta = 1e-9;
+    private final EuclideanDistance dm = EuclideanDistance.getInstance();
+
+    /**
+     * Rounded values, so that there are ties between distances
+     *
+     * @param n
+     * @return
+     */
+    private Clustering<Cluster> clustering(int n) {
+        Random rand = new Random(31);
+        Dataset<? extends Instance> data = new ArrayDataset<>(n, 2);
+        data.attributeBuilder().create("x1", "NUMERIC");
+        data.attributeBuilder().create("x2", "NUMERIC");
+        for (int i = 0; i < n; i++) {
+            data.builder().create(new double[]{Math.round(4 * rand.nextDouble()) + (i % 3), Math.round(4 * rand.nextDouble())});
+        }
+        Clustering<Cluster> clustering = new ClusterList(3);
+        BaseCluster cluster;
+        for (int c = 0; c < 3; c++) {
+            cluster = new BaseCluster(n / 3 + 1);
+            cluster.setAttributes(data.getAttributes());
+            clustering.add(cluster);
+        }
+        for (Instance inst : data) {
+            clustering.get(inst.getIndex() % 3).add(inst);
+        }
+        clustering.lookupAdd(data);
+        return clustering;
+    }
+
+    @Test
+    public void testSameAsPairwiseComparison() {
+        Clustering<Cluster> clustering = clustering(60);
+        Dataset<? extends Instance> data = clustering.getLookup().lookup(Dataset.class);
+        List<Double> within = new ArrayList<>();
+        List<Double> between = new ArrayList<>();
+        List<Double> all = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            for (int j = i + 1; j < 60; j++) {
+                double d = dm.measure(data.get(i), data.get(j));
+                if (i % 3 == j % 3) {
+                    within.add(d);
+                } else {
+                    between.add(d);
+                }
+                all.add(d);
+            }
+        }
+        double plus = 0, minus = 0;
+        for (double w : within) {
+            for (double b : between) {
+                if (w < b) {
+                    plus++;
+                } else if (w > b) {
+                    minus++;
+                }
+            }
+        }
+        double nw = within.size(), nb = between.size(), nt = nw + nb;
+        double dw = 0, min = 0, max = 0;
+        for (double w : within) {
+            dw += w;
+        }
+        Collections.sort(all);
+        for (int i = 0; i < nw; i++) {
+            min += all.get(i);
+            max += all.get(all.size() - 1 - i);
+        }
+        Props params = new Props();
+        assertEquals((plus - minus) / (plus + minus), new Gamma().score(clustering, params), delta);
+        assertEquals((plus - minus) / Math.sqrt(nw * nb * nt * (nt - 1) / 2), new Tau().score(clustering, params), delta);
+        assertEquals((dw - min) / (max - min), new CIndex().score(clustering, params), delta);
+
+        PairDistances pd = PairDistances.of(clustering, dm, false);
+        //distances aren't kept with the clustering
+        assertNull(clustering.getLookup().lookup(PairDistances.class));
+        assertNotSame(pd, PairDistances.of(clustering, dm, true));
+        assertEquals((long) plus, pd.concordant());
+        assertEquals((long) minus, pd.discordant());
+    }
+
+    @Test
+    public void testShared() {
+        Clustering<Cluster> clustering = clustering(30);
+        PairDistances.Shared shared = new PairDistances.Shared();
+        clustering.lookupAdd(shared);
+        PairDistances pd = PairDistances.of(clustering, dm, false);
+        assertSame(pd, PairDistances.of(clustering, dm, true));
+        clustering.lookupRemove(shared);
+        assertNotSame(pd, PairDistances.of(clustering, dm, false));
+    }
+
+    @Test
+    public void testNotKeptAfterEvaluation() {
+        Clustering<Cluster> clustering = clustering(30);
+        HashEvaluationTable table = new HashEvaluationTable(clustering, clustering.getLookup().lookup(Dataset.class));
+        table.countAll();
+        assertNull(clustering.getLookup().lookup(PairDistances.Shared.class));
+        assertNull(clustering.getLookup().lookup(PairDistances.class));
+        Gamma gamma = new Gamma();
+        assertEquals(gamma.score(clustering), table.getScore(gamma.getName()), delta);
+    }
+
+    @Test
+    public void testParallelSort() {
+        Random rand = new Random(3);
+        double[] a = new double[300000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = rand.nextInt(1000) / 7.0;
+        }
+        double[] b = Arrays.copyOf(a, a.length);
+        PairDistances.sort(a, true);
+        Arrays.sort(b);
+        assertArrayEquals(b, a, 0.0);
+    }
+
+}
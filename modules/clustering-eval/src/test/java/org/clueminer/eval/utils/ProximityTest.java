@@ -0,0 +1,205 @@
+package org.clueminer.eval.utils;
+
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ProximityProvider;
+import org.clueminer.clustering.struct.BaseCluster;
+import org.clueminer.clustering.struct.ClusterList;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.ManhattanDistance;
+import org.clueminer.eval.DunnIndex;
+import org.clueminer.eval.PointBiserial;
+import org.clueminer.eval.Silhouette;
+import org.clueminer.math.Vector;
+import org.clueminer.math.matrix.SymmetricMatrix;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class ProximityTest {
+
+    private static final double delta = 1e-9;
+    private final EuclideanDistance dm = EuclideanDistance.getInstance();
+
+    private Dataset<? extends Instance> dataset(int n) {
+        return DatasetGenerator.blobs(n, new double[][]{{0.5, 0.5}, {1.5, 0.5}, {2.5, 0.5}}, 0.3, 17);
+    }
+
+    private Clustering<Cluster> clustering(Dataset<? extends Instance> data) {
+        Clustering<Cluster> clustering = new ClusterList(3);
+        BaseCluster cluster;
+        for (int c = 0; c < 3; c++) {
+            cluster = new BaseCluster(data.size() / 3 + 1);
+            cluster.setAttributes(data.getAttributes());
+            clustering.add(cluster);
+        }
+        for (Instance inst : data) {
+            clustering.get(inst.getIndex() % 3).add(inst);
+        }
+        clustering.lookupAdd(data);
+        return clustering;
+    }
+
+    @Test
+    public void testCachedDistances() {
+        Dataset<? extends Instance> data = dataset(50);
+        //packed matrix and row cache
+        ProximityProvider packed = new CachedProximity(data, dm);
+        ProximityProvider rows = new CachedProximity(data, dm, 120);
+        for (int i = 0; i < data.size(); i++) {
+            for (int j = 0; j < data.size(); j++) {
+                double d = i == j ? 0.0 : dm.measure(data.get(i), data.get(j));
+                assertEquals(d, packed.distance(i, j), delta);
+                assertEquals(d, rows.distance(data.get(j), data.get(i)), delta);
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyRequestedDistances() {
+        Dataset<? extends Instance> data = dataset(40);
+        final int[] calls = new int[1];
+        EuclideanDistance counting = new EuclideanDistance() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public double measure(Vector<Double> x, Vector<Double> y) {
+                calls[0]++;
+                return super.measure(x, y);
+            }
+        };
+        ProximityProvider cache = new CachedProximity(data, counting);
+        assertEquals(dm.measure(data.get(0), data.get(1)), cache.distance(0, 1), delta);
+        assertEquals(dm.measure(data.get(3), data.get(7)), cache.distance(7, 3), delta);
+        assertEquals(2, calls[0]);
+        //symmetric distances are reused
+        cache.distance(1, 0);
+        cache.distance(3, 7);
+        assertEquals(2, calls[0]);
+        ProximityProvider rows = new CachedProximity(data, counting, 80);
+        for (int i = 0; i < data.size(); i++) {
+            rows.distance(i, (i + 1) % data.size());
+        }
+        assertEquals(2 + data.size(), calls[0]);
+    }
+
+    @Test
+    public void testDirectWithoutEvaluationTable() {
+        Dataset<? extends Instance> data = dataset(30);
+        Clustering<Cluster> clustering = clustering(data);
+        ProximityProvider p = Proximity.of(clustering, dm);
+        assertFalse(p instanceof CachedProximity);
+        assertTrue(Proximity.cached(clustering, dm) instanceof CachedProximity);
+        assertEquals(dm.measure(data.get(2), data.get(5)), p.distance(2, 5), delta);
+
+        //without dataset instances are found by their index
+        Clustering<Cluster> noData = new ClusterList(3);
+        for (Cluster c : clustering) {
+            noData.add(c);
+        }
+        p = Proximity.of(noData, dm);
+        assertNull(p.getDataset());
+        assertEquals(dm.measure(data.get(2), data.get(5)), p.distance(2, 5), delta);
+        assertEquals(0.0, p.distance(4, 4), delta);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDirectUnknownIndex() {
+        Clustering<Cluster> noData = new ClusterList(1);
+        BaseCluster cluster = new BaseCluster(2);
+        Dataset<? extends Instance> data = dataset(3);
+        cluster.add(data.get(0));
+        cluster.add(data.get(1));
+        noData.add(cluster);
+        Proximity.of(noData, dm).distance(0, 2);
+    }
+
+    @Test
+    public void testNotSharedBetweenClusterings() {
+        Dataset<? extends Instance> data = dataset(30);
+        ProximityProvider p = Proximity.of(clustering(data), dm);
+        assertSame(data, p.getDataset());
+        double d = p.distance(0, 1);
+        //distances of a modified dataset mustn't come from a previous cache
+        data.set(1, 0, data.get(1, 0) + 10);
+        ProximityProvider q = Proximity.of(clustering(data), dm);
+        assertNotSame(p, q);
+        assertEquals(dm.measure(data.get(0), data.get(1)), q.distance(0, 1), delta);
+        assertTrue(Math.abs(d - q.distance(0, 1)) > 1);
+    }
+
+    @Test
+    public void testLookup() {
+        Dataset<? extends Instance> data = dataset(30);
+        Clustering<Cluster> clustering = clustering(data);
+        assertNull(Proximity.find(clustering, dm));
+        SymmetricMatrix m = new SymmetricMatrix(data.size(), data.size());
+        ProximityProvider p = new MatrixProximity(m, data, dm);
+        clustering.lookupAdd(p);
+        assertSame(p, Proximity.of(clustering, dm));
+        //instance from another dataset
+        Instance other = dataset(1).get(0);
+        assertEquals(dm.measure(other, data.get(3)), p.distance(other, data.get(3)), delta);
+    }
+
+    @Test
+    public void testScoreWithProximityMatrix() {
+        Dataset<? extends Instance> data = dataset(60);
+        SymmetricMatrix m = new SymmetricMatrix(data.size(), data.size());
+        for (int i = 0; i < data.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                m.set(i, j, dm.measure(data.get(i), data.get(j)));
+            }
+        }
+        Silhouette silhouette = new Silhouette();
+        PointBiserial pb = new PointBiserial();
+        DunnIndex dunn = new DunnIndex();
+        Clustering<Cluster> clustering = clustering(data);
+        double expSil = silhouette.score(clustering);
+        double expPb = pb.score(clustering);
+        double expDunn = dunn.score(clustering);
+
+        clustering = clustering(data);
+        assertEquals(expSil, silhouette.score(clustering, m, new Props()), delta);
+        //matrix is used only by the call
+        assertNull(Proximity.find(clustering, dm));
+        assertEquals(expPb, pb.score(clustering), delta);
+        assertEquals(expDunn, dunn.score(clustering), delta);
+    }
+
+    @Test
+    public void testMatrixOfOtherMeasure() {
+        Dataset<? extends Instance> data = dataset(45);
+        ManhattanDistance manhattan = new ManhattanDistance();
+        SymmetricMatrix m = new SymmetricMatrix(data.size(), data.size());
+        for (int i = 0; i < data.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                m.set(i, j, manhattan.measure(data.get(i), data.get(j)));
+            }
+        }
+        Silhouette silhouette = new Silhouette();
+        Clustering<Cluster> clustering = clustering(data);
+        double expected = silhouette.score(clustering);
+        silhouette.score(clustering, m, new Props());
+        //Manhattan distances don't affect following evaluations
+        assertEquals(expected, silhouette.score(clustering), delta);
+        assertEquals(expected, silhouette.score(clustering(data)), delta);
+    }
+
+    @Test
+    public void testSharedDuringEvaluation() {
+        Dataset<? extends Instance> data = dataset(60);
+        Clustering<Cluster> clustering = clustering(data);
+        HashEvaluationTable table = new HashEvaluationTable(clustering, data);
+        table.countAll();
+        assertNull(Proximity.find(clustering, dm));
+        assertEquals(new Silhouette().score(clustering(data)), table.getScore(new Silhouette().getName()), delta);
+    }
+}
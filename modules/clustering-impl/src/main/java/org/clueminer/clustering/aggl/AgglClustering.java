@@ -1,12 +1,12 @@
 package org.clueminer.clustering.aggl;
 
 import java.util.AbstractQueue;
+import java.util.Arrays;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.ReentrantLock;
 import org.clueminer.distance.api.DistanceMeasure;
 import org.clueminer.math.Matrix;
-import org.clueminer.math.MatrixVector;
-import org.clueminer.math.Vector;
 import org.clueminer.math.matrix.JMatrix;
 import org.clueminer.math.matrix.SymmetricMatrix;
 import org.openide.util.Exceptions;
@@ -45,12 +45,14 @@ public class AgglClustering {
     public static Matrix rowSimilarityMatrix(Matrix m, DistanceMeasure dm, AbstractQueue<Element> queue) {
         Matrix similarityMatrix;
         double dist;
+        //primitive copy of rows, avoids boxing in distance computations
+        double[][] rows = m.getArray();
         if (dm.isSymmetric()) {
 
             similarityMatrix = new SymmetricMatrix(m.rowsCount(), m.rowsCount());
             for (int i = 0; i < m.rowsCount(); ++i) {
                 for (int j = i + 1; j < m.rowsCount(); ++j) {
-                    dist = dm.measure(m.getRowVector(i), m.getRowVector(j));
+                    dist = dm.measure(rows[i], rows[j]);
                     similarityMatrix.set(i, j, dist);
                     // when printing lower part of matrix this indexes should match
                     if (queue != null) {
@@ -60,7 +62,7 @@ public class AgglClustering {
             }
         } else {
             double dist2;
-            MatrixVector vi, vj;
+            double[] vi, vj;
             similarityMatrix = new JMatrix(m.rowsCount(), m.rowsCount());
             for (int i = 0; i < m.rowsCount(); ++i) {
                 for (int j = i + 1; j < m.rowsCount(); ++j) {
@@ -68,8 +70,8 @@ public class AgglClustering {
                      * measure is not symmetrical, we have to compute distance
                      * from A to B and from B to A
                      */
-                    vi = m.getRowVector(i);
-                    vj = m.getRowVector(j);
+                    vi = rows[i];
+                    vj = rows[j];
                     dist = dm.measure(vi, vj);
                     similarityMatrix.set(i, j, dist);
                     dist2 = dm.measure(vj, vi);
@@ -85,7 +87,13 @@ public class AgglClustering {
     }
 
     /**
-     * We expect distance measure to be symmetrical
+     * We expect distance measure to be symmetrical.
+     *
+     * Upper triangle is split into tiles with approximately same number of
+     * pairs which are processed by a fork-join pool. Each tile writes into
+     * different cells of the matrix and collects elements in its own buffer,
+     * buffers are merged at the end (in sorted order, therefore adding to a
+     * binary heap is cheap).
      *
      * @param m
      * @param dm
@@ -95,30 +103,29 @@ public class AgglClustering {
      */
     public static Matrix rowSimilarityMatrixParSym(final Matrix m, final DistanceMeasure dm, final AbstractQueue<Element> queue, int threads) {
         final Matrix similarityMatrix = new SymmetricMatrix(m.rowsCount(), m.rowsCount());
-        CyclicBarrier barrier = new CyclicBarrier(threads);
-        Thread[] run = new Thread[threads];
-        for (int t = 0; t < threads; t++) {
-            run[t] = new Thread(new RowSimThread(m, dm, queue, t, threads, similarityMatrix, barrier));
-            run[t].start();
-        }
-
+        final double[][] rows = m.getArray();
+        //more tiles than threads, so that idle threads could steal work
+        int[] tiles = RowSimTask.triangleTiles(rows.length, threads * 4);
+        ForkJoinPool pool = new ForkJoinPool(threads);
         try {
-            for (int i = 0; i < threads; i++) {
-                run[i].join();
+            Element[] elements = pool.invoke(new RowSimTask(rows, dm, similarityMatrix, tiles, 0, tiles.length - 1, queue != null));
+            if (queue != null) {
+                queue.addAll(Arrays.asList(elements));
             }
-        } catch (InterruptedException ex) {
-            Exceptions.printStackTrace(ex);
+        } finally {
+            pool.shutdown();
         }
         return similarityMatrix;
     }
 
     public static Matrix rowSimilarityMatrixParSymLock(final Matrix m, final DistanceMeasure dm, final AbstractQueue<Element> queue, int threads) {
         final Matrix similarityMatrix = new SymmetricMatrix(m.rowsCount(), m.rowsCount());
+        final double[][] rows = m.getArray();
         CyclicBarrier barrier = new CyclicBarrier(threads);
         ReentrantLock lock = new ReentrantLock();
         Thread[] run = new Thread[threads];
         for (int t = 0; t < threads; t++) {
-            run[t] = new Thread(new RowSimThread2(m, dm, queue, t, threads, similarityMatrix, barrier, lock));
+            run[t] = new Thread(new RowSimThread2(rows, dm, queue, t, threads, similarityMatrix, barrier, lock));
             run[t].start();
         }
 
@@ -146,11 +153,12 @@ public class AgglClustering {
     static Matrix columnSimilarityMatrix(Matrix m, DistanceMeasure dm, AbstractQueue<Element> queue) {
         Matrix similarityMatrix;
         double dist;
+        double[][] cols = columnsCopy(m);
         if (dm.isSymmetric()) {
             similarityMatrix = new SymmetricMatrix(m.columnsCount(), m.columnsCount());
             for (int i = 0; i < m.columnsCount(); ++i) {
                 for (int j = i + 1; j < m.columnsCount(); ++j) {
-                    dist = dm.measure(m.getColumnVector(i), m.getColumnVector(j));
+                    dist = dm.measure(cols[i], cols[j]);
                     similarityMatrix.set(i, j, dist);
                     if (queue != null) {
                         // when printing lower part of matrix this indexes should match
@@ -160,7 +168,7 @@ public class AgglClustering {
             }
         } else {
             double dist2;
-            MatrixVector vi, vj;
+            double[] vi, vj;
             similarityMatrix = new JMatrix(m.columnsCount(), m.columnsCount());
             for (int i = 0; i < m.columnsCount(); ++i) {
                 for (int j = i + 1; j < m.columnsCount(); ++j) {
@@ -168,8 +176,8 @@ public class AgglClustering {
                      * measure is not symmetrical, we have to compute distance
                      * from A to B and from B to A
                      */
-                    vi = m.getColumnVector(i);
-                    vj = m.getColumnVector(j);
+                    vi = cols[i];
+                    vj = cols[j];
                     dist = dm.measure(vi, vj);
                     similarityMatrix.set(i, j, dist);
                     //inversed distance
@@ -185,4 +193,21 @@ public class AgglClustering {
         return similarityMatrix;
     }
 
+    /**
+     * Transposed copy of matrix values, each column is stored in a separate
+     * array
+     *
+     * @param m
+     * @return columns of the matrix
+     */
+    static double[][] columnsCopy(Matrix m) {
+        double[][] cols = new double[m.columnsCount()][m.rowsCount()];
+        for (int i = 0; i < m.rowsCount(); i++) {
+            for (int j = 0; j < m.columnsCount(); j++) {
+                cols[j][i] = m.get(i, j);
+            }
+        }
+        return cols;
+    }
+
 }
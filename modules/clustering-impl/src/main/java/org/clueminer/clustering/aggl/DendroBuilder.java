@@ -0,0 +1,109 @@
+package org.clueminer.clustering.aggl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.hclust.DLeaf;
+import org.clueminer.hclust.DTreeNode;
+import org.clueminer.hclust.DynamicTreeData;
+
+/**
+ * Assembles dendrogram from a list of merges which are not necessarily sorted
+ * by height (e.g. nearest-neighbor chain or pointer representation). Each merge
+ * is given by two items, one from each merged cluster.
+ *
+ * @author Tomas Barton
+ */
+class DendroBuilder {
+
+    private DendroBuilder() {
+
+    }
+
+    /**
+     *
+     * @param mergeA      item from first cluster
+     * @param mergeB      item from second cluster
+     * @param mergeDist   merge heights
+     * @param dataset
+     * @param clusterRows whether leaves are instances or attributes
+     * @param n           number of items
+     * @return
+     */
+    static DendroTreeData build(int[] mergeA, int[] mergeB, final double[] mergeDist,
+            Dataset<? extends Instance> dataset, boolean clusterRows, int n) {
+        Integer[] order = new Integer[n - 1];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        //stable sort, merges with same distance stay in order they were found
+        Arrays.sort(order, new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(mergeDist[o1], mergeDist[o2]);
+            }
+        });
+
+        DendroNode[] nodes = new DendroNode[(2 * n - 1)];
+        for (int i = 0; i < n; i++) {
+            if (clusterRows) {
+                nodes[i] = new DLeaf(i, dataset.get(i));
+            } else {
+                nodes[i] = new DLeaf(i, dataset.getAttribute(i));
+            }
+        }
+        //union-find over items, root of each set points to its dendrogram node
+        int[] parent = new int[n];
+        int[] nodeOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            nodeOf[i] = i;
+        }
+        DendroNode node = null;
+        int m, ra, rb, left, right;
+        for (int nodeId = n; nodeId < 2 * n - 1; nodeId++) {
+            m = order[nodeId - n];
+            ra = find(parent, mergeA[m]);
+            rb = find(parent, mergeB[m]);
+            //same orientation as in HAC (merged cluster goes to the left)
+            left = Math.min(nodeOf[ra], nodeOf[rb]);
+            right = Math.max(nodeOf[ra], nodeOf[rb]);
+            if (right >= n) {
+                int tmp = left;
+                left = right;
+                right = tmp;
+            }
+            node = new DTreeNode(nodeId);
+            node.setLeft(nodes[left]);
+            node.setRight(nodes[right]);
+            node.setHeight(mergeDist[m]);
+            nodes[nodeId] = node;
+
+            parent[rb] = ra;
+            nodeOf[ra] = nodeId;
+        }
+        //last node is the root
+        DendroTreeData treeData = new DynamicTreeData(node);
+        return treeData;
+    }
+
+    private static int find(int[] parent, int i) {
+        int root = i;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        //path compression
+        int tmp;
+        while (parent[i] != root) {
+            tmp = parent[i];
+            parent[i] = root;
+            i = tmp;
+        }
+        return root;
+    }
+
+}
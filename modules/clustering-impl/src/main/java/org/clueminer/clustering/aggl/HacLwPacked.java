@@ -0,0 +1,269 @@
+package org.clueminer.clustering.aggl;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.clueminer.clustering.algorithm.HClustResult;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.AgglomerativeClustering;
+import org.clueminer.clustering.api.ClusterLinkage;
+import org.clueminer.clustering.api.ClusteringAlgorithm;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.hclust.DLeaf;
+import org.clueminer.hclust.DTreeNode;
+import org.clueminer.hclust.DynamicTreeData;
+import org.clueminer.math.Matrix;
+import org.clueminer.math.matrix.SymmetricMatrix;
+import org.clueminer.utils.PropType;
+import org.clueminer.utils.Props;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * Hierarchical clustering - updating distances using Lance-Williams update
+ * formula directly in a packed triangular array of primitive values.
+ *
+ * Merged cluster reuses slot of one of its children, so no distances are
+ * stored outside the proximity matrix. Instead of a priority queue with all
+ * pairwise distances we keep nearest neighbor of each cluster (within its row
+ * of the lower triangle), after each merge only rows affected by the merge are
+ * rescanned.
+ *
+ * memory complexity:
+ * <li>
+ * <ul>double array (n - 1) * n / 2 - for storing similarity matrix</ul>
+ * <ul>a few int/double arrays of size n</ul>
+ * <ul>tree structure (2 * n - 1 objects)</ul>
+ * </li>
+ * time complexity - O(n^2) for most datasets, O(n^3) worst case
+ *
+ * @author Tomas Barton
+ */
+@ServiceProvider(service = ClusteringAlgorithm.class)
+public class HacLwPacked extends HACLW implements AgglomerativeClustering {
+
+    private final static String name = "HAC-LW-Packed";
+    private static final Logger logger = Logger.getLogger(HacLwPacked.class.getName());
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public HierarchicalResult hierarchy(Dataset<? extends Instance> dataset, Props pref) {
+        int n;
+        AgglParams params = new AgglParams(pref);
+        distanceFunction = params.getDistanceMeasure();
+        if (!distanceFunction.isSymmetric()) {
+            logger.log(Level.INFO, "{0} is not symmetric, falling back to {1}", new Object[]{distanceFunction.getName(), super.getName()});
+            return super.hierarchy(dataset, pref);
+        }
+        HierarchicalResult result = new HClustResult(dataset, pref);
+        pref.put(AgglParams.ALG, getName());
+        checkParams(pref);
+        Matrix input = dataset.asMatrix();
+        double[][] vectors;
+        if (params.clusterRows()) {
+            n = dataset.size();
+            vectors = input.getArray();
+        } else {
+            //columns clustering
+            n = dataset.attributeCount();
+            vectors = AgglClustering.columnsCopy(input);
+        }
+        logger.log(Level.FINE, "{0} clustering: {1}", new Object[]{getName(), pref.toString()});
+        PackedTriangle sim = proximity(vectors, distanceFunction);
+
+        //whether to keep reference to proximity matrix (could be memory exhausting)
+        if (n > 0 && pref.getBoolean(PropType.PERFORMANCE, AgglParams.KEEP_PROXIMITY, true)) {
+            //packed array will be modified, we have to keep a copy
+            if (PackedTriangle.triangleSize(n) <= Integer.MAX_VALUE) {
+                result.setProximityMatrix(toMatrix(sim));
+            } else {
+                logger.log(Level.WARNING, "proximity matrix for {0} items is too large to be kept", n);
+            }
+        }
+
+        DendroTreeData treeData = computeLinkage(sim, dataset, params, n);
+        treeData.createMapping(n, treeData.getRoot());
+        result.setTreeData(treeData);
+        return result;
+    }
+
+    /**
+     * Compute pairwise distances (distance function must be symmetric)
+     *
+     * @param vectors
+     * @param dm
+     * @return lower triangle of distance matrix
+     */
+    protected PackedTriangle proximity(double[][] vectors, DistanceMeasure dm) {
+        PackedTriangle sim = new PackedTriangle(vectors.length);
+        long idx = 0;
+        //row by row, items are stored sequentially
+        for (int i = 1; i < vectors.length; i++) {
+            for (int j = 0; j < i; j++) {
+                sim.set(idx++, dm.measure(vectors[i], vectors[j]));
+            }
+        }
+        return sim;
+    }
+
+    private Matrix toMatrix(PackedTriangle sim) {
+        int n = sim.size();
+        Matrix m = new SymmetricMatrix(n, n);
+        long idx = 0;
+        for (int i = 1; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                m.set(i, j, sim.get(idx++));
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Merge closest clusters until we have just one
+     *
+     * @param sim     lower triangle of proximity matrix, will be modified
+     * @param dataset
+     * @param params
+     * @param n       number of items to cluster
+     * @return
+     */
+    protected DendroTreeData computeLinkage(PackedTriangle sim, Dataset<? extends Instance> dataset, AgglParams params, int n) {
+        ClusterLinkage link = params.getLinkage();
+        if (n == 0) {
+            return new DynamicTreeData();
+        }
+        //binary tree, we know how many nodes we have
+        DendroNode[] nodes = new DendroNode[(2 * n - 1)];
+        //dendrogram node of cluster stored in given slot
+        int[] nodeOf = new int[n];
+        int[] size = new int[n];
+        //list of active clusters (sorted by slot index), n is the end mark
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        //nearest neighbor of each cluster with lower slot index
+        int[] nn = new int[n];
+        double[] nnDist = new double[n];
+        int head = 0;
+        for (int i = 0; i < n; i++) {
+            if (params.clusterRows()) {
+                nodes[i] = new DLeaf(i, dataset.get(i));
+            } else {
+                nodes[i] = new DLeaf(i, dataset.getAttribute(i));
+            }
+            nodeOf[i] = i;
+            size[i] = 1;
+            next[i] = i + 1;
+            prev[i] = i - 1;
+            findNearest(i, head, next, sim, nn, nnDist);
+        }
+
+        DendroNode node = null;
+        int a, b, k, ma, mb, left, right;
+        double dist, aq, bq, upd;
+        for (int nodeId = n; nodeId < 2 * n - 1; nodeId++) {
+            //find globally closest pair
+            b = -1;
+            dist = Double.POSITIVE_INFINITY;
+            for (k = next[head]; k < n; k = next[k]) {
+                if (b < 0 || nnDist[k] < dist) {
+                    dist = nnDist[k];
+                    b = k;
+                }
+            }
+            a = nn[b];
+            //same orientation as in HAC (merged cluster goes to the left)
+            left = nodeOf[a];
+            right = nodeOf[b];
+            if (left >= n || right >= n) {
+                left = Math.max(nodeOf[a], nodeOf[b]);
+                right = Math.min(nodeOf[a], nodeOf[b]);
+            }
+            node = new DTreeNode(nodeId);
+            node.setLeft(nodes[left]);
+            node.setRight(nodes[right]);
+            node.setHeight(dist);
+            nodes[nodeId] = node;
+
+            ma = size[a];
+            mb = size[b];
+            //remove b from active clusters
+            next[prev[b]] = next[b];
+            if (next[b] < n) {
+                prev[next[b]] = prev[b];
+            }
+            //Lance-Williams update, merged cluster is stored in slot a
+            for (k = head; k < n; k = next[k]) {
+                if (k != a) {
+                    aq = sim.get(a, k);
+                    bq = sim.get(b, k);
+                    upd = link.alphaA(ma, mb, size[k]) * aq + link.alphaB(ma, mb, size[k]) * bq;
+                    if (link.beta(ma, mb, size[k]) != 0) {
+                        upd += link.beta(ma, mb, size[k]) * dist;
+                    }
+                    if (link.gamma() != 0) {
+                        upd += link.gamma() * Math.abs(aq - bq);
+                    }
+                    sim.set(a, k, upd);
+                }
+            }
+            size[a] = ma + mb;
+            size[b] = 0;
+            nodeOf[a] = nodeId;
+
+            //update nearest neighbors, rows with index lower than a are not affected
+            findNearest(a, head, next, sim, nn, nnDist);
+            for (k = next[a]; k < n; k = next[k]) {
+                upd = sim.get(k, a);
+                if (nn[k] == a || nn[k] == b) {
+                    if (upd <= nnDist[k]) {
+                        nn[k] = a;
+                        nnDist[k] = upd;
+                    } else {
+                        findNearest(k, head, next, sim, nn, nnDist);
+                    }
+                } else if (upd < nnDist[k]) {
+                    nn[k] = a;
+                    nnDist[k] = upd;
+                }
+            }
+        }
+
+        //last node is the root
+        DendroTreeData treeData = new DynamicTreeData(node);
+        return treeData;
+    }
+
+    /**
+     * Find closest active cluster with lower index than i (items are in one
+     * block of memory)
+     *
+     * @param i
+     * @param head
+     * @param next
+     * @param sim
+     * @param nn
+     * @param nnDist
+     */
+    private void findNearest(int i, int head, int[] next, PackedTriangle sim, int[] nn, double[] nnDist) {
+        double min = Double.POSITIVE_INFINITY, d;
+        int best = -1;
+        long offset = PackedTriangle.index(i, 0);
+        for (int j = head; j < i; j = next[j]) {
+            d = sim.get(offset + j);
+            if (best < 0 || d < min) {
+                min = d;
+                best = j;
+            }
+        }
+        nn[i] = best;
+        nnDist[i] = min;
+    }
+
+}
@@ -0,0 +1,165 @@
+package org.clueminer.clustering.aggl;
+
+import org.clueminer.clustering.aggl.linkage.AverageLinkage;
+import org.clueminer.clustering.aggl.linkage.CompleteLinkage;
+import org.clueminer.clustering.aggl.linkage.SingleLinkage;
+import org.clueminer.clustering.aggl.linkage.WardsLinkage;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.AgglomerativeClustering;
+import org.clueminer.clustering.api.ClusterLinkage;
+import org.clueminer.clustering.api.ClusteringAlgorithm;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.hclust.DynamicTreeData;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * Hierarchical clustering using nearest-neighbor chain algorithm. Works only
+ * with reducible linkages (single, complete, average, Ward's), for these the
+ * resulting dendrogram is the same as from the other HAC implementations (up to
+ * ordering of merges with equal distances).
+ *
+ * We follow a chain of nearest neighbors until we find a pair of reciprocal
+ * nearest neighbors, such pair is merged immediately. Merges are not found in
+ * order of increasing distance, therefore the tree is assembled afterwards from
+ * sorted merges (see DendroBuilder).
+ *
+ * memory complexity:
+ * <li>
+ * <ul>double array (n - 1) * n / 2 - for storing similarity matrix</ul>
+ * <ul>a few int/double arrays of size n</ul>
+ * </li>
+ * time complexity - O(n^2)
+ *
+ * Murtagh, F.: "A survey of recent advances in hierarchical clustering
+ * algorithms", The Computer Journal 26, no. 4 (1983): 354-359.
+ *
+ * @author Tomas Barton
+ */
+@ServiceProvider(service = ClusteringAlgorithm.class)
+public class HacNnChain extends HacLwPacked implements AgglomerativeClustering {
+
+    private final static String name = "HAC-NN-chain";
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    protected DendroTreeData computeLinkage(PackedTriangle sim, Dataset<? extends Instance> dataset, AgglParams params, int n) {
+        ClusterLinkage link = params.getLinkage();
+        if (!isLinkageSupported(link.getName())) {
+            //chain would produce a wrong tree for non-reducible linkage
+            throw new IllegalArgumentException(link.getName() + " is not supported by " + name);
+        }
+        if (n == 0) {
+            return new DynamicTreeData();
+        }
+        int[] size = new int[n];
+        //list of active clusters (sorted by slot index), n is the end mark
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        for (int i = 0; i < n; i++) {
+            size[i] = 1;
+            next[i] = i + 1;
+            prev[i] = i - 1;
+        }
+        int head = 0;
+        //merged clusters are identified by slots (each slot is also an item
+        //which belongs to the cluster)
+        double[] mergeDist = new double[n - 1];
+        int[] mergeA = new int[n - 1];
+        int[] mergeB = new int[n - 1];
+
+        int[] chain = new int[n];
+        int top = 0;
+        int a, b, k, ma, mb, prevInChain;
+        double dist, d, aq, bq, upd;
+        for (int m = 0; m < n - 1; m++) {
+            if (top == 0) {
+                chain[top++] = head;
+            }
+            while (true) {
+                a = chain[top - 1];
+                //prefer previous item in chain in case of ties, otherwise
+                //we might end up in a cycle
+                if (top > 1) {
+                    prevInChain = chain[top - 2];
+                    b = prevInChain;
+                    dist = sim.get(a, b);
+                } else {
+                    prevInChain = -1;
+                    b = -1;
+                    dist = Double.POSITIVE_INFINITY;
+                }
+                for (k = head; k < n; k = next[k]) {
+                    if (k != a) {
+                        d = sim.get(a, k);
+                        if (d < dist || b < 0) {
+                            dist = d;
+                            b = k;
+                        }
+                    }
+                }
+                if (b == prevInChain) {
+                    break;
+                }
+                chain[top++] = b;
+            }
+            //a and b are reciprocal nearest neighbors
+            top -= 2;
+            if (b < a) {
+                k = a;
+                a = b;
+                b = k;
+            }
+            mergeA[m] = a;
+            mergeB[m] = b;
+            mergeDist[m] = dist;
+
+            ma = size[a];
+            mb = size[b];
+            //remove b from active clusters (it's never the head)
+            next[prev[b]] = next[b];
+            if (next[b] < n) {
+                prev[next[b]] = prev[b];
+            }
+            //Lance-Williams update, merged cluster is stored in slot a
+            for (k = head; k < n; k = next[k]) {
+                if (k != a) {
+                    aq = sim.get(a, k);
+                    bq = sim.get(b, k);
+                    upd = link.alphaA(ma, mb, size[k]) * aq + link.alphaB(ma, mb, size[k]) * bq;
+                    if (link.beta(ma, mb, size[k]) != 0) {
+                        upd += link.beta(ma, mb, size[k]) * dist;
+                    }
+                    if (link.gamma() != 0) {
+                        upd += link.gamma() * Math.abs(aq - bq);
+                    }
+                    sim.set(a, k, upd);
+                }
+            }
+            size[a] = ma + mb;
+            size[b] = 0;
+        }
+        return DendroBuilder.build(mergeA, mergeB, mergeDist, dataset, params.clusterRows(), n);
+    }
+
+    /**
+     * Nearest-neighbor chain requires reducible linkage
+     *
+     * @param linkage
+     * @return
+     */
+    @Override
+    public boolean isLinkageSupported(String linkage) {
+        //reducible linkages only
+        return linkage.equals(SingleLinkage.name)
+                || linkage.equals(CompleteLinkage.name)
+                || linkage.equals(AverageLinkage.name)
+                || linkage.equals(WardsLinkage.name);
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.clueminer.clustering.aggl;
+
+/**
+ * Minimum spanning tree of a complete graph, edge i connects items from[i] and
+ * to[i]. Edges are stored in order as they were added to the tree.
+ *
+ * @author Tomas Barton
+ */
+public class MinimumSpanningTree {
+
+    private final int[] from;
+    private final int[] to;
+    private final double[] weight;
+
+    public MinimumSpanningTree(int[] from, int[] to, double[] weight) {
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+    }
+
+    /**
+     *
+     * @return number of edges
+     */
+    public int size() {
+        return from.length;
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weight[edge];
+    }
+
+    public double totalWeight() {
+        double sum = 0.0;
+        for (double w : weight) {
+            sum += w;
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.clueminer.clustering.aggl;
+
+/**
+ * Lower triangle of a symmetric n x n matrix (without diagonal) stored in
+ * primitive arrays. Index of item [i, j] (i &gt; j) is
+ * <code>i * (i - 1) / 2 + j</code>, computed as <code>long</code> so that
+ * matrices with more than ~46k rows can be addressed. Values are split into
+ * blocks because a single Java array can't hold more than 2^31 items.
+ *
+ * Items of row i (all j &lt; i) are stored in a continuous block of memory.
+ *
+ * @author Tomas Barton
+ */
+public class PackedTriangle {
+
+    private static final int BLOCK_BITS = 27;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final long BLOCK_MASK = BLOCK_SIZE - 1;
+    private final double[][] blocks;
+    private final int n;
+
+    public PackedTriangle(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("invalid dimension, matrix of size " + n + " doesn't make much sense");
+        }
+        this.n = n;
+        long size = triangleSize(n);
+        int cnt = (int) ((size + BLOCK_SIZE - 1) >>> BLOCK_BITS);
+        blocks = new double[cnt][];
+        for (int b = 0; b < cnt; b++) {
+            long remain = size - ((long) b << BLOCK_BITS);
+            blocks[b] = new double[(int) Math.min(BLOCK_SIZE, remain)];
+        }
+    }
+
+    /**
+     * Number of items in triangular matrix (n x n) minus diagonal
+     *
+     * @param n
+     * @return
+     */
+    public static long triangleSize(int n) {
+        return ((long) (n - 1) * n) >>> 1;
+    }
+
+    /**
+     * Position of item [i, j] in packed array, i != j
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    public static long index(int i, int j) {
+        if (i < j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        return (((long) i * (i - 1)) >>> 1) + j;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public double get(int i, int j) {
+        return get(index(i, j));
+    }
+
+    public double get(long idx) {
+        return blocks[(int) (idx >>> BLOCK_BITS)][(int) (idx & BLOCK_MASK)];
+    }
+
+    public void set(int i, int j, double value) {
+        set(index(i, j), value);
+    }
+
+    public void set(long idx, double value) {
+        blocks[(int) (idx >>> BLOCK_BITS)][(int) (idx & BLOCK_MASK)] = value;
+    }
+
+}
@@ -1,21 +1,24 @@
 package org.clueminer.clustering.aggl;
 
-import java.util.Map;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.hclust.DynamicTreeData;
 
 /**
+ * Pointer representation of a single linkage hierarchy. Item i is merged at
+ * height lambda[i] with cluster containing pi[i] (item with higher index). The
+ * last item points to itself and its lambda is infinite.
  *
  * @author Tomas Barton
  */
 public class PointerHierarchy {
 
     private final Dataset<? extends Instance> dataset;
-    private final Map<Integer, Double> lambda;
+    private final double[] lambda;
     private final int[] pi;
 
-
-    public PointerHierarchy(Dataset<? extends Instance> dataset, Map<Integer, Double> lambda, int[] pi) {
+    public PointerHierarchy(Dataset<? extends Instance> dataset, double[] lambda, int[] pi) {
         this.dataset = dataset;
         this.lambda = lambda;
         this.pi = pi;
@@ -25,7 +28,7 @@ public class PointerHierarchy {
         return dataset;
     }
 
-    public Map<Integer, Double> getLambda() {
+    public double[] getLambda() {
         return lambda;
     }
 
@@ -33,4 +36,34 @@ public class PointerHierarchy {
         return pi;
     }
 
+    public int size() {
+        return pi.length;
+    }
+
+    /**
+     * Convert pointer representation to a dendrogram
+     *
+     * @param clusterRows whether items are instances or attributes
+     * @return
+     */
+    public DendroTreeData toTree(boolean clusterRows) {
+        int n = pi.length;
+        if (n == 0) {
+            return new DynamicTreeData();
+        }
+        int[] mergeA = new int[n - 1];
+        int[] mergeB = new int[n - 1];
+        double[] mergeDist = new double[n - 1];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (pi[i] != i) {
+                mergeA[k] = i;
+                mergeB[k] = pi[i];
+                mergeDist[k] = lambda[i];
+                k++;
+            }
+        }
+        return DendroBuilder.build(mergeA, mergeB, mergeDist, dataset, clusterRows, n);
+    }
+
 }
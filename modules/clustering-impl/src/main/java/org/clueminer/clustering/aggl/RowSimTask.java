@@ -0,0 +1,165 @@
+package org.clueminer.clustering.aggl;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.math.Matrix;
+
+/**
+ * Fork-join task computing part of the upper triangle of a symmetric
+ * similarity matrix. Rows are split into bands (tiles) with approximately same
+ * number of pairs, each leaf task computes a single tile.
+ *
+ * Each tile writes distinct cells of the matrix, so no locking is needed.
+ * Elements are collected into a local buffer which is sorted and merged with
+ * buffers of sibling tasks, the root task returns all elements sorted in
+ * ascending order.
+ *
+ * @author Tomas Barton
+ */
+public class RowSimTask extends RecursiveTask<Element[]> {
+
+    private static final long serialVersionUID = 6036599592003380733L;
+    private static final Element[] EMPTY = new Element[0];
+    private final double[][] rows;
+    private final DistanceMeasure dm;
+    private final Matrix similarityMatrix;
+    /**
+     * tile t covers rows from tiles[t] (inclusive) to tiles[t + 1] (exclusive)
+     */
+    private final int[] tiles;
+    private final int from;
+    private final int to;
+    private final boolean collect;
+
+    /**
+     *
+     * @param rows             input data
+     * @param dm               symmetric distance function
+     * @param similarityMatrix output matrix
+     * @param tiles            row boundaries of tiles
+     * @param from             first tile (inclusive)
+     * @param to               last tile (exclusive)
+     * @param collect          whether to return computed elements
+     */
+    public RowSimTask(double[][] rows, DistanceMeasure dm, Matrix similarityMatrix,
+            int[] tiles, int from, int to, boolean collect) {
+        this.rows = rows;
+        this.dm = dm;
+        this.similarityMatrix = similarityMatrix;
+        this.tiles = tiles;
+        this.from = from;
+        this.to = to;
+        this.collect = collect;
+    }
+
+    @Override
+    protected Element[] compute() {
+        if (to - from <= 1) {
+            return computeTile(tiles[from], tiles[to]);
+        }
+        int mid = (from + to) >>> 1;
+        RowSimTask left = new RowSimTask(rows, dm, similarityMatrix, tiles, from, mid, collect);
+        RowSimTask right = new RowSimTask(rows, dm, similarityMatrix, tiles, mid, to, collect);
+        left.fork();
+        Element[] b = right.compute();
+        Element[] a = left.join();
+        return merge(a, b);
+    }
+
+    private Element[] computeTile(int rowStart, int rowEnd) {
+        int n = rows.length;
+        Element[] buffer = EMPTY;
+        int k = 0;
+        if (collect) {
+            buffer = new Element[area(n, rowStart, rowEnd)];
+        }
+        double dist;
+        for (int i = rowStart; i < rowEnd; i++) {
+            for (int j = i + 1; j < n; j++) {
+                dist = dm.measure(rows[i], rows[j]);
+                similarityMatrix.set(i, j, dist);
+                if (collect) {
+                    buffer[k++] = new Element(dist, i, j);
+                }
+            }
+        }
+        Arrays.sort(buffer);
+        return buffer;
+    }
+
+    /**
+     * Merge two sorted arrays
+     *
+     * @param a
+     * @param b
+     * @return sorted array containing elements from both arrays
+     */
+    private static Element[] merge(Element[] a, Element[] b) {
+        if (a.length == 0) {
+            return b;
+        } else if (b.length == 0) {
+            return a;
+        }
+        Element[] res = new Element[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i].compareTo(b[j]) <= 0) {
+                res[k++] = a[i++];
+            } else {
+                res[k++] = b[j++];
+            }
+        }
+        while (i < a.length) {
+            res[k++] = a[i++];
+        }
+        while (j < b.length) {
+            res[k++] = b[j++];
+        }
+        return res;
+    }
+
+    /**
+     * Number of pairs above diagonal in rows from rowStart to rowEnd
+     *
+     * @param n        matrix size
+     * @param rowStart inclusive
+     * @param rowEnd   exclusive
+     * @return
+     */
+    static int area(int n, int rowStart, int rowEnd) {
+        long cnt = rowEnd - rowStart;
+        //sum of (n - 1 - i) for i in [rowStart, rowEnd)
+        long sum = cnt * (n - 1) - ((long) (rowStart + rowEnd - 1) * cnt) / 2;
+        return (int) sum;
+    }
+
+    /**
+     * Split rows of upper triangle (n x n) into bands with approximately same
+     * number of pairs.
+     *
+     * @param n     matrix size
+     * @param tiles requested number of tiles
+     * @return boundaries of tiles, first is 0 and last is n
+     */
+    public static int[] triangleTiles(int n, int tiles) {
+        tiles = Math.max(1, Math.min(tiles, n - 1));
+        long total = ((long) (n - 1) * n) >>> 1;
+        int[] bounds = new int[tiles + 1];
+        long acc = 0;
+        int t = 1;
+        for (int i = 0; i < n && t < tiles; i++) {
+            acc += n - 1 - i;
+            if (acc * tiles >= total * t) {
+                bounds[t++] = i + 1;
+            }
+        }
+        //in case of rounding errors last tiles might be empty
+        for (; t < tiles; t++) {
+            bounds[t] = n;
+        }
+        bounds[tiles] = n;
+        return bounds;
+    }
+
+}
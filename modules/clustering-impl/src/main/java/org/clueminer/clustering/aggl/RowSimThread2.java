@@ -15,7 +15,7 @@ import org.openide.util.Exceptions;
  */
 public class RowSimThread2 implements Runnable {
 
-    private final Matrix m;
+    private final double[][] rows;
     private final DistanceMeasure dm;
     private final AbstractQueue<Element> queue;
     private final int threadId;
@@ -24,9 +24,9 @@ public class RowSimThread2 implements Runnable {
     private final CyclicBarrier barrier;
     private final ReentrantLock lock;
 
-    public RowSimThread2(Matrix m, DistanceMeasure dm, AbstractQueue<Element> queue,
+    public RowSimThread2(double[][] rows, DistanceMeasure dm, AbstractQueue<Element> queue,
             int threadId, int threads, Matrix similarityMatrix, CyclicBarrier barrier, final ReentrantLock lock) {
-        this.m = m;
+        this.rows = rows;
         this.dm = dm;
         this.queue = queue;
         this.threadId = threadId;
@@ -47,9 +47,9 @@ public class RowSimThread2 implements Runnable {
 
         double dist;
         LinkedList<Element> cache = new LinkedList<>();
-        for (int i = threadId; i < m.rowsCount(); i += threads) {
-            for (int j = i + 1; j < m.rowsCount(); ++j) {
-                dist = dm.measure(m.getRowVector(i), m.getRowVector(j));
+        for (int i = threadId; i < rows.length; i += threads) {
+            for (int j = i + 1; j < rows.length; ++j) {
+                dist = dm.measure(rows[i], rows[j]);
                 similarityMatrix.set(i, j, dist);
                 // when printing lower part of matrix this indexes should match
                 if (queue != null) {
@@ -1,37 +1,45 @@
 package org.clueminer.clustering.aggl;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.clueminer.clustering.aggl.linkage.SingleLinkage;
 import org.clueminer.clustering.algorithm.HClustResult;
 import org.clueminer.clustering.api.AbstractClusteringAlgorithm;
 import org.clueminer.clustering.api.AgglParams;
 import org.clueminer.clustering.api.AgglomerativeClustering;
 import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.ClusteringAlgorithm;
 import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.distance.api.DistanceMeasure;
-import org.clueminer.utils.Dump;
-import org.clueminer.utils.MapUtils;
+import org.clueminer.math.Matrix;
 import org.clueminer.utils.Props;
+import org.openide.util.lookup.ServiceProvider;
 
 /**
  * SLINK clustering - also known as nearest neighbour clustering (a variant of
  * hierarchical clustering algorithm with single linkage)
  *
+ * Distances are computed on the fly, proximity matrix is never stored:
+ * <li>
+ * <ul>time complexity O(n^2)</ul>
+ * <ul>memory complexity O(n) (besides the input data and the tree)</ul>
+ * </li>
+ *
  * R. Sibson (1973). "SLINK: an optimally efficient algorithm for the
  * single-link cluster method". The Computer Journal (British Computer Society)
  * 16 (1): 30–34. doi:10.1093/comjnl/16.1.30.
  *
  * @author Tomas Barton
  */
+@ServiceProvider(service = ClusteringAlgorithm.class)
 public class SLINK extends AbstractClusteringAlgorithm implements AgglomerativeClustering {
 
     public static final String name = "SLINK";
+    private static final Logger logger = Logger.getLogger(SLINK.class.getName());
 
     @Override
     public String getName() {
@@ -43,166 +51,140 @@ public class SLINK extends AbstractClusteringAlgorithm implements AgglomerativeC
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
 
+    /**
+     * Compute pointer representation of single linkage hierarchy
+     *
+     * @param dataset
+     * @param pref
+     * @return
+     */
     public PointerHierarchy run(Dataset<? extends Instance> dataset, Props pref) {
         AgglParams params = new AgglParams(pref);
-        int[] processed = new int[dataset.size()];
-        //storage for distances
-        double[] m = new double[dataset.size()];
-
-        //pi = new HashMap<>(dataset.size());
-        //lambda = new HashMap<>(dataset.size());
-        int[] pi = new int[dataset.size()];
-        //we need to sort indexes by lambdas, it's better to have it in a map
-        Map<Integer, Double> lambda = new HashMap<>(dataset.size());
+        double[][] vectors = vectors(dataset, params);
         DistanceMeasure dm = params.getDistanceMeasure();
-
-        int i = 0, id;
-        for (Instance inst : dataset) {
-            id = inst.getIndex();
-            step1(id, lambda, pi);
-            step2(id, processed, i, dm, m, dataset);
-            step3(id, processed, i, dm, lambda, pi, m);
-            step4(id, processed, i, lambda, pi);
-            processed[i] = id;
-            i++;
+        int n = vectors.length;
+        //distances of the new item to already processed ones
+        double[] m = new double[n];
+        int[] pi = new int[n];
+        double[] lambda = new double[n];
+
+        int j, p;
+        for (int i = 0; i < n; i++) {
+            // P(n+1) = n+1, L(n+1) = infinity
+            pi[i] = i;
+            lambda[i] = Double.POSITIVE_INFINITY;
+            // M(j) = dist(j, n+1)
+            for (j = 0; j < i; j++) {
+                m[j] = dm.measure(vectors[i], vectors[j]);
+            }
+            for (j = 0; j < i; j++) {
+                p = pi[j];
+                if (lambda[j] >= m[j]) {
+                    // M(P(j)) = min { M(P(j)), L(j) }
+                    if (lambda[j] < m[p]) {
+                        m[p] = lambda[j];
+                    }
+                    // L(j) = M(j), P(j) = n+1
+                    lambda[j] = m[j];
+                    pi[j] = i;
+                } else if (m[j] < m[p]) {
+                    // M(P(j)) = min { M(P(j)), M(j) }
+                    m[p] = m[j];
+                }
+            }
+            //update clusters if it is necessary
+            for (j = 0; j < i; j++) {
+                // if L(j) >= L(P(j)) then P(j) = n+1
+                if (lambda[j] >= lambda[pi[j]]) {
+                    pi[j] = i;
+                }
+            }
         }
-
-        //we don't need m anymore
-        m = null;
         return new PointerHierarchy(dataset, lambda, pi);
     }
 
     @Override
     public HierarchicalResult hierarchy(Dataset<? extends Instance> dataset, Props pref) {
-
-        HierarchicalResult result = new HClustResult(dataset, pref);
-
-        PointerHierarchy pointers = run(dataset, pref);
-
-        extractClusters(pointers);
-
+        pref.put(AgglParams.ALG, getName());
+        //SLINK is always single linkage, caller's parameters are kept intact
+        Props props = pref.copy();
+        props.put(AgglParams.LINKAGE, SingleLinkage.name);
+        HierarchicalResult result = new HClustResult(dataset, props);
+        AgglParams params = new AgglParams(props);
+        logger.log(Level.FINE, "{0} clustering: {1}", new Object[]{getName(), props.toString()});
+
+        PointerHierarchy pointers = run(dataset, props);
+        int n = pointers.size();
+        DendroTreeData treeData = pointers.toTree(params.clusterRows());
+        treeData.createMapping(n, treeData.getRoot());
+        result.setTreeData(treeData);
         return result;
     }
 
-    private void step1(int id, Map<Integer, Double> lambda, int[] pi) {
-        //pi.put(id, id);
-        //lambda.put(id, Double.POSITIVE_INFINITY);
-        // P(n+1) = n+1:
-        pi[id] = id;
-        // L(n+1) = infinity
-        lambda.put(id, Double.POSITIVE_INFINITY);
-    }
-
-    private void step2(int newId, int[] processed, int i, DistanceMeasure dm, double[] m, Dataset<? extends Instance> dataset) {
-        for (int j = 0; j < i; j++) {
-            // M(i) = dist(i, n+1)
-            m[j] = dm.measure(dataset.get(newId), dataset.get(processed[j]));
-        }
-
-    }
-
-    private void step3(int newId, int[] processed, int i, DistanceMeasure dm,
-            Map<Integer, Double> lambda, int[] pi, double[] m) {
-        double l_i, m_i, mp_i;
-        int p_i, id;
-        for (int j = 0; j < i; j++) {
-            id = processed[j];
-            l_i = lambda.get(id);
-            m_i = m[id];
-            p_i = pi[id];
-            mp_i = m[p_i];
-
-            // if L(i) >= M(i)
-            //TODO: replace by dm.compare
-            if (l_i >= m_i) {
-                // M(P(i)) = min { M(P(i)), L(i) }
-                m[p_i] = Math.min(mp_i, l_i);
-
-                // L(i) = M(i)
-                lambda.put(id, m_i);
-
-                // P(i) = n+1;
-                pi[id] = newId;
-            } else {
-                // M(P(i)) = min { M(P(i)), M(i) }
-                m[p_i] = Math.min(mp_i, m_i);
-            }
-        }
-    }
-
     /**
-     * Update clusters if it is necessary
+     * Minimum spanning tree computed by Prim's algorithm, which shares the
+     * complexity of SLINK (O(n^2) time, O(n) memory). Sorted edges of MST
+     * correspond to single linkage merges.
      *
-     * @param newId
-     * @param processed
-     * @param i
-     * @param lambda
-     * @param pi
+     * @param dataset
+     * @param pref
+     * @return
      */
-    private void step4(int newId, int[] processed, int i, Map<Integer, Double> lambda, int[] pi) {
-        int id;
-        double l_i, lp_i;
-        for (int j = 0; j < i; j++) {
-            id = processed[j];
-            l_i = lambda.get(id);
-            lp_i = lambda.get(pi[id]);
-            // if L(i) >= L(P(i))
-            if (l_i >= lp_i) {
-                // P(i) = n+1
-                pi[id] = newId;
-            }
+    public MinimumSpanningTree mst(Dataset<? extends Instance> dataset, Props pref) {
+        AgglParams params = new AgglParams(pref);
+        double[][] vectors = vectors(dataset, params);
+        DistanceMeasure dm = params.getDistanceMeasure();
+        int n = vectors.length;
+        if (n == 0) {
+            return new MinimumSpanningTree(new int[0], new int[0], new double[0]);
         }
-    }
-
-    private void extractClusters(PointerHierarchy pointers) {
-        Dataset<? extends Instance> dataset = pointers.getDataset();
-        Map<Integer, Double> lambda = pointers.getLambda();
-        int[] pi = pointers.getPi();
-        Map<Integer, Double> order = MapUtils.sortByValue(lambda);
-        Dump.map(order, "order");
-
-        int expcnum = dataset.size();
-        int[] cluster_map = new int[dataset.size()];
-        Arrays.fill(cluster_map, 0, dataset.size(), -1);
-        Map<Integer, Set<Integer>> cluster_dbids = new HashMap<>(expcnum);
-        double[] cluster_dist = new double[expcnum];
-        int[] cluster_leads = new int[expcnum];
-
-        int clustNum = 0;
-        int succ;
-        // Go backwards on the lower part.
-        for (int i = 0; i < order.size(); i++) {
-            double dist = order.get(i); // Distance to successor
-            succ = pi[i];
-            int clusterid = cluster_map[succ];
-            // Successor cluster has already been created:
-            if (clusterid >= 0) {
-                cluster_dbids.get(clusterid).add(i);
-                cluster_map[i] = clusterid;
-                // Update distance to maximum encountered:
-                if (cluster_dist[clusterid] < dist) {
-                    cluster_dist[clusterid] = dist;
+        int[] from = new int[n - 1];
+        int[] to = new int[n - 1];
+        double[] weight = new double[n - 1];
+        //distance of each item to the tree
+        double[] dist = new double[n];
+        int[] closest = new int[n];
+        boolean[] inTree = new boolean[n];
+        int curr = 0, best;
+        double d, min;
+        inTree[curr] = true;
+        for (int i = 1; i < n; i++) {
+            dist[i] = dm.measure(vectors[curr], vectors[i]);
+            closest[i] = curr;
+        }
+        for (int e = 0; e < n - 1; e++) {
+            best = -1;
+            min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (!inTree[i] && (best < 0 || dist[i] < min)) {
+                    min = dist[i];
+                    best = i;
+                }
+            }
+            from[e] = closest[best];
+            to[e] = best;
+            weight[e] = min;
+            inTree[best] = true;
+            curr = best;
+            for (int i = 0; i < n; i++) {
+                if (!inTree[i]) {
+                    d = dm.measure(vectors[curr], vectors[i]);
+                    if (d < dist[i]) {
+                        dist[i] = d;
+                        closest[i] = curr;
+                    }
                 }
-            } else {
-                // Need to start a new cluster:
-                clusterid = clustNum++; // next cluster number.
-                Set<Integer> cids = new LinkedHashSet<>();
-                // Add element and successor as initial members:
-                cids.add(succ);
-                cluster_map[succ] = clusterid;
-                cids.add(i);
-                cluster_map[i] = clusterid;
-                // Store new cluster.
-                cluster_dbids.put(clusterid, cids);
-                cluster_leads[clusterid] = succ;
-                cluster_dist[clusterid] = dist;
             }
         }
-        System.out.println(cluster_dbids.toString());
-        Dump.array(cluster_dist, "cluster_dist");
-        Dump.array(cluster_map, "cluster_map");
-        Dump.array(cluster_leads, "cluster_leads");
+        return new MinimumSpanningTree(from, to, weight);
+    }
 
+    private double[][] vectors(Dataset<? extends Instance> dataset, AgglParams params) {
+        Matrix input = dataset.asMatrix();
+        if (params.clusterRows()) {
+            return input.getArray();
+        }
+        return AgglClustering.columnsCopy(input);
     }
 
     @Override
@@ -212,7 +194,7 @@ public class SLINK extends AbstractClusteringAlgorithm implements AgglomerativeC
 
     @Override
     public boolean isLinkageSupported(String linkage) {
-        return linkage.equals("Single Linkage");
+        return linkage.equals(SingleLinkage.name);
     }
 
 }
@@ -0,0 +1,614 @@
+package org.clueminer.clustering.algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.ClusteringAlgorithm;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.PartitioningClustering;
+import org.clueminer.clustering.api.config.annotation.Param;
+import org.clueminer.clustering.struct.BaseCluster;
+import org.clueminer.clustering.struct.ClusterList;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.math.Matrix;
+import org.clueminer.utils.Props;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * k-medoids clustering with eager swaps (FasterPAM). Distances to the nearest
+ * and the second nearest medoid are cached, so that each swap candidate is
+ * evaluated in a single pass over the data (for all medoids at once).
+ * Distances are computed from primitive copy of the data, cached in a packed
+ * triangular matrix for smaller datasets or taken from a precomputed distance
+ * matrix.
+ *
+ * With CLARA mode enabled medoids are searched on random samples, each
+ * candidate set is evaluated on the whole dataset and the best one is kept.
+ *
+ * E. Schubert, P. J. Rousseeuw: Fast and eager k-medoids clustering: O(k)
+ * runtime improvement of the PAM, CLARA, and CLARANS algorithms. Information
+ * Systems 101, 2021.
+ *
+ * @author Tomas Barton
+ */
+@ServiceProvider(service = ClusteringAlgorithm.class)
+public class FastPAM extends KClustererBase implements PartitioningClustering {
+
+    private static final String name = "FastPAM";
+    public static final String K = "k";
+    public static final String ITERATIONS = "iterations";
+    public static final String CLARA = "clara";
+    public static final String SAMPLES = "samples";
+    public static final String SAMPLE_SIZE = "sample_size";
+    public static final String SEED = "seed";
+    /**
+     * max number of points for which pairwise distances are cached
+     */
+    private static final int MAX_CACHED = 4096;
+
+    @Param(name = "k", description = "expected number of clusters", required = true)
+    private int k;
+
+    @Param(name = "iterations", description = "max number of passes over swap candidates")
+    private int iterations;
+
+    @Param(name = "clara", description = "search medoids on samples")
+    private boolean clara = false;
+
+    @Param(name = "samples", description = "number of samples in CLARA mode")
+    private int samples = 5;
+
+    /**
+     * size of a sample in CLARA mode, when not positive 80 + 4k is used
+     */
+    private int sampleSize = 0;
+
+    private Random rand;
+    /**
+     * optional precomputed distances between instances
+     */
+    private Matrix matrix;
+
+    private int n;
+    private int dim;
+    private double[] data;
+    //subset of instances currently being clustered
+    private int[] ids;
+    private int m;
+    private double[] cache;
+    private int[] nearest;
+    private int[] second;
+    private double[] dn;
+    private double[] ds;
+    /**
+     * increase of deviation when a medoid is removed
+     */
+    private double[] loss;
+    private double[] delta;
+    private double cost;
+
+    public FastPAM() {
+        this(4);
+    }
+
+    public FastPAM(int k) {
+        this(k, 100);
+    }
+
+    public FastPAM(int k, int iterations) {
+        this.k = k;
+        this.iterations = iterations;
+        this.distanceFunction = EuclideanDistance.getInstance();
+        this.rand = new Random();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public void setK(int k) {
+        this.k = k;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public boolean isClara() {
+        return clara;
+    }
+
+    public void setClara(boolean clara) {
+        this.clara = clara;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public Random getRandom() {
+        return rand;
+    }
+
+    public void setRandom(Random rand) {
+        this.rand = rand;
+    }
+
+    public Matrix getDistanceMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Use precomputed distances instead of distance function
+     *
+     * @param matrix n x n distances between instances (e.g. SymmetricMatrix),
+     * null to compute distances from the data
+     */
+    public void setDistanceMatrix(Matrix matrix) {
+        this.matrix = matrix;
+    }
+
+    /**
+     *
+     * @return total deviation (sum of distances to the closest medoid) of the
+     * last result
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset) {
+        return partition(dataset);
+    }
+
+    @Override
+    public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset, Props props) {
+        return partition(dataset, props);
+    }
+
+    @Override
+    public Clustering<Cluster> partition(Dataset<? extends Instance> dataset, Props params) {
+        k = params.getInt(K, k);
+        iterations = params.getInt(ITERATIONS, iterations);
+        clara = params.getBoolean(CLARA, clara);
+        samples = params.getInt(SAMPLES, samples);
+        sampleSize = params.getInt(SAMPLE_SIZE, sampleSize);
+        if (params.containsKey(SEED)) {
+            rand = new Random(params.getLong(SEED));
+        }
+        return partition(dataset);
+    }
+
+    @Override
+    public Clustering<Cluster> partition(Dataset<? extends Instance> dataset) {
+        int[] medoids = medoids(dataset);
+        int[] assignment = new int[n];
+        int[] sizes = new int[k];
+        for (int i = 0; i < n; i++) {
+            assignment[i] = closest(i, medoids);
+            sizes[assignment[i]]++;
+        }
+        Clustering output = new ClusterList(k);
+        Props p = output.getParams();
+        p.put("algorithm", getName());
+        p.putInt("k", k);
+        if (colorGenerator != null) {
+            colorGenerator.reset();
+        }
+        BaseCluster[] clusters = new BaseCluster[k];
+        for (int c = 0; c < k; c++) {
+            clusters[c] = new BaseCluster(sizes[c]);
+            if (colorGenerator != null) {
+                clusters[c].setColor(colorGenerator.next());
+            }
+            clusters[c].setName("cluster " + (c + 1));
+            clusters[c].setClusterId(c);
+            clusters[c].setAttributes(dataset.getAttributes());
+            output.put(clusters[c]);
+        }
+        for (int i = 0; i < n; i++) {
+            clusters[assignment[i]].add(dataset.get(i));
+        }
+        output.lookupAdd(dataset);
+        data = null;
+        return output;
+    }
+
+    /**
+     * Find k medoids
+     *
+     * @param dataset
+     * @return indexes of medoids in the dataset
+     */
+    public int[] medoids(Dataset<? extends Instance> dataset) {
+        n = dataset.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("The dataset should not be empty");
+        }
+        if (k < 1 || k > n) {
+            throw new IllegalArgumentException("k (= " + k + ") should be between 1 and |dataset| == " + n);
+        }
+        if (matrix != null) {
+            if (matrix.rowsCount() != n || matrix.columnsCount() != n) {
+                throw new IllegalArgumentException("distance matrix should be " + n + " x " + n);
+            }
+            data = null;
+        } else {
+            dim = dataset.attributeCount();
+            long size = (long) n * dim;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("dataset of size " + n + " x " + dim + " can't be stored in a single array");
+            }
+            data = new double[n * dim];
+            for (int i = 0; i < n; i++) {
+                Instance inst = dataset.get(i);
+                for (int j = 0; j < dim; j++) {
+                    data[i * dim + j] = inst.value(j);
+                }
+            }
+        }
+        loss = new double[k];
+        delta = new double[k];
+        int size = sampleSize > 0 ? sampleSize : 80 + 4 * k;
+        int[] medoids;
+        if (clara && size < n) {
+            medoids = clara(Math.max(size, k));
+        } else {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            medoids = fit(all);
+            cost = deviation(medoids);
+        }
+        //release cached distances
+        ids = null;
+        cache = null;
+        nearest = null;
+        second = null;
+        dn = null;
+        ds = null;
+        return medoids;
+    }
+
+    /**
+     * Run k-medoids on random samples, the best medoids found so far are
+     * always included in next samples
+     *
+     * @param size sample size
+     * @return
+     */
+    private int[] clara(int size) {
+        int[] perm = new int[n];
+        int[] pos = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+            pos[i] = i;
+        }
+        int[] best = null;
+        double bestCost = Double.POSITIVE_INFINITY, dev;
+        int[] sample = new int[size];
+        for (int s = 0; s < samples; s++) {
+            int filled = 0;
+            if (best != null) {
+                for (int b : best) {
+                    swap(perm, pos, filled++, pos[b]);
+                }
+            }
+            for (int i = filled; i < size; i++) {
+                swap(perm, pos, i, i + rand.nextInt(n - i));
+            }
+            System.arraycopy(perm, 0, sample, 0, size);
+            int[] medoids = fit(sample);
+            dev = deviation(medoids);
+            if (dev < bestCost) {
+                bestCost = dev;
+                best = medoids;
+            }
+        }
+        cost = bestCost;
+        return best;
+    }
+
+    private void swap(int[] perm, int[] pos, int i, int j) {
+        int tmp = perm[i];
+        perm[i] = perm[j];
+        perm[j] = tmp;
+        pos[perm[i]] = i;
+        pos[perm[j]] = j;
+    }
+
+    /**
+     * FasterPAM on a subset of instances
+     *
+     * @param subset indexes of instances
+     * @return medoids (indexes of instances)
+     */
+    private int[] fit(int[] subset) {
+        ids = subset;
+        m = subset.length;
+        cache = null;
+        if (matrix == null && m <= MAX_CACHED) {
+            cache = new double[m * (m - 1) / 2];
+            int p = 0;
+            for (int a = 1; a < m; a++) {
+                for (int b = 0; b < a; b++) {
+                    cache[p++] = distance(ids[a], ids[b]);
+                }
+            }
+        }
+        nearest = new int[m];
+        second = new int[m];
+        dn = new double[m];
+        ds = new double[m];
+        int[] med = seeds();
+        boolean[] isMedoid = new boolean[m];
+        for (int c = 0; c < k; c++) {
+            isMedoid[med[c]] = true;
+        }
+        for (int o = 0; o < m; o++) {
+            rescan(o, med);
+        }
+        computeLoss();
+
+        int lastSwap = -1, swaps, best;
+        double change;
+        int iter = 0;
+        do {
+            swaps = 0;
+            for (int x = 0; x < m; x++) {
+                if (x == lastSwap) {
+                    //full cycle without any improvement
+                    swaps = 0;
+                    break;
+                }
+                if (isMedoid[x]) {
+                    continue;
+                }
+                best = evaluate(x);
+                change = delta[best];
+                if (change < -1e-12) {
+                    isMedoid[med[best]] = false;
+                    isMedoid[x] = true;
+                    med[best] = x;
+                    update(x, best, med);
+                    lastSwap = x;
+                    swaps++;
+                }
+            }
+            iter++;
+        } while (swaps > 0 && iter < iterations);
+
+        int[] res = new int[k];
+        for (int c = 0; c < k; c++) {
+            res[c] = ids[med[c]];
+        }
+        return res;
+    }
+
+    /**
+     * Change of deviation when x replaces each of the medoids, stored in
+     * delta array
+     *
+     * @param x candidate position
+     * @return medoid which should be replaced
+     */
+    private int evaluate(int x) {
+        System.arraycopy(loss, 0, delta, 0, k);
+        double acc = 0.0, d;
+        for (int o = 0; o < m; o++) {
+            d = d(o, x);
+            if (d < dn[o]) {
+                acc += d - dn[o];
+                if (k > 1) {
+                    delta[nearest[o]] += dn[o] - ds[o];
+                }
+            } else if (k == 1) {
+                acc += d - dn[o];
+            } else if (d < ds[o]) {
+                delta[nearest[o]] += d - ds[o];
+            }
+        }
+        int best = 0;
+        for (int c = 1; c < k; c++) {
+            if (delta[c] < delta[best]) {
+                best = c;
+            }
+        }
+        delta[best] += acc;
+        return best;
+    }
+
+    /**
+     * Medoid in given slot was replaced by x
+     *
+     * @param x
+     * @param slot
+     * @param med
+     */
+    private void update(int x, int slot, int[] med) {
+        double d;
+        for (int o = 0; o < m; o++) {
+            if (nearest[o] == slot || second[o] == slot) {
+                rescan(o, med);
+                continue;
+            }
+            d = d(o, x);
+            if (d < dn[o]) {
+                second[o] = nearest[o];
+                ds[o] = dn[o];
+                nearest[o] = slot;
+                dn[o] = d;
+            } else if (d < ds[o]) {
+                second[o] = slot;
+                ds[o] = d;
+            }
+        }
+        computeLoss();
+    }
+
+    /**
+     * Find the nearest and the second nearest medoid
+     *
+     * @param o
+     * @param med
+     */
+    private void rescan(int o, int[] med) {
+        double d1 = Double.POSITIVE_INFINITY, d2 = Double.POSITIVE_INFINITY, d;
+        int c1 = 0, c2 = -1;
+        for (int c = 0; c < k; c++) {
+            d = d(o, med[c]);
+            if (d < d1) {
+                d2 = d1;
+                c2 = c1;
+                d1 = d;
+                c1 = c;
+            } else if (d < d2) {
+                d2 = d;
+                c2 = c;
+            }
+        }
+        nearest[o] = c1;
+        dn[o] = d1;
+        second[o] = c2;
+        ds[o] = d2;
+    }
+
+    private void computeLoss() {
+        Arrays.fill(loss, 0.0);
+        if (k > 1) {
+            for (int o = 0; o < m; o++) {
+                loss[nearest[o]] += ds[o] - dn[o];
+            }
+        }
+    }
+
+    /**
+     * k-means++ like selection of initial medoids
+     *
+     * @return positions of medoids in current subset
+     */
+    private int[] seeds() {
+        int[] med = new int[k];
+        med[0] = rand.nextInt(m);
+        double[] closest = new double[m];
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        double total, d, r;
+        for (int c = 1; c < k; c++) {
+            total = 0.0;
+            for (int o = 0; o < m; o++) {
+                d = d(o, med[c - 1]);
+                d *= d;
+                if (d < closest[o]) {
+                    closest[o] = d;
+                }
+                total += closest[o];
+            }
+            int o = 0;
+            if (total > 0) {
+                r = rand.nextDouble() * total;
+                while (o < m - 1 && (closest[o] == 0 || (r -= closest[o]) > 0)) {
+                    o++;
+                }
+            } else {
+                //only duplicates are left
+                boolean used = true;
+                while (used) {
+                    used = false;
+                    for (int p = 0; p < c; p++) {
+                        if (med[p] == o) {
+                            used = true;
+                            o++;
+                            break;
+                        }
+                    }
+                }
+            }
+            med[c] = o;
+        }
+        return med;
+    }
+
+    /**
+     * Distance between instances on given positions of current subset
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    private double d(int a, int b) {
+        if (a == b) {
+            return 0.0;
+        }
+        if (cache != null) {
+            return a > b ? cache[a * (a - 1) / 2 + b] : cache[b * (b - 1) / 2 + a];
+        }
+        return distance(ids[a], ids[b]);
+    }
+
+    /**
+     * Distance between two instances of the dataset
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    private double distance(int i, int j) {
+        if (matrix != null) {
+            return matrix.get(i, j);
+        }
+        return distanceFunction.measure(data, i * dim, data, j * dim, dim);
+    }
+
+    private int closest(int i, int[] medoids) {
+        int best = 0;
+        double min = Double.POSITIVE_INFINITY, d;
+        for (int c = 0; c < medoids.length; c++) {
+            d = medoids[c] == i ? 0.0 : distance(i, medoids[c]);
+            if (d < min) {
+                min = d;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Sum of distances to the closest medoid over whole dataset
+     *
+     * @param medoids
+     * @return
+     */
+    private double deviation(int[] medoids) {
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            int c = closest(i, medoids);
+            sum += medoids[c] == i ? 0.0 : distance(i, medoids[c]);
+        }
+        return sum;
+    }
+}
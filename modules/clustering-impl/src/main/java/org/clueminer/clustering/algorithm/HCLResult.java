@@ -9,6 +9,7 @@ import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.CutoffStrategy;
 import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.clustering.api.Merge;
 import org.clueminer.clustering.api.dendrogram.DendroTreeData;
 import org.clueminer.clustering.api.dendrogram.DendrogramMapping;
@@ -236,6 +237,11 @@ public class HCLResult implements HierarchicalResult {
         return cut;
     }
 
+    @Override
+    public boolean setCutListener(IncrementalScore listener) {
+        return false;
+    }
+
     @Override
     public double cutTreeByLevel(int level) {
         double cut = treeData.treeCutByLevel(level);
@@ -243,6 +249,11 @@ public class HCLResult implements HierarchicalResult {
         return cut;
     }
 
+    @Override
+    public double cutLabelsByLevel(int level) {
+        return treeData.treeCutByLevel(level);
+    }
+
     @Override
     public Dataset<? extends Instance> getDataset() {
         return dataset;
@@ -15,6 +15,7 @@ import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.CutoffStrategy;
 import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.clustering.api.Merge;
 import org.clueminer.clustering.api.dendrogram.DendroLeaf;
 import org.clueminer.clustering.api.dendrogram.DendroNode;
@@ -29,6 +30,7 @@ import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.hclust.DClusterLeaf;
 import org.clueminer.hclust.DTreeNode;
+import org.clueminer.hclust.DendroCut;
 import org.clueminer.hclust.DynamicTreeData;
 import org.clueminer.math.Matrix;
 import org.clueminer.utils.Props;
@@ -56,6 +58,7 @@ public class HClustResult implements HierarchicalResult {
     private ColorGenerator colorGenerator = new ColorBrewer();
     private int num;
     private Props props;
+    private transient DendroCut dendroCut;
 
     /**
      * list of dendrogram levels - each Merge represents one dendrogram level
@@ -273,7 +276,7 @@ public class HClustResult implements HierarchicalResult {
             } else if (node.getLeft().getHeight() < cutoff) {
                 clust = makeCluster(clusters);
                 subtreeToCluster(node.getLeft(), clust, assign);
-                checkCutoff(node.getLeft(), cutoff, clusters, assign);
+                checkCutoff(node.getRight(), cutoff, clusters, assign);
             }
         } else {
             checkCutoff(node.getLeft(), cutoff, clusters, assign);
@@ -314,32 +317,65 @@ public class HClustResult implements HierarchicalResult {
         return cutoff;
     }
 
+    /**
+     * Cuts tree at given level. The flattened tree (see {@link DendroCut}) is
+     * updated incrementally from the previous cut and notifies the cut
+     * listener, resulting clustering is the same as from
+     * {@link #updateCutoff(double)} (numbering and colors of clusters).
+     *
+     * @param level
+     * @return cut-off
+     */
     @Override
     public double cutTreeByLevel(int level) {
-        DendroNode node = treeData.getRoot();
-        double cut = findLevel(node, level);
+        DendroCut dc = getDendroCut();
+        double cut = dc.levelCutoff(level);
+        dc.cutAt(cut);
         this.clustering = updateCutoff(cut);
         return cut;
     }
 
-    private double findLevel(DendroNode node, int level) {
-        if (node.level() == level) {
-            return (node.getParent().getHeight() + node.getHeight()) / 2.0;
-        } else {
-            if (node.isLeaf()) {
-                return -1;
-            } else {
-                double ret = findLevel(node.getLeft(), level);
-                if (ret > -1) {
-                    return ret;
-                }
-                ret = findLevel(node.getRight(), level);
-                if (ret > -1) {
-                    return ret;
-                }
-            }
+    /**
+     * Only labels of the flattened tree are updated, which costs O(m) for m
+     * moved instances, instead of O(n) for building a clustering
+     *
+     * @param level
+     * @return cut-off
+     */
+    @Override
+    public double cutLabelsByLevel(int level) {
+        DendroCut dc = getDendroCut();
+        double cut = dc.levelCutoff(level);
+        dc.cutAt(cut);
+        return cut;
+    }
+
+    @Override
+    public boolean setCutListener(IncrementalScore listener) {
+        DendroCut dc = getDendroCut();
+        if (listener == null) {
+            dc.setListener(null);
+            return true;
+        }
+        if (mapping == null || Double.isNaN(cutoff)) {
+            return false;
         }
-        return -1;
+        dc.setListener(null);
+        dc.cutAt(cutoff);
+        dc.setListener(new CutListener(listener, dc.getLabels(), mapping, dc.maxClusters()));
+        return true;
+    }
+
+    /**
+     * Flattened tree for fast cutting, created on first use
+     *
+     * @return
+     */
+    public DendroCut getDendroCut() {
+        if (dendroCut == null) {
+            dendroCut = new DendroCut(treeData, dataset.size());
+        }
+        return dendroCut;
     }
 
     @Override
@@ -508,6 +544,9 @@ public class HClustResult implements HierarchicalResult {
 
     @Override
     public void setDataset(Dataset<? extends Instance> dataset) {
+        if (this.dataset != dataset) {
+            dendroCut = null;
+        }
         this.dataset = dataset;
     }
 
@@ -517,6 +556,7 @@ public class HClustResult implements HierarchicalResult {
         }
         logger.log(Level.INFO, "constructing tree, merge size:{0}", merges.size());
         treeData = new DynamicTreeData();
+        dendroCut = null;
 
         DendroNode[] nodes = new DendroNode[merges.size() + 1];
 
@@ -586,7 +626,11 @@ public class HClustResult implements HierarchicalResult {
     @Override
     public void setTreeData(DendroTreeData treeData) {
         this.treeData = treeData;
-        treeData.updatePositions(treeData.getRoot());
+        dendroCut = null;
+        //empty tree (no items) doesn't have any positions
+        if (treeData.getRoot() != null) {
+            treeData.updatePositions(treeData.getRoot());
+        }
     }
 
     /**
@@ -623,4 +667,61 @@ public class HClustResult implements HierarchicalResult {
         return res;
     }
 
+    /**
+     * Translates cluster indexes of the flattened tree into indexes of the
+     * listener, which are given by the clustering at the time the listener
+     * was set (new clusters are appended, the last cluster takes index of a
+     * removed one).
+     */
+    private static class CutListener implements IncrementalScore {
+
+        private final IncrementalScore score;
+        /**
+         * tree label to listener's index and back
+         */
+        private final int[] toScore;
+        private final int[] toTree;
+
+        CutListener(IncrementalScore score, int[] labels, int[] assign, int maxClusters) {
+            this.score = score;
+            toScore = new int[maxClusters];
+            toTree = new int[maxClusters];
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] >= 0 && assign[i] >= 0) {
+                    toScore[labels[i]] = assign[i];
+                    toTree[assign[i]] = labels[i];
+                }
+            }
+        }
+
+        @Override
+        public void onSplit(int source, int[] moved) {
+            int k = score.size();
+            score.onSplit(toScore[source], moved);
+            //new cluster has index k in both
+            toScore[k] = k;
+            toTree[k] = k;
+        }
+
+        @Override
+        public void onMerge(int target, int source, int[] members) {
+            //tree always removes its last label
+            int last = score.size() - 1;
+            int removed = toScore[source];
+            score.onMerge(toScore[target], removed, members);
+            int moved = toTree[last];
+            toScore[moved] = removed;
+            toTree[removed] = moved;
+        }
+
+        @Override
+        public int size() {
+            return score.size();
+        }
+
+        @Override
+        public double score() {
+            return score.score();
+        }
+    }
 }
@@ -171,9 +171,9 @@ public class KMeans extends AbstractClusteringAlgorithm implements PartitioningC
             int[] assignment = new int[data.size()];
             for (int i = 0; i < data.size(); i++) {
                 int tmpCluster = 0;
-                double minDistance = distanceFunction.measure(centroids[0], data.instance(i));
+                double minDistance = DatasetTools.measure(distanceFunction, centroids[0], data.instance(i));
                 for (int j = 1; j < centroids.length; j++) {
-                    double dist = distanceFunction.measure(centroids[j], data.instance(i));
+                    double dist = DatasetTools.measure(distanceFunction, centroids[j], data.instance(i));
                     if (distanceFunction.compare(dist, minDistance)) {
                         minDistance = dist;
                         tmpCluster = j;
@@ -206,7 +206,7 @@ public class KMeans extends AbstractClusteringAlgorithm implements PartitioningC
                         tmp[j] = (float) sumPosition[i][j] / countPosition[i];
                     }
                     Instance newCentroid = new DoubleArrayDataRow(tmp);
-                    if (distanceFunction.measure(newCentroid, centroids[i]) > 0.0001) {
+                    if (DatasetTools.measure(distanceFunction, newCentroid, centroids[i]) > 0.0001) {
                         centroidsChanged = true;
                         centroids[i] = newCentroid;
                     }
@@ -246,9 +246,9 @@ public class KMeans extends AbstractClusteringAlgorithm implements PartitioningC
         }
         for (int i = 0; i < data.size(); i++) {
             int tmpCluster = 0;
-            double minDistance = distanceFunction.measure(centroids[0], data.instance(i));
+            double minDistance = DatasetTools.measure(distanceFunction, centroids[0], data.instance(i));
             for (int j = 0; j < centroids.length; j++) {
-                double dist = distanceFunction.measure(centroids[j], data.instance(i));
+                double dist = DatasetTools.measure(distanceFunction, centroids[j], data.instance(i));
                 if (distanceFunction.compare(dist, minDistance)) {
                     minDistance = dist;
                     tmpCluster = j;
@@ -0,0 +1,632 @@
+package org.clueminer.clustering.algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.ClusteringAlgorithm;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.PartitioningClustering;
+import org.clueminer.clustering.api.SeedSelection;
+import org.clueminer.clustering.api.config.annotation.Param;
+import org.clueminer.clustering.struct.BaseCluster;
+import org.clueminer.clustering.struct.ClusterList;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.utils.Props;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * Lloyd's k-means accelerated by Hamerly's bounds. Each point keeps an upper
+ * bound of distance to its centroid and a lower bound of distance to the
+ * second closest centroid, distances to centroids are computed only when the
+ * bounds (and triangle inequality) can't exclude a change of assignment. Then
+ * only centroids in a ball around the current centroid are searched (centroids
+ * are sorted by distance from each other, as in Exponion).
+ *
+ * Data are copied into a single primitive array, all buffers are allocated
+ * once per run and the assignment step runs in parallel. Points are processed
+ * in a fixed number of blocks, therefore result doesn't depend on number of
+ * threads. Bounds are used only with Euclidean distance, with other measures
+ * all distances are computed in each iteration.
+ *
+ * G. Hamerly: Making k-means Even Faster. SIAM International Conference on
+ * Data Mining, 2010.
+ *
+ * J. Newling, F. Fleuret: Fast k-means with accurate bounds. ICML, 2016.
+ *
+ * @author Tomas Barton
+ */
+@ServiceProvider(service = ClusteringAlgorithm.class)
+public class KMeansHamerly extends KClustererBase implements PartitioningClustering {
+
+    private static final String name = "k-means (Hamerly)";
+    public static final String K = "k";
+    public static final String ITERATIONS = "iterations";
+    public static final String THREADS = "threads";
+    public static final String SEED = "seed";
+    /**
+     * number of blocks of points processed by tasks
+     */
+    private static final int BLOCKS = 64;
+    /**
+     * maximal number of clusters for keeping sorted distances between
+     * centroids (k^2 memory)
+     */
+    private static final int MAX_SORTED = 2048;
+
+    @Param(name = "k", description = "expected number of clusters", required = true)
+    private int k;
+
+    private int iterations;
+
+    private int threads;
+
+    private Random rand;
+
+    /**
+     * when null, k-means++ on primitive data is used
+     */
+    private SeedSelection seedSelection;
+
+    //state of a run
+    private int n;
+    private int dim;
+    private double[] data;
+    private double[] centers;
+    private double[] sums;
+    private int[] counts;
+    private int[] assign;
+    private double[] upper;
+    private double[] lower;
+    /**
+     * half of the distance to the closest other centroid
+     */
+    private double[] half;
+    /**
+     * for each centroid other centroids sorted by distance (k x k)
+     */
+    private int[] order;
+    private double[] ccDist;
+    private double[] moved;
+    private boolean bounds;
+
+    public KMeansHamerly() {
+        this(4);
+    }
+
+    public KMeansHamerly(int k) {
+        this(k, 100);
+    }
+
+    public KMeansHamerly(int k, int iterations) {
+        this(k, iterations, new EuclideanDistance());
+    }
+
+    public KMeansHamerly(int k, int iterations, DistanceMeasure dm) {
+        this.k = k;
+        this.iterations = iterations;
+        this.distanceFunction = dm;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.rand = new Random();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public void setK(int k) {
+        this.k = k;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public Random getRandom() {
+        return rand;
+    }
+
+    public void setRandom(Random rand) {
+        this.rand = rand;
+    }
+
+    public SeedSelection getSeedSelection() {
+        return seedSelection;
+    }
+
+    public void setSeedSelection(SeedSelection seedSelection) {
+        this.seedSelection = seedSelection;
+    }
+
+    @Override
+    public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset) {
+        return partition(dataset);
+    }
+
+    @Override
+    public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset, Props props) {
+        return partition(dataset, props);
+    }
+
+    @Override
+    public Clustering<Cluster> partition(Dataset<? extends Instance> dataset, Props params) {
+        k = params.getInt(K, k);
+        iterations = params.getInt(ITERATIONS, iterations);
+        setThreads(params.getInt(THREADS, threads));
+        if (params.containsKey(SEED)) {
+            rand = new Random(params.getLong(SEED));
+        }
+        return partition(dataset);
+    }
+
+    @Override
+    public Clustering<Cluster> partition(Dataset<? extends Instance> dataset) {
+        if (dataset.isEmpty()) {
+            throw new IllegalArgumentException("The dataset should not be empty");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("There should be at least one cluster");
+        }
+        int[] assignment = assign(dataset);
+        return createClustering(dataset, assignment);
+    }
+
+    /**
+     * Run k-means on given data
+     *
+     * @param dataset
+     * @return index of cluster for each instance
+     */
+    public int[] assign(Dataset<? extends Instance> dataset) {
+        initialize(dataset);
+        int[] seeds = seedSelection != null ? seedSelection.selectIntIndices(dataset, k) : seeds();
+        for (int c = 0; c < k; c++) {
+            System.arraycopy(data, seeds[c] * dim, centers, c * dim, dim);
+        }
+        int blockCnt = Math.min(BLOCKS, n);
+        Block[] blocks = new Block[blockCnt];
+        for (int b = 0; b < blockCnt; b++) {
+            blocks[b] = new Block((int) ((long) n * b / blockCnt), (int) ((long) n * (b + 1) / blockCnt));
+        }
+        int tasks = Math.min(threads, blockCnt);
+        ForkJoinPool pool = tasks > 1 ? new ForkJoinPool(tasks) : null;
+        try {
+            boolean initial = true;
+            int changes, iter = 0;
+            do {
+                if (bounds) {
+                    computeHalfDistances();
+                }
+                changes = 0;
+                for (Block block : blocks) {
+                    block.initial = initial;
+                }
+                if (pool == null) {
+                    for (Block block : blocks) {
+                        changes += block.call();
+                    }
+                } else {
+                    for (Future<Integer> f : pool.invokeAll(Arrays.asList(blocks))) {
+                        changes += f.get();
+                    }
+                }
+                //deltas are merged in fixed order
+                for (Block block : blocks) {
+                    for (int i = 0; i < sums.length; i++) {
+                        sums[i] += block.sum[i];
+                    }
+                    for (int c = 0; c < k; c++) {
+                        counts[c] += block.count[c];
+                    }
+                }
+                initial = false;
+                if (changes > 0) {
+                    moveCenters();
+                    if (bounds) {
+                        updateBounds();
+                    }
+                }
+                iter++;
+            } while (changes > 0 && iter < iterations);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        int[] res = assign;
+        data = null;
+        upper = lower = null;
+        order = null;
+        ccDist = null;
+        return res;
+    }
+
+    /**
+     * Copy data into primitive array and allocate buffers
+     *
+     * @param dataset
+     */
+    private void initialize(Dataset<? extends Instance> dataset) {
+        n = dataset.size();
+        dim = dataset.attributeCount();
+        if (k > n) {
+            throw new IllegalArgumentException("Number of clusters (" + k + ") exceeds number of instances (" + n + ")");
+        }
+        long size = (long) n * dim;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("dataset of size " + n + " x " + dim + " can't be stored in a single array");
+        }
+        data = new double[n * dim];
+        Instance inst;
+        for (int i = 0; i < n; i++) {
+            inst = dataset.get(i);
+            for (int j = 0; j < dim; j++) {
+                data[i * dim + j] = inst.value(j);
+            }
+        }
+        centers = new double[k * dim];
+        sums = new double[k * dim];
+        counts = new int[k];
+        assign = new int[n];
+        upper = new double[n];
+        lower = new double[n];
+        half = new double[k];
+        bounds = distanceFunction instanceof EuclideanDistance;
+        if (bounds && k <= MAX_SORTED) {
+            order = new int[k * k];
+            ccDist = new double[k * k];
+        } else {
+            order = null;
+            ccDist = null;
+        }
+        moved = new double[k];
+    }
+
+    /**
+     * k-means++ seeding
+     *
+     * @return indexes of initial centroids
+     */
+    private int[] seeds() {
+        int[] res = new int[k];
+        res[0] = rand.nextInt(n);
+        double[] closest = new double[n];
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        double total, d, r;
+        for (int c = 1; c < k; c++) {
+            total = 0;
+            for (int i = 0; i < n; i++) {
+                d = dist(data, i * dim, data, res[c - 1] * dim);
+                d *= d;
+                if (d < closest[i]) {
+                    closest[i] = d;
+                }
+                total += closest[i];
+            }
+            r = rand.nextDouble() * total;
+            int i = 0;
+            while (i < n - 1 && (r -= closest[i]) > 0) {
+                i++;
+            }
+            res[c] = i;
+        }
+        return res;
+    }
+
+    /**
+     * Centroids are moved to mean of assigned points, empty clusters keep
+     * their centroid
+     */
+    private void moveCenters() {
+        double delta, diff;
+        for (int c = 0; c < k; c++) {
+            if (counts[c] == 0) {
+                moved[c] = 0;
+                continue;
+            }
+            delta = 0;
+            for (int j = 0; j < dim; j++) {
+                diff = sums[c * dim + j] / counts[c] - centers[c * dim + j];
+                centers[c * dim + j] += diff;
+                delta += diff * diff;
+            }
+            moved[c] = Math.sqrt(delta);
+        }
+    }
+
+    /**
+     * Distances between centroids, for each centroid half of the distance to
+     * the closest one and other centroids sorted by distance
+     */
+    private void computeHalfDistances() {
+        Arrays.fill(half, Double.POSITIVE_INFINITY);
+        double d;
+        for (int a = 0; a < k; a++) {
+            for (int b = a + 1; b < k; b++) {
+                d = dist(centers, a * dim, centers, b * dim);
+                if (order != null) {
+                    ccDist[a * k + b] = d;
+                    ccDist[b * k + a] = d;
+                }
+                d *= 0.5;
+                if (d < half[a]) {
+                    half[a] = d;
+                }
+                if (d < half[b]) {
+                    half[b] = d;
+                }
+            }
+        }
+        if (order != null) {
+            for (int a = 0; a < k; a++) {
+                ccDist[a * k + a] = 0.0;
+                for (int b = 0; b < k; b++) {
+                    order[a * k + b] = b;
+                }
+                sortRow(a * k);
+            }
+        }
+    }
+
+    /**
+     * Shell sort of a row of centroid distances (and their indexes)
+     *
+     * @param off offset of the row
+     */
+    private void sortRow(int off) {
+        int gap = 1, idx, j;
+        double val;
+        while (gap < k / 3) {
+            gap = 3 * gap + 1;
+        }
+        for (; gap > 0; gap /= 3) {
+            for (int i = off + gap; i < off + k; i++) {
+                val = ccDist[i];
+                idx = order[i];
+                for (j = i; j >= off + gap && ccDist[j - gap] > val; j -= gap) {
+                    ccDist[j] = ccDist[j - gap];
+                    order[j] = order[j - gap];
+                }
+                ccDist[j] = val;
+                order[j] = idx;
+            }
+        }
+    }
+
+    /**
+     * After moving centroids, upper bound grows by movement of its centroid,
+     * lower bound shrinks by the largest movement of other centroids
+     */
+    private void updateBounds() {
+        int far = 0;
+        double first = 0, second = 0;
+        for (int c = 0; c < k; c++) {
+            if (moved[c] > first) {
+                second = first;
+                first = moved[c];
+                far = c;
+            } else if (moved[c] > second) {
+                second = moved[c];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            upper[i] += moved[assign[i]];
+            lower[i] -= assign[i] == far ? second : first;
+        }
+    }
+
+    private double dist(double[] x, int offX, double[] y, int offY) {
+        if (!bounds) {
+            return distanceFunction.measure(x, offX, y, offY, dim);
+        }
+        double sum = 0, diff;
+        for (int j = 0; j < dim; j++) {
+            diff = x[offX + j] - y[offY + j];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private Clustering<Cluster> createClustering(Dataset<? extends Instance> dataset, int[] assignment) {
+        Clustering output = new ClusterList(k);
+        Props p = output.getParams();
+        p.put("algorithm", getName());
+        p.putInt("k", k);
+        p.putInt("iterations", iterations);
+        if (colorGenerator != null) {
+            colorGenerator.reset();
+        }
+        BaseCluster[] clusters = new BaseCluster[k];
+        int id = 0;
+        for (int c = 0; c < k; c++) {
+            if (counts[c] > 0) {
+                clusters[c] = new BaseCluster(counts[c]);
+                if (colorGenerator != null) {
+                    clusters[c].setColor(colorGenerator.next());
+                }
+                clusters[c].setName("cluster " + (id + 1));
+                clusters[c].setClusterId(id++);
+                clusters[c].setAttributes(dataset.getAttributes());
+                output.put(clusters[c]);
+            }
+        }
+        for (int i = 0; i < assignment.length; i++) {
+            clusters[assignment[i]].add(dataset.get(i));
+        }
+        output.lookupAdd(dataset);
+        return output;
+    }
+
+    /**
+     * Assignment step for a range of points, changes of cluster sums are
+     * collected locally
+     */
+    private class Block implements Callable<Integer> {
+
+        private final int from;
+        private final int to;
+        private final double[] sum;
+        private final int[] count;
+        private boolean initial;
+
+        public Block(int from, int to) {
+            this.from = from;
+            this.to = to;
+            this.sum = new double[k * dim];
+            this.count = new int[k];
+        }
+
+        @Override
+        public Integer call() {
+            Arrays.fill(sum, 0.0);
+            Arrays.fill(count, 0);
+            int changes = 0, prev;
+            double bound;
+            for (int i = from; i < to; i++) {
+                if (initial) {
+                    nearest(i);
+                    add(i, assign[i], 1);
+                    changes++;
+                    continue;
+                }
+                prev = assign[i];
+                if (bounds) {
+                    bound = Math.max(half[prev], lower[i]);
+                    if (upper[i] <= bound) {
+                        continue;
+                    }
+                    //tighten the upper bound
+                    upper[i] = dist(data, i * dim, centers, prev * dim);
+                    if (upper[i] <= bound) {
+                        continue;
+                    }
+                }
+                if (order != null) {
+                    nearestInBall(i);
+                } else {
+                    nearest(i);
+                }
+                if (assign[i] != prev) {
+                    add(i, prev, -1);
+                    add(i, assign[i], 1);
+                    changes++;
+                }
+            }
+            return changes;
+        }
+
+        /**
+         * Find the closest and the second closest centroid
+         *
+         * @param i
+         */
+        private void nearest(int i) {
+            int best = 0;
+            double d1 = Double.POSITIVE_INFINITY, d2 = Double.POSITIVE_INFINITY, d;
+            int off = i * dim;
+            for (int c = 0; c < k; c++) {
+                if (bounds) {
+                    d = 0;
+                    double diff;
+                    for (int j = 0; j < dim; j++) {
+                        diff = data[off + j] - centers[c * dim + j];
+                        d += diff * diff;
+                    }
+                } else {
+                    d = distanceFunction.measure(data, off, centers, c * dim, dim);
+                }
+                if (c == 0 || closer(d, d1)) {
+                    d2 = d1;
+                    d1 = d;
+                    best = c;
+                } else if (closer(d, d2)) {
+                    d2 = d;
+                }
+            }
+            assign[i] = best;
+            if (bounds) {
+                upper[i] = Math.sqrt(d1);
+                lower[i] = Math.sqrt(d2);
+            }
+        }
+
+        /**
+         * The closest centroid is at most 2u far from the current one (u is
+         * exact distance to the current centroid). Centroids are searched
+         * within radius r = 2u + 2s (s is half of distance to the closest
+         * centroid), distance to any other centroid is at least r - u.
+         *
+         * @param i
+         */
+        private void nearestInBall(int i) {
+            int a = assign[i];
+            int off = i * dim;
+            double u = upper[i];
+            double radius = 2 * u + 2 * half[a];
+            int best = a, c;
+            double d1 = u * u, d2 = Double.POSITIVE_INFINITY, d, diff;
+            for (int p = a * k; p < (a + 1) * k && ccDist[p] <= radius; p++) {
+                c = order[p];
+                if (c == a) {
+                    continue;
+                }
+                d = 0;
+                for (int j = 0; j < dim; j++) {
+                    diff = data[off + j] - centers[c * dim + j];
+                    d += diff * diff;
+                }
+                if (d < d1) {
+                    d2 = d1;
+                    d1 = d;
+                    best = c;
+                } else if (d < d2) {
+                    d2 = d;
+                }
+            }
+            assign[i] = best;
+            upper[i] = Math.sqrt(d1);
+            lower[i] = Math.min(Math.sqrt(d2), radius - u);
+        }
+
+        private boolean closer(double d, double other) {
+            return bounds ? d < other : distanceFunction.compare(d, other);
+        }
+
+        private void add(int i, int c, int sign) {
+            int off = i * dim;
+            int coff = c * dim;
+            for (int j = 0; j < dim; j++) {
+                sum[coff + j] += sign * data[off + j];
+            }
+            count[c] += sign;
+        }
+    }
+}
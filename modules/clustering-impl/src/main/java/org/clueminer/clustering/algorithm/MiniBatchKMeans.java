@@ -0,0 +1,421 @@
+package org.clueminer.clustering.algorithm;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.ClusteringAlgorithm;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.PartitioningClustering;
+import org.clueminer.clustering.api.config.annotation.Param;
+import org.clueminer.clustering.struct.BaseCluster;
+import org.clueminer.clustering.struct.ClusterList;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.utils.Props;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * Mini-batch k-means. Centroids are updated from small batches of instances
+ * with per-centroid learning rate (1 / number of instances assigned so far),
+ * only centroids and counts are kept in memory. Data could be streamed via
+ * {@link #partialFit(Iterator)} (e.g. over chunks of a large file, each loaded
+ * by a DatasetLoader), afterwards {@link #predict(Instance)} assigns instances
+ * to the closest centroid. Instances are assigned by the distance function
+ * (Euclidean by default), centroids are always moved towards the mean.
+ *
+ * D. Sculley: Web-scale k-means clustering. WWW 2010.
+ *
+ * @author Tomas Barton
+ */
+@ServiceProvider(service = ClusteringAlgorithm.class)
+public class MiniBatchKMeans extends KClustererBase implements PartitioningClustering {
+
+    private static final String name = "k-means (mini-batch)";
+    public static final String K = "k";
+    public static final String BATCH = "batch";
+    public static final String ITERATIONS = "iterations";
+    public static final String SEED = "seed";
+
+    @Param(name = "k", description = "expected number of clusters", required = true)
+    private int k;
+
+    @Param(name = "batch", description = "number of instances in a mini-batch")
+    private int batchSize;
+
+    /**
+     * number of mini-batches when clustering a whole dataset
+     */
+    private int iterations;
+
+    private Random rand;
+
+    private int dim = -1;
+    private double[] centers;
+    private long[] counts;
+    /**
+     * number of centroids initialized from first instances
+     */
+    private int initialized;
+    //buffers reused between batches
+    private double[] batch;
+    private int[] nearest;
+    private double[] point;
+
+    public MiniBatchKMeans() {
+        this(4);
+    }
+
+    public MiniBatchKMeans(int k) {
+        this(k, 1000);
+    }
+
+    public MiniBatchKMeans(int k, int batchSize) {
+        this(k, batchSize, 100);
+    }
+
+    public MiniBatchKMeans(int k, int batchSize, int iterations) {
+        this.k = k;
+        this.batchSize = batchSize;
+        this.iterations = iterations;
+        this.distanceFunction = EuclideanDistance.getInstance();
+        this.rand = new Random();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Changing number of clusters resets the model
+     *
+     * @param k
+     */
+    public void setK(int k) {
+        this.k = k;
+        reset();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public Random getRandom() {
+        return rand;
+    }
+
+    public void setRandom(Random rand) {
+        this.rand = rand;
+    }
+
+    /**
+     * Forget all centroids
+     */
+    public void reset() {
+        dim = -1;
+        centers = null;
+        counts = null;
+        initialized = 0;
+        batch = null;
+        nearest = null;
+        point = null;
+    }
+
+    /**
+     * Update model with given batch of instances
+     *
+     * @param instances batch
+     */
+    public void partialFit(Dataset<? extends Instance> instances) {
+        partialFit(instances.iterator());
+    }
+
+    /**
+     * Consume all instances from the iterator, model is updated after each
+     * {@link #getBatchSize()} instances. Only one batch is kept in memory.
+     *
+     * @param input
+     */
+    public void partialFit(Iterator<? extends Instance> input) {
+        int size = 0;
+        int attrs;
+        Instance inst;
+        while (input.hasNext()) {
+            inst = input.next();
+            attrs = inst.getParent() != null ? inst.getParent().attributeCount() : inst.size();
+            if (dim < 0) {
+                allocate(attrs);
+            } else if (attrs != dim) {
+                //all batches must have the same dimension as the model
+                throw new IllegalArgumentException("expected instance with " + dim + " attributes, got " + attrs);
+            }
+            copy(inst, batch, size * dim);
+            size++;
+            if (size == batchSize) {
+                update(size);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            update(size);
+        }
+    }
+
+    private void allocate(int attributes) {
+        if (k < 1) {
+            throw new IllegalArgumentException("There should be at least one cluster");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be positive, got " + batchSize);
+        }
+        dim = attributes;
+        centers = new double[k * dim];
+        counts = new long[k];
+        initialized = 0;
+        batch = new double[batchSize * dim];
+        nearest = new int[batchSize];
+        point = new double[dim];
+    }
+
+    /**
+     * Single step of mini-batch k-means, when streaming the first k instances
+     * become initial centroids
+     *
+     * @param size number of instances in the batch buffer
+     */
+    private void update(int size) {
+        int first = 0;
+        while (initialized < k && first < size) {
+            System.arraycopy(batch, first * dim, centers, initialized * dim, dim);
+            counts[initialized++] = 1;
+            first++;
+        }
+        //assignments are computed before the centroids move
+        for (int i = first; i < size; i++) {
+            nearest[i] = closest(batch, i * dim);
+        }
+        int c;
+        double eta;
+        for (int i = first; i < size; i++) {
+            c = nearest[i];
+            counts[c]++;
+            eta = 1.0 / counts[c];
+            for (int j = 0; j < dim; j++) {
+                centers[c * dim + j] += eta * (batch[i * dim + j] - centers[c * dim + j]);
+            }
+        }
+    }
+
+    /**
+     * Index of the closest initialized centroid, squared distance is compared
+     * in case of Euclidean distance
+     *
+     * @param x
+     * @param off
+     * @return
+     */
+    private int closest(double[] x, int off) {
+        if (!(distanceFunction instanceof EuclideanDistance)) {
+            return closestByMeasure(x, off);
+        }
+        int best = 0;
+        double min = Double.POSITIVE_INFINITY, d, diff;
+        for (int c = 0; c < initialized; c++) {
+            d = 0;
+            for (int j = 0; j < dim; j++) {
+                diff = x[off + j] - centers[c * dim + j];
+                d += diff * diff;
+            }
+            if (d < min) {
+                min = d;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Index of the closest initialized centroid according to the distance
+     * function
+     *
+     * @param x
+     * @param off
+     * @return
+     */
+    private int closestByMeasure(double[] x, int off) {
+        int best = 0;
+        double min = distanceFunction.measure(x, off, centers, 0, dim), d;
+        for (int c = 1; c < initialized; c++) {
+            d = distanceFunction.measure(x, off, centers, c * dim, dim);
+            if (distanceFunction.compare(d, min)) {
+                min = d;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Index of the closest centroid
+     *
+     * @param inst
+     * @return
+     */
+    public int predict(Instance inst) {
+        if (initialized == 0) {
+            throw new IllegalStateException("model wasn't fitted yet");
+        }
+        copy(inst, point, 0);
+        return closest(point, 0);
+    }
+
+    /**
+     *
+     * @return copy of current centroids
+     */
+    public double[][] getCentroids() {
+        double[][] res = new double[initialized][];
+        for (int c = 0; c < initialized; c++) {
+            res[c] = Arrays.copyOfRange(centers, c * dim, (c + 1) * dim);
+        }
+        return res;
+    }
+
+    /**
+     *
+     * @return number of instances assigned to each centroid during training
+     */
+    public long[] getCounts() {
+        return counts == null ? new long[0] : Arrays.copyOf(counts, initialized);
+    }
+
+    @Override
+    public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset) {
+        return partition(dataset);
+    }
+
+    @Override
+    public Clustering<Cluster> cluster(Dataset<? extends Instance> dataset, Props props) {
+        return partition(dataset, props);
+    }
+
+    @Override
+    public Clustering<Cluster> partition(Dataset<? extends Instance> dataset, Props params) {
+        k = params.getInt(K, k);
+        batchSize = params.getInt(BATCH, batchSize);
+        iterations = params.getInt(ITERATIONS, iterations);
+        if (params.containsKey(SEED)) {
+            rand = new Random(params.getLong(SEED));
+        }
+        return partition(dataset);
+    }
+
+    /**
+     * Fit model on random mini-batches from the dataset and assign all
+     * instances
+     *
+     * @param dataset
+     * @return
+     */
+    @Override
+    public Clustering<Cluster> partition(Dataset<? extends Instance> dataset) {
+        if (dataset.isEmpty()) {
+            throw new IllegalArgumentException("The dataset should not be empty");
+        }
+        int n = dataset.size();
+        if (k > n) {
+            throw new IllegalArgumentException("Number of clusters (" + k + ") exceeds number of instances (" + n + ")");
+        }
+        reset();
+        allocate(dataset.attributeCount());
+        //distinct random instances are used as initial centroids
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        int j, tmp;
+        for (int c = 0; c < k && c < n; c++) {
+            j = c + rand.nextInt(n - c);
+            tmp = perm[c];
+            perm[c] = perm[j];
+            perm[j] = tmp;
+            copy(dataset.get(perm[c]), centers, c * dim);
+            counts[c] = 1;
+            initialized++;
+        }
+        int size = Math.min(batchSize, n);
+        for (int it = 0; it < iterations; it++) {
+            for (int i = 0; i < size; i++) {
+                copy(dataset.get(rand.nextInt(n)), batch, i * dim);
+            }
+            update(size);
+        }
+        return assign(dataset);
+    }
+
+    private void copy(Instance inst, double[] target, int off) {
+        for (int j = 0; j < dim; j++) {
+            target[off + j] = inst.value(j);
+        }
+    }
+
+    /**
+     * Assign each instance to the closest centroid
+     *
+     * @param dataset
+     * @return
+     */
+    public Clustering<Cluster> assign(Dataset<? extends Instance> dataset) {
+        int[] assignment = new int[dataset.size()];
+        int[] sizes = new int[initialized];
+        for (int i = 0; i < dataset.size(); i++) {
+            assignment[i] = predict(dataset.get(i));
+            sizes[assignment[i]]++;
+        }
+        Clustering output = new ClusterList(initialized);
+        Props p = output.getParams();
+        p.put("algorithm", getName());
+        p.putInt("k", k);
+        p.putInt("batch", batchSize);
+        if (colorGenerator != null) {
+            colorGenerator.reset();
+        }
+        BaseCluster[] clusters = new BaseCluster[initialized];
+        int id = 0;
+        for (int c = 0; c < initialized; c++) {
+            if (sizes[c] > 0) {
+                clusters[c] = new BaseCluster(sizes[c]);
+                if (colorGenerator != null) {
+                    clusters[c].setColor(colorGenerator.next());
+                }
+                clusters[c].setName("cluster " + (id + 1));
+                clusters[c].setClusterId(id++);
+                clusters[c].setAttributes(dataset.getAttributes());
+                output.put(clusters[c]);
+            }
+        }
+        for (int i = 0; i < assignment.length; i++) {
+            clusters[assignment[i]].add(dataset.get(i));
+        }
+        output.lookupAdd(dataset);
+        return output;
+    }
+}
@@ -8,6 +8,7 @@ import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.PartitioningClustering;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.utils.DatasetTools;
 import org.clueminer.utils.Props;
 
 /**
@@ -43,10 +44,10 @@ public class PAM extends KClustererBase implements PartitioningClustering {
             for (int i = 0; i < dataset.size(); i++) {
                 int assign = 0;
                 current = dataset.get(i);
-                double minDist = distanceFunction.measure(dataset.get(medioids[0]), current);
+                double minDist = DatasetTools.measure(distanceFunction, dataset.get(medioids[0]), current);
 
                 for (int k = 1; k < medioids.length; k++) {
-                    dist = distanceFunction.measure(dataset.get(medioids[k]), current);
+                    dist = DatasetTools.measure(distanceFunction, dataset.get(medioids[k]), current);
                     if (dist < minDist) {
                         minDist = dist;
                         assign = k;
@@ -71,7 +72,7 @@ public class PAM extends KClustererBase implements PartitioningClustering {
                     if (j == i || assignments.assigned(j) != clusterId) {
                         continue;
                     }
-                    currCandidateDist += Math.pow(distanceFunction.measure(medCandadate, dataset.get(j)), 2);
+                    currCandidateDist += Math.pow(DatasetTools.measure(distanceFunction, medCandadate, dataset.get(j)), 2);
                 }
 
                 if (currCandidateDist < bestMedCandDist[clusterId]) {
@@ -0,0 +1,449 @@
+package org.clueminer.clustering.seed;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.clueminer.clustering.api.SeedSelection;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+
+/**
+ * Scalable k-means++ (k-means||). In each round candidates are sampled
+ * independently with probability proportional to squared distance to the
+ * closest candidate, the candidates are afterwards weighted by number of
+ * closest instances and reclustered with weighted k-means++ into k seeds.
+ *
+ * Distances to the closest candidate are kept in a primitive array which is
+ * updated in parallel. Result doesn't depend on number of threads.
+ *
+ * B. Bahmani, B. Moseley, A. Vattani, R. Kumar, S. Vassilvitskii: Scalable
+ * k-means++. VLDB 2012.
+ *
+ * @author Tomas Barton
+ */
+public class KMeansParallelSelection extends AbstractSelection implements SeedSelection {
+
+    private static final String name = "k-means|| selection";
+    /**
+     * number of fixed size blocks of instances processed by a single task
+     */
+    private static final int BLOCKS = 64;
+    /**
+     * max size of matrix with distances between candidates (used for pruning)
+     */
+    private static final int MAX_PRUNE = 1 << 21;
+
+    private DistanceMeasure dm = EuclideanDistance.getInstance();
+    private int rounds = 3;
+    /**
+     * expected number of candidates sampled in each round, as a multiple of k
+     */
+    private double oversampling = 1.0;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    //state of a single run
+    private int n;
+    private int dim;
+    private double[] data;
+    /**
+     * squared distance to the closest candidate
+     */
+    private double[] minDist;
+    /**
+     * position of the closest candidate
+     */
+    private int[] nearest;
+    private IntArrayList cand;
+    /**
+     * squared distances between candidates and a chunk of the new ones
+     * (row-wise)
+     */
+    private double[] cc;
+    private boolean euclidean;
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public DistanceMeasure getDistanceMeasure() {
+        return dm;
+    }
+
+    public void setDistanceMeasure(DistanceMeasure dm) {
+        this.dm = dm;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(int rounds) {
+        this.rounds = rounds;
+    }
+
+    public double getOversampling() {
+        return oversampling;
+    }
+
+    public void setOversampling(double oversampling) {
+        this.oversampling = oversampling;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    @Override
+    public int[] selectIntIndices(Dataset<? extends Instance> dataset, int k) {
+        n = dataset.size();
+        if (k > n) {
+            throw new RuntimeException("k (= " + k + ") can't be bigger that |dataset| == " + n);
+        }
+        int[] res = new int[k];
+        if (k == 0) {
+            return res;
+        }
+        dim = dataset.attributeCount();
+        long size = (long) n * dim;
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("dataset of size " + n + " x " + dim + " can't be stored in a single array");
+        }
+        data = new double[n * dim];
+        for (int i = 0; i < n; i++) {
+            Instance inst = dataset.get(i);
+            for (int j = 0; j < dim; j++) {
+                data[i * dim + j] = inst.value(j);
+            }
+        }
+        euclidean = dm instanceof EuclideanDistance;
+        minDist = new double[n];
+        Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+        nearest = new int[n];
+        cand = new IntArrayList();
+
+        int blockCnt = Math.min(BLOCKS, n);
+        Block[] blocks = new Block[blockCnt];
+        for (int b = 0; b < blockCnt; b++) {
+            blocks[b] = new Block((int) ((long) n * b / blockCnt), (int) ((long) n * (b + 1) / blockCnt));
+        }
+        List<Block> tasks = Arrays.asList(blocks);
+        ForkJoinPool pool = Math.min(threads, blockCnt) > 1 ? new ForkJoinPool(Math.min(threads, blockCnt)) : null;
+        try {
+            cand.add(rand.nextInt(n));
+            double phi = update(pool, tasks, 0);
+            double l = oversampling * k;
+            int r = 0;
+            while (phi > 0 && (r < rounds || cand.size() < k)) {
+                int from = cand.size();
+                if (r < rounds) {
+                    for (Block block : blocks) {
+                        block.sample(rand.nextLong(), l / phi);
+                    }
+                    execute(pool, tasks);
+                    //candidates are collected in fixed order
+                    for (Block block : blocks) {
+                        cand.addAll(block.sampled);
+                    }
+                } else {
+                    //not enough candidates, continue with k-means++ steps
+                    cand.add(sample(phi));
+                }
+                if (cand.size() > from) {
+                    phi = update(pool, tasks, from);
+                }
+                r++;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        if (cand.size() <= k) {
+            fill(res);
+        } else {
+            recluster(res);
+        }
+        data = null;
+        minDist = null;
+        nearest = null;
+        cand = null;
+        cc = null;
+        return res;
+    }
+
+    /**
+     * Update distances to closest candidate with candidates starting from
+     * given position. New candidates are processed in chunks, so that the
+     * matrix of candidate distances fits into memory limit.
+     *
+     * @param pool
+     * @param tasks
+     * @param from first new candidate
+     * @return sum of squared distances to closest candidate
+     */
+    private double update(ForkJoinPool pool, List<Block> tasks, int from) {
+        int size = cand.size();
+        int chunk = Math.max(1, MAX_PRUNE / size);
+        double phi = 0.0;
+        for (int first = from; first < size; first += chunk) {
+            int last = Math.min(first + chunk, size);
+            int added = last - first;
+            cc = null;
+            if (euclidean && first > 0) {
+                cc = new double[last * added];
+                for (int a = 0; a < last; a++) {
+                    for (int q = 0; q < added; q++) {
+                        cc[a * added + q] = squared(cand.getInt(a) * dim, cand.getInt(first + q) * dim);
+                    }
+                }
+            }
+            for (Block block : tasks) {
+                block.update(first, last);
+            }
+            execute(pool, tasks);
+            phi = 0.0;
+            for (Block block : tasks) {
+                phi += block.cost;
+            }
+        }
+        return phi;
+    }
+
+    private void execute(ForkJoinPool pool, List<Block> tasks) {
+        if (pool == null) {
+            for (Block block : tasks) {
+                block.call();
+            }
+            return;
+        }
+        try {
+            for (Future<Double> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    /**
+     * Single instance with probability proportional to squared distance
+     *
+     * @param phi sum of squared distances
+     * @return index of instance
+     */
+    private int sample(double phi) {
+        double r = rand.nextDouble() * phi;
+        int i = 0;
+        while (i < n - 1 && (minDist[i] == 0 || (r -= minDist[i]) > 0)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * All candidates are used, the rest is filled with distinct random
+     * instances (happens only when dataset contains duplicates)
+     *
+     * @param res
+     */
+    private void fill(int[] res) {
+        IntSet used = new IntOpenHashSet(res.length);
+        int j = 0;
+        for (int c = 0; c < cand.size() && j < res.length; c++) {
+            res[j++] = cand.getInt(c);
+            used.add(cand.getInt(c));
+        }
+        int i = rand.nextInt(n);
+        while (j < res.length) {
+            if (used.add(i)) {
+                res[j++] = i;
+            }
+            i = (i + 1) % n;
+        }
+    }
+
+    /**
+     * Weighted k-means++ on candidates, weight of a candidate is number of
+     * instances closest to it
+     *
+     * @param res
+     */
+    private void recluster(int[] res) {
+        int size = cand.size();
+        int k = res.length;
+        double[] weight = new double[size];
+        for (int i = 0; i < n; i++) {
+            weight[nearest[i]]++;
+        }
+        double[] closest = new double[size];
+        boolean[] chosen = new boolean[size];
+        //first seed proportional to weight
+        int c = pick(weight, null, chosen, totalWeight(weight, null, chosen));
+        res[0] = cand.getInt(c);
+        chosen[c] = true;
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        double d, total;
+        for (int s = 1; s < k; s++) {
+            for (int a = 0; a < size; a++) {
+                if (!chosen[a]) {
+                    d = dist(cand.getInt(a) * dim, res[s - 1] * dim);
+                    if (d < closest[a]) {
+                        closest[a] = d;
+                    }
+                }
+            }
+            total = totalWeight(weight, closest, chosen);
+            if (total > 0) {
+                c = pick(weight, closest, chosen, total);
+            } else {
+                //remaining candidates are duplicates of chosen ones
+                c = 0;
+                while (chosen[c]) {
+                    c++;
+                }
+            }
+            res[s] = cand.getInt(c);
+            chosen[c] = true;
+        }
+    }
+
+    private double totalWeight(double[] weight, double[] closest, boolean[] chosen) {
+        double total = 0.0;
+        for (int a = 0; a < weight.length; a++) {
+            if (!chosen[a]) {
+                total += closest == null ? weight[a] : weight[a] * closest[a];
+            }
+        }
+        return total;
+    }
+
+    private int pick(double[] weight, double[] closest, boolean[] chosen, double total) {
+        double r = rand.nextDouble() * total;
+        int last = 0;
+        double w;
+        for (int a = 0; a < weight.length; a++) {
+            if (chosen[a]) {
+                continue;
+            }
+            w = closest == null ? weight[a] : weight[a] * closest[a];
+            if (w > 0) {
+                last = a;
+                if ((r -= w) <= 0) {
+                    return a;
+                }
+            }
+        }
+        return last;
+    }
+
+    private double squared(int offX, int offY) {
+        double d = 0.0, diff;
+        for (int j = 0; j < dim; j++) {
+            diff = data[offX + j] - data[offY + j];
+            d += diff * diff;
+        }
+        return d;
+    }
+
+    /**
+     * Squared distance between two instances
+     *
+     * @param offX
+     * @param offY
+     * @return
+     */
+    private double dist(int offX, int offY) {
+        if (euclidean) {
+            return squared(offX, offY);
+        }
+        double d = dm.measure(data, offX, data, offY, dim);
+        return d * d;
+    }
+
+    /**
+     * Range of instances, either samples candidates or updates distances to
+     * closest candidates
+     */
+    private class Block implements Callable<Double> {
+
+        private final int from;
+        private final int to;
+        private final IntArrayList sampled = new IntArrayList();
+        private final Random random = new Random();
+        private boolean sampling;
+        private double factor;
+        private int first;
+        private int last;
+        private double cost;
+
+        public Block(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public void sample(long seed, double factor) {
+            sampling = true;
+            random.setSeed(seed);
+            this.factor = factor;
+            sampled.clear();
+        }
+
+        public void update(int first, int last) {
+            sampling = false;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        public Double call() {
+            if (sampling) {
+                for (int i = from; i < to; i++) {
+                    if (minDist[i] > 0 && random.nextDouble() < factor * minDist[i]) {
+                        sampled.add(i);
+                    }
+                }
+                return 0.0;
+            }
+            int added = last - first;
+            double d, m;
+            int a;
+            cost = 0.0;
+            for (int i = from; i < to; i++) {
+                m = minDist[i];
+                a = nearest[i];
+                for (int q = 0; q < added; q++) {
+                    //closer candidate can't be further than 2 * current distance
+                    if (cc != null && cc[a * added + q] >= 4 * m) {
+                        continue;
+                    }
+                    d = dist(i * dim, cand.getInt(first + q) * dim);
+                    if (d < m) {
+                        m = d;
+                        a = first + q;
+                    }
+                }
+                nearest[i] = a;
+                minDist[i] = m;
+                cost += m;
+            }
+            return cost;
+        }
+    }
+}
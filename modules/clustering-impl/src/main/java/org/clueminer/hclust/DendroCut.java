@@ -0,0 +1,395 @@
+package org.clueminer.hclust;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
+import org.clueminer.dataset.api.Instance;
+
+/**
+ * Incremental cutting of a dendrogram into flat clusterings represented by a
+ * label array (i-th item is cluster index of i-th instance).
+ *
+ * The tree is flattened once into primitive arrays (leaves in left-to-right
+ * order, leaf range of each internal node) and internal nodes are ordered by
+ * the sequence in which they get split when the cut-off decreases (highest
+ * node of the frontier first). Going from k to k+1 clusters splits a single
+ * node - instances of its smaller subtree get a new label, going back merges
+ * the node again. Labels are always in range 0..k-1 and only affected
+ * instances are relabeled, thus whole sequence of cuts from 1 to n clusters
+ * costs O(n log n) relabelings instead of rebuilding clustering from scratch
+ * for each cut-off.
+ *
+ * @author Tomas Barton
+ */
+public class DendroCut {
+
+    /**
+     * number of instances (length of label array)
+     */
+    private final int n;
+    /**
+     * instance indexes in left-to-right order of tree leaves
+     */
+    private int[] order;
+    private int size;
+    /**
+     * leaf range [from, to) of internal nodes, left subtree ends at mid
+     */
+    private final int[] from;
+    private final int[] mid;
+    private final int[] to;
+    private final double[] height;
+    /**
+     * internal nodes in order of splitting
+     */
+    private final int[] splits;
+    /**
+     * true when left subtree got new label after split
+     */
+    private final boolean[] leftMoved;
+    /**
+     * cut-off for each tree level, see {@link #levelCutoff(int)}
+     */
+    private final double[] levelCut;
+    private final int[] labels;
+    private int k;
+    private IncrementalScore listener;
+
+    /**
+     *
+     * @param treeData
+     * @param n number of instances, instances which are not in the tree are
+     * labeled as -1
+     */
+    public DendroCut(DendroTreeData treeData, int n) {
+        this(treeData.getRoot(), treeData.containsClusters(), n);
+    }
+
+    public DendroCut(DendroNode root, boolean containsClusters, int n) {
+        this.n = n;
+        order = new int[Math.max(n, 1)];
+        //all nodes in preorder, tree might be too deep for a recursion
+        int cnt = 0;
+        DendroNode[] nodes = new DendroNode[16];
+        int[] parent = new int[16];
+        DendroNode[] stack = new DendroNode[16];
+        int[] stackParent = new int[16];
+        int top = 0;
+        if (root != null) {
+            stack[top] = root;
+            stackParent[top++] = -1;
+        }
+        int[] start = new int[16];
+        int internal = 0;
+        DendroNode node;
+        while (top > 0) {
+            node = stack[--top];
+            if (cnt == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * cnt);
+                parent = Arrays.copyOf(parent, 2 * cnt);
+                start = Arrays.copyOf(start, 2 * cnt);
+            }
+            nodes[cnt] = node;
+            parent[cnt] = stackParent[top];
+            start[cnt] = size;
+            if (node.isLeaf()) {
+                addLeaf(node, containsClusters);
+            } else {
+                internal++;
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * top + 2);
+                    stackParent = Arrays.copyOf(stackParent, 2 * top + 2);
+                }
+                //left subtree has to be visited first
+                if (node.hasRight()) {
+                    stack[top] = node.getRight();
+                    stackParent[top++] = cnt;
+                }
+                if (node.hasLeft()) {
+                    stack[top] = node.getLeft();
+                    stackParent[top++] = cnt;
+                }
+            }
+            cnt++;
+        }
+        //subtree sizes and levels, children always follow their parent
+        int[] end = new int[cnt];
+        int[] level = new int[cnt];
+        int[] id = new int[cnt];
+        for (int p = cnt - 1; p >= 0; p--) {
+            if (nodes[p].isLeaf()) {
+                end[p] = p + 1 < cnt ? start[p + 1] : size;
+            }
+            if (parent[p] >= 0) {
+                end[parent[p]] = Math.max(end[parent[p]], end[p]);
+                level[parent[p]] = Math.max(level[parent[p]], level[p] + 1);
+            }
+        }
+        from = new int[internal];
+        mid = new int[internal];
+        to = new int[internal];
+        height = new double[internal];
+        int maxLevel = cnt > 0 ? level[0] : 0;
+        levelCut = new double[maxLevel + 1];
+        Arrays.fill(levelCut, -1);
+        int v = 0;
+        for (int p = 0; p < cnt; p++) {
+            //first node in preorder with given level
+            if (levelCut[level[p]] == -1) {
+                if (parent[p] >= 0) {
+                    levelCut[level[p]] = (nodes[parent[p]].getHeight() + nodes[p].getHeight()) / 2.0;
+                } else {
+                    levelCut[level[p]] = nodes[p].getHeight();
+                }
+            }
+            if (!nodes[p].isLeaf()) {
+                id[p] = v;
+                from[v] = start[p];
+                mid[v] = start[p];
+                to[v] = end[p];
+                height[v] = nodes[p].getHeight();
+                v++;
+            }
+            if (parent[p] >= 0 && nodes[parent[p]].getLeft() == nodes[p]) {
+                mid[id[parent[p]]] = end[p];
+            }
+        }
+        //children of internal nodes
+        int[] left = new int[internal];
+        int[] right = new int[internal];
+        Arrays.fill(left, -1);
+        Arrays.fill(right, -1);
+        for (int p = 1; p < cnt; p++) {
+            if (!nodes[p].isLeaf()) {
+                if (nodes[parent[p]].getLeft() == nodes[p]) {
+                    left[id[parent[p]]] = id[p];
+                } else {
+                    right[id[parent[p]]] = id[p];
+                }
+            }
+        }
+        splits = splitOrder(left, right);
+        leftMoved = new boolean[internal];
+        labels = new int[n];
+        Arrays.fill(labels, -1);
+        for (int i = 0; i < size; i++) {
+            labels[order[i]] = 0;
+        }
+        k = size > 0 ? 1 : 0;
+    }
+
+    private void addLeaf(DendroNode node, boolean containsClusters) {
+        if (containsClusters) {
+            List<Instance> instances = ((DClusterLeaf) node).getInstances();
+            for (Instance inst : instances) {
+                append(inst.getIndex());
+            }
+        } else {
+            append(node.getId());
+        }
+    }
+
+    private void append(int idx) {
+        if (idx < 0 || idx >= n) {
+            throw new IllegalArgumentException("instance index " + idx + " is out of range 0.." + (n - 1));
+        }
+        if (size == order.length) {
+            order = Arrays.copyOf(order, 2 * size);
+        }
+        order[size++] = idx;
+    }
+
+    /**
+     * The highest node on the frontier is split first, ties are resolved by
+     * position in tree (preorder)
+     *
+     * @param left
+     * @param right
+     * @return
+     */
+    private int[] splitOrder(int[] left, int[] right) {
+        int[] res = new int[height.length];
+        if (res.length == 0) {
+            return res;
+        }
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(Math.max(1, res.length), new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer a, Integer b) {
+                int c = Double.compare(height[b], height[a]);
+                if (c != 0) {
+                    return c;
+                }
+                return Integer.compare(a, b);
+            }
+        });
+        frontier.add(0);
+        int i = 0;
+        int v;
+        while (!frontier.isEmpty()) {
+            v = frontier.poll();
+            res[i++] = v;
+            if (left[v] >= 0) {
+                frontier.add(left[v]);
+            }
+            if (right[v] >= 0) {
+                frontier.add(right[v]);
+            }
+        }
+        return res;
+    }
+
+    /**
+     *
+     * @return current number of clusters
+     */
+    public int getNumClusters() {
+        return k;
+    }
+
+    /**
+     *
+     * @return number of clusters when all internal nodes are split
+     */
+    public int maxClusters() {
+        return size > 0 ? splits.length + 1 : 0;
+    }
+
+    public IncrementalScore getListener() {
+        return listener;
+    }
+
+    /**
+     * Listener is notified about each split and merge, cluster indexes are
+     * equal to labels
+     *
+     * @param listener
+     */
+    public void setListener(IncrementalScore listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Labels are updated in place by subsequent cuts, copy the array if it
+     * should be kept
+     *
+     * @return cluster index for each instance, -1 for instances not in the
+     * tree
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Cut tree into exactly k clusters (within range 1..{@link #maxClusters()})
+     *
+     * @param clusters
+     * @return labels
+     */
+    public int[] cut(int clusters) {
+        if (clusters < 1 || clusters > maxClusters()) {
+            throw new IllegalArgumentException("number of clusters should be within 1.." + maxClusters() + ", got " + clusters);
+        }
+        while (k < clusters) {
+            split();
+        }
+        while (k > clusters) {
+            merge();
+        }
+        return labels;
+    }
+
+    /**
+     * Each node higher than cut-off is split
+     *
+     * @param cutoff
+     * @return labels
+     */
+    public int[] cutAt(double cutoff) {
+        if (size == 0) {
+            return labels;
+        }
+        while (k <= splits.length && height[splits[k - 1]] > cutoff) {
+            split();
+        }
+        while (k > 1 && height[splits[k - 2]] <= cutoff) {
+            merge();
+        }
+        return labels;
+    }
+
+    /**
+     * Instances of smaller subtree of next node in split order get new label
+     */
+    private void split() {
+        int v = splits[k - 1];
+        boolean moveLeft = mid[v] - from[v] <= to[v] - mid[v];
+        leftMoved[v] = moveLeft;
+        int start = moveLeft ? from[v] : mid[v];
+        int end = moveLeft ? mid[v] : to[v];
+        int source = labels[order[start]];
+        relabel(start, end, k);
+        k++;
+        if (listener != null) {
+            listener.onSplit(source, Arrays.copyOfRange(order, start, end));
+        }
+    }
+
+    /**
+     * Undo the last split
+     */
+    private void merge() {
+        k--;
+        int v = splits[k - 1];
+        int start = leftMoved[v] ? from[v] : mid[v];
+        int end = leftMoved[v] ? mid[v] : to[v];
+        int target = leftMoved[v] ? labels[order[mid[v]]] : labels[order[from[v]]];
+        relabel(start, end, target);
+        if (listener != null) {
+            listener.onMerge(target, k, Arrays.copyOfRange(order, start, end));
+        }
+    }
+
+    private void relabel(int start, int end, int label) {
+        for (int i = start; i < end; i++) {
+            labels[order[i]] = label;
+        }
+    }
+
+    /**
+     *
+     * @return highest level in the tree (root's level)
+     */
+    public int levels() {
+        return levelCut.length - 1;
+    }
+
+    /**
+     * Cut-off for given tree level - in the middle between the first node
+     * (preorder) with given level and its parent. Level of a leaf is 0, level
+     * of an internal node is 1 + maximum level of its children.
+     *
+     * @param level
+     * @return cut-off or -1 when there's no such level
+     */
+    public double levelCutoff(int level) {
+        if (level < 0 || level >= levelCut.length) {
+            return -1;
+        }
+        return levelCut[level];
+    }
+
+    /**
+     * Cut tree at given level
+     *
+     * @param level
+     * @return labels
+     */
+    public int[] cutByLevel(int level) {
+        return cutAt(levelCutoff(level));
+    }
+}
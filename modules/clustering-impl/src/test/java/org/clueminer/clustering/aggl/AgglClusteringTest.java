@@ -45,6 +45,40 @@ public class AgglClusteringTest {
         }
     }
 
+    @Test
+    public void testParSymQueue() {
+        Dataset<? extends Instance> dataset = FakeClustering.schoolData();
+        Matrix input = dataset.asMatrix();
+        int triangle = ((dataset.size() - 1) * dataset.size()) >>> 1;
+        PriorityQueue<Element> pq = new PriorityQueue<>(triangle);
+        PriorityQueue<Element> ref = new PriorityQueue<>(triangle);
+        AgglClustering.rowSimilarityMatrixParSym(input, dm, pq, 3);
+        AgglClustering.rowSimilarityMatrix(input, dm, ref);
+        assertEquals(ref.size(), pq.size());
+        while (!ref.isEmpty()) {
+            assertEquals(ref.poll().getValue(), pq.poll().getValue(), delta);
+        }
+    }
+
+    @Test
+    public void testTriangleTiles() {
+        int n = 100;
+        int[] tiles = RowSimTask.triangleTiles(n, 8);
+        assertEquals(9, tiles.length);
+        assertEquals(0, tiles[0]);
+        assertEquals(n, tiles[8]);
+        int total = 0, area;
+        for (int t = 0; t < 8; t++) {
+            area = RowSimTask.area(n, tiles[t], tiles[t + 1]);
+            //each tile should have roughly 1/8 of all pairs
+            assertEquals(4950 / 8.0, area, n);
+            total += area;
+        }
+        assertEquals(4950, total);
+        //can't have more tiles than rows
+        assertEquals(3, RowSimTask.triangleTiles(3, 10).length);
+    }
+
     @Test
     public void testRowSimilarityMatrixParSymLock() {
         Dataset<? extends Instance> dataset = FakeClustering.schoolData();
@@ -0,0 +1,76 @@
+package org.clueminer.clustering.aggl;
+
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
+import static org.junit.Assert.*;
+
+/**
+ * Comparison of dendrograms produced by different HAC implementations
+ *
+ * @author deric
+ */
+public class DendroAssert {
+
+    /**
+     * Trees are the same when they have the same cophenetic matrix - height
+     * of the lowest common ancestor for each pair of leaves. Unlike comparing
+     * sorted merge heights, this also detects trees merging different
+     * clusters at the same heights.
+     *
+     * @param expected
+     * @param actual
+     * @param n number of leaves
+     * @param delta
+     */
+    public static void assertSameTree(DendroTreeData expected, DendroTreeData actual, int n, double delta) {
+        assertEquals(n, actual.numLeaves());
+        double[][] exp = cophenetic(expected.getRoot(), n);
+        double[][] act = cophenetic(actual.getRoot(), n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                assertEquals("leaves " + i + ", " + j, exp[i][j], act[i][j], delta);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param root
+     * @param n
+     * @return height of lowest common ancestor for each pair of leaves
+     */
+    public static double[][] cophenetic(DendroNode root, int n) {
+        double[][] res = new double[n][n];
+        DendroNode[] stack = new DendroNode[2 * n];
+        int top = 0;
+        stack[top++] = root;
+        DendroNode node;
+        int[] left = new int[n];
+        int[] right = new int[n];
+        while (top > 0) {
+            node = stack[--top];
+            if (!node.isLeaf()) {
+                int nl = leaves(node.getLeft(), left, 0);
+                int nr = leaves(node.getRight(), right, 0);
+                for (int a = 0; a < nl; a++) {
+                    for (int b = 0; b < nr; b++) {
+                        res[left[a]][right[b]] = node.getHeight();
+                        res[right[b]][left[a]] = node.getHeight();
+                    }
+                }
+                stack[top++] = node.getLeft();
+                stack[top++] = node.getRight();
+            }
+        }
+        return res;
+    }
+
+    private static int leaves(DendroNode node, int[] ids, int cnt) {
+        if (node.isLeaf()) {
+            ids[cnt++] = node.getId();
+            return cnt;
+        }
+        cnt = leaves(node.getLeft(), ids, cnt);
+        return leaves(node.getRight(), ids, cnt);
+    }
+}
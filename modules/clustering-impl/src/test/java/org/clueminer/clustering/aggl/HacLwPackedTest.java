@@ -0,0 +1,78 @@
+package org.clueminer.clustering.aggl;
+
+import org.clueminer.attributes.BasicAttrType;
+import org.clueminer.clustering.aggl.linkage.AverageLinkage;
+import org.clueminer.clustering.aggl.linkage.CompleteLinkage;
+import org.clueminer.clustering.aggl.linkage.SingleLinkage;
+import org.clueminer.clustering.aggl.linkage.WardsLinkage;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.dataset.plugin.ArrayDataset;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class HacLwPackedTest {
+
+    private final HacLwPacked subject = new HacLwPacked();
+    private static final double delta = 1e-9;
+
+    @Test
+    public void testPackedTriangle() {
+        PackedTriangle t = new PackedTriangle(5);
+        assertEquals(10, PackedTriangle.triangleSize(5));
+        t.set(3, 1, 4.2);
+        assertEquals(4.2, t.get(1, 3), delta);
+        assertEquals(PackedTriangle.index(3, 1), PackedTriangle.index(1, 3));
+        //would overflow with int arithmetic
+        assertEquals(2_449_965_001L, PackedTriangle.index(70_000, 1));
+    }
+
+    @Test
+    public void testEmptyDataset() {
+        Dataset<Instance> empty = new ArrayDataset<>(0, 2);
+        empty.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        empty.attributeBuilder().create("y", BasicAttrType.NUMERIC);
+        HierarchicalResult result = subject.hierarchy(empty, new Props());
+        assertNull(result.getTreeData().getRoot());
+    }
+
+    @Test
+    public void testSingleLinkage() {
+        compareWithHaclw(SingleLinkage.name);
+    }
+
+    @Test
+    public void testCompleteLinkage() {
+        compareWithHaclw(CompleteLinkage.name);
+    }
+
+    @Test
+    public void testAverageLinkage() {
+        compareWithHaclw(AverageLinkage.name);
+    }
+
+    @Test
+    public void testWardsLinkage() {
+        compareWithHaclw(WardsLinkage.name);
+    }
+
+    private void compareWithHaclw(String linkage) {
+        Dataset<? extends Instance> dataset = DatasetGenerator.uniform(40, 3, 10, 42);
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, linkage);
+        pref.putBoolean(AgglParams.CLUSTER_ROWS, true);
+        HierarchicalResult result = subject.hierarchy(dataset, pref);
+        HierarchicalResult ref = new HACLW().hierarchy(dataset, pref.copy());
+        assertEquals(ref.getTreeData().getRoot().getHeight(), result.getTreeData().getRoot().getHeight(), delta);
+        DendroAssert.assertSameTree(ref.getTreeData(), result.getTreeData(), dataset.size(), delta);
+        assertNotNull(result.getProximityMatrix());
+    }
+}
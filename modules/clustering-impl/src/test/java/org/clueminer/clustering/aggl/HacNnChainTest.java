@@ -0,0 +1,99 @@
+package org.clueminer.clustering.aggl;
+
+import org.clueminer.attributes.BasicAttrType;
+import org.clueminer.clustering.aggl.linkage.AverageLinkage;
+import org.clueminer.clustering.aggl.linkage.CompleteLinkage;
+import org.clueminer.clustering.aggl.linkage.MedianLinkage;
+import org.clueminer.clustering.aggl.linkage.SingleLinkage;
+import org.clueminer.clustering.aggl.linkage.WardsLinkage;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.dataset.plugin.ArrayDataset;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class HacNnChainTest {
+
+    private final HacNnChain subject = new HacNnChain();
+    private static final double delta = 1e-9;
+
+    @Test
+    public void testLinkageSupport() {
+        assertTrue(subject.isLinkageSupported(WardsLinkage.name));
+        assertTrue(subject.isLinkageSupported(AverageLinkage.name));
+        //median linkage is not reducible
+        assertFalse(subject.isLinkageSupported(MedianLinkage.name));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedLinkage() {
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, MedianLinkage.name);
+        pref.putBoolean(AgglParams.CLUSTER_ROWS, true);
+        subject.hierarchy(DatasetGenerator.uniform(10, 2, 10, 42), pref);
+    }
+
+    @Test
+    public void testDuplicatePoints() {
+        Dataset<Instance> data = new ArrayDataset<>(6, 1);
+        data.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        for (double v : new double[]{1, 1, 1, 5, 5, 9}) {
+            data.builder().create(new double[]{v});
+        }
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, CompleteLinkage.name);
+        pref.putBoolean(AgglParams.CLUSTER_ROWS, true);
+        HierarchicalResult result = subject.hierarchy(data, pref);
+        assertEquals(6, result.getTreeData().numLeaves());
+        assertEquals(8.0, result.getTreeData().getRoot().getHeight(), delta);
+    }
+
+    @Test
+    public void testEmptyDataset() {
+        Dataset<Instance> empty = new ArrayDataset<>(0, 2);
+        empty.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        empty.attributeBuilder().create("y", BasicAttrType.NUMERIC);
+        HierarchicalResult result = subject.hierarchy(empty, new Props());
+        assertNull(result.getTreeData().getRoot());
+    }
+
+    @Test
+    public void testSingleLinkage() {
+        compareWithHaclw(SingleLinkage.name);
+    }
+
+    @Test
+    public void testCompleteLinkage() {
+        compareWithHaclw(CompleteLinkage.name);
+    }
+
+    @Test
+    public void testAverageLinkage() {
+        compareWithHaclw(AverageLinkage.name);
+    }
+
+    @Test
+    public void testWardsLinkage() {
+        compareWithHaclw(WardsLinkage.name);
+    }
+
+    private void compareWithHaclw(String linkage) {
+        Dataset<? extends Instance> dataset = DatasetGenerator.uniform(60, 4, 10, 42);
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, linkage);
+        pref.putBoolean(AgglParams.CLUSTER_ROWS, true);
+        HierarchicalResult result = subject.hierarchy(dataset, pref);
+        HierarchicalResult ref = new HACLW().hierarchy(dataset, pref.copy());
+        assertEquals(ref.getTreeData().getRoot().getHeight(), result.getTreeData().getRoot().getHeight(), delta);
+        DendroAssert.assertSameTree(ref.getTreeData(), result.getTreeData(), dataset.size(), delta);
+        assertNotNull(result.getProximityMatrix());
+    }
+}
@@ -1,9 +1,21 @@
 package org.clueminer.clustering.aggl;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import org.clueminer.attributes.BasicAttrType;
 import org.clueminer.cluster.FakeClustering;
+import org.clueminer.clustering.aggl.linkage.CompleteLinkage;
+import org.clueminer.clustering.aggl.linkage.SingleLinkage;
+import org.clueminer.clustering.api.AgglParams;
+import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import org.clueminer.clustering.api.dendrogram.DendroTreeData;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.plugin.ArrayDataset;
 import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +28,7 @@ public class SLINKTest {
 
     private static Dataset<? extends Instance> school;
     private final SLINK subject = new SLINK();
+    private static final double delta = 1e-9;
 
     public SLINKTest() {
     }
@@ -43,8 +56,76 @@ public class SLINKTest {
 
     @Test
     public void testHierarchy_Dataset_Props() {
-        subject.hierarchy(school, new Props());
+        HierarchicalResult result = subject.hierarchy(school, new Props());
+        assertEquals(school.size(), result.getTreeData().numLeaves());
+        //proximity matrix is never computed
+        assertNull(result.getProximityMatrix());
+    }
+
+    @Test
+    public void testSameAsHac() {
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, SingleLinkage.name);
+        HierarchicalResult result = subject.hierarchy(school, pref);
+        HierarchicalResult ref = new HacLwPacked().hierarchy(school, pref.copy());
+        DendroTreeData tree = result.getTreeData();
+        assertEquals(ref.getTreeData().getRoot().getHeight(), tree.getRoot().getHeight(), delta);
+        double[] heights = heights(tree);
+        assertArrayEquals(heights(ref.getTreeData()), heights, delta);
+
+        //weights of MST edges are the merge heights
+        MinimumSpanningTree mst = subject.mst(school, new Props());
+        assertEquals(school.size() - 1, mst.size());
+        double[] weights = new double[mst.size()];
+        for (int i = 0; i < mst.size(); i++) {
+            weights[i] = mst.getWeight(i);
+        }
+        Arrays.sort(weights);
+        assertArrayEquals(heights, weights, delta);
+    }
+
+    @Test
+    public void testMstEmptyDataset() {
+        Dataset<? extends Instance> empty = new ArrayDataset<>(0, 2);
+        empty.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        empty.attributeBuilder().create("y", BasicAttrType.NUMERIC);
+        assertEquals(0, subject.mst(empty, new Props()).size());
+    }
+
+    @Test
+    public void testHierarchyEmptyDataset() {
+        Dataset<? extends Instance> empty = new ArrayDataset<>(0, 2);
+        empty.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        empty.attributeBuilder().create("y", BasicAttrType.NUMERIC);
+        HierarchicalResult result = subject.hierarchy(empty, new Props());
+        assertNull(result.getTreeData().getRoot());
+    }
+
+    @Test
+    public void testCallersLinkageKept() {
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, CompleteLinkage.name);
+        HierarchicalResult result = subject.hierarchy(school, pref);
+        assertEquals(CompleteLinkage.name, pref.get(AgglParams.LINKAGE));
+        assertEquals(SingleLinkage.name, result.getParams().get(AgglParams.LINKAGE));
+    }
 
+    private double[] heights(DendroTreeData tree) {
+        double[] res = new double[tree.numLeaves() - 1];
+        int k = 0;
+        Deque<DendroNode> stack = new ArrayDeque<>();
+        stack.push(tree.getRoot());
+        DendroNode node;
+        while (!stack.isEmpty()) {
+            node = stack.pop();
+            if (!node.isLeaf()) {
+                res[k++] = node.getHeight();
+                stack.push(node.getLeft());
+                stack.push(node.getRight());
+            }
+        }
+        Arrays.sort(res);
+        return res;
     }
 
     @Test
@@ -0,0 +1,118 @@
+package org.clueminer.clustering.algorithm;
+
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.math.matrix.SymmetricMatrix;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class FastPAMTest {
+
+    private Dataset<? extends Instance> blobs(int n, int centers, double dev) {
+        double[][] means = new double[centers][];
+        for (int c = 0; c < centers; c++) {
+            means[c] = new double[]{10 * c, 10 * (c % 2)};
+        }
+        return DatasetGenerator.blobs(n, means, dev, 42);
+    }
+
+    private double deviation(Dataset<? extends Instance> data, int[] medoids) {
+        EuclideanDistance dist = EuclideanDistance.getInstance();
+        double sum = 0.0;
+        for (int i = 0; i < data.size(); i++) {
+            double min = Double.MAX_VALUE;
+            for (int m : medoids) {
+                min = Math.min(min, dist.measure(data.get(i), data.get(m)));
+            }
+            sum += min;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSeparatedClusters() {
+        Dataset<? extends Instance> data = blobs(300, 3, 0.5);
+        FastPAM pam = new FastPAM(3);
+        pam.setRandom(new Random(1));
+        Clustering<Cluster> clustering = pam.partition(data);
+        assertEquals(3, clustering.size());
+        assertEquals(300, clustering.instancesCount());
+        for (Cluster c : clustering) {
+            assertEquals(100, c.size());
+        }
+    }
+
+    @Test
+    public void testNoImprovingSwap() {
+        Dataset<? extends Instance> data = blobs(80, 4, 3.0);
+        FastPAM pam = new FastPAM(4);
+        pam.setRandom(new Random(5));
+        int[] medoids = pam.medoids(data);
+        double cost = deviation(data, medoids);
+        assertEquals(cost, pam.getCost(), 1e-9);
+        //result is a local optimum of PAM
+        for (int c = 0; c < medoids.length; c++) {
+            for (int x = 0; x < data.size(); x++) {
+                int[] swapped = medoids.clone();
+                swapped[c] = x;
+                assertTrue(deviation(data, swapped) >= cost - 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testDistanceMatrix() {
+        Dataset<? extends Instance> data = blobs(100, 3, 2.0);
+        EuclideanDistance dist = EuclideanDistance.getInstance();
+        SymmetricMatrix matrix = new SymmetricMatrix(data.size(), data.size());
+        for (int i = 0; i < data.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                matrix.set(i, j, dist.measure(data.get(i), data.get(j)));
+            }
+        }
+        FastPAM pam = new FastPAM(3);
+        pam.setRandom(new Random(3));
+        int[] expected = pam.medoids(data);
+
+        pam.setDistanceMatrix(matrix);
+        pam.setRandom(new Random(3));
+        assertArrayEquals(expected, pam.medoids(data));
+    }
+
+    @Test
+    public void testClara() {
+        Dataset<? extends Instance> data = blobs(3000, 4, 0.5);
+        FastPAM pam = new FastPAM();
+        Props params = new Props();
+        params.putInt(FastPAM.K, 4);
+        params.putBoolean(FastPAM.CLARA, true);
+        params.putInt(FastPAM.SAMPLE_SIZE, 100);
+        params.putInt(FastPAM.SEED, 7);
+        Clustering<Cluster> clustering = pam.partition(data, params);
+        assertEquals(4, clustering.size());
+        for (Cluster c : clustering) {
+            assertEquals(750, c.size());
+        }
+    }
+
+    @Test
+    public void testSingleCluster() {
+        Dataset<? extends Instance> data = blobs(50, 1, 1.0);
+        FastPAM pam = new FastPAM(1);
+        int[] medoids = pam.medoids(data);
+        for (int x = 0; x < data.size(); x++) {
+            assertTrue(deviation(data, new int[]{x}) >= pam.getCost() - 1e-9);
+        }
+        assertEquals(1, medoids.length);
+    }
+}
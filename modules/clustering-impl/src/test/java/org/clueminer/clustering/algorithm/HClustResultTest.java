@@ -1,14 +1,18 @@
 package org.clueminer.clustering.algorithm;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import org.clueminer.cluster.FakeClustering;
 import org.clueminer.clustering.aggl.HACLW;
 import org.clueminer.clustering.api.AgglParams;
 import org.clueminer.clustering.api.AgglomerativeClustering;
+import org.clueminer.clustering.api.Cluster;
 import org.clueminer.clustering.api.Clustering;
 import org.clueminer.clustering.api.HierarchicalResult;
+import org.clueminer.clustering.api.IncrementalScore;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
 import org.clueminer.math.Matrix;
 import org.clueminer.utils.Dump;
 import org.clueminer.utils.Props;
@@ -185,6 +189,150 @@ public class HClustResultTest {
 
     }
 
+    private HierarchicalResult blobsHierarchy() {
+        Dataset<? extends Instance> data = DatasetGenerator.blobs(60, new double[][]{{0, 0}, {10, 0}, {0, 10}, {10, 10}}, 1.5, 7);
+        Props pref = new Props();
+        pref.put(AgglParams.LINKAGE, "Single Linkage");
+        return algorithm.hierarchy(data, pref);
+    }
+
+    private int[] labels(Clustering<? extends Cluster> clust) {
+        int[] labels = new int[clust.instancesCount()];
+        for (int i = 0; i < clust.size(); i++) {
+            for (int j = 0; j < clust.get(i).size(); j++) {
+                labels[clust.get(i).instance(j).getIndex()] = i;
+            }
+        }
+        return labels;
+    }
+
+    @Test
+    public void testCutTreeByLevelSameAsCutoff() {
+        HierarchicalResult result = blobsHierarchy();
+        for (int level = 1; level < result.treeLevels(); level++) {
+            double cut = result.cutTreeByLevel(level);
+            Clustering<? extends Cluster> clust = result.getClustering();
+            int[] labels = labels(clust);
+            Clustering<? extends Cluster> expected = result.updateCutoff(cut);
+            assertEquals(expected.size(), clust.size());
+            for (int i = 0; i < clust.size(); i++) {
+                assertEquals(expected.get(i).getName(), clust.get(i).getName());
+                if (i < 8) {
+                    //palette colors, the following ones are random
+                    assertEquals(expected.get(i).getColor(), clust.get(i).getColor());
+                }
+                assertEquals(expected.get(i).size(), clust.get(i).size());
+            }
+            assertArrayEquals(labels(expected), labels);
+        }
+        //regular clustering, can be modified
+        Clustering<? extends Cluster> clust = result.getClustering();
+        int k = clust.size();
+        clust.createCluster();
+        assertEquals(k + 1, clust.size());
+    }
+
+    @Test
+    public void testCutListener() {
+        HierarchicalResult result = blobsHierarchy();
+        int levels = result.treeLevels();
+        //numbering of clusters from a cut differs from order of splits
+        for (int start = 1; start < levels; start++) {
+            result.cutTreeByLevel(start);
+            LabelScore score = new LabelScore(labels(result.getClustering()), result.getClustering().size());
+            assertTrue(result.setCutListener(score));
+            for (int level = start - 1; level > 0; level--) {
+                result.cutTreeByLevel(level);
+                score.assertSamePartition(labels(result.getClustering()), result.getClustering().size());
+            }
+            for (int level = 2; level < levels; level += 3) {
+                result.cutTreeByLevel(level);
+                score.assertSamePartition(labels(result.getClustering()), result.getClustering().size());
+            }
+            assertTrue(result.setCutListener(null));
+        }
+    }
+
+    @Test
+    public void testCutLabelsByLevel() {
+        HierarchicalResult result = blobsHierarchy();
+        HierarchicalResult ref = blobsHierarchy();
+        int levels = result.treeLevels();
+        double cut = result.cutTreeByLevel(levels - 3);
+        Clustering<? extends Cluster> clust = result.getClustering();
+        LabelScore score = new LabelScore(labels(clust), clust.size());
+        assertTrue(result.setCutListener(score));
+        for (int level = levels - 4; level > 0; level--) {
+            double c = result.cutLabelsByLevel(level);
+            //current clustering is kept
+            assertEquals(cut, result.getCutoff(), delta);
+            assertSame(clust, result.getClustering());
+            Clustering<? extends Cluster> expected = ref.updateCutoff(c);
+            score.assertSamePartition(labels(expected), expected.size());
+        }
+        assertTrue(result.setCutListener(null));
+    }
+
+    /**
+     * Keeps labels updated by cut notifications
+     */
+    private static class LabelScore implements IncrementalScore {
+
+        private final int[] labels;
+        private int k;
+
+        LabelScore(int[] labels, int k) {
+            this.labels = labels.clone();
+            this.k = k;
+        }
+
+        @Override
+        public void onSplit(int source, int[] moved) {
+            for (int i : moved) {
+                assertEquals(source, labels[i]);
+                labels[i] = k;
+            }
+            k++;
+        }
+
+        @Override
+        public void onMerge(int target, int source, int[] members) {
+            for (int i : members) {
+                assertEquals(source, labels[i]);
+                labels[i] = target;
+            }
+            k--;
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == k) {
+                    labels[i] = source;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return k;
+        }
+
+        @Override
+        public double score() {
+            return k;
+        }
+
+        void assertSamePartition(int[] expected, int clusters) {
+            assertEquals(clusters, k);
+            int[] map = new int[k];
+            Arrays.fill(map, -1);
+            for (int i = 0; i < labels.length; i++) {
+                assertTrue(labels[i] >= 0 && labels[i] < k);
+                if (map[labels[i]] < 0) {
+                    map[labels[i]] = expected[i];
+                }
+                assertEquals(map[labels[i]], expected[i]);
+            }
+        }
+    }
+
     /**
      * Test of findCutoff method, of class HClustResult.
      */
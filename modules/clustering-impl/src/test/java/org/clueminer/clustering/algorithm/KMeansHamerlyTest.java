@@ -0,0 +1,146 @@
+package org.clueminer.clustering.algorithm;
+
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.ManhattanDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.utils.Props;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class KMeansHamerlyTest {
+
+    private Dataset<? extends Instance> blobs(int n, int centers, double dev) {
+        return DatasetGenerator.blobs(n, 3, centers, 20, dev, 42);
+    }
+
+    /**
+     * Each point has to be assigned to the closest mean of the clusters
+     *
+     * @param data
+     * @param assign
+     * @param k
+     * @param dm
+     */
+    private void assertExhaustive(Dataset<? extends Instance> data, int[] assign, int k, DistanceMeasure dm) {
+        int dim = data.attributeCount();
+        double[][] mean = new double[k][dim];
+        int[] count = new int[k];
+        for (int i = 0; i < assign.length; i++) {
+            count[assign[i]]++;
+            for (int j = 0; j < dim; j++) {
+                mean[assign[i]][j] += data.get(i).value(j);
+            }
+        }
+        for (int c = 0; c < k; c++) {
+            for (int j = 0; j < dim; j++) {
+                mean[c][j] /= count[c];
+            }
+        }
+        for (int i = 0; i < assign.length; i++) {
+            double[] row = data.get(i).arrayCopy();
+            int best = 0;
+            double min = Double.MAX_VALUE;
+            for (int c = 0; c < k; c++) {
+                if (count[c] == 0) {
+                    continue;
+                }
+                double d = dm.measure(row, mean[c]);
+                if (d < min) {
+                    min = d;
+                    best = c;
+                }
+            }
+            assertEquals("instance " + i, min, dm.measure(row, mean[assign[i]]), 1e-9);
+            assertEquals(best, assign[i]);
+        }
+    }
+
+    @Test
+    public void testSeparatedClusters() {
+        Dataset<? extends Instance> data = blobs(300, 3, 0.01);
+        KMeansHamerly km = new KMeansHamerly(3);
+        km.setRandom(new Random(1));
+        int[] assign = km.assign(data);
+        for (int i = 3; i < assign.length; i++) {
+            assertEquals(assign[i % 3], assign[i]);
+        }
+        assertTrue(assign[0] != assign[1]);
+        assertTrue(assign[1] != assign[2]);
+        assertTrue(assign[0] != assign[2]);
+
+        Clustering<Cluster> clustering = km.partition(data);
+        assertEquals(3, clustering.size());
+        assertEquals(300, clustering.instancesCount());
+    }
+
+    @Test
+    public void testSameResultForAnyThreads() {
+        Dataset<? extends Instance> data = blobs(2000, 10, 3.0);
+        KMeansHamerly km = new KMeansHamerly(8);
+        km.setThreads(1);
+        km.setRandom(new Random(7));
+        int[] single = km.assign(data);
+        km.setThreads(4);
+        km.setRandom(new Random(7));
+        assertArrayEquals(single, km.assign(data));
+    }
+
+    @Test
+    public void testSameAsExhaustiveSearch() {
+        Dataset<? extends Instance> data = blobs(1000, 6, 4.0);
+        KMeansHamerly km = new KMeansHamerly(6);
+        km.setRandom(new Random(3));
+        assertExhaustive(data, km.assign(data), 6, new EuclideanDistance());
+    }
+
+    @Test
+    public void testSortedCentersFirstRun() {
+        //first run of a new instance with Euclidean distance searches
+        //centroids sorted by distance
+        Dataset<? extends Instance> data = blobs(2000, 40, 1.5);
+        KMeansHamerly km = new KMeansHamerly(30);
+        km.setRandom(new Random(11));
+        km.setThreads(2);
+        assertExhaustive(data, km.assign(data), 30, new EuclideanDistance());
+    }
+
+    @Test
+    public void testDistanceChangedBetweenRuns() {
+        Dataset<? extends Instance> data = blobs(1000, 12, 2.0);
+        DistanceMeasure euclid = new EuclideanDistance();
+        DistanceMeasure manhattan = new ManhattanDistance();
+        KMeansHamerly km = new KMeansHamerly(10, 500, manhattan);
+        km.setRandom(new Random(5));
+        assertExhaustive(data, km.assign(data), 10, manhattan);
+
+        km.setDistanceFunction(euclid);
+        km.setRandom(new Random(5));
+        assertExhaustive(data, km.assign(data), 10, euclid);
+
+        km.setDistanceFunction(manhattan);
+        km.setRandom(new Random(5));
+        assertExhaustive(data, km.assign(data), 10, manhattan);
+    }
+
+    @Test
+    public void testProps() {
+        Dataset<? extends Instance> data = blobs(200, 4, 0.01);
+        KMeansHamerly km = new KMeansHamerly(2, 100, new ManhattanDistance());
+        Props params = new Props();
+        params.putInt(KMeansHamerly.K, 4);
+        params.putInt(KMeansHamerly.SEED, 5);
+        Clustering<Cluster> clustering = km.partition(data, params);
+        assertEquals(4, clustering.size());
+        assertEquals(4, km.getK());
+    }
+}
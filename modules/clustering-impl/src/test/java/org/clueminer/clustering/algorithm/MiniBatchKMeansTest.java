@@ -0,0 +1,95 @@
+package org.clueminer.clustering.algorithm;
+
+import java.util.Random;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.distance.ManhattanDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class MiniBatchKMeansTest {
+
+    private static final double[][] MEANS = new double[][]{{0, 0}, {10, 0}, {0, 10}};
+
+    private final double delta = 0.2;
+
+    private Dataset<? extends Instance> blobs(int n, long seed) {
+        return DatasetGenerator.blobs(n, MEANS, 0.5, seed);
+    }
+
+    @Test
+    public void testPartition() {
+        Dataset<? extends Instance> data = blobs(600, 1);
+        MiniBatchKMeans km = new MiniBatchKMeans(3, 50, 50);
+        km.setRandom(new Random(2));
+        Clustering<Cluster> clustering = km.partition(data);
+        assertEquals(3, clustering.size());
+        assertEquals(600, clustering.instancesCount());
+        for (int i = 3; i < data.size(); i++) {
+            assertEquals(km.predict(data.get(i % 3)), km.predict(data.get(i)));
+        }
+    }
+
+    @Test
+    public void testPartialFit() {
+        MiniBatchKMeans km = new MiniBatchKMeans(3, 20);
+        //first instances from each blob are used as initial centroids
+        for (int chunk = 0; chunk < 5; chunk++) {
+            km.partialFit(blobs(300, chunk));
+        }
+        double[][] centroids = km.getCentroids();
+        assertEquals(3, centroids.length);
+        for (int c = 0; c < 3; c++) {
+            assertEquals(MEANS[c][0], centroids[c][0], delta);
+            assertEquals(MEANS[c][1], centroids[c][1], delta);
+        }
+        long total = 0;
+        for (long cnt : km.getCounts()) {
+            total += cnt;
+        }
+        assertEquals(1500, total);
+
+        Dataset<? extends Instance> test = blobs(30, 10);
+        Clustering<Cluster> clustering = km.assign(test);
+        assertEquals(3, clustering.size());
+        assertEquals(10, clustering.get(0).size());
+    }
+
+    @Test
+    public void testDistanceFunction() {
+        DistanceMeasure dm = new ManhattanDistance();
+        MiniBatchKMeans km = new MiniBatchKMeans(3, 50, 20);
+        km.setDistanceFunction(dm);
+        km.setRandom(new Random(4));
+        Dataset<? extends Instance> data = DatasetGenerator.uniform(300, 2, 10, 3);
+        km.partition(data);
+        double[][] centroids = km.getCentroids();
+        for (int i = 0; i < data.size(); i++) {
+            double[] row = data.get(i).arrayCopy();
+            int c = km.predict(data.get(i));
+            for (double[] centroid : centroids) {
+                assertTrue(dm.measure(row, centroids[c]) <= dm.measure(row, centroid));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyClusters() {
+        new MiniBatchKMeans(5).partition(DatasetGenerator.uniform(4, 2, 10, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartialFitDimension() {
+        MiniBatchKMeans km = new MiniBatchKMeans(2, 10);
+        km.partialFit(DatasetGenerator.uniform(20, 2, 10, 1));
+        km.partialFit(DatasetGenerator.uniform(20, 3, 10, 2));
+    }
+}
@@ -0,0 +1,108 @@
+package org.clueminer.clustering.seed;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.clueminer.attributes.BasicAttrType;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import org.clueminer.dataset.plugin.ArrayDataset;
+import org.clueminer.distance.ManhattanDistance;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class KMeansParallelSelectionTest {
+
+    private final KMeansParallelSelection subject = new KMeansParallelSelection();
+
+    /**
+     * Well separated blobs, instance i belongs to blob i % centers
+     *
+     * @param n
+     * @param centers
+     * @return
+     */
+    private Dataset<? extends Instance> blobs(int n, int centers) {
+        double[][] means = new double[centers][];
+        for (int c = 0; c < centers; c++) {
+            means[c] = new double[]{100 * c, 100 * (c % 3)};
+        }
+        return DatasetGenerator.blobs(n, means, 1.0, 42);
+    }
+
+    private void assertDistinct(int[] seeds, int k, int size) {
+        assertEquals(k, seeds.length);
+        Set<Integer> set = new HashSet<>();
+        for (int s : seeds) {
+            assertTrue(s >= 0 && s < size);
+            set.add(s);
+        }
+        assertEquals(k, set.size());
+    }
+
+    @Test
+    public void testGetName() {
+        assertNotNull(subject.getName());
+    }
+
+    @Test
+    public void testSelectIntIndices() {
+        Dataset<? extends Instance> dataset = blobs(150, 3);
+        int k = 15;
+        assertDistinct(subject.selectIntIndices(dataset, k), k, dataset.size());
+    }
+
+    @Test
+    public void testSeparatedBlobs() {
+        Dataset<? extends Instance> dataset = blobs(2000, 8);
+        subject.setRandom(new Random(3));
+        int[] seeds = subject.selectIntIndices(dataset, 8);
+        Set<Integer> blobs = new HashSet<>();
+        for (int s : seeds) {
+            blobs.add(s % 8);
+        }
+        //each blob gets exactly one seed
+        assertEquals(8, blobs.size());
+    }
+
+    @Test
+    public void testSameResultForAnyThreads() {
+        Dataset<? extends Instance> dataset = blobs(3000, 20);
+        subject.setThreads(1);
+        subject.setRandom(new Random(11));
+        int[] single = subject.selectIntIndices(dataset, 30);
+        subject.setThreads(4);
+        subject.setRandom(new Random(11));
+        assertArrayEquals(single, subject.selectIntIndices(dataset, 30));
+    }
+
+    @Test
+    public void testDuplicates() {
+        Dataset<Instance> data = new ArrayDataset<>(20, 1);
+        data.attributeBuilder().create("x", BasicAttrType.NUMERIC);
+        for (int i = 0; i < 20; i++) {
+            data.builder().create(new double[]{i % 2});
+        }
+        assertDistinct(subject.selectIntIndices(data, 5), 5, 20);
+    }
+
+    @Test
+    public void testOtherDistance() {
+        Dataset<? extends Instance> dataset = blobs(500, 4);
+        KMeansParallelSelection sel = new KMeansParallelSelection();
+        sel.setDistanceMeasure(new ManhattanDistance());
+        sel.setRounds(2);
+        assertDistinct(sel.selectIntIndices(dataset, 10), 10, dataset.size());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testBigK() {
+        Dataset<? extends Instance> dataset = blobs(150, 3);
+        subject.selectIntIndices(dataset, dataset.size() + 1);
+    }
+}
@@ -0,0 +1,238 @@
+package org.clueminer.hclust;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.clueminer.clustering.api.IncrementalScore;
+import org.clueminer.clustering.api.dendrogram.DendroNode;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class DendroCutTest {
+
+    /**
+     * Random monotone tree, each merge is higher than the previous one
+     *
+     * @param n number of leaves
+     * @param rand
+     * @return root
+     */
+    private DendroNode randomTree(int n, Random rand) {
+        List<DendroNode> active = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            active.add(new DLeaf(i));
+        }
+        double height = 0;
+        while (active.size() > 1) {
+            DendroNode left = active.remove(rand.nextInt(active.size()));
+            DendroNode right = active.remove(rand.nextInt(active.size()));
+            DendroNode node = new DTreeNode();
+            node.setLeft(left);
+            node.setRight(right);
+            height += rand.nextInt(3);
+            node.setHeight(height);
+            active.add(node);
+        }
+        return active.get(0);
+    }
+
+    /**
+     * Brute force cut, each maximal subtree not higher than cutoff is a
+     * cluster
+     */
+    private int collect(DendroNode node, double cutoff, int[] assign, int num) {
+        if (node.isLeaf() || node.getHeight() <= cutoff) {
+            fill(node, assign, num);
+            return num + 1;
+        }
+        num = collect(node.getLeft(), cutoff, assign, num);
+        return collect(node.getRight(), cutoff, assign, num);
+    }
+
+    private void fill(DendroNode node, int[] assign, int label) {
+        if (node.isLeaf()) {
+            assign[node.getId()] = label;
+        } else {
+            fill(node.getLeft(), assign, label);
+            fill(node.getRight(), assign, label);
+        }
+    }
+
+    private void assertSamePartition(int[] expected, int[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = i + 1; j < expected.length; j++) {
+                assertEquals(expected[i] == expected[j], actual[i] == actual[j]);
+            }
+        }
+    }
+
+    private int countLabels(int[] labels) {
+        int max = -1;
+        for (int l : labels) {
+            max = Math.max(max, l);
+        }
+        boolean[] used = new boolean[max + 1];
+        for (int l : labels) {
+            used[l] = true;
+        }
+        for (boolean u : used) {
+            assertTrue(u);
+        }
+        return max + 1;
+    }
+
+    @Test
+    public void testCutAt() {
+        int n = 50;
+        Random rand = new Random(42);
+        DendroNode root = randomTree(n, rand);
+        DendroCut subject = new DendroCut(root, false, n);
+        assertEquals(n, subject.maxClusters());
+        //go up and down, labels are updated incrementally
+        double[] cuts = new double[]{root.getHeight(), 10.5, 0.5, 20.5, -1, 3.5, 30.5, 5.0};
+        for (double cutoff : cuts) {
+            int[] expected = new int[n];
+            int k = collect(root, cutoff, expected, 0);
+            int[] labels = subject.cutAt(cutoff);
+            assertSamePartition(expected, labels);
+            assertEquals(k, subject.getNumClusters());
+            assertEquals(k, countLabels(labels));
+        }
+    }
+
+    @Test
+    public void testCut() {
+        int n = 30;
+        DendroNode root = randomTree(n, new Random(7));
+        DendroCut subject = new DendroCut(root, false, n);
+        int[][] up = new int[n + 1][];
+        for (int k = 1; k <= n; k++) {
+            up[k] = subject.cut(k).clone();
+            assertEquals(k, countLabels(up[k]));
+        }
+        //merging gives the same labels as splitting
+        for (int k = n; k >= 1; k--) {
+            assertArrayEquals(up[k], subject.cut(k));
+        }
+        assertSamePartition(new int[n], subject.cut(1));
+    }
+
+    /**
+     * Labels maintained only from notifications
+     */
+    private static class Mirror implements IncrementalScore {
+
+        private final int[] labels;
+        private int k = 1;
+
+        public Mirror(int n) {
+            labels = new int[n];
+        }
+
+        @Override
+        public void onSplit(int source, int[] moved) {
+            for (int i : moved) {
+                assertEquals(source, labels[i]);
+                labels[i] = k;
+            }
+            k++;
+        }
+
+        @Override
+        public void onMerge(int target, int source, int[] members) {
+            assertEquals(k - 1, source);
+            for (int i : members) {
+                assertEquals(source, labels[i]);
+                labels[i] = target;
+            }
+            k--;
+        }
+
+        @Override
+        public int size() {
+            return k;
+        }
+
+        @Override
+        public double score() {
+            return k;
+        }
+    }
+
+    @Test
+    public void testListener() {
+        int n = 40;
+        DendroNode root = randomTree(n, new Random(3));
+        DendroCut subject = new DendroCut(root, false, n);
+        Mirror mirror = new Mirror(n);
+        subject.setListener(mirror);
+        for (double cutoff : new double[]{15.5, 2.5, 30.5, 0.5, 9.5}) {
+            subject.cutAt(cutoff);
+            assertEquals(subject.getNumClusters(), mirror.size());
+            assertArrayEquals(subject.getLabels(), mirror.labels);
+        }
+    }
+
+    @Test
+    public void testLevelCutoff() {
+        //((0, 1), ((2, 3), 4))
+        DendroNode a = new DTreeNode();
+        a.setLeft(new DLeaf(0));
+        a.setRight(new DLeaf(1));
+        a.setHeight(1.0);
+        DendroNode b = new DTreeNode();
+        b.setLeft(new DLeaf(2));
+        b.setRight(new DLeaf(3));
+        b.setHeight(2.0);
+        DendroNode c = new DTreeNode();
+        c.setLeft(b);
+        c.setRight(new DLeaf(4));
+        c.setHeight(3.0);
+        DendroNode root = new DTreeNode(true);
+        root.setLeft(a);
+        root.setRight(c);
+        root.setHeight(5.0);
+
+        DendroCut subject = new DendroCut(root, false, 5);
+        assertEquals(root.level(), subject.levels());
+        assertEquals(0.5, subject.levelCutoff(0), 1e-9);
+        assertEquals(3.0, subject.levelCutoff(1), 1e-9);
+        assertEquals(4.0, subject.levelCutoff(2), 1e-9);
+        assertEquals(-1, subject.levelCutoff(4), 1e-9);
+
+        //smaller subtree gets the new label
+        assertArrayEquals(new int[]{1, 1, 0, 0, 0}, subject.cutByLevel(2));
+        subject.cutByLevel(1);
+        assertEquals(2, subject.getNumClusters());
+        subject.cutByLevel(0);
+        assertEquals(5, subject.getNumClusters());
+    }
+
+    @Test
+    public void testDeepTree() {
+        //chain of merges, too deep for recursive traversal
+        int n = 50000;
+        DendroNode node = new DLeaf(0);
+        for (int i = 1; i < n; i++) {
+            DendroNode parent = new DTreeNode();
+            parent.setLeft(node);
+            parent.setRight(new DLeaf(i));
+            parent.setHeight(i);
+            node = parent;
+        }
+        DendroCut subject = new DendroCut(node, false, n);
+        assertEquals(n - 1, subject.levels());
+        for (int k = 1; k <= n; k += 997) {
+            subject.cut(k);
+        }
+        int[] labels = subject.cutAt(n - 10.5);
+        assertEquals(11, subject.getNumClusters());
+        assertEquals(labels[0], labels[n - 11]);
+        assertTrue(labels[n - 10] != labels[n - 1]);
+    }
+}
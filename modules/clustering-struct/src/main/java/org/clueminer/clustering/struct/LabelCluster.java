@@ -0,0 +1,208 @@
+package org.clueminer.clustering.struct;
+
+import java.awt.Color;
+import java.util.Arrays;
+import org.clueminer.attributes.AttributeFactoryImpl;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.dataset.api.AttributeBuilder;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.api.InstanceBuilder;
+import org.clueminer.dataset.plugin.ArrayDataset;
+import org.clueminer.dataset.plugin.DoubleArrayFactory;
+import org.clueminer.stats.AttrNumStats;
+
+/**
+ * Cluster view materialized by {@link LabelClustering}. The view is a snapshot
+ * of clustering's labels at the time of its creation, membership is answered
+ * from the (sorted) indexes of its instances, so that it's consistent with
+ * its content even when labels change later on. Added instances and changes
+ * of cluster ID are written through to the labels of the clustering.
+ *
+ * @author Tomas Barton
+ * @param <E>
+ */
+public class LabelCluster<E extends Instance> extends ArrayDataset<E> implements Cluster<E> {
+
+    private static final long serialVersionUID = 2594187307153843014L;
+    private final LabelClustering<E> clustering;
+    /**
+     * indexes of instances, in ascending order when sorted is true
+     */
+    private int[] members;
+    private int cnt;
+    private boolean sorted = true;
+    private int clusterId;
+    private Color color;
+    private E centroid;
+
+    /**
+     *
+     * @param clustering owner of the labels
+     * @param clusterId label of this cluster
+     * @param members indexes of instances with given label (in ascending
+     * order)
+     */
+    LabelCluster(LabelClustering<E> clustering, int clusterId, int[] members) {
+        super(Math.max(1, members.length), clustering.getDataset().attributeCount());
+        Dataset<E> dataset = clustering.getDataset();
+        this.clustering = clustering;
+        this.members = members;
+        this.cnt = members.length;
+        this.clusterId = clusterId;
+        setAttributes(dataset.getAttributes());
+        for (int i : members) {
+            super.add(dataset.get(i));
+        }
+    }
+
+    /**
+     * Instance (from clustering's dataset) is moved to this cluster
+     *
+     * @param inst
+     * @return false when instance is already in this cluster
+     */
+    @Override
+    public boolean add(Instance inst) {
+        if (contains(inst.getIndex()) || !clustering.assign(inst.getIndex(), clusterId, this)) {
+            return false;
+        }
+        if (cnt == members.length) {
+            members = Arrays.copyOf(members, Math.max(4, cnt * 2));
+        }
+        if (cnt > 0 && members[cnt - 1] > inst.getIndex()) {
+            sorted = false;
+        }
+        members[cnt++] = inst.getIndex();
+        centroid = null;
+        return super.add(clustering.getDataset().get(inst.getIndex()));
+    }
+
+    @Override
+    public boolean contains(int origId) {
+        if (!sorted) {
+            Arrays.sort(members, 0, cnt);
+            sorted = true;
+        }
+        return Arrays.binarySearch(members, 0, cnt, origId) >= 0;
+    }
+
+    /**
+     * Cluster exchanges its label with the cluster which had given ID
+     *
+     * @param id
+     */
+    @Override
+    public void setClusterId(int id) {
+        clustering.relabel(clusterId, id, this);
+        clusterId = id;
+    }
+
+    @Override
+    public int getClusterId() {
+        return clusterId;
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.color = color;
+    }
+
+    /**
+     * Centroid is computed from stored cluster statistics
+     *
+     * @return artificial instance representing center of cluster
+     */
+    @Override
+    public E getCentroid() {
+        if (centroid == null) {
+            int attrCount = this.attributeCount();
+            if (attrCount == 0) {
+                throw new RuntimeException("number of attributes should not be 0");
+            }
+            Instance avg = this.builder().build(attrCount);
+            for (int i = 0; i < attrCount; i++) {
+                avg.set(i, getAttribute(i).statistics(AttrNumStats.AVG));
+            }
+            centroid = (E) avg;
+        }
+        return centroid;
+    }
+
+    @Override
+    public int countMutualElements(Cluster c) {
+        int mutual = 0;
+        for (Instance inst : this) {
+            if (c.contains(inst.getIndex())) {
+                mutual++;
+            }
+        }
+        return mutual;
+    }
+
+    @Override
+    public InstanceBuilder builder() {
+        if (builder == null) {
+            builder = new DoubleArrayFactory(this, '.');
+        }
+        return builder;
+    }
+
+    @Override
+    public AttributeBuilder attributeBuilder() {
+        if (attributeBuilder == null) {
+            attributeBuilder = new AttributeFactoryImpl<>(this);
+        }
+        return attributeBuilder;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LabelCluster ");
+        sb.append(getName());
+        sb.append(" (").append(size()).append(") ");
+        sb.append(" [ ");
+        for (int i = 0; i < this.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(this.get(i).getIndex());
+        }
+        sb.append(" ]");
+        return sb.toString();
+    }
+
+    /**
+     * Same as {@link BaseCluster}, doesn't depend on order of elements
+     *
+     * @return
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (E elem : this) {
+            hash += elem.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final LabelCluster<?> other = (LabelCluster<?>) obj;
+        if (this.size() != other.size()) {
+            return false;
+        }
+        return this.hashCode() == other.hashCode();
+    }
+}
@@ -0,0 +1,825 @@
+package org.clueminer.clustering.struct;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.clustering.api.Clustering;
+import org.clueminer.clustering.api.EvaluationTable;
+import org.clueminer.clustering.api.LabelProvider;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.utils.Props;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.AbstractLookup;
+import org.openide.util.lookup.InstanceContent;
+
+/**
+ * Lightweight hard clustering backed by a single array of labels, i-th item is
+ * index of cluster (starting from 0) of i-th instance in the dataset, negative
+ * value means that instance is not assigned (e.g. noise).
+ *
+ * Membership queries and cluster sizes don't require any objects per cluster.
+ * Cluster views ({@link LabelCluster}) and arrays of member indexes are
+ * materialized lazily, only when requested. Views are snapshots, after any
+ * change of labels new views are created. Instances added to a view (or a
+ * change of its ID) are written through to the labels.
+ *
+ * Instance's index (see {@link Instance#getIndex()}) is expected to be equal to
+ * its position in the dataset.
+ *
+ * @author Tomas Barton
+ * @param <E>
+ */
+public class LabelClustering<E extends Instance> implements Clustering<Cluster<E>>, LabelProvider {
+
+    private static final long serialVersionUID = -2906185137394837265L;
+    private final Dataset<E> dataset;
+    private int[] labels;
+    private int k;
+    private int[] sizes;
+    /**
+     * indexes of instances ordered by cluster, cluster c starts at offset[c]
+     */
+    private transient int[] order;
+    private transient int[] offset;
+    private transient LabelCluster<E>[] views;
+    private Props params;
+    private EvaluationTable table;
+    private String name;
+    //Lookup
+    private final transient InstanceContent instanceContent;
+    private final transient AbstractLookup lookup;
+
+    /**
+     * Number of clusters is given by the highest label
+     *
+     * @param dataset
+     * @param labels cluster index for each instance, array is not copied
+     */
+    public LabelClustering(Dataset<E> dataset, int[] labels) {
+        this(dataset, labels, maxLabel(labels) + 1);
+    }
+
+    /**
+     *
+     * @param dataset
+     * @param labels cluster index for each instance, array is not copied
+     * @param k number of clusters (some might be empty)
+     */
+    public LabelClustering(Dataset<E> dataset, int[] labels, int k) {
+        if (labels.length != dataset.size()) {
+            throw new IllegalArgumentException("expected " + dataset.size() + " labels, got " + labels.length);
+        }
+        this.dataset = dataset;
+        this.labels = labels;
+        this.k = k;
+        instanceContent = new InstanceContent();
+        lookup = new AbstractLookup(instanceContent);
+        params = new Props();
+        countSizes();
+        instanceContent.add(dataset);
+    }
+
+    private static int maxLabel(int[] labels) {
+        int max = -1;
+        for (int l : labels) {
+            if (l > max) {
+                max = l;
+            }
+        }
+        return max;
+    }
+
+    private void countSizes() {
+        sizes = new int[k];
+        for (int l : labels) {
+            if (l >= k) {
+                throw new IllegalArgumentException("label " + l + " is out of range, number of clusters: " + k);
+            }
+            if (l >= 0) {
+                sizes[l]++;
+            }
+        }
+        order = null;
+        offset = null;
+        views = null;
+    }
+
+    /**
+     * Group instance indexes by clusters (counting sort, O(n))
+     */
+    private void ensureOrder() {
+        if (order != null) {
+            return;
+        }
+        int[] off = new int[k + 1];
+        for (int c = 0; c < k; c++) {
+            off[c + 1] = off[c] + sizes[c];
+        }
+        int[] pos = Arrays.copyOf(off, k);
+        int[] ord = new int[off[k]];
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] >= 0) {
+                ord[pos[labels[i]]++] = i;
+            }
+        }
+        offset = off;
+        order = ord;
+    }
+
+    /**
+     * Labels are shared, changes of the array must be followed by
+     * {@link #setLabels(int[], int)}
+     *
+     * @return cluster index for each instance
+     */
+    @Override
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Replace all assignments, previously materialized clusters are discarded
+     *
+     * @param labels
+     * @param k number of clusters
+     */
+    public void setLabels(int[] labels, int k) {
+        if (labels.length != dataset.size()) {
+            throw new IllegalArgumentException("expected " + dataset.size() + " labels, got " + labels.length);
+        }
+        this.labels = labels;
+        this.k = k;
+        countSizes();
+        name = null;
+    }
+
+    public Dataset<E> getDataset() {
+        return dataset;
+    }
+
+    /**
+     *
+     * @param clusterIndex
+     * @return indexes of instances in given cluster (in ascending order)
+     */
+    public int[] members(int clusterIndex) {
+        ensureOrder();
+        return Arrays.copyOfRange(order, offset[clusterIndex], offset[clusterIndex + 1]);
+    }
+
+    /**
+     *
+     * @param clusterIndex
+     * @return number of instances in given cluster
+     */
+    public int clusterSize(int clusterIndex) {
+        return sizes[clusterIndex];
+    }
+
+    @Override
+    public String getName() {
+        if (name == null) {
+            name = fingerprint();
+        }
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public int size() {
+        return k;
+    }
+
+    /**
+     * Cluster view is created on first access
+     *
+     * @param i
+     * @return
+     */
+    @Override
+    public Cluster<E> get(int i) {
+        if (views == null) {
+            views = new LabelCluster[k];
+        }
+        if (views[i] == null) {
+            LabelCluster<E> c = new LabelCluster<>(this, i, members(i));
+            c.setName("cluster " + (i + 1));
+            views[i] = c;
+        }
+        return views[i];
+    }
+
+    @Override
+    public Cluster<E> get(String label) {
+        for (int i = 0; i < k; i++) {
+            if (getClusterLabel(i).equals(label)) {
+                return get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Assign all instances of given cluster to a new cluster
+     *
+     * @param d
+     */
+    @Override
+    public void put(Cluster<? extends Instance> d) {
+        put(k, (Cluster) d);
+    }
+
+    /**
+     * Reassign all instances of given cluster to cluster with given index
+     *
+     * @param index
+     * @param d
+     */
+    @Override
+    public void put(int index, Cluster<Instance> d) {
+        if (index < 0) {
+            throw new IllegalArgumentException("invalid cluster index " + index);
+        }
+        //labels are changed only when all instances belong to the dataset
+        for (Instance inst : d) {
+            checkIndex(inst.getIndex());
+        }
+        if (index >= k) {
+            k = index + 1;
+        }
+        for (Instance inst : d) {
+            labels[inst.getIndex()] = index;
+        }
+        countSizes();
+        name = null;
+    }
+
+    private void checkIndex(int instanceId) {
+        if (instanceId < 0 || instanceId >= labels.length) {
+            throw new IllegalArgumentException("instance index " + instanceId + " is out of range, dataset size: " + labels.length);
+        }
+    }
+
+    /**
+     * Move single instance to given cluster, called by cluster view which is
+     * updated by itself (other views of affected clusters are discarded)
+     *
+     * @param instanceId
+     * @param clusterIndex
+     * @param view cluster which is being modified
+     * @return false when instance is already in given cluster
+     */
+    boolean assign(int instanceId, int clusterIndex, LabelCluster<E> view) {
+        checkIndex(instanceId);
+        if (clusterIndex < 0 || clusterIndex >= k) {
+            throw new IllegalArgumentException("cluster " + clusterIndex + " doesn't exist, number of clusters: " + k);
+        }
+        int old = labels[instanceId];
+        if (old == clusterIndex) {
+            return false;
+        }
+        labels[instanceId] = clusterIndex;
+        if (old >= 0) {
+            sizes[old]--;
+        }
+        sizes[clusterIndex]++;
+        order = null;
+        offset = null;
+        if (views != null) {
+            if (old >= 0) {
+                views[old] = null;
+            }
+            if (views[clusterIndex] != view) {
+                views[clusterIndex] = null;
+            }
+        }
+        name = null;
+        return true;
+    }
+
+    /**
+     * Clusters with given indexes exchange their instances, number of
+     * clusters grows when target index is not used yet
+     *
+     * @param from
+     * @param to
+     * @param view cluster which is being moved
+     */
+    void relabel(int from, int to, LabelCluster<E> view) {
+        if (to < 0) {
+            throw new IllegalArgumentException("invalid cluster index " + to);
+        }
+        if (from == to) {
+            return;
+        }
+        if (to >= k) {
+            k = to + 1;
+        }
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == from) {
+                labels[i] = to;
+            } else if (labels[i] == to) {
+                labels[i] = from;
+            }
+        }
+        boolean current = views != null && from < views.length && views[from] == view;
+        countSizes();
+        if (current) {
+            views = new LabelCluster[k];
+            views[to] = view;
+        }
+        name = null;
+    }
+
+    @Override
+    public boolean hasAt(int index) {
+        return index >= 0 && index < k;
+    }
+
+    /**
+     * Instances of all given clusters are assigned to the first one (which is
+     * added when it's not part of this clustering), merged clusters are
+     * removed
+     *
+     * @param datasets
+     */
+    @Override
+    public void merge(Cluster<Instance>... datasets) {
+        if (datasets.length == 0) {
+            return;
+        }
+        int target = indexOf(datasets[0]);
+        if (target < 0) {
+            put(datasets[0]);
+            target = k - 1;
+        }
+        //clusters are identified before any label changes
+        boolean[] drop = new boolean[k];
+        int idx;
+        for (int i = 1; i < datasets.length; i++) {
+            idx = indexOf(datasets[i]);
+            if (idx >= 0 && idx != target) {
+                drop[idx] = true;
+            }
+        }
+        for (int i = 1; i < datasets.length; i++) {
+            for (Instance inst : datasets[i]) {
+                checkIndex(inst.getIndex());
+            }
+        }
+        for (int i = 1; i < datasets.length; i++) {
+            for (Instance inst : datasets[i]) {
+                labels[inst.getIndex()] = target;
+            }
+        }
+        removeClusters(drop);
+    }
+
+    /**
+     *
+     * @param o
+     * @return index of equal cluster or -1
+     */
+    private int indexOf(Object o) {
+        if (o instanceof Cluster) {
+            for (int i = 0; i < k; i++) {
+                if (get(i).equals(o)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Instances of removed clusters are unassigned, remaining clusters are
+     * renumbered (keeping their order)
+     *
+     * @param drop clusters to remove
+     */
+    private void removeClusters(boolean[] drop) {
+        int[] map = new int[k];
+        int next = 0;
+        for (int c = 0; c < k; c++) {
+            map[c] = drop[c] ? -1 : next++;
+        }
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] >= 0) {
+                labels[i] = map[labels[i]];
+            }
+        }
+        k = next;
+        countSizes();
+        name = null;
+    }
+
+    @Override
+    public String getClusterLabel(int i) {
+        if (views != null && views[i] != null) {
+            return views[i].getName();
+        }
+        return "cluster " + (i + 1);
+    }
+
+    @Override
+    public int instancesCount() {
+        int cnt = 0;
+        for (int s : sizes) {
+            cnt += s;
+        }
+        return cnt;
+    }
+
+    /**
+     * Iterates over instances cluster by cluster, same order as
+     * {@link #instance(int)}
+     *
+     * @return
+     */
+    @Override
+    public Iterator<Instance> instancesIterator() {
+        ensureOrder();
+        return new Iterator<Instance>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < order.length;
+            }
+
+            @Override
+            public Instance next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return dataset.get(order[i++]);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Not supported.");
+            }
+        };
+    }
+
+    /**
+     * Average of cluster centroids (same as {@link ClusterList}), computed
+     * directly from the dataset
+     *
+     * @return
+     */
+    @Override
+    public Instance getCentroid() {
+        int d = dataset.attributeCount();
+        double[] sum = new double[k * d];
+        Instance inst;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] >= 0) {
+                inst = dataset.get(i);
+                for (int j = 0; j < d; j++) {
+                    sum[labels[i] * d + j] += inst.value(j);
+                }
+            }
+        }
+        Instance centroid = dataset.builder().build(d);
+        int nonEmpty = 0;
+        double[] avg = new double[d];
+        for (int c = 0; c < k; c++) {
+            if (sizes[c] > 0) {
+                nonEmpty++;
+                for (int j = 0; j < d; j++) {
+                    avg[j] += sum[c * d + j] / sizes[c];
+                }
+            }
+        }
+        for (int j = 0; j < d; j++) {
+            centroid.set(j, nonEmpty > 0 ? avg[j] / nonEmpty : 0.0);
+        }
+        return centroid;
+    }
+
+    /**
+     * Instances are ordered by clusters
+     *
+     * @param i
+     * @return i-th instance in the clustering
+     */
+    @Override
+    public Instance instance(int i) {
+        ensureOrder();
+        return dataset.get(order[i]);
+    }
+
+    @Override
+    public int[] clusterSizes() {
+        return Arrays.copyOf(sizes, k);
+    }
+
+    /**
+     * O(1) lookup in label array
+     *
+     * @param instanceId
+     * @return cluster index or -1 when instance is not assigned
+     */
+    @Override
+    public int assignedCluster(int instanceId) {
+        if (instanceId < 0 || instanceId >= labels.length || labels[instanceId] < 0) {
+            return -1;
+        }
+        return labels[instanceId];
+    }
+
+    @Override
+    public Cluster<? extends Instance> assignedCluster(Instance inst) {
+        int c = assignedCluster(inst.getIndex());
+        return c < 0 ? null : get(c);
+    }
+
+    /**
+     * Same as {@link ClusterList}, an existing cluster with given index is
+     * replaced by an empty one (its instances are unassigned)
+     *
+     * @param clusterIndex
+     * @return empty cluster
+     */
+    @Override
+    public Cluster<? extends Instance> createCluster(int clusterIndex) {
+        if (clusterIndex < 0) {
+            throw new IllegalArgumentException("invalid cluster index " + clusterIndex);
+        }
+        if (clusterIndex >= k) {
+            k = clusterIndex + 1;
+        } else {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == clusterIndex) {
+                    labels[i] = -1;
+                }
+            }
+        }
+        countSizes();
+        name = null;
+        return get(clusterIndex);
+    }
+
+    @Override
+    public Cluster<? extends Instance> createCluster() {
+        return createCluster(k);
+    }
+
+    @Override
+    public Cluster<? extends Instance> createCluster(int clusterIndex, int capacity) {
+        return createCluster(clusterIndex);
+    }
+
+    @Override
+    public Lookup getLookup() {
+        return lookup;
+    }
+
+    @Override
+    public void lookupAdd(Object instance) {
+        instanceContent.add(instance);
+    }
+
+    @Override
+    public void lookupRemove(Object instance) {
+        instanceContent.remove(instance);
+    }
+
+    @Override
+    public Props getParams() {
+        return params;
+    }
+
+    @Override
+    public void setParams(Props params) {
+        this.params = params;
+    }
+
+    @Override
+    public void mergeParams(Props other) {
+        params.merge(other);
+    }
+
+    @Override
+    public EvaluationTable getEvaluationTable() {
+        return table;
+    }
+
+    @Override
+    public void setEvaluationTable(EvaluationTable table) {
+        this.table = table;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return sorted cluster sizes, same format as {@link ClusterList}
+     */
+    @Override
+    public String fingerprint() {
+        int[] s = clusterSizes();
+        Arrays.sort(s);
+        StringBuilder b = new StringBuilder();
+        b.append('[');
+        for (int i = 0; i < s.length; i++) {
+            if (i > 0) {
+                b.append(',');
+            }
+            b.append(s[i]);
+        }
+        return b.append(']').toString();
+    }
+
+    @Override
+    public Iterator<Cluster<E>> iterator() {
+        return new Iterator<Cluster<E>>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public Cluster<E> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Cannot remove from clustering using the iterator.");
+            }
+        };
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return k == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Cluster) {
+            for (Cluster c : this) {
+                if (c.equals(o)) {
+                    return true;
+                }
+            }
+        } else if (o instanceof Instance) {
+            Instance inst = (Instance) o;
+            int idx = inst.getIndex();
+            return assignedCluster(idx) >= 0 && dataset.get(idx).equals(inst);
+        }
+        return false;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] res = new Object[k];
+        for (int i = 0; i < k; i++) {
+            res[i] = get(i);
+        }
+        return res;
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        T[] res = a.length >= k ? a : Arrays.copyOf(a, k);
+        for (int i = 0; i < k; i++) {
+            res[i] = (T) get(i);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean add(Cluster<E> e) {
+        put(e);
+        return true;
+    }
+
+    /**
+     * Instances of the cluster are unassigned, following clusters are
+     * renumbered
+     *
+     * @param o
+     * @return
+     */
+    @Override
+    public boolean remove(Object o) {
+        int idx = indexOf(o);
+        if (idx < 0) {
+            return false;
+        }
+        boolean[] drop = new boolean[k];
+        drop[idx] = true;
+        removeClusters(drop);
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object elem : c) {
+            if (!contains(elem)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Cluster<E>> c) {
+        for (Cluster<E> e : c) {
+            put(e);
+        }
+        return !c.isEmpty();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean[] drop = new boolean[k];
+        boolean changed = false;
+        int idx;
+        for (Object o : c) {
+            idx = indexOf(o);
+            if (idx >= 0) {
+                drop[idx] = true;
+                changed = true;
+            }
+        }
+        if (changed) {
+            removeClusters(drop);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        boolean[] drop = new boolean[k];
+        boolean changed = false;
+        for (int i = 0; i < k; i++) {
+            if (!c.contains(get(i))) {
+                drop[i] = true;
+                changed = true;
+            }
+        }
+        if (changed) {
+            removeClusters(drop);
+        }
+        return changed;
+    }
+
+    /**
+     * Unassign all instances
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(labels, -1);
+        k = 0;
+        countSizes();
+        name = null;
+    }
+
+    @Override
+    public String toString() {
+        return "LabelClustering(" + size() + ")" + getName();
+    }
+
+    /**
+     * Same as {@link ClusterList}, sum of instance hashes in all clusters
+     *
+     * @return
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] >= 0) {
+                hash += dataset.get(i).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final LabelClustering<?> other = (LabelClustering<?>) obj;
+        return this.k == other.k && this.dataset == other.dataset && Arrays.equals(this.labels, other.labels);
+    }
+}
@@ -0,0 +1,188 @@
+package org.clueminer.clustering.struct;
+
+import java.util.Arrays;
+import org.clueminer.clustering.api.Cluster;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.benchmark.DatasetGenerator;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class LabelClusteringTest {
+
+    private static final double delta = 1e-9;
+
+    @Test
+    public void testAssignments() {
+        Dataset<Instance> data = DatasetGenerator.line(7, 1, 2);
+        int[] labels = new int[]{0, 1, 2, 1, -1, 0, 1};
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, labels);
+        assertEquals(3, clustering.size());
+        assertEquals(6, clustering.instancesCount());
+        assertArrayEquals(new int[]{2, 3, 1}, clustering.clusterSizes());
+        assertEquals(1, clustering.assignedCluster(3));
+        assertEquals(-1, clustering.assignedCluster(4));
+        assertNull(clustering.assignedCluster(data.get(4)));
+        assertArrayEquals(new int[]{1, 3, 6}, clustering.members(1));
+        assertEquals("[1,2,3]", clustering.fingerprint());
+        assertSame(data, clustering.getLookup().lookup(Dataset.class));
+
+        //instances are ordered by clusters
+        int[] expected = new int[]{0, 5, 1, 3, 6, 2};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], clustering.instance(i).getIndex());
+        }
+    }
+
+    @Test
+    public void testClusterView() {
+        Dataset<Instance> data = DatasetGenerator.line(6, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 1, 0, 1, 0, 1});
+        Cluster<Instance> c = clustering.get(1);
+        assertSame(c, clustering.get(1));
+        assertSame(c, clustering.get("cluster 2"));
+        assertSame(c, clustering.assignedCluster(data.get(5)));
+        assertEquals(1, c.getClusterId());
+        assertEquals(3, c.size());
+        assertTrue(c.contains(3));
+        assertFalse(c.contains(2));
+        assertEquals(3.0, c.getCentroid().value(0), delta);
+        assertEquals(6.0, c.getCentroid().value(1), delta);
+        assertEquals(0, c.countMutualElements(clustering.get(0)));
+        //average of cluster centroids
+        assertEquals(2.5, clustering.getCentroid().value(0), delta);
+    }
+
+    @Test
+    public void testPut() {
+        Dataset<Instance> data = DatasetGenerator.line(4, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 0, 0, 0});
+        BaseCluster<Instance> c = new BaseCluster<>(2, 2);
+        c.add(data.get(1));
+        c.add(data.get(3));
+        clustering.put(c);
+        assertEquals(2, clustering.size());
+        assertArrayEquals(new int[]{2, 2}, clustering.clusterSizes());
+        assertEquals(1, clustering.assignedCluster(3));
+        assertArrayEquals(new int[]{0, 1, 0, 1}, clustering.getLabels());
+    }
+
+    @Test
+    public void testViewAfterPut() {
+        Dataset<Instance> data = DatasetGenerator.line(4, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 0, 0, 0});
+        Cluster<Instance> old = clustering.get(0);
+        BaseCluster<Instance> c = new BaseCluster<>(1, 2);
+        c.add(data.get(2));
+        clustering.put(c);
+        //previous view is a consistent snapshot
+        assertEquals(4, old.size());
+        assertTrue(old.contains(2));
+        //new view reflects current labels
+        Cluster<Instance> current = clustering.get(0);
+        assertEquals(3, current.size());
+        assertFalse(current.contains(2));
+        for (Instance inst : current) {
+            assertTrue(current.contains(inst.getIndex()));
+        }
+        assertTrue(clustering.get(1).contains(2));
+    }
+
+    @Test
+    public void testMerge() {
+        Dataset<Instance> data = DatasetGenerator.line(6, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 1, 2, 3, 2, 1});
+        clustering.merge(clustering.get(1), clustering.get(3), clustering.get(0));
+        assertEquals(2, clustering.size());
+        assertArrayEquals(new int[]{0, 0, 1, 0, 1, 0}, clustering.getLabels());
+        assertArrayEquals(new int[]{4, 2}, clustering.clusterSizes());
+        assertArrayEquals(new int[]{0, 1, 3, 5}, clustering.members(0));
+        assertEquals(6, clustering.instancesCount());
+    }
+
+    @Test
+    public void testRemove() {
+        Dataset<Instance> data = DatasetGenerator.line(6, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 1, 2, 0, 1, 2});
+        assertFalse(clustering.remove(new BaseCluster<>(1, 2)));
+        assertTrue(clustering.remove(clustering.get(1)));
+        assertEquals(2, clustering.size());
+        assertArrayEquals(new int[]{0, -1, 1, 0, -1, 1}, clustering.getLabels());
+        assertEquals(4, clustering.instancesCount());
+        assertNull(clustering.assignedCluster(data.get(1)));
+        assertTrue(clustering.get(1).contains(5));
+    }
+
+    @Test
+    public void testRemoveAllRetainAll() {
+        Dataset<Instance> data = DatasetGenerator.line(8, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 1, 2, 3, 0, 1, 2, 3});
+        assertTrue(clustering.removeAll(Arrays.asList(clustering.get(0), clustering.get(2))));
+        assertArrayEquals(new int[]{-1, 0, -1, 1, -1, 0, -1, 1}, clustering.getLabels());
+        assertFalse(clustering.removeAll(Arrays.asList(new BaseCluster<>(1, 2))));
+
+        assertFalse(clustering.retainAll(Arrays.asList(clustering.get(0), clustering.get(1))));
+        assertTrue(clustering.retainAll(Arrays.asList(clustering.get(1))));
+        assertEquals(1, clustering.size());
+        assertArrayEquals(new int[]{-1, -1, -1, 0, -1, -1, -1, 0}, clustering.getLabels());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutOutOfRange() {
+        Dataset<Instance> data = DatasetGenerator.line(4, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 0, 0, 0});
+        Dataset<Instance> other = DatasetGenerator.line(6, 1, 2);
+        BaseCluster<Instance> c = new BaseCluster<>(1, 2);
+        c.add(other.get(5));
+        clustering.put(c);
+    }
+
+    @Test
+    public void testCreateCluster() {
+        Dataset<Instance> data = DatasetGenerator.line(4, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 0, 1, 1});
+        Cluster<Instance> c = (Cluster<Instance>) clustering.createCluster();
+        assertEquals(3, clustering.size());
+        assertEquals(2, c.getClusterId());
+        assertEquals(0, c.size());
+        assertTrue(c.add(data.get(1)));
+        assertFalse(c.add(data.get(1)));
+        assertTrue(c.add(data.get(0)));
+        assertEquals(2, c.size());
+        assertTrue(c.contains(0));
+        assertSame(c, clustering.get(2));
+        assertArrayEquals(new int[]{2, 2, 1, 1}, clustering.getLabels());
+        assertArrayEquals(new int[]{0, 2, 2}, clustering.clusterSizes());
+        assertEquals(0, clustering.get(0).size());
+
+        //existing cluster is replaced by an empty one
+        c = (Cluster<Instance>) clustering.createCluster(1, 10);
+        assertEquals(0, c.size());
+        assertArrayEquals(new int[]{2, 2, -1, -1}, clustering.getLabels());
+        assertEquals(2, clustering.instancesCount());
+    }
+
+    @Test
+    public void testSetClusterId() {
+        Dataset<Instance> data = DatasetGenerator.line(4, 1, 2);
+        LabelClustering<Instance> clustering = new LabelClustering<>(data, new int[]{0, 1, 1, 0});
+        Cluster<Instance> c = clustering.get(0);
+        c.setClusterId(1);
+        assertEquals(1, c.getClusterId());
+        assertArrayEquals(new int[]{1, 0, 0, 1}, clustering.getLabels());
+        assertSame(c, clustering.get(1));
+        assertTrue(clustering.get(0).contains(2));
+
+        c.setClusterId(3);
+        assertEquals(4, clustering.size());
+        assertArrayEquals(new int[]{3, 0, 0, 3}, clustering.getLabels());
+        assertArrayEquals(new int[]{2, 0, 0, 2}, clustering.clusterSizes());
+        c.add(data.get(1));
+        assertEquals(3, clustering.assignedCluster(1));
+        assertEquals(3, c.size());
+    }
+}
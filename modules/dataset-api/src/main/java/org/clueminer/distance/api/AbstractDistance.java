@@ -83,9 +83,26 @@ public abstract class AbstractDistance implements DistanceMeasure {
         return columns(matrix, e1, e2) * factor;
     }
 
+    @Override
+    public double measure(double[] x, double[] y) {
+        checkInput(x, y);
+        return measure(x, 0, y, 0, x.length);
+    }
+
+    @Override
+    public double measure(double[] data, int offA, int offB, int dim) {
+        return measure(data, offA, data, offB, dim);
+    }
+
     protected void checkInput(Vector<Double> x, Vector<Double> y) {
         if (x.size() != y.size()) {
             throw new ArithmeticException("Both instances should contain the same number of values! x size: " + x.size() + " != y size: " + y.size());
         }
     }
+
+    protected void checkInput(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new ArithmeticException("Both instances should contain the same number of values! x size: " + x.length + " != y size: " + y.length);
+        }
+    }
 }
@@ -33,6 +33,42 @@ public interface DistanceMeasure extends Serializable {
      */
     public double measure(Vector<Double> x, Vector<Double> y, double[] weights);
 
+    /**
+     * Calculates the distance between two vectors stored in primitive arrays.
+     * Result should be the same as for
+     * {@link #measure(org.clueminer.math.Vector, org.clueminer.math.Vector)},
+     * but values are not boxed, no objects are allocated.
+     *
+     * @param x the first vector
+     * @param y the second vector
+     * @return the distance between the two vectors
+     */
+    public double measure(double[] x, double[] y);
+
+    /**
+     * Calculates the distance between two vectors stored in one array (e.g.
+     * row-major matrix) starting at given offsets.
+     *
+     * @param data array containing both vectors
+     * @param offA offset of the first vector
+     * @param offB offset of the second vector
+     * @param dim  number of values in each vector
+     * @return the distance between the two vectors
+     */
+    public double measure(double[] data, int offA, int offB, int dim);
+
+    /**
+     * Calculates the distance between parts of two arrays
+     *
+     * @param x    array containing the first vector
+     * @param offX offset of the first vector in {@code x}
+     * @param y    array containing the second vector
+     * @param offY offset of the second vector in {@code y}
+     * @param dim  number of values in each vector
+     * @return the distance between the two vectors
+     */
+    public double measure(double[] x, int offX, double[] y, int offY, int dim);
+
     /**
      * Returns whether the first distance, similarity or correlation is better
      * than the second distance (similarity, correlation, etc.)
@@ -0,0 +1,132 @@
+package org.clueminer.dataset.benchmark;
+
+import java.util.Random;
+import org.clueminer.attributes.BasicAttrType;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.plugin.ArrayDataset;
+
+/**
+ * Reproducible synthetic datasets for tests (all values are generated from a
+ * seed). Attributes are numeric and named "x0", "x1", ...
+ *
+ * @author Tomas Barton
+ */
+public class DatasetGenerator {
+
+    /**
+     * Instances uniformly distributed in a hypercube, without class labels
+     *
+     * @param n number of instances
+     * @param d number of attributes
+     * @param scale each value is from range [0, scale)
+     * @param seed
+     * @return
+     */
+    public static Dataset<Instance> uniform(int n, int d, double scale, long seed) {
+        Random rand = new Random(seed);
+        Dataset<Instance> data = empty(n, d);
+        double[] values;
+        for (int i = 0; i < n; i++) {
+            values = new double[d];
+            for (int j = 0; j < d; j++) {
+                values[j] = scale * rand.nextDouble();
+            }
+            data.builder().create(values);
+        }
+        return data;
+    }
+
+    /**
+     * Gaussian blobs with given means. i-th instance belongs to blob
+     * {@code i % means.length}, its class label is "c" followed by blob
+     * index.
+     *
+     * @param n number of instances
+     * @param means center of each blob
+     * @param dev standard deviation of each attribute
+     * @param seed
+     * @return
+     */
+    public static Dataset<Instance> blobs(int n, double[][] means, double dev, long seed) {
+        Random rand = new Random(seed);
+        int d = means[0].length;
+        Dataset<Instance> data = empty(n, d);
+        double[] values;
+        int c;
+        for (int i = 0; i < n; i++) {
+            c = i % means.length;
+            values = new double[d];
+            for (int j = 0; j < d; j++) {
+                values[j] = means[c][j] + dev * rand.nextGaussian();
+            }
+            data.builder().create(values, "c" + c);
+        }
+        return data;
+    }
+
+    /**
+     * Gaussian blobs with centers uniformly distributed in a hypercube, see
+     * {@link #blobs(int, double[][], double, long)}
+     *
+     * @param n number of instances
+     * @param d number of attributes
+     * @param centers number of blobs
+     * @param spread each coordinate of a center is from range [0, spread)
+     * @param dev standard deviation of each attribute
+     * @param seed
+     * @return
+     */
+    public static Dataset<Instance> blobs(int n, int d, int centers, double spread, double dev, long seed) {
+        Random rand = new Random(seed);
+        double[][] means = new double[centers][d];
+        for (int c = 0; c < centers; c++) {
+            for (int j = 0; j < d; j++) {
+                means[c][j] = spread * rand.nextDouble();
+            }
+        }
+        return blobs(n, means, dev, seed + 1);
+    }
+
+    /**
+     * Evenly spaced instances on a line through the origin, i-th instance is
+     * {@code i * direction}
+     *
+     * @param n number of instances
+     * @param direction values of the instance with index 1
+     * @return
+     */
+    public static Dataset<Instance> line(int n, double... direction) {
+        Dataset<Instance> data = empty(n, direction.length);
+        double[] values;
+        for (int i = 0; i < n; i++) {
+            values = new double[direction.length];
+            for (int j = 0; j < direction.length; j++) {
+                values[j] = i * direction[j];
+            }
+            data.builder().create(values);
+        }
+        return data;
+    }
+
+    /**
+     *
+     * @param dataset
+     * @return values of the dataset, one row per instance
+     */
+    public static double[][] toArray(Dataset<? extends Instance> dataset) {
+        double[][] res = new double[dataset.size()][];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = dataset.get(i).arrayCopy();
+        }
+        return res;
+    }
+
+    private static Dataset<Instance> empty(int n, int d) {
+        Dataset<Instance> data = new ArrayDataset<>(n, d);
+        for (int j = 0; j < d; j++) {
+            data.attributeBuilder().create("x" + j, BasicAttrType.NUMERIC);
+        }
+        return data;
+    }
+}
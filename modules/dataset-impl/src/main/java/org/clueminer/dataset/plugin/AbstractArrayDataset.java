@@ -99,6 +99,18 @@ public abstract class AbstractArrayDataset<E extends Instance> implements Datase
         eventListenerList().add(DatasetListener.class, listener);
     }
 
+    /**
+     * Notify listeners that instances or their values were modified
+     */
+    protected void fireDatasetChanged() {
+        if (datasetListener != null) {
+            DatasetEvent evt = new DatasetEvent(this, this);
+            for (DatasetListener listener : datasetListener.getListeners(DatasetListener.class)) {
+                listener.datasetChanged(evt);
+            }
+        }
+    }
+
     /**
      * @{@inheritDoc }
      * @param instanceIdx
@@ -109,6 +121,7 @@ public abstract class AbstractArrayDataset<E extends Instance> implements Datase
     public void set(int instanceIdx, int attrIdx, double value) {
         if (attrIdx > -1) {
             instance(instanceIdx).set(attrIdx, value);
+            fireDatasetChanged();
         } else {
             throw new RuntimeException("Invalid attribute index: " + attrIdx);
         }
@@ -104,6 +104,18 @@ public abstract class AbstractDataset<E extends Instance> extends ArrayList<E> i
         eventListenerList().add(DatasetListener.class, listener);
     }
 
+    /**
+     * Notify listeners that instances or their values were modified
+     */
+    protected void fireDatasetChanged() {
+        if (datasetListener != null) {
+            DatasetEvent evt = new DatasetEvent(this, this);
+            for (DatasetListener listener : datasetListener.getListeners(DatasetListener.class)) {
+                listener.datasetChanged(evt);
+            }
+        }
+    }
+
     @Override
     public double[][] arrayCopy() {
         double[][] res = new double[this.size()][attributeCount()];
@@ -131,6 +143,7 @@ public abstract class AbstractDataset<E extends Instance> extends ArrayList<E> i
     public void set(int instanceIdx, int attrIdx, double value) {
         if (attrIdx > -1) {
             instance(instanceIdx).set(attrIdx, value);
+            fireDatasetChanged();
         } else {
             throw new RuntimeException("Invalid attribute index: " + attrIdx);
         }
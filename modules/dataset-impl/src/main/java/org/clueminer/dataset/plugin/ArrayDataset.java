@@ -85,6 +85,7 @@ public class ArrayDataset<E extends Instance> extends AbstractArrayDataset<E> im
             inst.setIndex(n);
         }
         n++;
+        fireDatasetChanged();
         return true;
     }
 
@@ -370,6 +371,7 @@ public class ArrayDataset<E extends Instance> extends AbstractArrayDataset<E> im
             n = instanceIdx + 1;
         }
         data[instanceIdx] = inst;
+        fireDatasetChanged();
         return inst;
     }
 
@@ -0,0 +1,928 @@
+package org.clueminer.dataset.plugin;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.swing.JComponent;
+import org.clueminer.attributes.AttributeFactoryImpl;
+import org.clueminer.attributes.BasicAttrType;
+import org.clueminer.dataset.api.Attribute;
+import org.clueminer.dataset.api.AttributeBuilder;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.api.InstanceBuilder;
+import org.clueminer.math.Matrix;
+import org.clueminer.stats.AttrNumStats;
+import org.clueminer.stats.NumericalStats;
+import org.clueminer.utils.DenseMatrix;
+import org.math.plot.Plot2DPanel;
+
+/**
+ * Dataset which keeps all values in a single contiguous array (row-major
+ * order). Value of i-th instance and j-th attribute is stored at
+ * <code>i * stride + j</code>.
+ *
+ * Instances returned from this dataset are just lightweight views
+ * ({@link DenseRow}) into the shared array, metadata (class, id, name) are
+ * kept in parallel arrays. Thus there's no per-instance array and distance
+ * functions might work directly on {@link #getArray()} using
+ * {@link #offset(int)}.
+ *
+ * - instances added via {@link #add(Instance)} are copied into the storage,
+ * reference to the original object is not kept
+ *
+ * @author Tomas Barton
+ * @param <E>
+ */
+public class DenseDataset<E extends Instance> extends AbstractArrayDataset<E> implements Dataset<E> {
+
+    private static final long serialVersionUID = -1460426950221447003L;
+    /**
+     * all values, row-major order
+     */
+    private double[] data;
+    /**
+     * number of allocated columns for each row
+     */
+    private int stride;
+    /**
+     * number of allocated rows
+     */
+    private int capacity;
+    /**
+     * index of next empty position in each row (same as size of a row)
+     */
+    private int[] last;
+    private Object[] classValue;
+    private String[] ids;
+    private String[] names;
+    private int[] index;
+    /**
+     * rarely used metadata are allocated on demand
+     */
+    private Color[] colors;
+    private Instance[] ancestors;
+    private double[][] meta;
+    protected InstanceBuilder builder;
+    protected AttributeBuilder attributeBuilder;
+    private final TreeSet<Object> classes = new TreeSet<>();
+    protected Attribute[] attributes;
+    private int attrCnt = 0;
+    /**
+     * current number of instances in this dataset
+     */
+    private int n = 0;
+
+    public DenseDataset(int instancesCapacity, int attributesCnt) {
+        attributes = new Attribute[attributesCnt];
+        stride = Math.max(attributesCnt, 1);
+        allocate(Math.max(instancesCapacity, 1));
+    }
+
+    /**
+     * Construct dataset from a 2D array, values are copied into the internal
+     * storage
+     *
+     * @param inputData
+     */
+    public DenseDataset(double[][] inputData) {
+        this(inputData.length, inputData[0].length);
+        //create atributes for input data
+        for (int j = 0; j < inputData[0].length; j++) {
+            attributeBuilder().create("attr_" + j, BasicAttrType.NUMERIC);
+        }
+        for (double[] row : inputData) {
+            addRow(row, 0, row.length);
+        }
+    }
+
+    private void allocate(int rows) {
+        long req = (long) rows * stride;
+        if (req > Integer.MAX_VALUE) {
+            throw new RuntimeException("dataset of size " + rows + " x " + stride + " can't be stored in a single array");
+        }
+        data = new double[(int) req];
+        capacity = rows;
+        last = new int[rows];
+        classValue = new Object[rows];
+        ids = new String[rows];
+        names = new String[rows];
+        index = new int[rows];
+    }
+
+    /**
+     * Direct access to the internal storage (no copy is made). Note that the
+     * reference might change when the dataset grows.
+     *
+     * @return array holding all values in row-major order
+     */
+    public double[] getArray() {
+        return data;
+    }
+
+    /**
+     * Number of allocated values per row, might be greater than number of
+     * attributes
+     *
+     * @return distance between two consecutive rows in {@link #getArray()}
+     */
+    public int stride() {
+        return stride;
+    }
+
+    /**
+     * Position of the first value of given instance in {@link #getArray()}
+     *
+     * @param instanceIdx
+     * @return
+     */
+    public int offset(int instanceIdx) {
+        return instanceIdx * stride;
+    }
+
+    /**
+     * Append a new empty row
+     *
+     * @return view of the new row
+     */
+    E appendRow() {
+        ensureCapacity(n);
+        classValue[n] = null;
+        ids[n] = null;
+        names[n] = null;
+        index[n] = n;
+        last[n] = 0;
+        Arrays.fill(data, offset(n), offset(n) + stride, 0.0);
+        n++;
+        fireDatasetChanged();
+        return get(n - 1);
+    }
+
+    /**
+     * Append a new row with given values
+     *
+     * @param values
+     * @param from   first index in values
+     * @param len    number of values to copy
+     * @return view of the new row
+     */
+    public E addRow(double[] values, int from, int len) {
+        E inst = appendRow();
+        int row = n - 1;
+        ensureStride(len);
+        System.arraycopy(values, from, data, offset(row), len);
+        last[row] = len;
+        for (int j = 0; j < len && j < attrCnt; j++) {
+            attributes[j].updateStatistics(values[from + j]);
+        }
+        fireDatasetChanged();
+        return inst;
+    }
+
+    @Override
+    public SortedSet<Object> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Values of given instance are copied into the dataset, the instance
+     * itself is not referenced
+     *
+     * @param inst
+     * @return
+     */
+    @Override
+    public boolean add(Instance inst) {
+        appendRow();
+        copyRow(n - 1, inst);
+        //update attribute's statistics
+        for (int i = 0; i < attributeCount(); i++) {
+            attributes[i].updateStatistics(inst.get(i));
+        }
+        if (inst.classValue() != null) {
+            changedClass(null, inst.classValue(), inst);
+        }
+        return true;
+    }
+
+    private void copyRow(int row, Instance inst) {
+        int size = inst.size();
+        ensureStride(size);
+        int off = offset(row);
+        for (int j = 0; j < size; j++) {
+            data[off + j] = inst.get(j);
+        }
+        Arrays.fill(data, off + size, off + stride, 0.0);
+        last[row] = size;
+        classValue[row] = inst.classValue();
+        ids[row] = inst.getId();
+        names[row] = inst.getName();
+        if (inst.getIndex() >= 0) {
+            index[row] = inst.getIndex();
+        }
+        if (inst.getColor() != null) {
+            setColor(row, inst.getColor());
+        }
+        if (inst.getMetaNum() != null) {
+            setMetaNum(row, inst.getMetaNum());
+        }
+        fireDatasetChanged();
+    }
+
+    /**
+     * @{@inheritDoc }
+     * @param instanceIdx
+     * @param attrIdx
+     * @param value
+     */
+    @Override
+    public final void set(int instanceIdx, int attrIdx, double value) {
+        if (attrIdx < 0) {
+            throw new RuntimeException("Invalid attribute index: " + attrIdx);
+        }
+        if (instanceIdx == n) {
+            appendRow();
+        } else if (!hasIndex(instanceIdx)) {
+            throw new ArrayIndexOutOfBoundsException("can't get instance at position: " + instanceIdx);
+        }
+        setValue(instanceIdx, attrIdx, value);
+        if (attrIdx < attributes.length && attributes[attrIdx] != null) {
+            //update statistics
+            //TODO might be outdated if we're rewriting same index
+            attributes[attrIdx].updateStatistics(value);
+        }
+    }
+
+    @Override
+    public boolean addAll(Dataset<? extends E> d) {
+        Iterator<? extends E> it = d.iterator();
+        while (it.hasNext()) {
+            add(it.next());
+        }
+        return !it.hasNext();
+    }
+
+    @Override
+    public E instance(int index) {
+        if (hasIndex(index)) {
+            return get(index);
+        } else if (index == size()) {
+            return appendRow();
+        }
+        throw new ArrayIndexOutOfBoundsException("can't get instance at position: " + index);
+    }
+
+    @Override
+    public boolean hasIndex(int idx) {
+        return idx >= 0 && idx < n;
+    }
+
+    @Override
+    public E getRandom(Random rand) {
+        return get(rand.nextInt(n));
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    /**
+     *
+     * @return true when dataset is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+
+    @Override
+    public int classIndex(Object clazz) {
+        if (clazz != null) {
+            return this.getClasses().headSet(clazz).size();
+        } else {
+            return -1;
+        }
+    }
+
+    @Override
+    public Object classValue(int index) {
+        int i = 0;
+        for (Object o : this.classes) {
+            if (i == index) {
+                return o;
+            }
+            i++;
+        }
+        return null;
+    }
+
+    @Override
+    public void changedClass(Object orig, Object current, Instance source) {
+        if (current != null) {
+            if (!classes.contains(current)) {
+                classes.add(current);
+            }
+        }
+    }
+
+    @Override
+    public InstanceBuilder builder() {
+        if (builder == null) {
+            builder = new DenseRowFactory(this, '.');
+        }
+        return builder;
+    }
+
+    @Override
+    public AttributeBuilder attributeBuilder() {
+        if (attributeBuilder == null) {
+            attributeBuilder = new AttributeFactoryImpl<>(this);
+        }
+        return attributeBuilder;
+    }
+
+    /**
+     * Real attribute count, doesn't include null attributes
+     *
+     * @return actual number of attributes
+     */
+    @Override
+    public int attributeCount() {
+        return attrCnt;
+    }
+
+    @Override
+    public Attribute getAttribute(int i) {
+        return attributes[i];
+    }
+
+    @Override
+    public Attribute getAttribute(String attributeName) {
+        for (int i = 0; i < attrCnt; i++) {
+            if (attributes[i].getName().equals(attributeName)) {
+                return attributes[i];
+            }
+        }
+        throw new RuntimeException("Attribute with name " + attributeName + " was not found");
+    }
+
+    @Override
+    public void setAttribute(int i, Attribute attr) {
+        attr.setIndex(i);
+        attr.setDataset(this);
+        ensureAttrSize(i);
+        if (attributes[i] == null) {
+            attrCnt++;
+        }
+        attributes[i] = attr;
+        ensureStride(attrCnt);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param attr
+     */
+    @Override
+    public void addAttribute(Attribute attr) {
+        setAttribute(attributeCount(), attr);
+    }
+
+    public final void ensureAttrSize(int reqAttrSize) {
+        if (reqAttrSize >= attributes.length) {
+            int cap = (int) (reqAttrSize * 1.618); //golden ratio :)
+            if (cap <= reqAttrSize) {
+                cap = reqAttrSize + 1; // for small numbers due to int rounding we wouldn't increase the size
+            }
+            Attribute[] tmp = new Attribute[cap];
+            System.arraycopy(attributes, 0, tmp, 0, attrCnt);
+            attributes = tmp;
+        }
+    }
+
+    /**
+     * Make sure each row has space for at least <code>cols</code> values. When
+     * the stride changes all rows has to be moved.
+     *
+     * @param cols
+     */
+    public final void ensureStride(int cols) {
+        if (cols > stride) {
+            int newStride = Math.max(cols, attributes.length);
+            long req = (long) capacity * newStride;
+            if (req > Integer.MAX_VALUE) {
+                throw new RuntimeException("dataset of size " + capacity + " x " + newStride + " can't be stored in a single array");
+            }
+            double[] tmp = new double[(int) req];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(data, i * stride, tmp, i * newStride, stride);
+            }
+            data = tmp;
+            stride = newStride;
+        }
+    }
+
+    /**
+     * Array might have free allocated space for new attributes, so copy just
+     * {attrCnt} attributes
+     *
+     * @return reference to attribute map
+     */
+    @Override
+    public Map<Integer, Attribute> getAttributes() {
+        Map<Integer, Attribute> res = new HashMap<>();
+        for (int i = 0; i < attrCnt; i++) {
+            res.put(i, attributes[i]);
+        }
+        return res;
+    }
+
+    @Override
+    public Attribute[] copyAttributes() {
+        Attribute[] copy = new Attribute[attributeCount()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = (Attribute) getAttribute(i).clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Deep copy of dataset
+     *
+     * @return
+     */
+    @Override
+    public Dataset<E> copy() {
+        DenseDataset<E> out = (DenseDataset<E>) duplicate();
+        out.ensureCapacity(n);
+        out.ensureStride(stride);
+        for (int i = 0; i < n; i++) {
+            out.add(get(i));
+        }
+        return out;
+    }
+
+    @Override
+    public double[][] arrayCopy() {
+        int cols = this.attributeCount();
+        if (cols <= 0) {
+            throw new ArrayIndexOutOfBoundsException("given dataset has width " + cols);
+        }
+        double[][] res = new double[this.size()][cols];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(data, offset(i), res[i], 0, Math.min(cols, last[i]));
+        }
+        return res;
+    }
+
+    @Override
+    public double getAttributeValue(String attributeName, int instanceIdx) {
+        return getAttributeValue(getAttribute(attributeName), instanceIdx);
+    }
+
+    @Override
+    public double getAttributeValue(Attribute attribute, int instanceIdx) {
+        return get(instanceIdx, attribute.getIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param instanceIdx
+     * @param attributeIndex
+     * @return
+     */
+    @Override
+    public double get(int instanceIdx, int attributeIndex) {
+        return getValue(instanceIdx, attributeIndex);
+    }
+
+    /**
+     * Values of given instance are copied into the row with given index
+     *
+     * @param instanceIdx
+     * @param inst
+     * @return view of the row
+     */
+    @Override
+    public E set(int instanceIdx, E inst) {
+        ensureCapacity(instanceIdx);
+        while (n <= instanceIdx) {
+            appendRow();
+        }
+        copyRow(instanceIdx, inst);
+        if (inst.classValue() != null) {
+            changedClass(null, inst.classValue(), inst);
+        }
+        return get(instanceIdx);
+    }
+
+    @Override
+    public void setAttributes(Map<Integer, Attribute> attrs) {
+        ensureAttrSize(attrs.size());
+        Attribute attr;
+        for (Entry<Integer, Attribute> entry : attrs.entrySet()) {
+            //deep copy to avoid unexpected behaviour
+            attr = (Attribute) entry.getValue().clone();
+            if (attr.isNumerical()) {
+                attr.registerStatistics(new NumericalStats(attr));
+            }
+            attr.resetStats();
+            this.setAttribute(entry.getKey(), attr);
+        }
+    }
+
+    @Override
+    public void setAttributeValue(String attributeName, int instanceIdx, double value) {
+        set(instanceIdx, getAttribute(attributeName).getIndex(), value);
+    }
+
+    @Override
+    public JComponent getPlotter() {
+        Plot2DPanel plot = new Plot2DPanel();
+
+        double[] x = new double[this.size()];
+        double[] y = new double[this.size()];
+        for (int j = 0; j < this.size(); j++) {
+            x[j] = get(j, 0);
+            y[j] = get(j, 1);
+        }
+        plot.addScatterPlot(getName(), x, y);
+        return plot;
+    }
+
+    /**
+     * Copies attributes but not data itself
+     *
+     * @return copy of dataset structure
+     */
+    @Override
+    public Dataset<E> duplicate() {
+        DenseDataset<E> copy = new DenseDataset<>(this.size(), this.attributeCount());
+        for (int i = 0; i < attrCnt; i++) {
+            Attribute attribute = attributes[i];
+            if (attribute == null) {
+                throw new RuntimeException("null attribute at position " + i);
+            }
+            copy.attributeBuilder().create(attribute.getName(), BasicAttrType.NUMERIC, attribute.getRole());
+        }
+        copy.setParent(this);
+        return copy;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        for (E inst : c) {
+            add(inst);
+        }
+        return !c.isEmpty();
+    }
+
+    /**
+     * Returns a view of i-th row, a new (lightweight) object is created on
+     * each call
+     *
+     * @param index
+     * @return
+     */
+    @Override
+    public E get(int index) {
+        if (!hasIndex(index)) {
+            throw new ArrayIndexOutOfBoundsException("can't get instance at position: " + index);
+        }
+        return (E) new DenseRow(this, index);
+    }
+
+    @Override
+    public void ensureCapacity(int req) {
+        if (req >= getCapacity()) {
+            int cap = (int) (n * 1.618); //golden ratio :)
+            if (cap <= req) {
+                cap = req + 1; // for small numbers due to int rounding we wouldn't increase the size
+            }
+            long size = (long) cap * stride;
+            if (size > Integer.MAX_VALUE) {
+                throw new RuntimeException("dataset of size " + cap + " x " + stride + " can't be stored in a single array");
+            }
+            data = Arrays.copyOf(data, (int) size);
+            last = Arrays.copyOf(last, cap);
+            classValue = Arrays.copyOf(classValue, cap);
+            ids = Arrays.copyOf(ids, cap);
+            names = Arrays.copyOf(names, cap);
+            index = Arrays.copyOf(index, cap);
+            if (colors != null) {
+                colors = Arrays.copyOf(colors, cap);
+            }
+            if (ancestors != null) {
+                ancestors = Arrays.copyOf(ancestors, cap);
+            }
+            if (meta != null) {
+                meta = Arrays.copyOf(meta, cap);
+            }
+            capacity = cap;
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Index of a row, either given view or a row with same values
+     *
+     * @param o
+     * @return index of the first occurrence or -1
+     */
+    public int indexOf(Object o) {
+        if (o instanceof DenseRow && ((DenseRow) o).getParent() == this) {
+            return ((DenseRow) o).row();
+        }
+        if (o instanceof Instance) {
+            Instance inst = (Instance) o;
+            for (int i = 0; i < n; i++) {
+                if (sameValues(i, inst)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean sameValues(int row, Instance inst) {
+        if (last[row] != inst.size()) {
+            return false;
+        }
+        int off = offset(row);
+        for (int j = 0; j < last[row]; j++) {
+            if (Double.compare(data[off + j], inst.get(j)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] res = new Object[n];
+        for (int i = 0; i < n; i++) {
+            res[i] = get(i);
+        }
+        return res;
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        T[] res = a.length >= n ? a : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), n);
+        for (int i = 0; i < n; i++) {
+            res[i] = (T) get(i);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public void clear() {
+        n = 0;
+        classes.clear();
+        resetStats();
+    }
+
+    @Override
+    public double min() {
+        double min = Double.POSITIVE_INFINITY, curr;
+        Attribute attribute;
+        for (int i = 0; i < attrCnt; i++) {
+            attribute = attributes[i];
+            if (attribute == null) {
+                throw new RuntimeException("got null attribute");
+            }
+            curr = attribute.statistics(AttrNumStats.MIN);
+            if (curr < min) {
+                min = curr;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public double max() {
+        double max = Double.NEGATIVE_INFINITY, curr;
+        Attribute attribute;
+        for (int i = 0; i < attrCnt; i++) {
+            attribute = attributes[i];
+            if (attribute == null) {
+                throw new RuntimeException("got null attribute");
+            }
+            curr = attribute.statistics(AttrNumStats.MAX);
+            if (curr > max) {
+                max = curr;
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public void resetStats() {
+        Attribute attribute;
+        for (int i = 0; i < attrCnt; i++) {
+            attribute = attributes[i];
+            if (attribute == null) {
+                throw new RuntimeException("got null attribute");
+            }
+            attribute.resetStats();
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return matrix backed by the internal array (no copy is made)
+     */
+    @Override
+    public Matrix asMatrix() {
+        if (matrix == null) {
+            matrix = new DenseMatrix(this);
+        }
+        return matrix;
+    }
+
+    /* row level accessors used by DenseRow */
+    double getValue(int row, int col) {
+        if (col < 0 || col >= last[row]) {
+            return Double.NaN;
+        }
+        return data[row * stride + col];
+    }
+
+    void setValue(int row, int col, double value) {
+        if (col >= stride) {
+            ensureStride((int) (col * 1.618) + 1);
+        }
+        if (col >= last[row]) {
+            last[row] = col + 1;
+        }
+        data[row * stride + col] = value;
+        fireDatasetChanged();
+    }
+
+    int put(int row, double value) {
+        int col = last[row];
+        setValue(row, col, value);
+        return col;
+    }
+
+    int rowSize(int row) {
+        return last[row];
+    }
+
+    Object getClassValue(int row) {
+        return classValue[row];
+    }
+
+    void setClassValue(int row, Object value, Instance source) {
+        changedClass(classValue[row], value, source);
+        classValue[row] = value;
+    }
+
+    String getId(int row) {
+        return ids[row];
+    }
+
+    void setId(int row, String id) {
+        ids[row] = id;
+    }
+
+    String getName(int row) {
+        return names[row];
+    }
+
+    void setName(int row, String name) {
+        names[row] = name;
+    }
+
+    int getIndex(int row) {
+        return index[row];
+    }
+
+    void setIndex(int row, int idx) {
+        index[row] = idx;
+    }
+
+    Color getColor(int row) {
+        return colors == null ? null : colors[row];
+    }
+
+    void setColor(int row, Color c) {
+        if (colors == null) {
+            colors = new Color[capacity];
+        }
+        colors[row] = c;
+    }
+
+    Instance getAncestor(int row) {
+        return ancestors == null ? null : ancestors[row];
+    }
+
+    void setAncestor(int row, Instance inst) {
+        if (ancestors == null) {
+            ancestors = new Instance[capacity];
+        }
+        ancestors[row] = inst;
+    }
+
+    double[] getMetaNum(int row) {
+        return meta == null ? null : meta[row];
+    }
+
+    void setMetaNum(int row, double[] values) {
+        if (meta == null) {
+            meta = new double[capacity][];
+        }
+        meta[row] = values;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("DenseDataset(size= " + size() + ", attrSize= " + attributeCount() + ") [");
+        Instance inst;
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                str.append(", ");
+            }
+            if (i % 3 == 0) {
+                str.append("\n ");
+            }
+            inst = get(i);
+            str.append(inst.classValue());
+            str.append(" {").append(inst.getIndex()).append("}");
+            str.append(": ").append(inst.toString());
+        }
+        str.append("\n ]");
+        return str.toString();
+    }
+
+    class DenseDatasetIterator implements Iterator<Instance> {
+
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size();
+        }
+
+        @Override
+        public Instance next() {
+            index++;
+            return get(index - 1);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Cannot remove from dataset using the iterator.");
+
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return (Iterator<E>) new DenseDatasetIterator();
+    }
+}
@@ -0,0 +1,380 @@
+package org.clueminer.dataset.plugin;
+
+import java.awt.Color;
+import java.util.Iterator;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.api.Plotter;
+import org.clueminer.dataset.row.DoubleArrayDataRow;
+import org.clueminer.math.Vector;
+
+/**
+ * Flyweight view of a single row in {@link DenseDataset}. The view holds just
+ * a reference to the dataset and row number, both values and metadata are
+ * stored in the dataset.
+ *
+ * Two views are equal when they point to the same row of the same dataset.
+ *
+ * @author Tomas Barton
+ */
+public class DenseRow implements Instance<Double>, Iterable<Double>, Vector<Double> {
+
+    private static final long serialVersionUID = 3185094755281436367L;
+    private final DenseDataset<? extends Instance> dataset;
+    private final int row;
+
+    DenseRow(DenseDataset<? extends Instance> dataset, int row) {
+        this.dataset = dataset;
+        this.row = row;
+    }
+
+    /**
+     * Row number in the parent dataset
+     *
+     * @return
+     */
+    public int row() {
+        return row;
+    }
+
+    /**
+     * Shared storage of all values in parent dataset
+     *
+     * @return array which is not copied
+     */
+    public double[] getArray() {
+        return dataset.getArray();
+    }
+
+    /**
+     * Position of first value of this instance in {@link #getArray()}
+     *
+     * @return
+     */
+    public int getOffset() {
+        return dataset.offset(row);
+    }
+
+    @Override
+    public String getId() {
+        return dataset.getId(row);
+    }
+
+    @Override
+    public void setId(String id) {
+        dataset.setId(row, id);
+    }
+
+    @Override
+    public String getName() {
+        String name = dataset.getName(row);
+        if (name == null && classValue() != null) {
+            return classValue().toString();
+        }
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        dataset.setName(row, name);
+    }
+
+    @Override
+    public int getIndex() {
+        return dataset.getIndex(row);
+    }
+
+    @Override
+    public void setIndex(int i) {
+        dataset.setIndex(row, i);
+    }
+
+    @Override
+    public String getFullName() {
+        StringBuilder sb = new StringBuilder();
+        if (getId() != null) {
+            sb.append(getId()).append(" - ");
+        }
+        return sb.append(getName()).toString();
+    }
+
+    @Override
+    public int put(double value) {
+        return dataset.put(row, value);
+    }
+
+    @Override
+    public void remove(int i) {
+        throw new UnsupportedOperationException("Can't remove value from a dense row.");
+    }
+
+    @Override
+    public double value(int index) {
+        return dataset.getValue(row, index);
+    }
+
+    @Override
+    public double get(int index) {
+        return dataset.getValue(row, index);
+    }
+
+    @Override
+    public Double getValue(int index) {
+        return dataset.getValue(row, index);
+    }
+
+    @Override
+    public void set(int index, double value) {
+        dataset.setValue(row, index, value);
+    }
+
+    @Override
+    public void set(int index, Number value) {
+        dataset.setValue(row, index, value.doubleValue());
+    }
+
+    @Override
+    public int size() {
+        return dataset.rowSize(row);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        dataset.ensureStride(capacity);
+    }
+
+    @Override
+    public int getCapacity() {
+        return size();
+    }
+
+    @Override
+    public Object classValue() {
+        return dataset.getClassValue(row);
+    }
+
+    @Override
+    public void setClassValue(Object obj) {
+        dataset.setClassValue(row, obj, this);
+    }
+
+    @Override
+    public Color getColor() {
+        return dataset.getColor(row);
+    }
+
+    @Override
+    public void setColor(Color c) {
+        dataset.setColor(row, c);
+    }
+
+    /**
+     * Detached copy of the row
+     *
+     * @return
+     */
+    @Override
+    public Instance copy() {
+        DoubleArrayDataRow copy = new DoubleArrayDataRow(arrayCopy());
+        copy.setId(getId());
+        copy.setIndex(getIndex());
+        copy.setClassValue(classValue());
+        return copy;
+    }
+
+    @Override
+    public double[] arrayCopy() {
+        double[] res = new double[size()];
+        System.arraycopy(dataset.getArray(), getOffset(), res, 0, res.length);
+        return res;
+    }
+
+    @Override
+    public String[] toStringArray() {
+        String[] res = new String[size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = String.valueOf(get(i));
+        }
+        return res;
+    }
+
+    @Override
+    public double[] getMetaNum() {
+        return dataset.getMetaNum(row);
+    }
+
+    @Override
+    public void setMetaNum(double[] meta) {
+        dataset.setMetaNum(row, meta);
+    }
+
+    @Override
+    public Instance getAncestor() {
+        return dataset.getAncestor(row);
+    }
+
+    @Override
+    public void setAncestor(Instance instance) {
+        dataset.setAncestor(row, instance);
+    }
+
+    @Override
+    public Plotter getPlotter() {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    /**
+     * View can't be moved to another dataset, use {@link #copy()} instead
+     *
+     * @param parent
+     */
+    @Override
+    public void setParent(Dataset<? extends Instance> parent) {
+        if (parent != dataset) {
+            throw new UnsupportedOperationException("dense row can't change its parent");
+        }
+    }
+
+    @Override
+    public Dataset<? extends Instance> getParent() {
+        return dataset;
+    }
+
+    @Override
+    public double magnitude() {
+        double m = 0, d;
+        double[] data = dataset.getArray();
+        int off = getOffset();
+        for (int i = 0; i < size(); i++) {
+            d = data[off + i];
+            m += d * d;
+        }
+        return Math.sqrt(m);
+    }
+
+    @Override
+    public double dot(Vector v) {
+        if (this.size() != v.size()) {
+            throw new ArithmeticException("Vectors must have the same length" + this.size() + " != " + v.size());
+        }
+        double dot = 0.0;
+        for (int i = 0; i < this.size(); i++) {
+            dot += this.get(i) * v.get(i);
+        }
+        return dot;
+    }
+
+    @Override
+    public double pNorm(double p) {
+        double norm = 0;
+        for (int i = 0; i < size(); i++) {
+            norm += Math.pow(Math.abs(get(i)), p);
+        }
+        return Math.pow(norm, 1.0 / p);
+    }
+
+    @Override
+    public Vector<Double> add(Vector<Double> other) {
+        if (this.size() != other.size()) {
+            throw new IllegalArgumentException("Vectors of different sizes cannot be added");
+        }
+        Vector<Double> res = duplicate();
+        for (int i = 0; i < this.size(); i++) {
+            res.set(i, get(i) + other.get(i));
+        }
+        return res;
+    }
+
+    @Override
+    public Vector<Double> add(double num) {
+        Vector<Double> res = duplicate();
+        for (int i = 0; i < this.size(); i++) {
+            res.set(i, this.get(i) + num);
+        }
+        return res;
+    }
+
+    @Override
+    public Vector<Double> subtract(double num) {
+        Vector<Double> res = duplicate();
+        for (int i = 0; i < this.size(); i++) {
+            res.set(i, this.get(i) - num);
+        }
+        return res;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Vector<Double> duplicate() {
+        return new DoubleArrayDataRow(this.size());
+    }
+
+    @Override
+    public Iterator<? extends Object> values() {
+        return iterator();
+    }
+
+    @Override
+    public Iterator<Double> iterator() {
+        return new Iterator<Double>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public Double next() {
+                return get(index++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Cannot remove from instance using the iterator.");
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + System.identityHashCode(dataset);
+        hash = 31 * hash + row;
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final DenseRow other = (DenseRow) obj;
+        return this.dataset == other.dataset && this.row == other.row;
+    }
+
+    @Override
+    public String toString() {
+        return this.toString(",");
+    }
+
+    @Override
+    public String toString(String separator) {
+        StringBuilder result = new StringBuilder("DenseRow").append("(").append(size()).append(")[");
+        for (int i = 0; i < size(); i++) {
+            result.append(i == 0 ? "" : separator).append(get(i));
+        }
+        result.append("]");
+        return result.toString();
+    }
+}
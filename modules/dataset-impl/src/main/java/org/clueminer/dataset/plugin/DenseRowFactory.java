@@ -0,0 +1,107 @@
+package org.clueminer.dataset.plugin;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.clueminer.dataset.api.Attribute;
+import org.clueminer.dataset.api.DataRow;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.row.Tools;
+import org.clueminer.exception.EscapeException;
+
+/**
+ * Creates rows directly in the storage of {@link DenseDataset}. Methods
+ * <code>create*</code> return a view of newly appended row, while
+ * <code>build*</code> methods (inherited) return detached instances which
+ * will be copied into the dataset once added.
+ *
+ * @author Tomas Barton
+ * @param <E>
+ */
+public class DenseRowFactory<E extends Instance> extends DoubleArrayFactory<E> {
+
+    private final DenseDataset<E> dataset;
+    private char decimalPointCharacter = '.';
+
+    public DenseRowFactory(DenseDataset<E> dataset) {
+        super(dataset);
+        this.dataset = dataset;
+    }
+
+    public DenseRowFactory(DenseDataset<E> dataset, char decimalPointCharacter) {
+        super(dataset, decimalPointCharacter);
+        this.dataset = dataset;
+        this.decimalPointCharacter = decimalPointCharacter;
+    }
+
+    @Override
+    public E create() {
+        return dataset.appendRow();
+    }
+
+    @Override
+    public E create(int size) {
+        dataset.ensureStride(size);
+        return dataset.appendRow();
+    }
+
+    @Override
+    public E create(double[] values) {
+        return dataset.addRow(values, 0, values.length);
+    }
+
+    @Override
+    public E create(double[] values, Object classValue) {
+        E row = create(values);
+        row.setClassValue(classValue);
+        return row;
+    }
+
+    @Override
+    public E create(double[] values, String classValue) {
+        E row = create(values);
+        row.setClassValue(classValue);
+        return row;
+    }
+
+    @Override
+    public E create(String[] strings, Attribute[] attributes) {
+        E row = create(strings.length);
+        for (int i = 0; i < strings.length; i++) {
+            if (strings[i] != null) {
+                strings[i] = strings[i].trim();
+            }
+            if ((strings[i] != null) && (strings[i].length() > 0) && (!strings[i].equals("?"))) {
+                if (attributes[i].isNominal()) {
+                    try {
+                        String unescaped = Tools.unescape(strings[i]);
+                        row.set(attributes[i].getIndex(), attributes[i].getMapping().mapString(unescaped));
+                    } catch (EscapeException ex) {
+                        Logger.getLogger(DenseRowFactory.class.getName()).log(Level.SEVERE, null, ex);
+                    }
+                } else {
+                    row.set(attributes[i].getIndex(), string2Double(strings[i], this.decimalPointCharacter));
+                }
+            } else {
+                row.set(attributes[i].getIndex(), Double.NaN);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Rows of dense dataset are not {@link DataRow}s
+     *
+     * @param data
+     * @param attributes
+     * @return never
+     */
+    @Override
+    public DataRow create(Object[] data, Attribute[] attributes) {
+        throw new UnsupportedOperationException("use create(String[], Attribute[]) instead");
+    }
+
+    @Override
+    public DataRow create(Double[] data, Attribute[] attributes) {
+        throw new UnsupportedOperationException("use create(double[]) instead");
+    }
+}
@@ -219,7 +219,7 @@ public class DoubleArrayFactory<E extends Instance> implements InstanceBuilder<E
         return dataRow;
     }
 
-    private static double string2Double(String str, char decimalPointCharacter) {
+    protected static double string2Double(String str, char decimalPointCharacter) {
 
         if (str == null) {
             return Double.NaN;
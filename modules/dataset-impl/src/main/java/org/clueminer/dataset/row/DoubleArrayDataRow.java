@@ -297,6 +297,16 @@ public class DoubleArrayDataRow extends DataRow<Double> implements Iterable<Doub
         return copy;
     }
 
+    /**
+     * Access the internal array (no copy is made). Note that the array might
+     * be longer than {@link #size()}, values beyond are not valid.
+     *
+     * @return array holding values of this instance
+     */
+    public double[] getArray() {
+        return data;
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -7,8 +7,10 @@ import org.apache.commons.math3.stat.StatUtils;
 import org.clueminer.dataset.api.Attribute;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.plugin.DenseRow;
 import org.clueminer.dataset.row.DoubleArrayDataRow;
 import org.clueminer.dataset.row.SparseInstance;
+import org.clueminer.distance.api.DistanceMeasure;
 import org.clueminer.math.Standardisation;
 
 /**
@@ -275,6 +277,30 @@ final public class DatasetTools {
         throw new ArrayIndexOutOfBoundsException("empty dataset - dimensions " + m + " x " + n);
     }
 
+    /**
+     * Computes distance between two instances. When both instances are backed
+     * by a primitive array, unboxed version of the distance function is used
+     * (no copy of data is made).
+     *
+     * @param dm distance function
+     * @param x  the first instance
+     * @param y  the second instance
+     * @return distance between {@code x} and {@code y}
+     */
+    public static double measure(DistanceMeasure dm, Instance x, Instance y) {
+        if (x instanceof DoubleArrayDataRow && y instanceof DoubleArrayDataRow
+                && x.size() == y.size()) {
+            return dm.measure(((DoubleArrayDataRow) x).getArray(), 0,
+                    ((DoubleArrayDataRow) y).getArray(), 0, x.size());
+        }
+        if (x instanceof DenseRow && y instanceof DenseRow && x.size() == y.size()) {
+            DenseRow a = (DenseRow) x;
+            DenseRow b = (DenseRow) y;
+            return dm.measure(a.getArray(), a.getOffset(), b.getArray(), b.getOffset(), x.size());
+        }
+        return dm.measure(x, y);
+    }
+
     public static Dataset<? extends Instance> shuffle(Dataset<? extends Instance> input) {
         Dataset<Instance> out = (Dataset<Instance>) input.copy();
         Random rnd = new Random();
@@ -0,0 +1,344 @@
+package org.clueminer.utils;
+
+import org.clueminer.dataset.plugin.DenseDataset;
+import org.clueminer.math.Matrix;
+import org.clueminer.math.matrix.AbstractMatrix;
+import org.clueminer.math.matrix.JMatrix;
+
+/**
+ * Matrix backed directly by the row-major array of a {@link DenseDataset}, no
+ * data are copied. Changes in the matrix are visible in the dataset and vice
+ * versa.
+ *
+ * Operations producing a new matrix return a {@link JMatrix}, in place
+ * operations modify the dataset.
+ *
+ * @author Tomas Barton
+ */
+public class DenseMatrix extends AbstractMatrix implements Matrix {
+
+    private static final long serialVersionUID = -2911850702870364108L;
+    private final DenseDataset<?> dataset;
+
+    public DenseMatrix(DenseDataset<?> dataset) {
+        this.dataset = dataset;
+    }
+
+    /**
+     * Shared row-major storage, i-th row starts at position
+     * <code>i * stride()</code>
+     *
+     * @return internal array of the dataset
+     */
+    public double[] getData() {
+        return dataset.getArray();
+    }
+
+    public int stride() {
+        return dataset.stride();
+    }
+
+    @Override
+    public double[][] getArray() {
+        return getArrayCopy();
+    }
+
+    @Override
+    public double[][] getArrayCopy() {
+        int m = rowsCount();
+        int n = columnsCount();
+        double[][] res = new double[m][n];
+        double[] data = dataset.getArray();
+        int stride = dataset.stride();
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(data, i * stride, res[i], 0, n);
+        }
+        return res;
+    }
+
+    @Override
+    public int rowsCount() {
+        return dataset.size();
+    }
+
+    @Override
+    public int columnsCount() {
+        return dataset.attributeCount();
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return dataset.getArray()[i * dataset.stride() + j];
+    }
+
+    @Override
+    public void set(int i, int j, double s) {
+        dataset.getArray()[i * dataset.stride() + j] = s;
+    }
+
+    @Override
+    public boolean has(int i, int j) {
+        return i < rowsCount() && j < columnsCount() && i >= 0 && j >= 0;
+    }
+
+    @Override
+    public Matrix copy() {
+        return new JMatrix(getArrayCopy());
+    }
+
+    @Override
+    public double[] getColumnPackedCopy() {
+        int m = rowsCount();
+        int n = columnsCount();
+        double[] vals = new double[m * n];
+        double[] data = dataset.getArray();
+        int stride = dataset.stride();
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                vals[i + j * m] = data[i * stride + j];
+            }
+        }
+        return vals;
+    }
+
+    @Override
+    public double[] getRowPackedCopy() {
+        int m = rowsCount();
+        int n = columnsCount();
+        double[] vals = new double[m * n];
+        double[] data = dataset.getArray();
+        int stride = dataset.stride();
+        if (stride == n) {
+            System.arraycopy(data, 0, vals, 0, vals.length);
+        } else {
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(data, i * stride, vals, i * n, n);
+            }
+        }
+        return vals;
+    }
+
+    @Override
+    public Matrix transpose() {
+        return copy().transpose();
+    }
+
+    @Override
+    public Matrix getMatrix(int i0, int i1, int j0, int j1) {
+        Matrix X = new JMatrix(i1 - i0 + 1, j1 - j0 + 1);
+        for (int i = i0; i <= i1; i++) {
+            for (int j = j0; j <= j1; j++) {
+                X.set(i - i0, j - j0, get(i, j));
+            }
+        }
+        return X;
+    }
+
+    @Override
+    public Matrix getMatrix(int[] r, int[] c) {
+        Matrix X = new JMatrix(r.length, c.length);
+        for (int i = 0; i < r.length; i++) {
+            for (int j = 0; j < c.length; j++) {
+                X.set(i, j, get(r[i], c[j]));
+            }
+        }
+        return X;
+    }
+
+    @Override
+    public Matrix getMatrix(int i0, int i1, int[] c) {
+        Matrix X = new JMatrix(i1 - i0 + 1, c.length);
+        for (int i = i0; i <= i1; i++) {
+            for (int j = 0; j < c.length; j++) {
+                X.set(i - i0, j, get(i, c[j]));
+            }
+        }
+        return X;
+    }
+
+    @Override
+    public Matrix getMatrix(int[] r, int j0, int j1) {
+        Matrix X = new JMatrix(r.length, j1 - j0 + 1);
+        for (int i = 0; i < r.length; i++) {
+            for (int j = j0; j <= j1; j++) {
+                X.set(i, j - j0, get(r[i], j));
+            }
+        }
+        return X;
+    }
+
+    @Override
+    public void setMatrix(int i0, int i1, int j0, int j1, Matrix X) {
+        for (int i = i0; i <= i1; i++) {
+            for (int j = j0; j <= j1; j++) {
+                set(i, j, X.get(i - i0, j - j0));
+            }
+        }
+    }
+
+    @Override
+    public void setMatrix(int[] r, int[] c, Matrix X) {
+        for (int i = 0; i < r.length; i++) {
+            for (int j = 0; j < c.length; j++) {
+                set(r[i], c[j], X.get(i, j));
+            }
+        }
+    }
+
+    @Override
+    public void setMatrix(int[] r, int j0, int j1, Matrix X) {
+        for (int i = 0; i < r.length; i++) {
+            for (int j = j0; j <= j1; j++) {
+                set(r[i], j, X.get(i, j - j0));
+            }
+        }
+    }
+
+    @Override
+    public void setMatrix(int i0, int i1, int[] c, Matrix X) {
+        for (int i = i0; i <= i1; i++) {
+            for (int j = 0; j < c.length; j++) {
+                set(i, c[j], X.get(i - i0, j));
+            }
+        }
+    }
+
+    @Override
+    public double normInf() {
+        double f = 0;
+        for (int i = 0; i < rowsCount(); i++) {
+            double s = 0;
+            for (int j = 0; j < columnsCount(); j++) {
+                s += Math.abs(get(i, j));
+            }
+            f = Math.max(f, s);
+        }
+        return f;
+    }
+
+    @Override
+    public double normF() {
+        double f = 0;
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                f = hypot(f, get(i, j));
+            }
+        }
+        return f;
+    }
+
+    @Override
+    public Matrix uminus() {
+        return copy().uminus();
+    }
+
+    @Override
+    public Matrix plus(Matrix B) {
+        return copy().plusEquals(B);
+    }
+
+    @Override
+    public Matrix plusEquals(Matrix B) {
+        checkMatrixDimensions(B);
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                set(i, j, get(i, j) + B.get(i, j));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix minus(Matrix B) {
+        return copy().minusEquals(B);
+    }
+
+    @Override
+    public Matrix minusEquals(Matrix B) {
+        checkMatrixDimensions(B);
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                set(i, j, get(i, j) - B.get(i, j));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix arrayTimes(Matrix B) {
+        return copy().arrayTimesEquals(B);
+    }
+
+    @Override
+    public Matrix arrayTimesEquals(Matrix B) {
+        checkMatrixDimensions(B);
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                set(i, j, get(i, j) * B.get(i, j));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix arrayRightDivide(Matrix B) {
+        return copy().arrayRightDivideEquals(B);
+    }
+
+    @Override
+    public Matrix arrayRightDivideEquals(Matrix B) {
+        checkMatrixDimensions(B);
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                set(i, j, get(i, j) / B.get(i, j));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix arrayLeftDivide(Matrix B) {
+        return copy().arrayLeftDivideEquals(B);
+    }
+
+    @Override
+    public Matrix arrayLeftDivideEquals(Matrix B) {
+        checkMatrixDimensions(B);
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                set(i, j, B.get(i, j) / get(i, j));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix times(double s) {
+        return copy().timesEquals(s);
+    }
+
+    @Override
+    public Matrix timesEquals(double s) {
+        for (int i = 0; i < rowsCount(); i++) {
+            for (int j = 0; j < columnsCount(); j++) {
+                set(i, j, s * get(i, j));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix times(Matrix B) {
+        return copy().times(B);
+    }
+
+    @Override
+    public double trace() {
+        double t = 0;
+        for (int i = 0; i < Math.min(rowsCount(), columnsCount()); i++) {
+            t += get(i, i);
+        }
+        return t;
+    }
+
+}
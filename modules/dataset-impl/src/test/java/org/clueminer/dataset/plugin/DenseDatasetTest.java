@@ -0,0 +1,143 @@
+package org.clueminer.dataset.plugin;
+
+import org.clueminer.dataset.api.Attribute;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.dataset.row.DoubleArrayDataRow;
+import org.clueminer.math.Matrix;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author deric
+ */
+public class DenseDatasetTest {
+
+    private Dataset<Instance> dataset;
+    private static final double delta = 1e-7;
+    private final double[][] data2x5 = new double[][]{{1, 2, 3, 4, 5}, {6, 7, 8, 9, 10}};
+
+    @Before
+    public void setUp() {
+        dataset = new DenseDataset<>(2, 2);
+        dataset.attributeBuilder().create("a1", "NUMERIC");
+        dataset.attributeBuilder().create("a2", "NUMERIC");
+    }
+
+    @Test
+    public void testArrayConstructor() {
+        Dataset<? extends Instance> test = new DenseDataset<>(data2x5);
+        assertEquals(2, test.size());
+        assertEquals(5, test.attributeCount());
+        for (int i = 0; i < data2x5.length; i++) {
+            for (int j = 0; j < data2x5[0].length; j++) {
+                assertEquals(data2x5[i][j], test.get(i, j), delta);
+            }
+        }
+        assertEquals(1.0, test.min(), delta);
+        assertEquals(10.0, test.max(), delta);
+    }
+
+    @Test
+    public void testAdd() {
+        for (int i = 0; i < 10; i++) {
+            dataset.add(new DoubleArrayDataRow(new double[]{i, 2 * i}));
+        }
+        assertEquals(10, dataset.size());
+        assertTrue(dataset.getCapacity() >= 10);
+        Instance inst = dataset.get(7);
+        assertEquals(2, inst.size());
+        assertEquals(7.0, inst.value(0), delta);
+        assertEquals(14.0, inst.value(1), delta);
+        assertEquals(7, inst.getIndex());
+    }
+
+    @Test
+    public void testBuilder() {
+        Instance inst = dataset.builder().create(new double[]{1.0, 2.0}, "foo");
+        assertEquals(1, dataset.size());
+        assertEquals("foo", inst.classValue());
+        assertEquals("foo", dataset.get(0).classValue());
+        assertEquals(1, dataset.getClasses().size());
+        //view writes directly into the dataset
+        inst.set(1, 5.0);
+        assertEquals(5.0, dataset.get(0, 1), delta);
+
+        inst = dataset.builder().create(new String[]{"3.5", "?"}, new Attribute[]{dataset.getAttribute(0), dataset.getAttribute(1)});
+        assertEquals(3.5, dataset.get(1, 0), delta);
+        assertTrue(Double.isNaN(inst.value(1)));
+    }
+
+    @Test
+    public void testViewEquality() {
+        dataset.builder().create(new double[]{1.0, 2.0});
+        dataset.builder().create(new double[]{1.0, 2.0});
+        assertEquals(dataset.get(0), dataset.get(0));
+        assertEquals(dataset.get(0).hashCode(), dataset.get(0).hashCode());
+        assertFalse(dataset.get(0).equals(dataset.get(1)));
+        assertEquals(1, ((DenseDataset) dataset).indexOf(dataset.get(1)));
+    }
+
+    @Test
+    public void testSetAttributeValue() {
+        dataset.set(0, 1, 3.0);
+        dataset.set(1, 0, 4.0);
+        assertEquals(2, dataset.size());
+        assertEquals(3.0, dataset.get(0, 1), delta);
+        assertEquals(4.0, dataset.instance(1).value(0), delta);
+    }
+
+    @Test
+    public void testStrideGrowth() {
+        dataset.builder().create(new double[]{1.0, 2.0});
+        dataset.builder().create(new double[]{3.0, 4.0});
+        dataset.attributeBuilder().create("a3", "NUMERIC");
+        dataset.set(1, 2, 5.0);
+        assertEquals(3, dataset.attributeCount());
+        assertEquals(1.0, dataset.get(0, 0), delta);
+        assertEquals(2.0, dataset.get(0, 1), delta);
+        assertEquals(3.0, dataset.get(1, 0), delta);
+        assertEquals(4.0, dataset.get(1, 1), delta);
+        assertEquals(5.0, dataset.get(1, 2), delta);
+    }
+
+    @Test
+    public void testAsMatrix() {
+        DenseDataset<Instance> test = new DenseDataset<>(data2x5);
+        Matrix m = test.asMatrix();
+        assertEquals(2, m.rowsCount());
+        assertEquals(5, m.columnsCount());
+        assertEquals(8.0, m.get(1, 2), delta);
+        //no copy is made
+        m.set(1, 2, -1.0);
+        assertEquals(-1.0, test.get(1, 2), delta);
+        test.set(0, 4, 42.0);
+        assertEquals(42.0, m.get(0, 4), delta);
+        double[] packed = m.getRowPackedCopy();
+        assertEquals(10, packed.length);
+        assertEquals(42.0, packed[4], delta);
+    }
+
+    @Test
+    public void testOffset() {
+        DenseDataset<Instance> test = new DenseDataset<>(data2x5);
+        double[] arr = test.getArray();
+        int off = test.offset(1);
+        assertEquals(6.0, arr[off], delta);
+        assertEquals(10.0, arr[off + 4], delta);
+    }
+
+    @Test
+    public void testCopy() {
+        DenseDataset<Instance> test = new DenseDataset<>(data2x5);
+        test.get(1).setClassValue("b");
+        Dataset<Instance> copy = test.copy();
+        assertEquals(test.size(), copy.size());
+        assertEquals("b", copy.get(1).classValue());
+        copy.set(0, 0, 100.0);
+        assertEquals(1.0, test.get(0, 0), delta);
+        assertArrayEquals(data2x5[1], copy.get(1).arrayCopy(), delta);
+    }
+}
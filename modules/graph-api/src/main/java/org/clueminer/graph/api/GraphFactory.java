@@ -100,4 +100,13 @@ public interface GraphFactory {
      */
     public ArrayList<Node> createNodesFromInput(Dataset<? extends Instance> input);
 
+    /**
+     * Creates an empty graph which accepts nodes and edges created by this
+     * factory.
+     *
+     * @param size expected number of nodes
+     * @return the new graph
+     */
+    public Graph newGraph(int size);
+
 }
@@ -0,0 +1,55 @@
+package org.clueminer.graph.adjacencyList;
+
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Node;
+
+/**
+ *
+ * @author Tomas Barton
+ */
+public class AdjListEdge implements Edge {
+
+    private final long id;
+    private final Node source;
+    private final Node target;
+    private final boolean directed;
+    private final double weight;
+
+    AdjListEdge(long id, Node source, Node target, double weight, boolean directed) {
+        this.id = id;
+        this.source = source;
+        this.target = target;
+        this.weight = weight;
+        this.directed = directed;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public Node getSource() {
+        return source;
+    }
+
+    @Override
+    public Node getTarget() {
+        return target;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public Object getLabel() {
+        return null;
+    }
+}
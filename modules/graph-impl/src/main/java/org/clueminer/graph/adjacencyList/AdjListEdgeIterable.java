@@ -0,0 +1,41 @@
+package org.clueminer.graph.adjacencyList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.EdgeIterable;
+
+/**
+ *
+ * @author Tomas Barton
+ */
+public class AdjListEdgeIterable implements EdgeIterable {
+
+    private final ArrayList<Edge> edges;
+
+    public AdjListEdgeIterable(ArrayList<Edge> edges) {
+        this.edges = edges;
+    }
+
+    @Override
+    public Iterator<Edge> iterator() {
+        return edges.iterator();
+    }
+
+    @Override
+    public Edge[] toArray() {
+        return edges.toArray(new Edge[edges.size()]);
+    }
+
+    @Override
+    public Collection<Edge> toCollection() {
+        return edges;
+    }
+
+    @Override
+    public void doBreak() {
+        //iterators are not backed by the graph
+    }
+
+}
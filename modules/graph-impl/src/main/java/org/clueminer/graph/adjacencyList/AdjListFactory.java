@@ -0,0 +1,88 @@
+package org.clueminer.graph.adjacencyList;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.clueminer.dataset.api.Dataset;
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.GraphFactory;
+import org.clueminer.graph.api.Node;
+
+/**
+ * Factory for sparse graphs ({@link AdjListGraph}).
+ *
+ * @author Tomas Barton
+ */
+public class AdjListFactory implements GraphFactory {
+
+    private static AdjListFactory instance;
+
+    private final AtomicLong nodeIdCounter = new AtomicLong();
+    private final AtomicLong edgeIdCounter = new AtomicLong();
+
+    public static synchronized AdjListFactory getInstance() {
+        if (instance == null) {
+            instance = new AdjListFactory();
+        }
+        return instance;
+    }
+
+    protected AdjListFactory() {
+    }
+
+    @Override
+    public Edge newEdge(Node source, Node target) {
+        return newEdge(source, target, 1, 1.0, true);
+    }
+
+    @Override
+    public Edge newEdge(Node source, Node target, boolean directed) {
+        return newEdge(source, target, 1, 1.0, directed);
+    }
+
+    @Override
+    public Edge newEdge(Node source, Node target, int type, boolean directed) {
+        return newEdge(source, target, type, 1.0, directed);
+    }
+
+    @Override
+    public Edge newEdge(Node source, Node target, int type, double weight, boolean directed) {
+        return new AdjListEdge(edgeIdCounter.getAndIncrement(), source, target, weight, directed);
+    }
+
+    @Override
+    public Edge newEdge(Object id, Node source, Node target, int type, double weight, boolean directed) {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public Node newNode() {
+        return new AdjListNode(nodeIdCounter.getAndIncrement());
+    }
+
+    @Override
+    public Node newNode(Object label) {
+        return new AdjListNode(nodeIdCounter.getAndIncrement(), label);
+    }
+
+    @Override
+    public Node newNode(Instance i) {
+        return new AdjListNode(nodeIdCounter.getAndIncrement(), i);
+    }
+
+    @Override
+    public ArrayList<Node> createNodesFromInput(Dataset<? extends Instance> input) {
+        ArrayList<Node> nodes = new ArrayList<>(input.size());
+        for (Instance ins : input) {
+            nodes.add(newNode(ins));
+        }
+        return nodes;
+    }
+
+    @Override
+    public Graph newGraph(int size) {
+        return new AdjListGraph(size);
+    }
+
+}
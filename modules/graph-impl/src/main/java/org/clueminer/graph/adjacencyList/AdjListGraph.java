@@ -0,0 +1,655 @@
+package org.clueminer.graph.adjacencyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import org.clueminer.distance.EuclideanDistance;
+import org.clueminer.distance.api.DistanceMeasure;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.EdgeIterable;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.GraphFactory;
+import org.clueminer.graph.api.Node;
+import org.clueminer.graph.api.NodeIterable;
+
+/**
+ * Undirected sparse graph stored in compressed adjacency arrays (CSR like).
+ *
+ * Neighbors of node i occupy a slice of shared primitive arrays starting at
+ * {@code rowStart[i]}, sorted by index of the neighbor. Each slice has some
+ * spare capacity, when full it is moved to the end of the arrays (the arrays
+ * are compacted once too much space is wasted). Memory is therefore O(n + m)
+ * instead of O(n^2) in case of adjacency matrix, edge lookup takes O(log d)
+ * where d is degree of the node.
+ *
+ * Nodes and edges from any factory are accepted, nodes are mapped to indexes
+ * in order they were added.
+ *
+ * @author Tomas Barton
+ */
+public class AdjListGraph implements Graph {
+
+    private static final int MIN_ROW = 4;
+
+    private Node[] nodes;
+    private int nodeCount;
+    private final LongIntMap nodeIndex;
+
+    /**
+     * position of first neighbor of each node
+     */
+    private int[] rowStart;
+    private int[] rowSize;
+    private int[] rowCap;
+    /**
+     * index of neighbor
+     */
+    private int[] adjTarget;
+    private double[] adjWeight;
+    /**
+     * position of the edge object in edges array
+     */
+    private int[] adjEdge;
+    /**
+     * end of allocated rows
+     */
+    private int adjUsed;
+    /**
+     * sum of row capacities
+     */
+    private int capTotal;
+
+    private Edge[] edges;
+    private int edgeSlots;
+    private int edgeCount;
+    private int[] freeSlots;
+    private int freeCount;
+    private final LongIntMap edgeIndex;
+
+    DistanceMeasure dm;
+    final double EPS = 1e-6;
+
+    public AdjListGraph(int size) {
+        this(size, new EuclideanDistance());
+    }
+
+    public AdjListGraph(int size, DistanceMeasure dm) {
+        size = Math.max(size, 1);
+        this.dm = dm;
+        nodes = new Node[size];
+        rowStart = new int[size];
+        rowSize = new int[size];
+        rowCap = new int[size];
+        adjTarget = new int[size * MIN_ROW];
+        adjWeight = new double[size * MIN_ROW];
+        adjEdge = new int[size * MIN_ROW];
+        edges = new Edge[size];
+        freeSlots = new int[16];
+        nodeIndex = new LongIntMap(size);
+        edgeIndex = new LongIntMap(size);
+    }
+
+    @Override
+    public boolean addEdge(Edge edge) {
+        int s = nodeIndex.get(edge.getSource().getId());
+        int t = nodeIndex.get(edge.getTarget().getId());
+        if (s == LongIntMap.MISSING || t == LongIntMap.MISSING) {
+            return false;
+        }
+        int pos = search(s, t);
+        if (pos >= 0) {
+            //replace existing edge
+            int slot = adjEdge[pos];
+            edgeIndex.remove(edges[slot].getId());
+            edges[slot] = edge;
+            edgeIndex.put(edge.getId(), slot);
+            adjWeight[pos] = edge.getWeight();
+            if (s != t) {
+                adjWeight[search(t, s)] = edge.getWeight();
+            }
+            return true;
+        }
+        int slot = newSlot(edge);
+        insert(s, -pos - 1, t, edge.getWeight(), slot);
+        if (s != t) {
+            insert(t, -search(t, s) - 1, s, edge.getWeight(), slot);
+        }
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addNode(Node node) {
+        if (nodeIndex.get(node.getId()) != LongIntMap.MISSING) {
+            return false;
+        }
+        if (nodeCount == nodes.length) {
+            int cap = nodes.length + (nodes.length >> 1) + 1;
+            nodes = Arrays.copyOf(nodes, cap);
+            rowStart = Arrays.copyOf(rowStart, cap);
+            rowSize = Arrays.copyOf(rowSize, cap);
+            rowCap = Arrays.copyOf(rowCap, cap);
+        }
+        nodeIndex.put(node.getId(), nodeCount);
+        rowStart[nodeCount] = adjUsed;
+        rowSize[nodeCount] = 0;
+        rowCap[nodeCount] = 0;
+        nodes[nodeCount++] = node;
+        return true;
+    }
+
+    @Override
+    public boolean addAllEdges(Collection<? extends Edge> edges) {
+        for (Edge edge : edges) {
+            if (!addEdge(edge)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAllNodes(Collection<? extends Node> nodes) {
+        for (Node node : nodes) {
+            if (!addNode(node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(Edge edge) {
+        int s = nodeIndex.get(edge.getSource().getId());
+        int t = nodeIndex.get(edge.getTarget().getId());
+        if (s == LongIntMap.MISSING || t == LongIntMap.MISSING) {
+            return false;
+        }
+        int pos = search(s, t);
+        if (pos < 0) {
+            return false;
+        }
+        int slot = adjEdge[pos];
+        delete(s, pos);
+        if (s != t) {
+            delete(t, search(t, s));
+        }
+        releaseSlot(slot);
+        edgeCount--;
+        return true;
+    }
+
+    @Override
+    public boolean removeNode(Node node) {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<? extends Edge> edges) {
+        boolean res = true;
+        for (Edge edge : edges) {
+            res &= removeEdge(edge);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean removeAllNodes(Collection<? extends Node> nodes) {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return nodeIndex.get(node.getId()) != LongIntMap.MISSING;
+    }
+
+    @Override
+    public boolean contains(Edge edge) {
+        return find(edge.getSource(), edge.getTarget()) >= 0;
+    }
+
+    @Override
+    public Node getNode(long id) {
+        int idx = nodeIndex.get(id);
+        return idx == LongIntMap.MISSING ? null : nodes[idx];
+    }
+
+    @Override
+    public Edge getEdge(long id) {
+        int slot = edgeIndex.get(id);
+        return slot == LongIntMap.MISSING ? null : edges[slot];
+    }
+
+    @Override
+    public Edge getEdge(Node node1, Node node2) {
+        int pos = find(node1, node2);
+        return pos < 0 ? null : edges[adjEdge[pos]];
+    }
+
+    @Override
+    public Edge getEdge(Node node1, Node node2, int type) {
+        return getEdge(node1, node2);
+    }
+
+    @Override
+    public NodeIterable getNodes() {
+        ArrayList<Node> list = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            list.add(nodes[i]);
+        }
+        return new AdjListNodeIterable(list);
+    }
+
+    @Override
+    public EdgeIterable getEdges() {
+        ArrayList<Edge> list = new ArrayList<>(edgeCount);
+        int end;
+        for (int i = 0; i < nodeCount; i++) {
+            end = rowStart[i] + rowSize[i];
+            for (int p = rowStart[i]; p < end; p++) {
+                //each undirected edge is reported just once
+                if (adjTarget[p] >= i) {
+                    list.add(edges[adjEdge[p]]);
+                }
+            }
+        }
+        return new AdjListEdgeIterable(list);
+    }
+
+    @Override
+    public EdgeIterable getSelfLoops() {
+        ArrayList<Edge> list = new ArrayList<>();
+        int pos;
+        for (int i = 0; i < nodeCount; i++) {
+            pos = search(i, i);
+            if (pos >= 0) {
+                list.add(edges[adjEdge[pos]]);
+            }
+        }
+        return new AdjListEdgeIterable(list);
+    }
+
+    @Override
+    public NodeIterable getNeighbors(Node node) {
+        int idx = getIndex(node);
+        ArrayList<Node> list = new ArrayList<>(rowSize[idx]);
+        int end = rowStart[idx] + rowSize[idx];
+        for (int p = rowStart[idx]; p < end; p++) {
+            if (adjTarget[p] != idx) {
+                list.add(nodes[adjTarget[p]]);
+            }
+        }
+        return new AdjListNodeIterable(list);
+    }
+
+    @Override
+    public NodeIterable getNeighbors(Node node, int type) {
+        return getNeighbors(node);
+    }
+
+    @Override
+    public EdgeIterable getEdges(Node node) {
+        int idx = getIndex(node);
+        ArrayList<Edge> list = new ArrayList<>(rowSize[idx]);
+        int end = rowStart[idx] + rowSize[idx];
+        for (int p = rowStart[idx]; p < end; p++) {
+            list.add(edges[adjEdge[p]]);
+        }
+        return new AdjListEdgeIterable(list);
+    }
+
+    @Override
+    public EdgeIterable getEdges(Node node, int type) {
+        return getEdges(node);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int getEdgeCount(int type) {
+        return edgeCount;
+    }
+
+    @Override
+    public Node getOpposite(Node node, Edge edge) {
+        if (edge.getSource().getId() == node.getId()) {
+            return edge.getTarget();
+        }
+        return edge.getSource();
+    }
+
+    @Override
+    public int getDegree(Node node) {
+        int idx = getIndex(node);
+        int degree = rowSize[idx];
+        if (search(idx, idx) >= 0) {
+            degree--;
+        }
+        return degree;
+    }
+
+    @Override
+    public boolean isSelfLoop(Edge edge) {
+        return edge.getSource().getId() == edge.getTarget().getId();
+    }
+
+    @Override
+    public boolean isDirected(Edge edge) {
+        return edge.isDirected();
+    }
+
+    @Override
+    public boolean isAdjacent(Node node1, Node node2) {
+        return find(node1, node2) >= 0;
+    }
+
+    @Override
+    public boolean isAdjacent(Node node1, Node node2, int type) {
+        return isAdjacent(node1, node2);
+    }
+
+    @Override
+    public boolean isIncident(Edge edge1, Edge edge2) {
+        return isIncident(edge1.getSource(), edge2) || isIncident(edge1.getTarget(), edge2);
+    }
+
+    @Override
+    public boolean isIncident(Node node, Edge edge) {
+        return edge.getSource().getId() == node.getId() || edge.getTarget().getId() == node.getId();
+    }
+
+    @Override
+    public void clearEdges(Node node) {
+        int idx = getIndex(node);
+        int p, t;
+        while (rowSize[idx] > 0) {
+            p = rowStart[idx] + rowSize[idx] - 1;
+            t = adjTarget[p];
+            releaseSlot(adjEdge[p]);
+            delete(idx, p);
+            if (t != idx) {
+                delete(t, search(t, idx));
+            }
+            edgeCount--;
+        }
+    }
+
+    @Override
+    public void clearEdges(Node node, int type) {
+        clearEdges(node);
+    }
+
+    @Override
+    public void clear() {
+        clearEdges();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = null;
+        }
+        nodeCount = 0;
+        nodeIndex.clear();
+        adjUsed = capTotal = 0;
+    }
+
+    @Override
+    public void clearEdges() {
+        Arrays.fill(edges, 0, edgeSlots, null);
+        edgeSlots = edgeCount = freeCount = 0;
+        edgeIndex.clear();
+        Arrays.fill(rowSize, 0, nodeCount, 0);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return true;
+    }
+
+    @Override
+    public boolean isMixed() {
+        return false;
+    }
+
+    /**
+     * Create edges in graph according to array of neighbors, mutual neighbors
+     * are connected by a single edge.
+     *
+     * @param neighbors neighbor array
+     * @param k         number of neighbors for each node
+     */
+    @Override
+    public boolean addEdgesFromNeigborArray(int[][] neighbors, int k) {
+        if (k > nodeCount) {
+            return false;
+        }
+        //upper bound of degree, rows are allocated just once
+        int[] degree = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            degree[i] += k;
+            for (int j = 0; j < k; j++) {
+                degree[neighbors[i][j]]++;
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            reserve(i, rowSize[i] + degree[i]);
+        }
+        GraphFactory f = getFactory();
+        int nb;
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < k; j++) {
+                nb = neighbors[i][j];
+                if (search(i, nb) < 0) {
+                    double distance = dm.measure(nodes[i].getInstance(), nodes[nb].getInstance());
+                    if (distance < EPS) {
+                        distance = EPS;
+                    }
+                    addEdge(f.newEdge(nodes[i], nodes[nb], 1, 1 / distance, false)); //max val
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public GraphFactory getFactory() {
+        return AdjListFactory.getInstance();
+    }
+
+    @Override
+    public int getIndex(Node node) {
+        int idx = nodeIndex.get(node.getId());
+        if (idx == LongIntMap.MISSING) {
+            throw new IllegalArgumentException("node " + node.getId() + " is not in the graph");
+        }
+        return idx;
+    }
+
+    /**
+     * Number of neighbors of node with given index (including self loop)
+     *
+     * @param index
+     * @return
+     */
+    public int neighborCount(int index) {
+        return rowSize[index];
+    }
+
+    /**
+     *
+     * @param index index of node
+     * @param k     k-th neighbor, neighbors are sorted by their index
+     * @return index of the neighbor
+     */
+    public int neighbor(int index, int k) {
+        return adjTarget[rowStart[index] + k];
+    }
+
+    /**
+     *
+     * @param index index of node
+     * @param k     k-th neighbor, neighbors are sorted by their index
+     * @return weight of edge to the neighbor
+     */
+    public double neighborWeight(int index, int k) {
+        return adjWeight[rowStart[index] + k];
+    }
+
+    /**
+     * Move rows next to each other, spare capacity of rows is kept
+     */
+    public void compact() {
+        int[] target = new int[Math.max(capTotal, 1)];
+        double[] weight = new double[target.length];
+        int[] edge = new int[target.length];
+        int pos = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            System.arraycopy(adjTarget, rowStart[i], target, pos, rowSize[i]);
+            System.arraycopy(adjWeight, rowStart[i], weight, pos, rowSize[i]);
+            System.arraycopy(adjEdge, rowStart[i], edge, pos, rowSize[i]);
+            rowStart[i] = pos;
+            pos += rowCap[i];
+        }
+        adjTarget = target;
+        adjWeight = weight;
+        adjEdge = edge;
+        adjUsed = pos;
+    }
+
+    /**
+     *
+     * @param node1
+     * @param node2
+     * @return position of the edge in adjacency arrays or negative number
+     */
+    private int find(Node node1, Node node2) {
+        int s = nodeIndex.get(node1.getId());
+        int t = nodeIndex.get(node2.getId());
+        if (s == LongIntMap.MISSING || t == LongIntMap.MISSING) {
+            return -1;
+        }
+        return search(s, t);
+    }
+
+    /**
+     * Binary search in row of node s
+     *
+     * @param s index of node
+     * @param t index of neighbor
+     * @return absolute position of t or (-(insertion point within row) - 1)
+     */
+    private int search(int s, int t) {
+        int lo = rowStart[s];
+        int hi = lo + rowSize[s] - 1;
+        int mid;
+        while (lo <= hi) {
+            mid = (lo + hi) >>> 1;
+            if (adjTarget[mid] < t) {
+                lo = mid + 1;
+            } else if (adjTarget[mid] > t) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo - rowStart[s]) - 1;
+    }
+
+    private void insert(int row, int at, int target, double weight, int slot) {
+        if (rowSize[row] == rowCap[row]) {
+            reserve(row, Math.max(MIN_ROW, 2 * rowCap[row]));
+        }
+        int pos = rowStart[row] + at;
+        int len = rowSize[row] - at;
+        System.arraycopy(adjTarget, pos, adjTarget, pos + 1, len);
+        System.arraycopy(adjWeight, pos, adjWeight, pos + 1, len);
+        System.arraycopy(adjEdge, pos, adjEdge, pos + 1, len);
+        adjTarget[pos] = target;
+        adjWeight[pos] = weight;
+        adjEdge[pos] = slot;
+        rowSize[row]++;
+    }
+
+    private void delete(int row, int pos) {
+        int len = rowStart[row] + rowSize[row] - pos - 1;
+        System.arraycopy(adjTarget, pos + 1, adjTarget, pos, len);
+        System.arraycopy(adjWeight, pos + 1, adjWeight, pos, len);
+        System.arraycopy(adjEdge, pos + 1, adjEdge, pos, len);
+        rowSize[row]--;
+    }
+
+    /**
+     * Make sure that the row can hold given number of neighbors
+     *
+     * @param row
+     * @param cap
+     */
+    private void reserve(int row, int cap) {
+        int grow = cap - rowCap[row];
+        if (grow <= 0) {
+            return;
+        }
+        if (rowStart[row] + rowCap[row] == adjUsed) {
+            //last row can grow in place
+            ensureAdjCapacity(adjUsed + grow);
+            adjUsed += grow;
+        } else {
+            ensureAdjCapacity(adjUsed + cap);
+            System.arraycopy(adjTarget, rowStart[row], adjTarget, adjUsed, rowSize[row]);
+            System.arraycopy(adjWeight, rowStart[row], adjWeight, adjUsed, rowSize[row]);
+            System.arraycopy(adjEdge, rowStart[row], adjEdge, adjUsed, rowSize[row]);
+            rowStart[row] = adjUsed;
+            adjUsed += cap;
+        }
+        rowCap[row] = cap;
+        capTotal += grow;
+        //more than half of the arrays are abandoned rows
+        if (adjUsed > 2 * capTotal + 1024) {
+            compact();
+        }
+    }
+
+    private void ensureAdjCapacity(int required) {
+        if (required > adjTarget.length) {
+            int cap = Math.max(required, adjTarget.length + (adjTarget.length >> 1));
+            adjTarget = Arrays.copyOf(adjTarget, cap);
+            adjWeight = Arrays.copyOf(adjWeight, cap);
+            adjEdge = Arrays.copyOf(adjEdge, cap);
+        }
+    }
+
+    private int newSlot(Edge edge) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (edgeSlots == edges.length) {
+                edges = Arrays.copyOf(edges, edges.length + (edges.length >> 1) + 1);
+            }
+            slot = edgeSlots++;
+        }
+        edges[slot] = edge;
+        edgeIndex.put(edge.getId(), slot);
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        edgeIndex.remove(edges[slot].getId());
+        edges[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, 2 * freeSlots.length);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.clueminer.graph.adjacencyList;
+
+import org.clueminer.dataset.api.Instance;
+import org.clueminer.graph.api.Node;
+
+/**
+ *
+ * @author Tomas Barton
+ */
+public class AdjListNode implements Node {
+
+    private final long id;
+    private Object label;
+    private Instance instance;
+
+    public AdjListNode(long id) {
+        this.id = id;
+    }
+
+    public AdjListNode(long id, Object label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public AdjListNode(long id, Instance i) {
+        this.id = id;
+        this.instance = i;
+    }
+
+    @Override
+    public void setInstance(Instance i) {
+        instance = i;
+    }
+
+    @Override
+    public Instance getInstance() {
+        return instance;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public Object getLabel() {
+        return label;
+    }
+
+}
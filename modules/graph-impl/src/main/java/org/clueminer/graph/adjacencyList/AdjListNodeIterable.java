@@ -0,0 +1,41 @@
+package org.clueminer.graph.adjacencyList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import org.clueminer.graph.api.Node;
+import org.clueminer.graph.api.NodeIterable;
+
+/**
+ *
+ * @author Tomas Barton
+ */
+public class AdjListNodeIterable implements NodeIterable {
+
+    private final ArrayList<Node> nodes;
+
+    public AdjListNodeIterable(ArrayList<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return nodes.iterator();
+    }
+
+    @Override
+    public Node[] toArray() {
+        return nodes.toArray(new Node[nodes.size()]);
+    }
+
+    @Override
+    public Collection<Node> toCollection() {
+        return nodes;
+    }
+
+    @Override
+    public void doBreak() {
+        //iterators are not backed by the graph
+    }
+
+}
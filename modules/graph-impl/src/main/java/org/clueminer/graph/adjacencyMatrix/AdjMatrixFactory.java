@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import org.clueminer.dataset.api.Dataset;
 import org.clueminer.dataset.api.Instance;
 import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Graph;
 import org.clueminer.graph.api.GraphFactory;
 import org.clueminer.graph.api.Node;
 
@@ -87,4 +88,9 @@ public class AdjMatrixFactory implements GraphFactory {
         return nodes;
     }
 
+    @Override
+    public Graph newGraph(int size) {
+        return new AdjMatrixGraph(size);
+    }
+
 }
@@ -0,0 +1,149 @@
+package org.clueminer.graph.adjacencyList;
+
+import java.util.Collection;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Node;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class AdjListGraphTest {
+
+    private static final double delta = 1e-9;
+    AdjListFactory f;
+    Node n1;
+    Node n2;
+    Node n3;
+    Edge e1;
+    Edge e2;
+    AdjListGraph g;
+
+    private void buildSimpleGraph() {
+        f = AdjListFactory.getInstance();
+        n1 = f.newNode();
+        n2 = f.newNode();
+        n3 = f.newNode();
+        e1 = f.newEdge(n1, n2, 1, 2, false);
+        e2 = f.newEdge(n3, n2, 1, 3, false);
+        g = new AdjListGraph(3);
+        g.addNode(n1);
+        g.addNode(n2);
+        g.addNode(n3);
+        g.addEdge(e1);
+        g.addEdge(e2);
+    }
+
+    @Test
+    public void testIterables() {
+        buildSimpleGraph();
+        Collection<Node> nodes = g.getNodes().toCollection();
+        assertEquals(3, nodes.size());
+
+        assertEquals(1, g.getNeighbors(n3).toCollection().size());
+        assertEquals(1, g.getNeighbors(n1).toCollection().size());
+        assertArrayEquals(new Node[]{n1, n3}, g.getNeighbors(n2).toArray());
+
+        Collection<Edge> edges = g.getEdges().toCollection();
+        assertEquals(2, edges.size());
+        assertEquals(1, g.getEdges(n1).toCollection().size());
+        assertEquals(2, g.getEdges(n2).toCollection().size());
+        assertEquals(1, g.getEdges(n3).toCollection().size());
+    }
+
+    @Test
+    public void buildGraphTest() {
+        buildSimpleGraph();
+        Node n4 = f.newNode();
+        assertEquals(0, g.getIndex(n1));
+        assertEquals(1, g.getIndex(n2));
+        assertEquals(2, g.getIndex(n3));
+        assertEquals(2, g.getEdge(n1, n2).getWeight(), delta);
+        assertEquals(3, g.getEdge(n2, n3).getWeight(), delta);
+        assertNull(g.getEdge(n1, n3));
+        assertSame(e2, g.getEdge(e2.getId()));
+        assertTrue(g.contains(n1));
+        assertFalse(g.contains(n4));
+        assertTrue(g.contains(e1));
+        assertEquals(1, g.getDegree(n1));
+        assertEquals(2, g.getDegree(n2));
+        assertEquals(2, g.getEdgeCount());
+        //node from outside of the graph
+        assertFalse(g.addEdge(f.newEdge(n1, n4, 1, 1, false)));
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        buildSimpleGraph();
+        assertTrue(g.removeEdge(e1));
+        assertFalse(g.removeEdge(e1));
+        assertFalse(g.isAdjacent(n1, n2));
+        assertNull(g.getEdge(e1.getId()));
+        assertEquals(1, g.getEdgeCount());
+        assertEquals(0, g.getDegree(n1));
+        assertEquals(1, g.getDegree(n2));
+        //edge slot is reused
+        Edge e3 = f.newEdge(n1, n3, 1, 5, false);
+        g.addEdge(e3);
+        assertEquals(5, g.getEdge(n3, n1).getWeight(), delta);
+        assertSame(e3, g.getEdge(e3.getId()));
+        assertSame(e2, g.getEdge(e2.getId()));
+    }
+
+    @Test
+    public void testGrowingRows() {
+        f = AdjListFactory.getInstance();
+        int n = 200;
+        g = new AdjListGraph(2);
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = f.newNode();
+            assertTrue(g.addNode(nodes[i]));
+        }
+        //insert edges in reverse order, rows are relocated many times
+        for (int i = n - 1; i > 0; i--) {
+            for (int j = i - 1; j >= 0; j -= 3) {
+                g.addEdge(f.newEdge(nodes[i], nodes[j], 1, i * 1000 + j, false));
+            }
+        }
+        int cnt = 0;
+        for (int i = 0; i < n; i++) {
+            int prev = -1;
+            for (int k = 0; k < g.neighborCount(i); k++) {
+                int j = g.neighbor(i, k);
+                //neighbors are sorted
+                assertTrue(j > prev);
+                prev = j;
+                assertEquals(Math.max(i, j) * 1000 + Math.min(i, j), g.neighborWeight(i, k), delta);
+                assertTrue(g.isAdjacent(nodes[i], nodes[j]));
+                cnt++;
+            }
+        }
+        assertEquals(2 * g.getEdgeCount(), cnt);
+        assertEquals(g.getEdgeCount(), g.getEdges().toCollection().size());
+        g.compact();
+        assertEquals(1 * 1000 + 0, g.getEdge(nodes[0], nodes[1]).getWeight(), delta);
+
+        g.clearEdges(nodes[1]);
+        assertEquals(0, g.getDegree(nodes[1]));
+        assertFalse(g.isAdjacent(nodes[0], nodes[1]));
+    }
+
+    @Test
+    public void testIdMap() {
+        LongIntMap map = new LongIntMap(2);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 31L, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            map.remove(i * 31L);
+        }
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? LongIntMap.MISSING : i, map.get(i * 31L));
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.clueminer.partitioning.impl;
+
+import org.clueminer.partitioning.api.Bisection;
+
+/**
+ * Helper methods for bisection algorithms
+ *
+ * @author Tomas Barton
+ */
+public class Bisections {
+
+    private Bisections() {
+
+    }
+
+    /**
+     * Bisection algorithms keep state of the last bisected graph, therefore
+     * each thread needs its own instance.
+     *
+     * @param bisection
+     * @return new instance with the same settings or null when the algorithm
+     *         is not known
+     */
+    public static Bisection copy(Bisection bisection) {
+        if (bisection instanceof KernighanLin) {
+            return new KernighanLin(((KernighanLin) bisection).isWeightedEdges());
+        }
+        if (bisection instanceof FiducciaMattheyses) {
+            FiducciaMattheyses fm = (FiducciaMattheyses) bisection;
+            FiducciaMattheyses res = new FiducciaMattheyses(fm.isWeightedEdges());
+            res.setMaxImbalance(fm.getMaxImbalance());
+            res.setMaxPasses(fm.getMaxPasses());
+            return res;
+        }
+        return null;
+    }
+
+    /**
+     * Whether a copy of given bisection can be created
+     *
+     * @param bisection
+     * @return
+     */
+    public static boolean isCopyable(Bisection bisection) {
+        return bisection instanceof KernighanLin || bisection instanceof FiducciaMattheyses;
+    }
+}
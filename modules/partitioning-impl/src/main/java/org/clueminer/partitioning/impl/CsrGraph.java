@@ -0,0 +1,250 @@
+package org.clueminer.partitioning.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.Node;
+
+/**
+ * Undirected graph in compressed sparse row format with weighted vertices,
+ * used internally by partitioning algorithms. Neighbors of vertex i are
+ * {@code adj[offset[i]] ... adj[offset[i + 1] - 1]}, each edge is stored in
+ * both directions.
+ *
+ * @author Tomas Barton
+ */
+class CsrGraph {
+
+    final int n;
+    final int[] offset;
+    final int[] adj;
+    final double[] weight;
+    final int[] vwgt;
+    final long totalVwgt;
+
+    CsrGraph(int[] offset, int[] adj, double[] weight, int[] vwgt) {
+        this.n = vwgt.length;
+        this.offset = offset;
+        this.adj = adj;
+        this.weight = weight;
+        this.vwgt = vwgt;
+        long total = 0;
+        for (int w : vwgt) {
+            total += w;
+        }
+        totalVwgt = total;
+    }
+
+    /**
+     * Copy structure of a graph, vertex i corresponds to i-th node of
+     * {@code nodes} (self loops are ignored)
+     *
+     * @param g
+     * @param nodes         nodes of g
+     * @param weightedEdges when false all edges have unit weight
+     * @return
+     */
+    static CsrGraph fromGraph(Graph g, Node[] nodes, boolean weightedEdges) {
+        int cnt = nodes.length;
+        int[] offset = new int[cnt + 1];
+        int[] adj = new int[16];
+        double[] weight = new double[16];
+        int total = 0, other;
+        for (int i = 0; i < cnt; i++) {
+            offset[i] = total;
+            ArrayList<Edge> edges = new ArrayList<>(g.getEdges(nodes[i]).toCollection());
+            if (total + edges.size() > adj.length) {
+                int cap = Math.max(total + edges.size(), 2 * adj.length);
+                adj = Arrays.copyOf(adj, cap);
+                weight = Arrays.copyOf(weight, cap);
+            }
+            for (Edge e : edges) {
+                other = g.getIndex(e.getSource().getId() == nodes[i].getId() ? e.getTarget() : e.getSource());
+                if (other != i) {
+                    adj[total] = other;
+                    weight[total++] = weightedEdges ? e.getWeight() : 1.0;
+                }
+            }
+        }
+        offset[cnt] = total;
+        int[] vwgt = new int[cnt];
+        Arrays.fill(vwgt, 1);
+        return new CsrGraph(offset, Arrays.copyOf(adj, total), Arrays.copyOf(weight, total), vwgt);
+    }
+
+    int degree(int v) {
+        return offset[v + 1] - offset[v];
+    }
+
+    /**
+     * Sum of weights of edges between different parts
+     *
+     * @param part
+     * @return
+     */
+    double cut(int[] part) {
+        double cut = 0;
+        for (int i = 0; i < n; i++) {
+            for (int p = offset[i]; p < offset[i + 1]; p++) {
+                if (adj[p] > i && part[adj[p]] != part[i]) {
+                    cut += weight[p];
+                }
+            }
+        }
+        return cut;
+    }
+
+    /**
+     * Heavy edge matching - vertices are visited in random order, each
+     * unmatched vertex is matched with its unmatched neighbor connected by the
+     * heaviest edge.
+     *
+     * @param rand
+     * @param maxVwgt maximal weight of a coarse vertex
+     * @param cmap    output, index of coarse vertex for each vertex
+     * @return number of coarse vertices
+     */
+    int match(Random rand, int maxVwgt, int[] cmap) {
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        int j, tmp;
+        for (int i = n - 1; i > 0; i--) {
+            j = rand.nextInt(i + 1);
+            tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        int v, u, best;
+        double maxW;
+        for (int i = 0; i < n; i++) {
+            v = perm[i];
+            if (match[v] >= 0) {
+                continue;
+            }
+            best = v;
+            maxW = Double.NEGATIVE_INFINITY;
+            for (int p = offset[v]; p < offset[v + 1]; p++) {
+                u = adj[p];
+                if (match[u] < 0 && u != v && weight[p] > maxW && vwgt[v] + vwgt[u] <= maxVwgt) {
+                    maxW = weight[p];
+                    best = u;
+                }
+            }
+            match[v] = best;
+            match[best] = v;
+        }
+        int coarse = 0;
+        for (v = 0; v < n; v++) {
+            if (v <= match[v]) {
+                cmap[v] = coarse;
+                cmap[match[v]] = coarse++;
+            }
+        }
+        return coarse;
+    }
+
+    /**
+     * Collapse vertices according to cmap, parallel edges are merged (weights
+     * are summed)
+     *
+     * @param cmap   coarse vertex of each vertex
+     * @param coarse number of coarse vertices
+     * @return
+     */
+    CsrGraph contract(int[] cmap, int coarse) {
+        //vertices of each coarse vertex
+        int[] first = new int[coarse + 1];
+        for (int v = 0; v < n; v++) {
+            first[cmap[v] + 1]++;
+        }
+        for (int c = 0; c < coarse; c++) {
+            first[c + 1] += first[c];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(first, coarse);
+        for (int v = 0; v < n; v++) {
+            members[fill[cmap[v]]++] = v;
+        }
+        int[] cOffset = new int[coarse + 1];
+        int[] cAdj = new int[adj.length];
+        double[] cWeight = new double[adj.length];
+        int[] cVwgt = new int[coarse];
+        //position of coarse neighbor in current row
+        int[] marker = new int[coarse];
+        Arrays.fill(marker, -1);
+        int total = 0, v, cu;
+        for (int c = 0; c < coarse; c++) {
+            cOffset[c] = total;
+            for (int m = first[c]; m < first[c + 1]; m++) {
+                v = members[m];
+                cVwgt[c] += vwgt[v];
+                for (int p = offset[v]; p < offset[v + 1]; p++) {
+                    cu = cmap[adj[p]];
+                    if (cu == c) {
+                        continue;
+                    }
+                    if (marker[cu] < cOffset[c]) {
+                        marker[cu] = total;
+                        cAdj[total] = cu;
+                        cWeight[total++] = weight[p];
+                    } else {
+                        cWeight[marker[cu]] += weight[p];
+                    }
+                }
+            }
+        }
+        cOffset[coarse] = total;
+        return new CsrGraph(cOffset, Arrays.copyOf(cAdj, total),
+                Arrays.copyOf(cWeight, total), cVwgt);
+    }
+
+    /**
+     * Graph induced by vertices in given part
+     *
+     * @param part  part of each vertex
+     * @param p     selected part
+     * @param local output, index of each vertex in the subgraph (or -1)
+     * @return
+     */
+    CsrGraph subgraph(int[] part, int p, int[] local) {
+        int cnt = 0;
+        for (int v = 0; v < n; v++) {
+            local[v] = part[v] == p ? cnt++ : -1;
+        }
+        int[] sOffset = new int[cnt + 1];
+        int[] sVwgt = new int[cnt];
+        int total = 0;
+        for (int v = 0; v < n; v++) {
+            if (local[v] >= 0) {
+                for (int q = offset[v]; q < offset[v + 1]; q++) {
+                    if (local[adj[q]] >= 0) {
+                        total++;
+                    }
+                }
+            }
+        }
+        int[] sAdj = new int[total];
+        double[] sWeight = new double[total];
+        total = 0;
+        for (int v = 0; v < n; v++) {
+            if (local[v] >= 0) {
+                sOffset[local[v]] = total;
+                sVwgt[local[v]] = vwgt[v];
+                for (int q = offset[v]; q < offset[v + 1]; q++) {
+                    if (local[adj[q]] >= 0) {
+                        sAdj[total] = local[adj[q]];
+                        sWeight[total++] = weight[q];
+                    }
+                }
+            }
+        }
+        sOffset[cnt] = total;
+        return new CsrGraph(sOffset, sAdj, sWeight, sVwgt);
+    }
+}
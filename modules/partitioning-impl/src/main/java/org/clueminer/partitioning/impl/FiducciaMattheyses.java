@@ -0,0 +1,405 @@
+package org.clueminer.partitioning.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import org.clueminer.graph.api.Edge;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.Node;
+import org.clueminer.partitioning.api.Bisection;
+
+/**
+ * Fiduccia-Mattheyses bisection. Unlike Kernighan-Lin single nodes are moved
+ * between partitions, candidates are kept in bucket lists indexed by gain, so
+ * that one pass takes O(edges) time. Partitions are kept balanced, size of
+ * each partition may differ from n/2 by at most given tolerance.
+ *
+ * Weighted gains are quantized to buckets, the exact gains are used for
+ * evaluation of the cut.
+ *
+ * C. M. Fiduccia, R. M. Mattheyses: A Linear-Time Heuristic for Improving
+ * Network Partitions. 19th Design Automation Conference, 1982.
+ *
+ * @author Tomas Barton
+ */
+public class FiducciaMattheyses implements Bisection {
+
+    /**
+     * number of buckets for positive (or negative) weighted gains
+     */
+    private static final int RESOLUTION = 1 << 12;
+    private static final int NIL = -1;
+    private static final double EPS = 1e-9;
+
+    private Graph graph;
+    private Node[] nodes;
+    private int nodeCount;
+    /**
+     * whether the algorithm uses edge weights
+     */
+    private boolean weightedEdges;
+    /**
+     * maximal allowed deviation of a partition size from n/2 (as a fraction of
+     * n)
+     */
+    private double maxImbalance = 0.0;
+    private int maxPasses = 20;
+
+    private CsrGraph csr;
+    private int[] side;
+    private double[] gain;
+    private boolean[] locked;
+    //bucket lists for both sides
+    private int[][] head;
+    private int[] next;
+    private int[] prev;
+    private int[] bucketOf;
+    private int[] maxBucket;
+    /**
+     * nodes in order they were moved during a pass
+     */
+    private int[] moves;
+    private double scale;
+    private int zero;
+    private int minVwgt;
+
+    public FiducciaMattheyses() {
+        this(true);
+    }
+
+    public FiducciaMattheyses(boolean weightedEdges) {
+        this.weightedEdges = weightedEdges;
+    }
+
+    public FiducciaMattheyses(Graph g) {
+        this(g, true);
+    }
+
+    public FiducciaMattheyses(Graph g, boolean weightedEdges) {
+        graph = g;
+        this.weightedEdges = weightedEdges;
+    }
+
+    public boolean isWeightedEdges() {
+        return weightedEdges;
+    }
+
+    public double getMaxImbalance() {
+        return maxImbalance;
+    }
+
+    /**
+     * Allowed deviation of partition size from n/2, at least one node is
+     * always allowed (otherwise no node could be moved).
+     *
+     * @param maxImbalance fraction of the number of nodes
+     */
+    public void setMaxImbalance(double maxImbalance) {
+        this.maxImbalance = maxImbalance;
+    }
+
+    public int getMaxPasses() {
+        return maxPasses;
+    }
+
+    public void setMaxPasses(int maxPasses) {
+        this.maxPasses = maxPasses;
+    }
+
+    @Override
+    public ArrayList<LinkedList<Node>> bisect() {
+        return bisect(graph);
+    }
+
+    @Override
+    public ArrayList<LinkedList<Node>> bisect(Graph g) {
+        graph = g;
+        nodes = g.getNodes().toArray();
+        nodeCount = nodes.length;
+        CsrGraph c = CsrGraph.fromGraph(g, nodes, weightedEdges);
+        int[] part = new int[nodeCount];
+        createInitialPartition(part);
+        int tolerance = Math.max(1, (int) (maxImbalance * nodeCount));
+        refine(c, part, nodeCount / 2 - tolerance, (nodeCount + 1) / 2 + tolerance);
+        return createNodeClusters();
+    }
+
+    /**
+     * Improve given bisection of the graph
+     *
+     * @param c    graph
+     * @param part initial bisection (0 or 1 for each vertex), modified in place
+     * @param lo   minimal weight of vertices in the first partition
+     * @param hi   maximal weight of vertices in the first partition
+     * @return weight of the cut
+     */
+    double refine(CsrGraph c, int[] part, long lo, long hi) {
+        initialize(c, part);
+        if (c.n > 1) {
+            int pass = 0;
+            while (pass++ < maxPasses && pass(lo, hi) > EPS) {
+                //repeat while the cut improves
+            }
+        }
+        return c.cut(part);
+    }
+
+    /**
+     * Allocate structures for bucket lists
+     *
+     * @param c
+     * @param part
+     */
+    private void initialize(CsrGraph c, int[] part) {
+        csr = c;
+        side = part;
+        double maxDegree = 0, deg;
+        boolean integral = true;
+        minVwgt = Integer.MAX_VALUE;
+        for (int i = 0; i < c.n; i++) {
+            minVwgt = Math.min(minVwgt, c.vwgt[i]);
+            deg = 0;
+            for (int p = c.offset[i]; p < c.offset[i + 1]; p++) {
+                deg += Math.abs(c.weight[p]);
+                integral &= c.weight[p] == Math.rint(c.weight[p]);
+            }
+            maxDegree = Math.max(maxDegree, deg);
+        }
+        if (integral && maxDegree <= RESOLUTION) {
+            //gains are integers, buckets are exact
+            zero = (int) maxDegree;
+            scale = 1.0;
+        } else {
+            zero = RESOLUTION;
+            scale = maxDegree > 0 ? RESOLUTION / maxDegree : 1.0;
+        }
+        gain = new double[c.n];
+        locked = new boolean[c.n];
+        head = new int[2][2 * zero + 1];
+        next = new int[c.n];
+        prev = new int[c.n];
+        bucketOf = new int[c.n];
+        maxBucket = new int[2];
+        moves = new int[c.n];
+    }
+
+    /**
+     * Same initial partition as in Kernighan-Lin, first half of the nodes goes
+     * to the first partition
+     */
+    private void createInitialPartition(int[] part) {
+        for (int i = 0; i < nodeCount; i++) {
+            part[i] = i < nodeCount / 2 ? 0 : 1;
+        }
+    }
+
+    /**
+     * Single pass of FM - every node is moved at most once, afterwards moves
+     * are reverted back to the best cut found.
+     *
+     * @param lo minimal weight of the first partition
+     * @param hi maximal weight of the first partition
+     * @return improvement of the cut
+     */
+    private double pass(long lo, long hi) {
+        Arrays.fill(head[0], NIL);
+        Arrays.fill(head[1], NIL);
+        maxBucket[0] = maxBucket[1] = -1;
+        Arrays.fill(locked, false);
+        int n = csr.n;
+        long weight0 = 0;
+        double g;
+        for (int i = 0; i < n; i++) {
+            if (side[i] == 0) {
+                weight0 += csr.vwgt[i];
+            }
+            g = 0;
+            for (int p = csr.offset[i]; p < csr.offset[i + 1]; p++) {
+                g += side[csr.adj[p]] == side[i] ? -csr.weight[p] : csr.weight[p];
+            }
+            gain[i] = g;
+            insert(i);
+        }
+        int moveCount = 0, bestCount = 0;
+        double cumulative = 0, best = 0;
+        int v;
+        while (true) {
+            v = selectMove(weight0, lo, hi);
+            if (v == NIL) {
+                break;
+            }
+            remove(v);
+            locked[v] = true;
+            weight0 += side[v] == 0 ? -csr.vwgt[v] : csr.vwgt[v];
+            side[v] = 1 - side[v];
+            cumulative += gain[v];
+            moves[moveCount++] = v;
+            if (cumulative > best + EPS) {
+                best = cumulative;
+                bestCount = moveCount;
+            }
+            updateNeighbors(v);
+        }
+        //revert moves after the best prefix
+        for (int i = moveCount - 1; i >= bestCount; i--) {
+            side[moves[i]] = 1 - side[moves[i]];
+        }
+        return best;
+    }
+
+    /**
+     * Choose unlocked node with the highest gain whose move keeps the balance
+     *
+     * @param weight0 weight of first partition
+     * @param lo
+     * @param hi
+     * @return index of node or NIL
+     */
+    private int selectMove(long weight0, long lo, long hi) {
+        int a = feasible(0, weight0 - lo);
+        int b = feasible(1, hi - weight0);
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (bucketOf[a] != bucketOf[b]) {
+            return bucketOf[a] > bucketOf[b] ? a : b;
+        }
+        //prefer moving from the heavier partition
+        return 2 * weight0 >= csr.totalVwgt ? a : b;
+    }
+
+    /**
+     * Node with the highest gain on given side which is not heavier than
+     * given limit. Buckets are scanned from the top, with uniform vertex
+     * weights the first node is either feasible or no node is.
+     *
+     * @param s     side
+     * @param limit maximal weight of the node
+     * @return index of node or NIL
+     */
+    private int feasible(int s, long limit) {
+        if (limit < minVwgt || top(s) == NIL) {
+            return NIL;
+        }
+        int v;
+        for (int b = maxBucket[s]; b >= 0; b--) {
+            for (v = head[s][b]; v != NIL; v = next[v]) {
+                if (csr.vwgt[v] <= limit) {
+                    return v;
+                }
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * Node from the highest non-empty bucket of given side
+     *
+     * @param s side
+     * @return
+     */
+    private int top(int s) {
+        while (maxBucket[s] >= 0 && head[s][maxBucket[s]] == NIL) {
+            maxBucket[s]--;
+        }
+        return maxBucket[s] >= 0 ? head[s][maxBucket[s]] : NIL;
+    }
+
+    private void updateNeighbors(int v) {
+        int u;
+        double w;
+        for (int p = csr.offset[v]; p < csr.offset[v + 1]; p++) {
+            u = csr.adj[p];
+            w = csr.weight[p];
+            if (locked[u]) {
+                continue;
+            }
+            //v joined partition of u -> edge is no longer cut
+            if (side[u] == side[v]) {
+                gain[u] -= 2 * w;
+            } else {
+                gain[u] += 2 * w;
+            }
+            remove(u);
+            insert(u);
+        }
+    }
+
+    private int bucket(double g) {
+        int b = (int) Math.round(g * scale) + zero;
+        if (b < 0) {
+            return 0;
+        }
+        return b > 2 * zero ? 2 * zero : b;
+    }
+
+    private void insert(int v) {
+        int s = side[v];
+        int b = bucket(gain[v]);
+        bucketOf[v] = b;
+        prev[v] = NIL;
+        next[v] = head[s][b];
+        if (head[s][b] != NIL) {
+            prev[head[s][b]] = v;
+        }
+        head[s][b] = v;
+        if (b > maxBucket[s]) {
+            maxBucket[s] = b;
+        }
+    }
+
+    private void remove(int v) {
+        int s = side[v];
+        if (prev[v] != NIL) {
+            next[prev[v]] = next[v];
+        } else {
+            head[s][bucketOf[v]] = next[v];
+        }
+        if (next[v] != NIL) {
+            prev[next[v]] = prev[v];
+        }
+    }
+
+    /**
+     * Create clusters of nodes from partition assignment
+     *
+     * @return lists of nodes according to clusters
+     */
+    private ArrayList<LinkedList<Node>> createNodeClusters() {
+        ArrayList<LinkedList<Node>> clusters = new ArrayList<>();
+        clusters.add(new LinkedList<Node>());
+        clusters.add(new LinkedList<Node>());
+        for (int i = 0; i < nodeCount; i++) {
+            clusters.get(side[i]).add(nodes[i]);
+        }
+        return clusters;
+    }
+
+    /**
+     * Sum of weights of edges between partitions
+     *
+     * @return
+     */
+    public double getCutWeight() {
+        return csr.cut(side);
+    }
+
+    @Override
+    public Graph removeUnusedEdges() {
+        for (int i = 0; i < nodeCount; i++) {
+            for (int p = csr.offset[i]; p < csr.offset[i + 1]; p++) {
+                if (csr.adj[p] > i && side[csr.adj[p]] != side[i]) {
+                    Edge e = graph.getEdge(nodes[i], nodes[csr.adj[p]]);
+                    if (e != null) {
+                        graph.removeEdge(e);
+                    }
+                }
+            }
+        }
+        return graph;
+    }
+
+}
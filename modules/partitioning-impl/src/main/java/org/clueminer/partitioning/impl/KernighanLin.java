@@ -46,6 +46,10 @@ public class KernighanLin implements Bisection {
         this.weightedEdges = weightedEdges;
     }
 
+    public boolean isWeightedEdges() {
+        return weightedEdges;
+    }
+
     @Override
     public ArrayList<LinkedList<Node>> bisect() {
         return bisect(graph);
@@ -2,9 +2,11 @@ package org.clueminer.partitioning.impl;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
-import org.clueminer.graph.adjacencyMatrix.AdjMatrixGraph;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import org.clueminer.graph.api.Graph;
 import org.clueminer.graph.api.Node;
+import org.clueminer.partitioning.api.Bisection;
 import org.clueminer.partitioning.api.Partitioning;
 
 /**
@@ -23,12 +25,48 @@ public class KernighanLinRecursive implements Partitioning {
      */
     boolean weightedEdges;
 
+    /**
+     * algorithm used for splitting the graph into halves
+     */
+    Bisection bisection;
+
+    /**
+     * number of threads, independent subgraphs are bisected in parallel
+     */
+    int threads = 1;
+
     public KernighanLinRecursive() {
         this(true);
     }
 
     public KernighanLinRecursive(boolean weightedEdges) {
         this.weightedEdges = weightedEdges;
+        this.bisection = new KernighanLin(weightedEdges);
+    }
+
+    /**
+     *
+     * @param bisection e.g. {@link KernighanLin} or
+     *                  {@link FiducciaMattheyses}
+     */
+    public KernighanLinRecursive(Bisection bisection) {
+        this.weightedEdges = true;
+        this.bisection = bisection;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Parallel partitioning requires bisection which could be copied (see
+     * {@link Bisections#copy(Bisection)}), otherwise graph is partitioned
+     * sequentially. Result doesn't depend on the number of threads.
+     *
+     * @param threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
     }
 
     @Override
@@ -46,8 +84,15 @@ public class KernighanLinRecursive implements Partitioning {
     }
 
     public ArrayList<LinkedList<Node>> recursivePartition(Graph g) {
-        KernighanLin kl = new KernighanLin(g, weightedEdges);
-        ArrayList<LinkedList<Node>> result = kl.bisect(g);
+        if (threads > 1 && Bisections.isCopyable(bisection)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                return pool.invoke(new PartitionTask(g));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        ArrayList<LinkedList<Node>> result = bisection.bisect(g);
         ArrayList<LinkedList<Node>> output = new ArrayList<>();
         for (int i = 0; i <= 1; i++) {
             if (result.get(i).size() <= maxNodesInCluster) {
@@ -60,9 +105,50 @@ public class KernighanLinRecursive implements Partitioning {
         return output;
     }
 
+    /**
+     * Both halves of a bisection are partitioned in parallel, each task uses
+     * its own instance of bisection
+     */
+    private class PartitionTask extends RecursiveTask<ArrayList<LinkedList<Node>>> {
+
+        private static final long serialVersionUID = 3514796513522487311L;
+        private final Graph g;
+
+        public PartitionTask(Graph g) {
+            this.g = g;
+        }
+
+        @Override
+        protected ArrayList<LinkedList<Node>> compute() {
+            ArrayList<LinkedList<Node>> result = Bisections.copy(bisection).bisect(g);
+            PartitionTask[] subtasks = new PartitionTask[2];
+            for (int i = 0; i <= 1; i++) {
+                if (result.get(i).size() > maxNodesInCluster) {
+                    subtasks[i] = new PartitionTask(buildGraphFromCluster(result.get(i), g));
+                }
+            }
+            if (subtasks[1] != null) {
+                subtasks[1].fork();
+            }
+            //keep the same order of partitions as in sequential run
+            ArrayList<LinkedList<Node>> output = new ArrayList<>();
+            if (subtasks[0] != null) {
+                output.addAll(subtasks[0].compute());
+            } else {
+                output.add(result.get(0));
+            }
+            if (subtasks[1] != null) {
+                output.addAll(subtasks[1].join());
+            } else {
+                output.add(result.get(1));
+            }
+            return output;
+        }
+    }
+
     private Graph buildGraphFromCluster(LinkedList<Node> n, Graph g) {
         ArrayList<Node> nodes = new ArrayList<>(n);
-        Graph newGraph = new AdjMatrixGraph(nodes.size());
+        Graph newGraph = g.getFactory().newGraph(nodes.size());
         for (Node node : nodes) {
             newGraph.addNode(node);
         }
@@ -78,7 +164,7 @@ public class KernighanLinRecursive implements Partitioning {
 
     @Override
     public Graph removeUnusedEdges() {
-        Graph g = new AdjMatrixGraph(graph.getNodeCount());
+        Graph g = graph.getFactory().newGraph(graph.getNodeCount());
 
         ArrayList<Node> nodes = (ArrayList<Node>) graph.getNodes().toCollection();
 
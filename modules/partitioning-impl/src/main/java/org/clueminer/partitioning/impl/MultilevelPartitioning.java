@@ -0,0 +1,300 @@
+package org.clueminer.partitioning.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Random;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.Node;
+import org.clueminer.partitioning.api.Partitioning;
+
+/**
+ * Multilevel graph partitioning (in spirit of METIS). Graph is split into k
+ * parts by recursive bisection, each bisection is computed in three phases:
+ * <ol>
+ * <li>coarsening - vertices are collapsed using heavy edge matching until the
+ * graph is small</li>
+ * <li>initial partitioning - the coarsest graph is bisected by greedy graph
+ * growing</li>
+ * <li>uncoarsening - partition is projected back to finer graphs and refined
+ * by Fiduccia-Mattheyses on each level</li>
+ * </ol>
+ * Time complexity is O(m log k) for a graph with m edges.
+ *
+ * G. Karypis, V. Kumar: A Fast and High Quality Multilevel Scheme for
+ * Partitioning Irregular Graphs. SIAM Journal on Scientific Computing, 1998.
+ *
+ * @author Tomas Barton
+ */
+public class MultilevelPartitioning implements Partitioning {
+
+    /**
+     * coarsening stops when the graph has fewer vertices
+     */
+    private static final int COARSEST = 100;
+    /**
+     * number of initial bisections of the coarsest graph
+     */
+    private static final int TRIALS = 4;
+
+    private Graph graph;
+    private Node[] nodes;
+    private int[] part;
+    private Random rand;
+    private long seed = 1;
+    /**
+     * whether the algorithm uses edge weights
+     */
+    private boolean weightedEdges;
+    /**
+     * maximal allowed deviation of a part's weight from its target weight (as
+     * a fraction of the target)
+     */
+    private double maxImbalance = 0.05;
+    private final FiducciaMattheyses fm;
+
+    public MultilevelPartitioning() {
+        this(true);
+    }
+
+    public MultilevelPartitioning(boolean weightedEdges) {
+        this.weightedEdges = weightedEdges;
+        fm = new FiducciaMattheyses(weightedEdges);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public double getMaxImbalance() {
+        return maxImbalance;
+    }
+
+    public void setMaxImbalance(double maxImbalance) {
+        this.maxImbalance = maxImbalance;
+    }
+
+    /**
+     * Partition the graph
+     *
+     * @param k number of partitions
+     * @param g graph to partition
+     * @return non-empty partitions (fewer than k when graph has less than k
+     *         nodes)
+     */
+    @Override
+    public ArrayList<LinkedList<Node>> partition(int k, Graph g) {
+        if (k < 1) {
+            throw new IllegalArgumentException("number of partitions must be positive, got " + k);
+        }
+        graph = g;
+        nodes = g.getNodes().toArray();
+        rand = new Random(seed);
+        part = new int[nodes.length];
+        CsrGraph csr = CsrGraph.fromGraph(g, nodes, weightedEdges);
+        int[] ids = new int[nodes.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        recursiveBisection(csr, ids, k, 0);
+
+        ArrayList<LinkedList<Node>> clusters = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            clusters.add(new LinkedList<Node>());
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            clusters.get(part[i]).add(nodes[i]);
+        }
+        ArrayList<LinkedList<Node>> result = new ArrayList<>(k);
+        for (LinkedList<Node> cluster : clusters) {
+            if (!cluster.isEmpty()) {
+                result.add(cluster);
+            }
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @param g     (sub)graph
+     * @param ids   index of original node for each vertex
+     * @param k     number of parts
+     * @param first ID of the first part
+     */
+    private void recursiveBisection(CsrGraph g, int[] ids, int k, int first) {
+        if (k == 1) {
+            for (int id : ids) {
+                part[id] = first;
+            }
+            return;
+        }
+        if (k >= g.n) {
+            //single vertex in each part
+            for (int v = 0; v < g.n; v++) {
+                part[ids[v]] = first + v;
+            }
+            return;
+        }
+        int k0 = k / 2;
+        int[] side = bisect(g, (double) k0 / k);
+        int[] local = new int[g.n];
+        for (int s = 0; s < 2; s++) {
+            CsrGraph sub = g.subgraph(side, s, local);
+            int[] subIds = new int[sub.n];
+            for (int v = 0; v < g.n; v++) {
+                if (local[v] >= 0) {
+                    subIds[local[v]] = ids[v];
+                }
+            }
+            if (s == 0) {
+                recursiveBisection(sub, subIds, k0, first);
+            } else {
+                recursiveBisection(sub, subIds, k - k0, first + k0);
+            }
+        }
+    }
+
+    /**
+     * Multilevel bisection
+     *
+     * @param g
+     * @param fraction target fraction of vertex weight in the first part
+     * @return side of each vertex
+     */
+    int[] bisect(CsrGraph g, double fraction) {
+        //coarsening
+        ArrayList<CsrGraph> levels = new ArrayList<>();
+        ArrayList<int[]> maps = new ArrayList<>();
+        levels.add(g);
+        CsrGraph curr = g;
+        int maxVwgt = (int) Math.max(1, 1.5 * g.totalVwgt / COARSEST);
+        while (curr.n > COARSEST) {
+            int[] cmap = new int[curr.n];
+            int coarse = curr.match(rand, maxVwgt, cmap);
+            if (coarse > 0.95 * curr.n) {
+                //matching doesn't reduce the graph anymore
+                break;
+            }
+            curr = curr.contract(cmap, coarse);
+            levels.add(curr);
+            maps.add(cmap);
+        }
+        //initial partitioning
+        int[] side = initialBisection(curr, fraction);
+        //uncoarsening
+        for (int l = levels.size() - 2; l >= 0; l--) {
+            int[] cmap = maps.get(l);
+            CsrGraph fine = levels.get(l);
+            int[] fineSide = new int[fine.n];
+            for (int v = 0; v < fine.n; v++) {
+                fineSide[v] = side[cmap[v]];
+            }
+            side = fineSide;
+            refine(fine, side, fraction);
+        }
+        return side;
+    }
+
+    /**
+     * Greedy graph growing from random vertices, the best refined bisection is
+     * kept
+     *
+     * @param g
+     * @param fraction
+     * @return
+     */
+    private int[] initialBisection(CsrGraph g, double fraction) {
+        int[] best = null;
+        double bestCut = Double.POSITIVE_INFINITY, cut;
+        for (int t = 0; t < TRIALS; t++) {
+            int[] side = grow(g, rand.nextInt(g.n), fraction);
+            cut = refine(g, side, fraction);
+            if (cut < bestCut) {
+                bestCut = cut;
+                best = side;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Breadth first search from seed, visited vertices form the first part
+     * until it reaches target weight
+     *
+     * @param g
+     * @param seed
+     * @param fraction
+     * @return
+     */
+    private int[] grow(CsrGraph g, int seed, double fraction) {
+        int[] side = new int[g.n];
+        Arrays.fill(side, 1);
+        boolean[] visited = new boolean[g.n];
+        long target = Math.round(fraction * g.totalVwgt);
+        long weight0 = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int next = 0, v;
+        queue.add(seed);
+        visited[seed] = true;
+        while (weight0 < target) {
+            if (queue.isEmpty()) {
+                //disconnected graph, continue from an unvisited vertex
+                while (visited[next]) {
+                    next++;
+                }
+                visited[next] = true;
+                queue.add(next);
+            }
+            v = queue.poll();
+            side[v] = 0;
+            weight0 += g.vwgt[v];
+            for (int p = g.offset[v]; p < g.offset[v + 1]; p++) {
+                if (!visited[g.adj[p]]) {
+                    visited[g.adj[p]] = true;
+                    queue.add(g.adj[p]);
+                }
+            }
+        }
+        return side;
+    }
+
+    private double refine(CsrGraph g, int[] side, double fraction) {
+        double target = fraction * g.totalVwgt;
+        int heaviest = 0;
+        for (int w : g.vwgt) {
+            heaviest = Math.max(heaviest, w);
+        }
+        //tolerance must allow moving of at least one vertex
+        long tolerance = Math.max(heaviest, (long) (maxImbalance * Math.min(target, g.totalVwgt - target)));
+        return fm.refine(g, side, (long) Math.floor(target) - tolerance, (long) Math.ceil(target) + tolerance);
+    }
+
+    /**
+     * Graph without edges between partitions, the original graph is not
+     * modified
+     *
+     * @return
+     */
+    @Override
+    public Graph removeUnusedEdges() {
+        Graph g = graph.getFactory().newGraph(nodes.length);
+        for (Node node : nodes) {
+            g.addNode(node);
+        }
+        CsrGraph csr = CsrGraph.fromGraph(graph, nodes, false);
+        for (int i = 0; i < nodes.length; i++) {
+            for (int p = csr.offset[i]; p < csr.offset[i + 1]; p++) {
+                if (csr.adj[p] > i && part[csr.adj[p]] == part[i]) {
+                    g.addEdge(graph.getEdge(nodes[i], nodes[csr.adj[p]]));
+                }
+            }
+        }
+        return g;
+    }
+
+}
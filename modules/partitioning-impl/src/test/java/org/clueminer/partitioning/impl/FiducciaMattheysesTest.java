@@ -0,0 +1,134 @@
+package org.clueminer.partitioning.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import org.clueminer.graph.adjacencyList.AdjListFactory;
+import org.clueminer.graph.adjacencyList.AdjListGraph;
+import org.clueminer.graph.adjacencyMatrix.AdjMatrixFactory;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.GraphFactory;
+import org.clueminer.graph.api.Node;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class FiducciaMattheysesTest {
+
+    private static final double delta = 1e-9;
+
+    /**
+     * Two cliques connected by a single weak edge, nodes of the cliques are
+     * interleaved (initial partition cuts both cliques)
+     *
+     * @param f
+     * @param size size of a clique
+     * @return
+     */
+    private Graph twoCliques(GraphFactory f, int size) {
+        int n = 2 * size;
+        Graph g = f.newGraph(n);
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = f.newNode();
+            g.addNode(nodes[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 2; j < n; j += 2) {
+                g.addEdge(f.newEdge(nodes[i], nodes[j], 1, 1.0, false));
+            }
+        }
+        g.addEdge(f.newEdge(nodes[0], nodes[1], 1, 0.1, false));
+        return g;
+    }
+
+    private void assertCliquesSeparated(Graph g, ArrayList<LinkedList<Node>> res, int size) {
+        assertEquals(2, res.size());
+        assertEquals(size, res.get(0).size());
+        assertEquals(size, res.get(1).size());
+        for (LinkedList<Node> part : res) {
+            int parity = g.getIndex(part.getFirst()) % 2;
+            for (Node node : part) {
+                assertEquals(parity, g.getIndex(node) % 2);
+            }
+        }
+    }
+
+    @Test
+    public void testTwoCliques() {
+        Graph g = twoCliques(AdjListFactory.getInstance(), 10);
+        FiducciaMattheyses fm = new FiducciaMattheyses();
+        ArrayList<LinkedList<Node>> res = fm.bisect(g);
+        assertCliquesSeparated(g, res, 10);
+        assertEquals(0.1, fm.getCutWeight(), delta);
+
+        //KL finds the same partitioning
+        KernighanLin kl = new KernighanLin();
+        assertCliquesSeparated(g, kl.bisect(g), 10);
+    }
+
+    @Test
+    public void testUnweighted() {
+        Graph g = twoCliques(AdjMatrixFactory.getInstance(), 6);
+        FiducciaMattheyses fm = new FiducciaMattheyses(g, false);
+        assertCliquesSeparated(g, fm.bisect(), 6);
+        assertEquals(1.0, fm.getCutWeight(), delta);
+    }
+
+    @Test
+    public void testRemoveUnusedEdges() {
+        AdjListGraph g = (AdjListGraph) twoCliques(AdjListFactory.getInstance(), 5);
+        FiducciaMattheyses fm = new FiducciaMattheyses(g);
+        fm.bisect();
+        int edges = g.getEdgeCount();
+        fm.removeUnusedEdges();
+        assertEquals(edges - 1, g.getEdgeCount());
+        FloodFill ff = new FloodFill();
+        assertEquals(2, ff.findSubgraphs(g).size());
+    }
+
+    @Test
+    public void testBalance() {
+        //path graph, the best cut is in the middle
+        GraphFactory f = AdjListFactory.getInstance();
+        int n = 21;
+        Graph g = f.newGraph(n);
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = f.newNode();
+            g.addNode(nodes[i]);
+        }
+        for (int i = 1; i < n; i++) {
+            g.addEdge(f.newEdge(nodes[i - 1], nodes[i], 1, i == 3 ? 0.01 : 1.0, false));
+        }
+        FiducciaMattheyses fm = new FiducciaMattheyses(g);
+        ArrayList<LinkedList<Node>> res = fm.bisect();
+        assertTrue(Math.abs(res.get(0).size() - res.get(1).size()) <= 3);
+        assertEquals(1.0, fm.getCutWeight(), delta);
+
+        //weak edge is allowed to be cut when partitions are very unbalanced
+        fm.setMaxImbalance(0.4);
+        res = fm.bisect();
+        assertEquals(0.01, fm.getCutWeight(), delta);
+        assertEquals(n, res.get(0).size() + res.get(1).size());
+    }
+
+    @Test
+    public void testHeavyTopNodes() {
+        //nodes with the highest gains are too heavy to be moved, lighter
+        //nodes with lower gains have to be found in the buckets
+        int[] offset = new int[]{0, 2, 4, 5, 7, 9, 10};
+        int[] adj = new int[]{4, 3, 4, 5, 3, 0, 2, 0, 1, 1};
+        double[] weight = new double[]{12, 5, 5, 5, 5, 5, 5, 12, 5, 5};
+        int[] vwgt = new int[]{10, 1, 10, 1, 10, 10};
+        CsrGraph c = new CsrGraph(offset, adj, weight, vwgt);
+        int[] part = new int[]{0, 0, 0, 1, 1, 1};
+        assertEquals(32.0, c.cut(part), delta);
+        FiducciaMattheyses fm = new FiducciaMattheyses();
+        assertEquals(12.0, fm.refine(c, part, 20, 22), delta);
+        assertArrayEquals(new int[]{0, 1, 0, 0, 1, 1}, part);
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.clueminer.partitioning.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Random;
+import org.clueminer.graph.adjacencyList.AdjListFactory;
+import org.clueminer.graph.api.Graph;
+import org.clueminer.graph.api.GraphFactory;
+import org.clueminer.graph.api.Node;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author deric
+ */
+public class MultilevelPartitioningTest {
+
+    private Node[] nodes;
+
+    private Graph grid(int width, int height) {
+        GraphFactory f = AdjListFactory.getInstance();
+        Graph g = f.newGraph(width * height);
+        nodes = new Node[width * height];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = f.newNode();
+            g.addNode(nodes[i]);
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (x + 1 < width) {
+                    g.addEdge(f.newEdge(nodes[y * width + x], nodes[y * width + x + 1], 1, 1.0, false));
+                }
+                if (y + 1 < height) {
+                    g.addEdge(f.newEdge(nodes[y * width + x], nodes[(y + 1) * width + x], 1, 1.0, false));
+                }
+            }
+        }
+        return g;
+    }
+
+    private int cut(Graph g, ArrayList<LinkedList<Node>> parts) {
+        int[] part = new int[g.getNodeCount()];
+        for (int p = 0; p < parts.size(); p++) {
+            for (Node n : parts.get(p)) {
+                part[g.getIndex(n)] = p;
+            }
+        }
+        int cut = 0;
+        for (Node n : nodes) {
+            for (Node m : g.getNeighbors(n)) {
+                if (part[g.getIndex(n)] != part[g.getIndex(m)]) {
+                    cut++;
+                }
+            }
+        }
+        return cut / 2;
+    }
+
+    @Test
+    public void testGrid() {
+        Graph g = grid(40, 40);
+        MultilevelPartitioning subject = new MultilevelPartitioning();
+        ArrayList<LinkedList<Node>> parts = subject.partition(4, g);
+        assertEquals(4, parts.size());
+        HashSet<Node> all = new HashSet<>();
+        for (LinkedList<Node> p : parts) {
+            //5% imbalance
+            assertTrue(p.size() >= 380 && p.size() <= 420);
+            all.addAll(p);
+        }
+        assertEquals(1600, all.size());
+        //optimal cut is 80 edges, initial split by indexes would cut 120
+        assertTrue(cut(g, parts) <= 100);
+    }
+
+    @Test
+    public void testUnevenNumberOfParts() {
+        Graph g = grid(30, 10);
+        MultilevelPartitioning subject = new MultilevelPartitioning(false);
+        ArrayList<LinkedList<Node>> parts = subject.partition(3, g);
+        assertEquals(3, parts.size());
+        for (LinkedList<Node> p : parts) {
+            assertTrue(p.size() >= 95 && p.size() <= 105);
+        }
+        assertTrue(cut(g, parts) <= 25);
+
+        //more parts than nodes
+        parts = subject.partition(500, g);
+        assertEquals(300, parts.size());
+    }
+
+    @Test
+    public void testClusters() {
+        //5 dense random clusters, sparsely interconnected
+        GraphFactory f = AdjListFactory.getInstance();
+        int k = 5, size = 60;
+        Graph g = f.newGraph(k * size);
+        nodes = new Node[k * size];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = f.newNode();
+            g.addNode(nodes[i]);
+        }
+        Random rand = new Random(42);
+        for (int i = 0; i < nodes.length; i++) {
+            for (int e = 0; e < 6; e++) {
+                int j = (i / size) * size + rand.nextInt(size);
+                if (i != j) {
+                    g.addEdge(f.newEdge(nodes[i], nodes[j], 1, 1.0, false));
+                }
+            }
+        }
+        for (int c = 0; c < k; c++) {
+            g.addEdge(f.newEdge(nodes[c * size], nodes[((c + 1) % k) * size + 1], 1, 0.1, false));
+        }
+        MultilevelPartitioning subject = new MultilevelPartitioning();
+        ArrayList<LinkedList<Node>> parts = subject.partition(k, g);
+        assertEquals(k, parts.size());
+        for (LinkedList<Node> p : parts) {
+            int cluster = g.getIndex(p.getFirst()) / size;
+            for (Node n : p) {
+                assertEquals(cluster, g.getIndex(n) / size);
+            }
+        }
+        Graph clustered = subject.removeUnusedEdges();
+        assertEquals(nodes.length, clustered.getNodeCount());
+        assertEquals(g.getEdgeCount() - k, clustered.getEdgeCount());
+    }
+
+}